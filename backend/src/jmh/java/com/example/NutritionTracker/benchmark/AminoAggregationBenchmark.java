@@ -0,0 +1,93 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.service.AminoProfileService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AminoProfileService#calculateAminoAcidCoverageForLatestLog()} against H2 over logs of growing size,
+ * summed in the JVM from the loaded food items and profiles ({@code jvm}) and by the database ({@code database}).
+ * The second-level cache is off, so that both strategies read the log entries from the database on every call;
+ * the cached path is measured by {@link SecondLevelCacheBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class AminoAggregationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int itemCount;
+
+    @Param({"jvm", "database"})
+    private String aggregation;
+
+    private ConfigurableApplicationContext context;
+    private AminoProfileService aminoProfileService;
+
+    @Setup
+    public void setUp() {
+        // Without a query cache, H2 cannot hand back the previous result of an unchanged query
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:amino_aggregation;MODE=PostgreSQL;QUERY_CACHE_SIZE=0",
+                        "--nutrition.amino.aggregation=" + aggregation,
+                        "--nutrition.second-level-cache=false",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "--spring.jpa.properties.hibernate.order_inserts=true");
+        aminoProfileService = context.getBean(AminoProfileService.class);
+
+        // A log for tomorrow becomes the latest one; it holds one entry per food item, so every entry gets its own
+        User user = context.getBean(NutritionLogService.class).getLatestNutritionLogEntity().orElseThrow().getUser();
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            NutritionLog nutritionLog = NutritionLog.builder().user(user).logDate(LocalDate.now().plusDays(1)).build();
+            Random random = new Random(42);
+            for (int i = 0; i < itemCount; i++) {
+                Map<String, Double> profile = new HashMap<>();
+                for (AminoAcid aminoAcid : AminoAcid.values()) {
+                    profile.put(aminoAcid.getDisplayName(), random.nextInt(3000) / 1000.0);
+                }
+                FoodItem food = FoodItem.builder().name("Aggregation Food " + i).aminoAcidProfile(profile).build();
+                entityManager.persist(food);
+                long amount = 10_000 + random.nextInt(290_000);
+                nutritionLog.getFoodItems().add(new NutritionLogFoodItem(nutritionLog, food, amount));
+                nutritionLog.getAminoAcidTotals().addFood(food, amount);
+            }
+            entityManager.persist(nutritionLog);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AminoVector coverage() {
+        return aminoProfileService.calculateAminoAcidCoverageForLatestLog();
+    }
+}
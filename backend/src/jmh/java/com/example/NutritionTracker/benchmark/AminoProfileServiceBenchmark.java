@@ -0,0 +1,58 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
+import com.example.NutritionTracker.decorator.ProfileAminoAcidChains;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.service.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link AminoProfileService#calculateAminoAcidCoverageForLatestLog()} over logs of growing size,
+ * with the running totals and with the in-memory sum strategy. Repositories are in-memory stubs,
+ * so the database strategy is compared with the in-memory one against H2 by {@link AminoAggregationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class AminoProfileServiceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int itemCount;
+
+    @Param({"totals", "jvm"})
+    private String aggregation;
+
+    private AminoProfileService aminoProfileService;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        NutritionLog nutritionLog = BenchmarkFixtures.nutritionLog(user, itemCount);
+        var nutritionLogRepository = BenchmarkFixtures.nutritionLogRepository(nutritionLog);
+        var userRepository = BenchmarkFixtures.userRepository(user);
+
+        DailyAminoAcidCalculator daily = new DailyAminoAcidCalculator();
+        AminoAcidRequirementCache requirementCache = new AminoAcidRequirementCache(
+                BenchmarkFixtures.requirementRepository(BenchmarkFixtures.requirements(10)));
+        AminoSumStrategy strategy = switch (aggregation) {
+            case "totals" -> new TotalsAminoSumStrategy();
+            case "jvm" -> new InMemoryAminoSumStrategy(nutritionLogRepository);
+            default -> throw new IllegalArgumentException("Unknown aggregation: " + aggregation);
+        };
+        aminoProfileService = new AminoProfileService(daily, requirementCache, new ProfileAminoAcidChains(daily), nutritionLogRepository,
+                new UserDataService(userRepository, new CurrentUserResolver(userRepository)), strategy, null, null,
+                new SingleFlight(true), BenchmarkFixtures.transactionManager());
+    }
+
+    @Benchmark
+    public AminoVector coverage() {
+        return aminoProfileService.calculateAminoAcidCoverageForLatestLog();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.entity.*;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogVersionView;
+import com.example.NutritionTracker.repo.UserRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Test data and in-memory repository stubs shared by the benchmarks.
+ * The repositories are dynamic proxies, so that only the methods used on the benchmarked paths
+ * need an implementation and no database is involved.
+ */
+final class BenchmarkFixtures {
+
+    /** Base requirements per kg, as loaded by the DevDataLoader. */
+    private static final double[] BASE_AMOUNTS_PER_KG = {30.0, 39.0, 20.0, 26.0, 15.0, 25.0, 15.0, 4.0, 10.0, 35.0};
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark User")
+                .weight(70.0)
+                .isAthlete(true)
+                .isVegan(true)
+                .isLongevityFocused(true)
+                .build();
+    }
+
+    /**
+     * Creates {@code count} requirements, cycling through the known amino acids.
+     */
+    static List<AminoAcidRequirement> requirements(int count) {
+        List<AminoAcidRequirement> requirements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i % AminoAcid.COUNT;
+            requirements.add(new AminoAcidRequirement(AminoAcid.byIndex(index).getDisplayName(), BASE_AMOUNTS_PER_KG[index]));
+        }
+        return requirements;
+    }
+
+    /**
+     * Creates a log with {@code itemCount} entries over a catalog of 10 food items,
+     * with running totals matching the entries.
+     */
+    static NutritionLog nutritionLog(User user, int itemCount) {
+        List<FoodItem> catalog = new ArrayList<>();
+        Random random = new Random(42);
+        for (int f = 0; f < 10; f++) {
+            Map<String, Double> profile = new HashMap<>();
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                profile.put(aminoAcid.getDisplayName(), Math.round(random.nextDouble() * 30) / 10.0);
+            }
+            catalog.add(FoodItem.builder().id(UUID.randomUUID()).name("Food " + f).aminoAcidProfile(profile).build());
+        }
+
+        NutritionLog nutritionLog = NutritionLog.builder().id(UUID.randomUUID()).user(user).build();
+        for (int i = 0; i < itemCount; i++) {
+            FoodItem food = catalog.get(i % catalog.size());
+            nutritionLog.getFoodItems().add(NutritionLogFoodItem.builder()
+                    .id(UUID.randomUUID()).nutritionLog(nutritionLog).foodItem(food).build());
+            nutritionLog.getAminoAcidTotals().addFood(food);
+        }
+        return nutritionLog;
+    }
+
+    /**
+     * Creates {@code count} food names of the form "brand food attribute", e.g. "Tamobe Kichererbsen geröstet".
+     * The brands are random syllable compounds, so there are about as many distinct words as food items.
+     */
+    static List<FoodItemDTO> foodCatalog(int count) {
+        String[] foods = {"Kichererbsen", "Erbsen", "Linsen", "Sojabohnen", "Kidneybohnen", "Haferflocken",
+                "Dinkelflocken", "Quinoa", "Amaranth", "Hanfsamen", "Chiasamen", "Leinsamen", "Sonnenblumenkerne",
+                "Kürbiskerne", "Walnüsse", "Haselnüsse", "Mandeln", "Erdnüsse", "Cashewkerne", "Käse", "Frischkäse",
+                "Räuchertofu", "Seitan", "Tempeh", "Vollkornbrot", "Weißkohl", "Grünkohl", "Brokkoli", "Spinat",
+                "Süßkartoffeln", "Kartoffeln", "Naturreis", "Buchweizen", "Hirse", "Gerstengraupen", "Joghurt"};
+        String[] attributes = {"bio", "geröstet", "gekocht", "roh", "fein", "grob", "gesalzen", "ungesalzen",
+                "gemahlen", "getrocknet", "eingeweicht", "natur", "gerieben", "geräuchert", "zart", "kernig"};
+        String[] syllables = {"ta", "mo", "be", "ri", "ka", "lu", "ne", "so", "pi", "da", "gu", "fe", "lo", "mi",
+                "ru", "sa", "ve", "ko", "ni", "bu", "ze", "ho", "wa", "ti", "de", "ma", "po", "li", "ke", "na"};
+        Random random = new Random(42);
+        List<FoodItemDTO> catalog = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder brand = new StringBuilder();
+            for (int s = 3 + random.nextInt(2); s > 0; s--) {
+                brand.append(syllables[random.nextInt(syllables.length)]);
+            }
+            brand.setCharAt(0, Character.toUpperCase(brand.charAt(0)));
+            String name = brand + " " + foods[random.nextInt(foods.length)] + " " + attributes[random.nextInt(attributes.length)];
+            catalog.add(new FoodItemDTO(new UUID(random.nextLong(), random.nextLong()), name));
+        }
+        return catalog;
+    }
+
+    static FoodItemRepository foodItemRepository(List<FoodItemDTO> catalog) {
+        return stub(FoodItemRepository.class, Map.of("streamAllOrderedByName", catalog.stream()));
+    }
+
+    /** A transaction manager without resources, for services that open their own transactions. */
+    static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    static AminoAcidRequirementRepository requirementRepository(List<AminoAcidRequirement> requirements) {
+        return stub(AminoAcidRequirementRepository.class, Map.of("findAll", requirements));
+    }
+
+    static NutritionLogRepository nutritionLogRepository(NutritionLog nutritionLog) {
+        NutritionLogVersionView version = new NutritionLogVersionView() {
+            @Override
+            public UUID getId() {
+                return nutritionLog.getId();
+            }
+
+            @Override
+            public Long getVersion() {
+                return nutritionLog.getVersion();
+            }
+
+            @Override
+            public long getRevision() {
+                return nutritionLog.getRevision();
+            }
+        };
+        return stub(NutritionLogRepository.class, Map.of(
+                "findFirstByOrderByLogDateDescIdDesc", Optional.of(nutritionLog),
+                "findFirstByOrderByLogDateDescIdDesc/1", Optional.of(version),
+                "findWithFoodItemsById", Optional.of(nutritionLog)));
+    }
+
+    static UserRepository userRepository(User user) {
+        return stub(UserRepository.class, Map.of("findFirstByOrderByIdAsc", Optional.of(user), "findById", Optional.of(user)));
+    }
+
+    /**
+     * Stubs the given methods by name; overloads are told apart by appending their number of parameters,
+     * e.g. {@code "findFirstByOrderByLogDateDescIdDesc/1"}.
+     */
+    private static <T> T stub(Class<T> type, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            String overload = method.getName() + "/" + method.getParameterCount();
+            if (results.containsKey(overload)) {
+                return results.get(overload);
+            }
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+        });
+        return type.cast(proxy);
+    }
+}
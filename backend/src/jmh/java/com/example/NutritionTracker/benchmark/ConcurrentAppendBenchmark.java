@@ -0,0 +1,124 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.NutritionLogCreateDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.AminoTotalsConsistencyService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.UserDataService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Measures {@value #REQUESTS} parallel additions to one log, as sent by the food selection of the frontend,
+ * each on its own thread. With 50 food items every one is added twice at the same time.
+ * After every run the log must contain each food item exactly once and its totals must match the entries;
+ * otherwise the benchmark fails.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ConcurrentAppendBenchmark {
+
+    private static final int REQUESTS = 100;
+
+    @Param({"100", "50"})
+    private int foodItems;
+
+    private ConfigurableApplicationContext context;
+    private NutritionLogService nutritionLogService;
+    private NutritionLogRepository nutritionLogRepository;
+    private AminoTotalsConsistencyService aminoTotalsConsistencyService;
+    private ExecutorService executor;
+    private List<UUID> foodItemIds;
+    private UUID userId;
+    private UUID logId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:concurrent_append;MODE=PostgreSQL",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--spring.jpa.properties.hibernate.show_sql=false");
+        nutritionLogService = context.getBean(NutritionLogService.class);
+        nutritionLogRepository = context.getBean(NutritionLogRepository.class);
+        aminoTotalsConsistencyService = context.getBean(AminoTotalsConsistencyService.class);
+        userId = context.getBean(UserDataService.class).getUser().orElseThrow().getId();
+
+        Random random = new Random(42);
+        List<FoodItem> catalog = new ArrayList<>();
+        for (int f = 0; f < foodItems; f++) {
+            Map<String, Double> profile = new HashMap<>();
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                profile.put(aminoAcid.getDisplayName(), random.nextInt(3000) / 1000.0);
+            }
+            catalog.add(FoodItem.builder().name("Append Food " + f).aminoAcidProfile(profile).build());
+        }
+        foodItemIds = context.getBean(FoodItemRepository.class).saveAll(catalog).stream().map(FoodItem::getId).toList();
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @Setup(Level.Invocation)
+    public void createLog() {
+        // Replaces the log of the previous run, which is of the same day
+        NutritionLog nutritionLog = nutritionLogService.createLogFromFrontend(new NutritionLogCreateDTO(userId, LocalDate.now()));
+        logId = nutritionLog.getId();
+    }
+
+    @TearDown(Level.Invocation)
+    public void verifyLog() {
+        NutritionLog nutritionLog = nutritionLogRepository.findWithFoodItemsById(logId).orElseThrow();
+        Set<UUID> logged = new HashSet<>();
+        nutritionLog.getFoodItems().forEach(entry -> logged.add(entry.getFoodItem().getId()));
+        if (nutritionLog.getFoodItems().size() != foodItems || !logged.containsAll(foodItemIds)
+                || nutritionLog.getAminoAcidTotals().getItemCount() != foodItems) {
+            throw new IllegalStateException("Expected " + foodItems + " entries, found " + nutritionLog.getFoodItems().size()
+                    + " for " + logged.size() + " food items and an item count of " + nutritionLog.getAminoAcidTotals().getItemCount());
+        }
+        if (!aminoTotalsConsistencyService.verifyTotals(false).isEmpty()) {
+            throw new IllegalStateException("The totals of the log do not match its entries");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        nutritionLogRepository.deleteAll();
+        context.close();
+    }
+
+    @Benchmark
+    public Object parallelAdds() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            UUID foodItemId = foodItemIds.get(i % foodItems);
+            results.add(executor.submit(() -> {
+                start.await();
+                nutritionLogService.addFoodItemToLog(logId, foodItemId, 100);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            // Fails the benchmark with the first failed request
+            result.get();
+        }
+        return results;
+    }
+}
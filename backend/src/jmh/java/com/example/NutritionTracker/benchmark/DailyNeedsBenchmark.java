@@ -0,0 +1,48 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DailyAminoAcidCalculator#calculateDailyNeeds(AminoVector, UserDTO)} for varying numbers of
+ * requirement rows, both from the warm requirement cache and with a reload on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class DailyNeedsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int requirementCount;
+
+    private AminoAcidRequirementCache cache;
+    private DailyAminoAcidCalculator calculator;
+    private UserDTO user;
+
+    @Setup
+    public void setUp() {
+        cache = new AminoAcidRequirementCache(
+                BenchmarkFixtures.requirementRepository(BenchmarkFixtures.requirements(requirementCount)));
+        calculator = new DailyAminoAcidCalculator();
+        user = UserDTO.builder().weight(70.0).build();
+    }
+
+    @Benchmark
+    public AminoVector cached() {
+        return calculator.calculateDailyNeeds(cache.getRequirementsPerKg(), user);
+    }
+
+    @Benchmark
+    public AminoVector reloadEachCall() {
+        cache.invalidate();
+        return calculator.calculateDailyNeeds(cache.getRequirementsPerKg(), user);
+    }
+}
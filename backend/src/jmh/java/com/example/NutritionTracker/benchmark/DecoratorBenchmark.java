@@ -0,0 +1,46 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.decorator.*;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single decorator on top of the base daily needs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class DecoratorBenchmark {
+
+    @Param({"athlete", "vegan", "longevity"})
+    private String decorator;
+
+    private AminoAcidCalculator calculator;
+    private AminoVector dailyNeeds;
+
+    @Setup
+    public void setUp() {
+        DailyAminoAcidCalculator daily = new DailyAminoAcidCalculator();
+        AminoVector requirementsPerKg = new AminoAcidRequirementCache(
+                BenchmarkFixtures.requirementRepository(BenchmarkFixtures.requirements(10))).getRequirementsPerKg();
+        dailyNeeds = daily.calculateDailyNeeds(requirementsPerKg, UserDTO.builder().weight(70.0).build());
+        calculator = switch (decorator) {
+            case "athlete" -> new AthleteAminoAcidDecorator(daily);
+            case "vegan" -> new VeganAminoAcidDecorator(daily);
+            case "longevity" -> new LongevityAminoAcidDecorator(daily);
+            default -> throw new IllegalArgumentException("Unknown decorator: " + decorator);
+        };
+    }
+
+    @Benchmark
+    public AminoVector calculateAminoAcids() {
+        return calculator.calculateAminoAcids(dailyNeeds);
+    }
+}
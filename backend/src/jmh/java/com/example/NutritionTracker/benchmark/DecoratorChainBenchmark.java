@@ -0,0 +1,46 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.decorator.*;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full athlete + vegan + longevity chain, once as stacked decorators
+ * and once precompiled as used by {@link ProfileAminoAcidChains}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class DecoratorChainBenchmark {
+
+    private AminoAcidCalculator stackedChain;
+    private CompiledAminoAcidChain compiledChain;
+    private AminoVector dailyNeeds;
+
+    @Setup
+    public void setUp() {
+        DailyAminoAcidCalculator daily = new DailyAminoAcidCalculator();
+        AminoVector requirementsPerKg = new AminoAcidRequirementCache(
+                BenchmarkFixtures.requirementRepository(BenchmarkFixtures.requirements(10))).getRequirementsPerKg();
+        dailyNeeds = daily.calculateDailyNeeds(requirementsPerKg, UserDTO.builder().weight(70.0).build());
+        stackedChain = new LongevityAminoAcidDecorator(new VeganAminoAcidDecorator(new AthleteAminoAcidDecorator(daily)));
+        compiledChain = new ProfileAminoAcidChains(daily).forProfile(true, true, true);
+    }
+
+    @Benchmark
+    public AminoVector stacked() {
+        return stackedChain.calculateAminoAcids(dailyNeeds);
+    }
+
+    @Benchmark
+    public AminoVector compiled() {
+        return compiledChain.apply(dailyNeeds);
+    }
+}
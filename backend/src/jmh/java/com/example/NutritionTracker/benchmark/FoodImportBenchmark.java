@@ -0,0 +1,98 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.importer.FoodImportFormat;
+import com.example.NutritionTracker.repo.FoodImportCheckpointRepository;
+import com.example.NutritionTracker.service.FoodImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CSV food import into H2: one run imports {@value #ROWS} rows with all ten amino acids
+ * in chunks of 1,000 rows, without JDBC batching and with batches of 100 inserts.
+ * Rows per second are {@value #ROWS} divided by the time per run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 6)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class FoodImportBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private FoodImportService foodImportService;
+    private byte[] file;
+    private int run;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:food_import;MODE=PostgreSQL",
+                        "--spring.jpa.properties.hibernate.show_sql=false");
+        foodImportService = new FoodImportService(context.getBean(EntityManager.class),
+                context.getBean(FoodImportCheckpointRepository.class), context.getBean(ObjectMapper.class),
+                context.getBean(PlatformTransactionManager.class), 1000, batchSize);
+
+        StringBuilder csv = new StringBuilder("name");
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            csv.append(',').append(aminoAcid.getDisplayName());
+        }
+        csv.append('\n');
+        Random random = new Random(42);
+        for (int row = 0; row < ROWS; row++) {
+            csv.append("Imported Food ").append(row);
+            for (int i = 0; i < AminoAcid.COUNT; i++) {
+                csv.append(',').append(random.nextInt(3000) / 1000.0);
+            }
+            csv.append('\n');
+        }
+        file = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Removes the imported items in bulk, so that every run starts from the seeded catalog and the shutdown of
+     * {@code FoodItemService}, which deletes the catalog item by item, stays short.
+     */
+    @TearDown(Level.Iteration)
+    public void removeImportedItems() {
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            entityManager.createNativeQuery("DELETE FROM food_item_amino_acids WHERE food_item_id IN "
+                    + "(SELECT id FROM food_item WHERE name LIKE 'Imported Food %')").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM food_item WHERE name LIKE 'Imported Food %'").executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object importCsv() throws IOException {
+        // A new source per run, so that no run resumes after the previous one
+        return foodImportService.importFoodItems(
+                "benchmark-" + run++ + ".csv", FoodImportFormat.CSV, new ByteArrayInputStream(file), false);
+    }
+}
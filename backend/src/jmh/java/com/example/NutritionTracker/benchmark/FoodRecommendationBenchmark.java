@@ -0,0 +1,71 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ranking a food catalog of 1,000 to 100,000 items against an amino acid gap
+ * ({@link FoodAminoMatrix#topK}, top 10) on pools of 1, 2 and 4 threads.
+ * Only the scoring is measured; the matrix is built once per catalog version.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class FoodRecommendationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"1", "2", "4"})
+    private int threads;
+
+    private FoodAminoMatrix matrix;
+    private ForkJoinPool pool;
+    private AminoVector weights;
+    private AminoVector gaps;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        for (int i = 0; i < catalogSize; i++) {
+            int row = builder.addFood(new UUID(random.nextLong(), random.nextLong()), "Food " + i);
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                builder.set(row, aminoAcid, Math.round(random.nextDouble() * 30) / 10.0);
+            }
+        }
+        matrix = builder.build();
+        pool = new ForkJoinPool(threads);
+
+        // Half of the amino acids have a gap, as after a typical day
+        weights = AminoVector.empty();
+        gaps = AminoVector.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (aminoAcid.ordinal() % 2 == 0) {
+                weights.set(aminoAcid, 1 / 2.5);
+                gaps.set(aminoAcid, 1.2);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<FoodAminoMatrix.Scored> topTen() {
+        return matrix.topK(weights, gaps, 10, pool);
+    }
+}
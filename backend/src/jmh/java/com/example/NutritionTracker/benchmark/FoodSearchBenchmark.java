@@ -0,0 +1,53 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.service.FoodSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures autocomplete queries against a {@link FoodSearchIndex} over a synthetic catalog of up to a million
+ * food items: a prefix, a typo, a spelled-out umlaut with a second word, and a prefix of a rare brand word.
+ * {@code incrementalSave} measures merging one saved food item into the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+@State(Scope.Benchmark)
+public class FoodSearchBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int itemCount;
+
+    @Param({"kicher", "kihcererbsen", "kaese gerieben", "tamobe"})
+    private String query;
+
+    private FoodSearchIndex index;
+    private UUID savedId;
+    private long saves;
+
+    @Setup
+    public void setUp() {
+        List<FoodItemDTO> catalog = BenchmarkFixtures.foodCatalog(itemCount);
+        index = new FoodSearchIndex(BenchmarkFixtures.foodItemRepository(catalog), BenchmarkFixtures.transactionManager());
+        index.search(query, 10);
+        savedId = catalog.get(0).getId();
+    }
+
+    @Benchmark
+    public List<FoodItemDTO> search() {
+        return index.search(query, 10);
+    }
+
+    @Benchmark
+    public FoodSearchIndex incrementalSave() {
+        index.apply(Map.of(savedId, "Tamobe Kichererbsen " + saves++), List.of());
+        return index;
+    }
+}
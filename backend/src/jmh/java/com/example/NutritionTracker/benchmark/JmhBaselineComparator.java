@@ -0,0 +1,152 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compares a JMH JSON result file against a baseline file and fails if any benchmark got slower
+ * or allocates more than the given tolerance. All benchmarks run in average or single shot time mode, so lower is better.
+ * If no baseline exists yet, the result is stored as the new baseline. A benchmark missing from an existing baseline
+ * fails the comparison as well, unless {@code allowNew} is {@code true}, so that a benchmark is never left unchecked.
+ * <p>
+ * Benchmarks bound to the database or to the thread scheduling vary more between runs than the others. A properties
+ * file can give them their own tolerance in percent, keyed by {@code Class.method} or by {@code Class}; all other
+ * benchmarks use {@code tolerancePercent}.
+ * <p>
+ * Usage: {@code JmhBaselineComparator <baseline.json> <result.json> <tolerancePercent> [allowNew [tolerances.properties]]}
+ */
+public final class JmhBaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /** Allocation differences below this many bytes per operation are treated as noise. */
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private JmhBaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 5) {
+            System.err.println("Usage: JmhBaselineComparator <baseline.json> <result.json> <tolerancePercent> "
+                    + "[allowNew [tolerances.properties]]");
+            System.exit(2);
+        }
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double defaultTolerance = Double.parseDouble(args[2]) / 100.0;
+        boolean allowNew = args.length >= 4 && Boolean.parseBoolean(args[3]);
+        Properties tolerances = new Properties();
+        if (args.length == 5 && Files.exists(Path.of(args[4]))) {
+            try (Reader reader = Files.newBufferedReader(Path.of(args[4]))) {
+                tolerances.load(reader);
+            }
+        }
+
+        if (!Files.exists(baselineFile)) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("No baseline found, stored current result as " + baselineFile);
+            return;
+        }
+
+        Map<String, Measurement> baseline = read(baselineFile);
+        Map<String, Measurement> result = read(resultFile);
+
+        int regressions = 0;
+        int unknown = 0;
+        System.out.printf("%-90s %14s %14s %8s %6s %12s %12s%n",
+                "Benchmark", "base score", "score", "diff", "tol", "base B/op", "B/op");
+        for (Map.Entry<String, Measurement> entry : result.entrySet()) {
+            Measurement current = entry.getValue();
+            Measurement base = baseline.get(entry.getKey());
+            if (base == null) {
+                unknown++;
+                System.out.printf("%-90s %14s %14.1f %8s %6s %12s %12.0f  %s%n",
+                        entry.getKey(), "-", current.score, "-", "-", "-", current.allocation,
+                        allowNew ? "(new)" : "NO BASELINE");
+                continue;
+            }
+
+            double tolerance = tolerance(tolerances, entry.getKey(), defaultTolerance);
+            double diff = (current.score - base.score) / base.score;
+            boolean slower = diff > tolerance;
+            boolean allocatesMore = current.allocation > base.allocation * (1 + tolerance) + ALLOCATION_NOISE_BYTES;
+            if (slower || allocatesMore) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.1f %14.1f %+7.1f%% %5.0f%% %12.0f %12.0f%s%n",
+                    entry.getKey(), base.score, current.score, diff * 100, tolerance * 100, base.allocation, current.allocation,
+                    slower || allocatesMore ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than their tolerance against %s%n",
+                    regressions, baselineFile);
+        }
+        if (unknown > 0 && !allowNew) {
+            System.err.printf("%d benchmark(s) have no baseline in %s; regenerate it by deleting it and running all "
+                    + "benchmarks, or pass -Djmh.allowNew=true to accept them%n", unknown, baselineFile);
+        }
+        if (regressions > 0 || (unknown > 0 && !allowNew)) {
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + baselineFile);
+    }
+
+    /**
+     * Looks up the tolerance of a benchmark, given as {@code package.Class.method param=value...}:
+     * first by {@code Class.method}, then by {@code Class}.
+     */
+    private static double tolerance(Properties tolerances, String benchmark, double defaultTolerance) {
+        String name = benchmark.split(" ", 2)[0];
+        String method = name.substring(name.lastIndexOf('.') + 1);
+        String className = name.substring(0, name.lastIndexOf('.'));
+        className = className.substring(className.lastIndexOf('.') + 1);
+        String percent = tolerances.getProperty(className + "." + method, tolerances.getProperty(className));
+        return percent != null ? Double.parseDouble(percent.trim()) / 100.0 : defaultTolerance;
+    }
+
+    private static Map<String, Measurement> read(Path file) throws IOException {
+        Map<String, Measurement> measurements = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+
+            double score = run.path("primaryMetric").path("score").asDouble();
+            double allocation = 0;
+            Iterator<Map.Entry<String, JsonNode>> secondary = run.path("secondaryMetrics").fields();
+            while (secondary.hasNext()) {
+                Map.Entry<String, JsonNode> metric = secondary.next();
+                if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            measurements.put(key.toString(), new Measurement(score, allocation));
+        }
+        return measurements;
+    }
+
+    private static final class Measurement {
+        private final double score;
+        private final double allocation;
+
+        private Measurement(double score, double allocation) {
+            this.score = score;
+            this.allocation = allocation;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures range queries over one and ten years of daily logs (eight food items per day) against H2:
+ * the average over the whole history and a 12-week trend read from the rollups, compared with summing
+ * the totals of every log in the range and with re-aggregating every log entry in the range.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class NutritionHistoryBenchmark {
+
+    private static final int ITEMS_PER_DAY = 8;
+
+    @Param({"1", "10"})
+    private int years;
+
+    private ConfigurableApplicationContext context;
+    private NutritionHistoryService nutritionHistoryService;
+    private TransactionTemplate readOnlyTransaction;
+    private EntityManager entityManager;
+    private UUID userId;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        // Without a query cache, H2 cannot hand back the previous result of an unchanged query
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:nutrition_history;MODE=PostgreSQL;QUERY_CACHE_SIZE=0",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "--spring.jpa.properties.hibernate.order_inserts=true");
+        nutritionHistoryService = context.getBean(NutritionHistoryService.class);
+        NutritionLogRepository nutritionLogRepository = context.getBean(NutritionLogRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        User user = context.getBean(NutritionLogService.class).getLatestNutritionLogEntity().orElseThrow().getUser();
+        userId = user.getId();
+        to = LocalDate.now().minusDays(1);
+        from = to.minusYears(years).plusDays(1);
+
+        // One log per day before today, written directly and then rolled up in one rebuild
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            List<FoodItem> foods = context.getBean(FoodItemRepository.class).findAll();
+            Random random = new Random(42);
+            List<NutritionLog> logs = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                NutritionLog nutritionLog = NutritionLog.builder().user(user).logDate(day).build();
+                // Distinct food items, as a log holds one entry per food item
+                for (int index : random.ints(0, foods.size()).distinct().limit(ITEMS_PER_DAY).toArray()) {
+                    FoodItem food = foods.get(index);
+                    long amount = 10_000 + random.nextInt(290_000);
+                    nutritionLog.getFoodItems().add(new NutritionLogFoodItem(nutritionLog, food, amount));
+                    nutritionLog.getAminoAcidTotals().addFood(food, amount);
+                }
+                logs.add(nutritionLog);
+            }
+            nutritionLogRepository.saveAll(logs);
+        });
+        nutritionHistoryService.rebuildRollups();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object averageFromRollups() {
+        return nutritionHistoryService.averageOverRange(from, to);
+    }
+
+    @Benchmark
+    public Object weeklyTrendFromRollups() {
+        return nutritionHistoryService.trend(RollupPeriod.WEEK, 12);
+    }
+
+    @Benchmark
+    public Object averageFromLogTotals() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery("""
+                        SELECT COUNT(l), SUM(l.aminoAcidTotals.lysin), SUM(l.aminoAcidTotals.leucin),
+                               SUM(l.aminoAcidTotals.isoleucin), SUM(l.aminoAcidTotals.valin),
+                               SUM(l.aminoAcidTotals.methionin), SUM(l.aminoAcidTotals.phenylalanin),
+                               SUM(l.aminoAcidTotals.threonin), SUM(l.aminoAcidTotals.tryptophan),
+                               SUM(l.aminoAcidTotals.histidin), SUM(l.aminoAcidTotals.glycin)
+                        FROM NutritionLog l
+                        WHERE l.user.id = :userId AND l.logDate BETWEEN :from AND :to
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult());
+    }
+
+    @Benchmark
+    public Object averageFromLogEntries() {
+        return readOnlyTransaction.execute(status -> entityManager.createNativeQuery("""
+                        SELECT a.amino_acid,
+                               SUM((CAST(ROUND(a.amino_acid_value * 1000) AS BIGINT) * i.amount_mg + 50000) / 100000)
+                        FROM nutrition_log l
+                        JOIN nutrition_log_food_item i ON i.nutrition_log_id = l.id
+                        JOIN food_item_amino_acids a ON a.food_item_id = i.food_item_id
+                        WHERE l.user_id = :userId AND l.log_date BETWEEN :from AND :to
+                        GROUP BY a.amino_acid
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.AminoProfileService;
+import com.example.NutritionTracker.service.FoodItemService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures a typical request sequence against the seeded H2 database, with and without the Hibernate
+ * second-level cache: add a food item to the latest log, read the coverage (in-memory strategy, which loads
+ * every food item and profile), list the food catalog and remove the item again.
+ * Besides the time per sequence, the JDBC statements prepared by the sequences are counted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private NutritionLogService nutritionLogService;
+    private AminoProfileService aminoProfileService;
+    private FoodItemService foodItemService;
+    private Statistics statistics;
+    private UUID logId;
+    private UUID foodItemId;
+
+    /**
+     * Statements and sequences per iteration, reported next to the time per sequence.
+     * Database round-trips per request sequence are {@code statements / sequences}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        /** JDBC statements prepared over all sequences of the iteration. */
+        public long statements;
+
+        /** Request sequences of the iteration. */
+        public long sequences;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            sequences = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--nutrition.second-level-cache=" + secondLevelCache,
+                        "--nutrition.amino.aggregation=jvm",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true");
+        nutritionLogService = context.getBean(NutritionLogService.class);
+        aminoProfileService = context.getBean(AminoProfileService.class);
+        foodItemService = context.getBean(FoodItemService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        logId = nutritionLogService.getLatestNutritionLogEntity().orElseThrow().getId();
+        Set<UUID> logged = context.getBean(NutritionLogRepository.class).findWithFoodItemsById(logId).orElseThrow()
+                .getFoodItems().stream()
+                .map(NutritionLogFoodItem::getFoodItem)
+                .map(FoodItem::getId)
+                .collect(Collectors.toSet());
+        foodItemId = context.getBean(FoodItemRepository.class).findAll().stream()
+                .map(FoodItem::getId)
+                .filter(id -> !logged.contains(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Every seeded food item is already in the log"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object requestSequence(RoundTrips roundTrips) {
+        long before = statistics.getPrepareStatementCount();
+        nutritionLogService.addFoodItemToLog(logId, foodItemId);
+        Object coverage = aminoProfileService.calculateAminoAcidCoverageForLatestLog();
+        Object catalog = foodItemService.getAllFoodItems();
+        nutritionLogService.removeFoodItemFromLog(logId, foodItemId);
+        roundTrips.statements += statistics.getPrepareStatementCount() - before;
+        roundTrips.sequences++;
+        return new Object[]{coverage, catalog};
+    }
+}
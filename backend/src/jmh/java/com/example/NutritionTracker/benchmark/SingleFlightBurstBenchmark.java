@@ -0,0 +1,125 @@
+package com.example.NutritionTracker.benchmark;
+
+import com.example.NutritionTracker.Application;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.service.AminoProfileService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.SingleFlight;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Measures a burst of {@value #REQUESTS} clients refreshing their result page at the same moment: each one asks
+ * for the coverage of the unchanged latest log ({@code jvm} strategy, which loads every food item), on its own thread.
+ * Besides the time per burst, the JDBC statements and the computations actually run are counted,
+ * with and without the single-flight layer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class SingleFlightBurstBenchmark {
+
+    private static final int REQUESTS = 100;
+
+    @Param({"true", "false"})
+    private boolean singleFlight;
+
+    private ConfigurableApplicationContext context;
+    private AminoProfileService aminoProfileService;
+    private SingleFlight computations;
+    private Statistics statistics;
+    private ExecutorService executor;
+
+    /**
+     * Statements, computations and bursts per iteration, reported next to the time per burst.
+     * Database round-trips per burst are {@code statements / bursts}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DatabaseLoad {
+
+        /** JDBC statements prepared over all bursts of the iteration. */
+        public long statements;
+
+        /** Coverage computations run over all bursts of the iteration; the rest joined a running one. */
+        public long computations;
+
+        /** Bursts of the iteration. */
+        public long bursts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            computations = 0;
+            bursts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--nutrition.single-flight.enabled=" + singleFlight,
+                        "--nutrition.amino.aggregation=jvm",
+                        "--spring.datasource.url=jdbc:h2:mem:single_flight_burst;MODE=PostgreSQL",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true");
+        aminoProfileService = context.getBean(AminoProfileService.class);
+        computations = context.getBean(SingleFlight.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        NutritionLogService nutritionLogService = context.getBean(NutritionLogService.class);
+        UUID logId = nutritionLogService.getLatestNutritionLogEntity().orElseThrow().getId();
+        for (FoodItem food : context.getBean(FoodItemRepository.class).findAll()) {
+            nutritionLogService.addFoodItemToLog(logId, food.getId(), 150);
+        }
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public Object burst(DatabaseLoad load) throws Exception {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long computationsBefore = computations.getComputedCount();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return aminoProfileService.calculateAminoAcidCoverageForLatestLog();
+            }));
+        }
+        start.countDown();
+        for (Future<Object> result : results) {
+            // Fails the benchmark with the first failed request
+            result.get();
+        }
+
+        load.statements += statistics.getPrepareStatementCount() - statementsBefore;
+        load.computations += computations.getComputedCount() - computationsBefore;
+        load.bursts++;
+        return results;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.NutritionTracker.amino;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The amino acids tracked by the Nutrition Tracker.
+ * The ordinal of each constant is used as the fixed index into an {@link AminoVector},
+ * while the display name is the key used in the database and in JSON responses.
+ */
+public enum AminoAcid {
+    LYSIN("Lysin"),
+    LEUCIN("Leucin"),
+    ISOLEUCIN("Isoleucin"),
+    VALIN("Valin"),
+    METHIONIN("Methionin"),
+    PHENYLALANIN("Phenylalanin"),
+    THREONIN("Threonin"),
+    TRYPTOPHAN("Tryptophan"),
+    HISTIDIN("Histidin"),
+    GLYCIN("Glycin");
+
+    /** Number of tracked amino acids, i.e. the length of every {@link AminoVector}. */
+    public static final int COUNT = values().length;
+
+    private static final AminoAcid[] BY_INDEX = values();
+    private static final Map<String, AminoAcid> BY_NAME = new HashMap<>();
+
+    static {
+        for (AminoAcid aminoAcid : BY_INDEX) {
+            BY_NAME.put(aminoAcid.displayName, aminoAcid);
+        }
+    }
+
+    /** The name as stored in the database and exposed through the API (e.g. "Lysin"). */
+    private final String displayName;
+
+    AminoAcid(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the name used in the database and in API responses.
+     *
+     * @return The display name of the amino acid.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Resolves an amino acid by its display name.
+     *
+     * @param name The display name, e.g. "Leucin".
+     * @return The matching amino acid, or {@code null} if the name is unknown.
+     */
+    public static AminoAcid fromName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /**
+     * Resolves an amino acid by its index in an {@link AminoVector}.
+     *
+     * @param index The index, between 0 (inclusive) and {@link #COUNT} (exclusive).
+     * @return The amino acid stored at this index.
+     */
+    public static AminoAcid byIndex(int index) {
+        return BY_INDEX[index];
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.NutritionTracker.amino;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-layout vector of amino acid amounts in whole milligrams, indexed by {@link AminoAcid}.
+ *
+ * This is the fixed-point counterpart of {@link AminoVector}, used for consumption and requirements: values are
+ * kept in a primitive {@code long[]} (see {@link Milligrams}), so sums are exact and reproducible regardless of the
+ * order of their terms. As in {@link AminoVector}, a bit mask records which amino acids hold a value.
+ *
+ * Instances are mutable and not thread-safe. Grams are only produced at the API edge via {@link #toGrams()}.
+ */
+public final class AminoMilligrams {
+
+    private final long[] values;
+    private int presentMask;
+
+    private AminoMilligrams(long[] values, int presentMask) {
+        this.values = values;
+        this.presentMask = presentMask;
+    }
+
+    /**
+     * Creates a vector without any amino acid values.
+     *
+     * @return A new, empty vector.
+     */
+    public static AminoMilligrams empty() {
+        return new AminoMilligrams(new long[AminoAcid.COUNT], 0);
+    }
+
+    /**
+     * Creates a vector from amounts in grams, each rounded to the nearest milligram.
+     *
+     * @param grams The amounts in grams.
+     * @return A new vector with the same present amino acids.
+     */
+    public static AminoMilligrams fromGrams(AminoVector grams) {
+        AminoMilligrams vector = empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (grams.isPresent(aminoAcid)) {
+                vector.set(aminoAcid, Milligrams.fromGrams(grams.get(aminoAcid)));
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Checks whether a value is present for the given amino acid.
+     *
+     * @param aminoAcid The amino acid to check.
+     * @return {@code true} if a value has been set or added for it.
+     */
+    public boolean isPresent(AminoAcid aminoAcid) {
+        return (presentMask & bit(aminoAcid.ordinal())) != 0;
+    }
+
+    /**
+     * Checks whether the vector holds no values at all.
+     *
+     * @return {@code true} if no amino acid is present.
+     */
+    public boolean isEmpty() {
+        return presentMask == 0;
+    }
+
+    /**
+     * Returns the amount of the given amino acid.
+     *
+     * @param aminoAcid The amino acid to look up.
+     * @return The amount in milligrams, or {@code 0} if none is present.
+     */
+    public long get(AminoAcid aminoAcid) {
+        return values[aminoAcid.ordinal()];
+    }
+
+    /**
+     * Sets the amount of the given amino acid and marks it as present.
+     *
+     * @param aminoAcid  The amino acid to update.
+     * @param milligrams The new amount in milligrams.
+     */
+    public void set(AminoAcid aminoAcid, long milligrams) {
+        int index = aminoAcid.ordinal();
+        values[index] = milligrams;
+        presentMask |= bit(index);
+    }
+
+    /**
+     * Adds an amount to the given amino acid and marks it as present.
+     *
+     * @param aminoAcid  The amino acid to update.
+     * @param milligrams The amount to add in milligrams.
+     */
+    public void add(AminoAcid aminoAcid, long milligrams) {
+        int index = aminoAcid.ordinal();
+        values[index] += milligrams;
+        presentMask |= bit(index);
+    }
+
+    /**
+     * Adds an amino acid profile scaled to a portion. Every value is first rounded to milligrams per 100 g,
+     * then the scaled product is rounded to milligrams again; each value is handled on its own,
+     * so the result does not depend on the other entries of the log. Unknown names are ignored.
+     *
+     * @param profile The profile in grams per 100 g of food, keyed by amino acid display names.
+     * @param portion The portion in milligrams.
+     */
+    public void addScaled(Map<String, Double> profile, long portion) {
+        for (Map.Entry<String, Double> entry : profile.entrySet()) {
+            AminoAcid aminoAcid = AminoAcid.fromName(entry.getKey());
+            if (aminoAcid != null && entry.getValue() != null) {
+                add(aminoAcid, Milligrams.scale(Milligrams.fromGrams(entry.getValue()), portion));
+            }
+        }
+    }
+
+    /**
+     * Multiplies every present amount with the factor of the same amino acid in {@code factors},
+     * rounding each product to the nearest milligram. Amino acids without a factor are left unchanged.
+     *
+     * @param factors The per-amino-acid multipliers.
+     */
+    public void multiplyAll(AminoVector factors) {
+        for (int i = 0; i < values.length; i++) {
+            AminoAcid aminoAcid = AminoAcid.byIndex(i);
+            if ((presentMask & bit(i)) != 0 && factors.isPresent(aminoAcid)) {
+                values[i] = Milligrams.multiply(values[i], factors.get(aminoAcid));
+            }
+        }
+    }
+
+    /**
+     * Creates an independent copy of this vector.
+     *
+     * @return A new vector with the same values and present amino acids.
+     */
+    public AminoMilligrams copy() {
+        return new AminoMilligrams(values.clone(), presentMask);
+    }
+
+    /**
+     * Converts the vector into grams. Intended for the API edge and for the optimizers working in grams.
+     *
+     * @return A new vector with the same present amino acids.
+     */
+    public AminoVector toGrams() {
+        AminoVector grams = AminoVector.empty();
+        for (int i = 0; i < values.length; i++) {
+            if ((presentMask & bit(i)) != 0) {
+                grams.set(AminoAcid.byIndex(i), Milligrams.toGrams(values[i]));
+            }
+        }
+        return grams;
+    }
+
+    private static int bit(int index) {
+        return 1 << index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AminoMilligrams other)) {
+            return false;
+        }
+        return presentMask == other.presentMask && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * presentMask + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if ((presentMask & bit(i)) != 0) {
+                map.put(AminoAcid.byIndex(i).getDisplayName(), values[i]);
+            }
+        }
+        return map + " mg";
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.NutritionTracker.amino;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Fixed-layout vector of amino acid values, indexed by {@link AminoAcid}.
+ *
+ * This is the internal representation used by the calculators, decorators and services
+ * instead of {@code Map<String, Double>}: values are kept in a primitive {@code double[]},
+ * so lookups are array accesses and no boxing or hashing takes place.
+ * A bit mask records which amino acids hold a value, which preserves the difference
+ * between "not present" and "zero" that the map-based API exposed.
+ *
+ * Instances are mutable and not thread-safe. Map-shaped data is only produced at the
+ * API edge via {@link #toMap()}.
+ */
+public final class AminoVector {
+
+    private final double[] values;
+    private int presentMask;
+
+    private AminoVector(double[] values, int presentMask) {
+        this.values = values;
+        this.presentMask = presentMask;
+    }
+
+    /**
+     * Creates a vector without any amino acid values.
+     *
+     * @return A new, empty vector.
+     */
+    public static AminoVector empty() {
+        return new AminoVector(new double[AminoAcid.COUNT], 0);
+    }
+
+    /**
+     * Creates a vector from a map keyed by amino acid display names.
+     * Unknown names are ignored.
+     *
+     * @param map The map to convert, e.g. an amino acid profile of a food item.
+     * @return A new vector holding the known values of the map.
+     */
+    public static AminoVector fromMap(Map<String, Double> map) {
+        AminoVector vector = empty();
+        vector.addAll(map);
+        return vector;
+    }
+
+    /**
+     * Checks whether a value is present for the given amino acid.
+     *
+     * @param aminoAcid The amino acid to check.
+     * @return {@code true} if a value has been set or added for it.
+     */
+    public boolean isPresent(AminoAcid aminoAcid) {
+        return (presentMask & bit(aminoAcid.ordinal())) != 0;
+    }
+
+    /**
+     * Checks whether the vector holds no values at all.
+     *
+     * @return {@code true} if no amino acid is present.
+     */
+    public boolean isEmpty() {
+        return presentMask == 0;
+    }
+
+    /**
+     * Returns the value for the given amino acid.
+     *
+     * @param aminoAcid The amino acid to look up.
+     * @return The stored value, or {@code 0.0} if none is present.
+     */
+    public double get(AminoAcid aminoAcid) {
+        return values[aminoAcid.ordinal()];
+    }
+
+    /**
+     * Sets the value for the given amino acid and marks it as present.
+     *
+     * @param aminoAcid The amino acid to update.
+     * @param value     The new value.
+     */
+    public void set(AminoAcid aminoAcid, double value) {
+        int index = aminoAcid.ordinal();
+        values[index] = value;
+        presentMask |= bit(index);
+    }
+
+    /**
+     * Adds a value to the given amino acid and marks it as present.
+     *
+     * @param aminoAcid The amino acid to update.
+     * @param value     The value to add.
+     */
+    public void add(AminoAcid aminoAcid, double value) {
+        int index = aminoAcid.ordinal();
+        values[index] += value;
+        presentMask |= bit(index);
+    }
+
+    /**
+     * Adds all values of a map keyed by amino acid display names.
+     * Unknown names are ignored.
+     *
+     * @param map The values to add, e.g. an amino acid profile of a food item.
+     */
+    public void addAll(Map<String, Double> map) {
+        for (Map.Entry<String, Double> entry : map.entrySet()) {
+            AminoAcid aminoAcid = AminoAcid.fromName(entry.getKey());
+            if (aminoAcid != null && entry.getValue() != null) {
+                add(aminoAcid, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Multiplies the value of the given amino acid if it is present.
+     *
+     * @param aminoAcid The amino acid to update.
+     * @param factor    The multiplier.
+     */
+    public void multiply(AminoAcid aminoAcid, double factor) {
+        if (isPresent(aminoAcid)) {
+            values[aminoAcid.ordinal()] *= factor;
+        }
+    }
+
+    /**
+     * Multiplies every present value with the factor of the same amino acid in {@code factors}.
+     * Amino acids without a factor are left unchanged.
+     *
+     * @param factors The per-amino-acid multipliers.
+     */
+    public void multiplyAll(AminoVector factors) {
+        int mask = presentMask & factors.presentMask;
+        for (int i = 0; i < values.length; i++) {
+            if ((mask & bit(i)) != 0) {
+                values[i] *= factors.values[i];
+            }
+        }
+    }
+
+    /**
+     * Replaces every present value with the result of the given operator.
+     *
+     * @param operator The operator applied to each present value.
+     */
+    public void replaceAll(DoubleUnaryOperator operator) {
+        for (int i = 0; i < values.length; i++) {
+            if ((presentMask & bit(i)) != 0) {
+                values[i] = operator.applyAsDouble(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Creates an independent copy of this vector.
+     *
+     * @return A new vector with the same values and present amino acids.
+     */
+    public AminoVector copy() {
+        return new AminoVector(values.clone(), presentMask);
+    }
+
+    /**
+     * Converts the vector into a map keyed by amino acid display names.
+     * Only present amino acids are included. Intended for the API edge only.
+     *
+     * @return A new map in amino acid order.
+     */
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if ((presentMask & bit(i)) != 0) {
+                map.put(AminoAcid.byIndex(i).getDisplayName(), values[i]);
+            }
+        }
+        return map;
+    }
+
+    private static int bit(int index) {
+        return 1 << index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AminoVector other)) {
+            return false;
+        }
+        return presentMask == other.presentMask && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * presentMask + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
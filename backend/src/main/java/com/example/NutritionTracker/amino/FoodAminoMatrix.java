@@ -0,0 +1,263 @@
+package com.example.NutritionTracker.amino;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Immutable columnar matrix of the amino acid profiles of a food catalog: one {@code double[]} column
+ * per {@link AminoAcid}, one row per food item. Missing values are stored as zero.
+ *
+ * Scoring walks the columns one at a time over contiguous arrays, which keeps the inner loops free of
+ * lookups and lets the JIT vectorize them. Large catalogs are split into blocks of {@value #BLOCK_ROWS} rows
+ * that are scored in parallel, each keeping its own top k, which are merged at the end.
+ */
+public final class FoodAminoMatrix {
+
+    /** Rows scored by one task; catalogs up to this size are scored on the calling thread. */
+    static final int BLOCK_ROWS = 8192;
+
+    private final UUID[] ids;
+    private final String[] names;
+    private final double[][] columns;
+
+    private FoodAminoMatrix(UUID[] ids, String[] names, double[][] columns) {
+        this.ids = ids;
+        this.names = names;
+        this.columns = columns;
+    }
+
+    /**
+     * A scored row of the matrix.
+     *
+     * @param row   The row of the food item.
+     * @param score The score of the food item.
+     */
+    public record Scored(int row, double score) {
+    }
+
+    /** @return Number of food items in the matrix. */
+    public int size() {
+        return ids.length;
+    }
+
+    public UUID getId(int row) {
+        return ids[row];
+    }
+
+    public String getName(int row) {
+        return names[row];
+    }
+
+    public double get(int row, AminoAcid aminoAcid) {
+        return columns[aminoAcid.ordinal()][row];
+    }
+
+    /**
+     * Multiplies the matrix with a vector: {@code result[row] = sum(factors[a] * value[row][a])}.
+     * Amino acids with a zero factor are skipped.
+     *
+     * @param factors The factor per amino acid, indexed by ordinal.
+     * @param result  The array receiving one value per row; overwritten.
+     */
+    public void multiply(double[] factors, double[] result) {
+        Arrays.fill(result, 0, ids.length, 0.0);
+        for (int c = 0; c < columns.length; c++) {
+            double factor = factors[c];
+            if (factor == 0) {
+                continue;
+            }
+            double[] column = columns[c];
+            for (int row = 0; row < ids.length; row++) {
+                result[row] += column[row] * factor;
+            }
+        }
+    }
+
+    /**
+     * Scores every food item with {@code sum(weight[a] * min(value[a], cap[a]))} over the amino acids present
+     * in {@code weights}, and returns the {@code k} best. Food items scoring zero are left out.
+     *
+     * @param weights The weight per amino acid; absent amino acids do not count.
+     * @param caps    The largest value that counts per amino acid.
+     * @param k       The number of food items to return.
+     * @param pool    The pool scoring the blocks of large catalogs.
+     * @return The best food items, highest score first; ties are broken by row.
+     */
+    public List<Scored> topK(AminoVector weights, AminoVector caps, int k, ForkJoinPool pool) {
+        if (k <= 0 || ids.length == 0) {
+            return List.of();
+        }
+
+        int active = 0;
+        int[] activeColumns = new int[AminoAcid.COUNT];
+        double[] activeWeights = new double[AminoAcid.COUNT];
+        double[] activeCaps = new double[AminoAcid.COUNT];
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (weights.isPresent(aminoAcid) && weights.get(aminoAcid) > 0 && caps.get(aminoAcid) > 0) {
+                activeColumns[active] = aminoAcid.ordinal();
+                activeWeights[active] = weights.get(aminoAcid);
+                activeCaps[active] = caps.get(aminoAcid);
+                active++;
+            }
+        }
+        if (active == 0) {
+            return List.of();
+        }
+
+        Scoring scoring = new Scoring(Arrays.copyOf(activeColumns, active), Arrays.copyOf(activeWeights, active),
+                Arrays.copyOf(activeCaps, active), k);
+        PriorityQueue<Scored> best = ids.length <= BLOCK_ROWS || pool.getParallelism() == 1
+                ? scoring.score(0, ids.length)
+                : pool.invoke(new BlockTask(scoring, 0, ids.length));
+
+        List<Scored> sorted = new ArrayList<>(best);
+        sorted.sort(BEST_FIRST);
+        return sorted;
+    }
+
+    private static final Comparator<Scored> BEST_FIRST =
+            Comparator.comparingDouble(Scored::score).reversed().thenComparingInt(Scored::row);
+
+    /** The scoring parameters of one query, restricted to the amino acids that count. */
+    private final class Scoring {
+        private final int[] columnIndexes;
+        private final double[] weights;
+        private final double[] caps;
+        private final int k;
+
+        private Scoring(int[] columnIndexes, double[] weights, double[] caps, int k) {
+            this.columnIndexes = columnIndexes;
+            this.weights = weights;
+            this.caps = caps;
+            this.k = k;
+        }
+
+        /** Scores the rows {@code [from, to)} and returns their best k, worst at the head. */
+        private PriorityQueue<Scored> score(int from, int to) {
+            double[] scores = new double[to - from];
+            for (int c = 0; c < columnIndexes.length; c++) {
+                double[] column = columns[columnIndexes[c]];
+                double weight = weights[c];
+                double cap = caps[c];
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] += Math.min(column[from + i], cap) * weight;
+                }
+            }
+
+            PriorityQueue<Scored> best = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] > 0 && (best.size() < k || scores[i] > best.peek().score())) {
+                    best.add(new Scored(from + i, scores[i]));
+                    if (best.size() > k) {
+                        best.poll();
+                    }
+                }
+            }
+            return best;
+        }
+
+        private PriorityQueue<Scored> merge(PriorityQueue<Scored> left, PriorityQueue<Scored> right) {
+            for (Scored scored : right) {
+                left.add(scored);
+                if (left.size() > k) {
+                    left.poll();
+                }
+            }
+            return left;
+        }
+    }
+
+    private static final class BlockTask extends RecursiveTask<PriorityQueue<Scored>> {
+        private final Scoring scoring;
+        private final int from;
+        private final int to;
+
+        private BlockTask(Scoring scoring, int from, int to) {
+            this.scoring = scoring;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PriorityQueue<Scored> compute() {
+            if (to - from <= BLOCK_ROWS) {
+                return scoring.score(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            BlockTask left = new BlockTask(scoring, from, middle);
+            left.fork();
+            PriorityQueue<Scored> right = new BlockTask(scoring, middle, to).compute();
+            return scoring.merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Creates a builder adding one food item after the other.
+     *
+     * @return A new, empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects the rows of a matrix, growing the columns as needed.
+     */
+    public static final class Builder {
+        private UUID[] ids = new UUID[64];
+        private String[] names = new String[64];
+        private double[][] columns = new double[AminoAcid.COUNT][64];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a food item without any amino acid values.
+         *
+         * @param id   The id of the food item.
+         * @param name The name of the food item.
+         * @return The row of the food item, for {@link #set(int, AminoAcid, double)}.
+         */
+        public int addFood(UUID id, String name) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], capacity);
+                }
+            }
+            ids[size] = id;
+            names[size] = name;
+            return size++;
+        }
+
+        /**
+         * Sets an amino acid value of a food item added before.
+         *
+         * @param row       The row returned by {@link #addFood(UUID, String)}.
+         * @param aminoAcid The amino acid.
+         * @param value     The amount of the amino acid.
+         * @return This builder.
+         */
+        public Builder set(int row, AminoAcid aminoAcid, double value) {
+            columns[aminoAcid.ordinal()][row] = value;
+            return this;
+        }
+
+        /**
+         * Builds the matrix from the food items added so far.
+         *
+         * @return The new matrix.
+         */
+        public FoodAminoMatrix build() {
+            double[][] trimmed = new double[AminoAcid.COUNT][];
+            for (int c = 0; c < columns.length; c++) {
+                trimmed[c] = Arrays.copyOf(columns[c], size);
+            }
+            return new FoodAminoMatrix(Arrays.copyOf(ids, size), Arrays.copyOf(names, size), trimmed);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.NutritionTracker.amino;
+
+/**
+ * Fixed-point arithmetic on amounts in whole milligrams.
+ *
+ * Consumption and requirements are calculated in {@code long} milligrams, so sums are exact and do not depend on
+ * the order of their terms. Values only turn into fractional grams at the API edge, via {@link #toGrams(long)}.
+ * Every operation rounds at most once, half away from zero, which keeps adding and removing the same amount
+ * symmetric.
+ */
+public final class Milligrams {
+
+    /** Milligrams per gram. */
+    public static final long PER_GRAM = 1_000;
+
+    /** The amount of food the amino acid profiles refer to: 100 g. */
+    public static final long REFERENCE_AMOUNT = 100 * PER_GRAM;
+
+    private Milligrams() {
+    }
+
+    /**
+     * Converts grams into milligrams, rounded to the nearest milligram.
+     *
+     * @param grams The amount in grams.
+     * @return The amount in milligrams.
+     */
+    public static long fromGrams(double grams) {
+        return round(grams * PER_GRAM);
+    }
+
+    /**
+     * Converts milligrams into grams, for the API edge.
+     *
+     * @param milligrams The amount in milligrams.
+     * @return The amount in grams.
+     */
+    public static double toGrams(long milligrams) {
+        return milligrams / (double) PER_GRAM;
+    }
+
+    /**
+     * Scales an amount per {@link #REFERENCE_AMOUNT} of food to a portion.
+     *
+     * @param perReferenceAmount The amount in 100 g of the food, in milligrams.
+     * @param portion            The portion of the food, in milligrams.
+     * @return The amount in the portion, in milligrams.
+     */
+    public static long scale(long perReferenceAmount, long portion) {
+        return divide(Math.multiplyExact(perReferenceAmount, portion), REFERENCE_AMOUNT);
+    }
+
+    /**
+     * Multiplies an amount with a factor, e.g. a profile adjustment.
+     *
+     * @param milligrams The amount in milligrams.
+     * @param factor     The factor.
+     * @return The product, in milligrams.
+     */
+    public static long multiply(long milligrams, double factor) {
+        return round(milligrams * factor);
+    }
+
+    /**
+     * Expresses a part of a whole in percent, with two decimal places.
+     *
+     * @param part  The part, in milligrams.
+     * @param whole The whole, in milligrams; must not be zero.
+     * @return The percentage.
+     */
+    public static double percent(long part, long whole) {
+        return divide(Math.multiplyExact(part, 10_000L), whole) / 100.0;
+    }
+
+    /**
+     * Rounds to a whole milligram, half away from zero; {@link Math#round(double)} rounds half up.
+     */
+    private static long round(double milligrams) {
+        return milligrams < 0 ? -Math.round(-milligrams) : Math.round(milligrams);
+    }
+
+    /**
+     * Divides and rounds the quotient half away from zero.
+     */
+    static long divide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (2 * Math.abs(remainder) >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
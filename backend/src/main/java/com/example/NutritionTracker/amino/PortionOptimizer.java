@@ -0,0 +1,349 @@
+package com.example.NutritionTracker.amino;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Finds the least total portions of food items that cover given amino acid gaps, i.e. solves the linear program
+ * <pre>
+ *   minimize   sum(x[f])
+ *   subject to sum(x[f] * value[f][a]) &gt;= gap[a]   for every amino acid a
+ *              0 &lt;= x[f] &lt;= maxPortions
+ * </pre>
+ * over the rows of a {@link FoodAminoMatrix}, where a portion is the amount the profile values refer to.
+ *
+ * The solver is a bounded dual simplex. With one constraint per amino acid, the basis is at most 10x10 and is
+ * simply inverted in every iteration; pricing multiplies the columnar matrix with two vectors per iteration.
+ * The surplus basis, which buys no food at all, is dual feasible because every food costs one portion, and so is
+ * every basis reached later, as long as only the gaps or the cap change. A {@link Basis} returned by an earlier
+ * solve over the same matrix and amino acids, even an interrupted one, therefore warm-starts the next solve,
+ * which typically needs only a few pivots after a food item was added to the log.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class PortionOptimizer {
+
+    /** Upper bound for the iterations of one solve, a safety net against cycling. */
+    private static final int MAX_ITERATIONS = 10_000;
+
+    private static final double EPSILON = 1e-9;
+
+    private final FoodAminoMatrix matrix;
+    private final AminoAcid[] aminoAcids;
+
+    /**
+     * Creates an optimizer over the given food items and amino acids.
+     *
+     * @param matrix     The amino acid profiles of the food items.
+     * @param aminoAcids The amino acids to cover, one constraint each.
+     */
+    public PortionOptimizer(FoodAminoMatrix matrix, AminoAcid... aminoAcids) {
+        this.matrix = matrix;
+        this.aminoAcids = aminoAcids.clone();
+    }
+
+    /** The outcome of a solve. */
+    public enum Status {
+        /** The portions are optimal. */
+        OPTIMAL,
+        /** The gaps cannot be covered within the portion cap. */
+        INFEASIBLE,
+        /** The time or iteration limit was reached before an optimal solution was found. */
+        LIMIT_REACHED
+    }
+
+    /**
+     * A basis of the program, to warm-start a later solve over the same matrix and amino acids.
+     */
+    public static final class Basis {
+        private final int columns;
+        private final int[] variables;
+        private final BitSet atUpper;
+
+        private Basis(int columns, int[] variables, BitSet atUpper) {
+            this.columns = columns;
+            this.variables = variables.clone();
+            this.atUpper = (BitSet) atUpper.clone();
+        }
+    }
+
+    /**
+     * The result of a solve.
+     *
+     * @param status     The outcome; portions are only given if it is {@link Status#OPTIMAL}.
+     * @param rows       The matrix rows of the food items to eat.
+     * @param portions   The portions of these food items.
+     * @param iterations The simplex iterations performed.
+     * @param basis      The final basis, for a warm start.
+     */
+    public record Solution(Status status, int[] rows, double[] portions, int iterations, Basis basis) {
+    }
+
+    /**
+     * Solves the program over all food items of the matrix.
+     *
+     * @param gaps        The amount to cover per amino acid, in the order given to the constructor.
+     * @param maxPortions The most portions of a single food item.
+     * @param warmStart   A basis of an earlier solve over the same matrix and amino acids, or {@code null}.
+     * @param deadline    The {@link System#nanoTime()} after which the solve gives up.
+     * @return The solution.
+     */
+    public Solution solve(double[] gaps, double maxPortions, Basis warmStart, long deadline) {
+        return new Simplex(null, gaps, maxPortions, deadline).run(warmStart);
+    }
+
+    /**
+     * Solves the program over the given food items only, from scratch.
+     *
+     * @param rows        The matrix rows of the food items that may be used.
+     * @param gaps        The amount to cover per amino acid, in the order given to the constructor.
+     * @param maxPortions The most portions of a single food item.
+     * @param deadline    The {@link System#nanoTime()} after which the solve gives up.
+     * @return The solution, referring to matrix rows.
+     */
+    public Solution solve(int[] rows, double[] gaps, double maxPortions, long deadline) {
+        return new Simplex(rows.clone(), gaps, maxPortions, deadline).run(null);
+    }
+
+    /**
+     * One solve. Columns {@code 0..n-1} are the food items, {@code n..n+m-1} the surplus of each constraint.
+     */
+    private final class Simplex {
+        private final int[] candidates;
+        private final double[] gaps;
+        private final double maxPortions;
+        private final long deadline;
+        private final int m = aminoAcids.length;
+        private final int n;
+        private final double[] factors = new double[AminoAcid.COUNT];
+
+        private Simplex(int[] candidates, double[] gaps, double maxPortions, long deadline) {
+            this.candidates = candidates;
+            this.gaps = gaps;
+            this.maxPortions = maxPortions;
+            this.deadline = deadline;
+            this.n = candidates != null ? candidates.length : matrix.size();
+        }
+
+        private Solution run(Basis warmStart) {
+            int[] basis = new int[m];
+            BitSet atUpper = new BitSet(n);
+            if (warmStart != null && warmStart.columns == n && warmStart.variables.length == m) {
+                System.arraycopy(warmStart.variables, 0, basis, 0, m);
+                atUpper.or(warmStart.atUpper);
+            } else {
+                coldBasis(basis, atUpper);
+            }
+            boolean[] basic = new boolean[n + m];
+            for (int variable : basis) {
+                basic[variable] = true;
+            }
+
+            double[] reducedCosts = new double[n];
+            double[] pivotRow = new double[n];
+            for (int iteration = 0; ; iteration++) {
+                if (iteration >= MAX_ITERATIONS || (iteration > 0 && System.nanoTime() - deadline > 0)) {
+                    return new Solution(Status.LIMIT_REACHED, new int[0], new double[0], iteration, new Basis(n, basis, atUpper));
+                }
+
+                double[][] inverse = invert(basis);
+                if (inverse == null) {
+                    // A numerically singular warm start; start over from the surplus basis
+                    Arrays.fill(basic, false);
+                    coldBasis(basis, atUpper);
+                    for (int variable : basis) {
+                        basic[variable] = true;
+                    }
+                    inverse = invert(basis);
+                }
+                double[] values = basicValues(inverse, atUpper);
+
+                // Leaving variable: the basic variable violating its bounds most
+                int leave = -1;
+                boolean belowLower = false;
+                double worst = EPSILON;
+                for (int i = 0; i < m; i++) {
+                    if (-values[i] > worst) {
+                        worst = -values[i];
+                        leave = i;
+                        belowLower = true;
+                    }
+                    if (basis[i] < n && values[i] - maxPortions > worst) {
+                        worst = values[i] - maxPortions;
+                        leave = i;
+                        belowLower = false;
+                    }
+                }
+                if (leave < 0) {
+                    return optimal(basis, atUpper, values, iteration);
+                }
+
+                // Duals y = c_B * B^-1, reduced costs d = c - y * A, pivot row alpha = (B^-1 * A)[leave]
+                double[] duals = new double[m];
+                for (int i = 0; i < m; i++) {
+                    if (basis[i] < n) {
+                        for (int r = 0; r < m; r++) {
+                            duals[r] += inverse[i][r];
+                        }
+                    }
+                }
+                multiply(duals, reducedCosts);
+                multiply(inverse[leave], pivotRow);
+
+                // Entering variable: the dual ratio test keeps every reduced cost on the right side of zero
+                int enter = -1;
+                double bestRatio = Double.POSITIVE_INFINITY;
+                double bestPivot = 0;
+                for (int j = 0; j < n + m; j++) {
+                    if (basic[j]) {
+                        continue;
+                    }
+                    boolean upper = j < n && atUpper.get(j);
+                    double alpha = j < n ? pivotRow[j] : -inverse[leave][j - n];
+                    double reducedCost = j < n ? 1 - reducedCosts[j] : duals[j - n];
+                    boolean eligible = belowLower == upper ? alpha > EPSILON : alpha < -EPSILON;
+                    if (!eligible) {
+                        continue;
+                    }
+                    double ratio = Math.abs(reducedCost) / Math.abs(alpha);
+                    if (ratio < bestRatio - EPSILON || (ratio <= bestRatio + EPSILON && Math.abs(alpha) > bestPivot)) {
+                        enter = j;
+                        bestRatio = Math.min(ratio, bestRatio);
+                        bestPivot = Math.abs(alpha);
+                    }
+                }
+                if (enter < 0) {
+                    return new Solution(Status.INFEASIBLE, new int[0], new double[0], iteration, new Basis(n, basis, atUpper));
+                }
+
+                int leaving = basis[leave];
+                basic[leaving] = false;
+                if (leaving < n && !belowLower) {
+                    atUpper.set(leaving);
+                }
+                basis[leave] = enter;
+                basic[enter] = true;
+                if (enter < n) {
+                    atUpper.clear(enter);
+                }
+            }
+        }
+
+        private void coldBasis(int[] basis, BitSet atUpper) {
+            for (int i = 0; i < m; i++) {
+                basis[i] = n + i;
+            }
+            atUpper.clear();
+        }
+
+        private Solution optimal(int[] basis, BitSet atUpper, double[] values, int iterations) {
+            double[] portions = new double[n];
+            for (int j = atUpper.nextSetBit(0); j >= 0; j = atUpper.nextSetBit(j + 1)) {
+                portions[j] = maxPortions;
+            }
+            for (int i = 0; i < m; i++) {
+                if (basis[i] < n) {
+                    portions[basis[i]] = Math.max(0, Math.min(values[i], maxPortions));
+                }
+            }
+            int count = 0;
+            int[] rows = new int[m + atUpper.cardinality()];
+            double[] amounts = new double[rows.length];
+            for (int j = 0; j < n; j++) {
+                if (portions[j] > EPSILON) {
+                    rows[count] = row(j);
+                    amounts[count++] = portions[j];
+                }
+            }
+            return new Solution(Status.OPTIMAL, Arrays.copyOf(rows, count), Arrays.copyOf(amounts, count),
+                    iterations, new Basis(n, basis, atUpper));
+        }
+
+        /** Values of the basic variables: B^-1 * (gaps - sum of the columns at their upper bound). */
+        private double[] basicValues(double[][] inverse, BitSet atUpper) {
+            double[] rhs = gaps.clone();
+            for (int j = atUpper.nextSetBit(0); j >= 0; j = atUpper.nextSetBit(j + 1)) {
+                for (int r = 0; r < m; r++) {
+                    rhs[r] -= value(j, r) * maxPortions;
+                }
+            }
+            double[] values = new double[m];
+            for (int i = 0; i < m; i++) {
+                for (int r = 0; r < m; r++) {
+                    values[i] += inverse[i][r] * rhs[r];
+                }
+            }
+            return values;
+        }
+
+        /** {@code result[j] = sum(coefficients[r] * value(j, r))} for every food column. */
+        private void multiply(double[] coefficients, double[] result) {
+            if (candidates == null) {
+                Arrays.fill(factors, 0.0);
+                for (int r = 0; r < m; r++) {
+                    factors[aminoAcids[r].ordinal()] = coefficients[r];
+                }
+                matrix.multiply(factors, result);
+                return;
+            }
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int r = 0; r < m; r++) {
+                    sum += coefficients[r] * value(j, r);
+                }
+                result[j] = sum;
+            }
+        }
+
+        /** Inverts the basis matrix by Gauss-Jordan elimination, or returns {@code null} if it is singular. */
+        private double[][] invert(int[] basis) {
+            double[][] a = new double[m][2 * m];
+            for (int i = 0; i < m; i++) {
+                int variable = basis[i];
+                for (int r = 0; r < m; r++) {
+                    a[r][i] = variable < n ? value(variable, r) : (variable - n == r ? -1 : 0);
+                }
+                a[i][m + i] = 1;
+            }
+            for (int col = 0; col < m; col++) {
+                int pivot = col;
+                for (int r = col + 1; r < m; r++) {
+                    if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) {
+                        pivot = r;
+                    }
+                }
+                if (Math.abs(a[pivot][col]) < EPSILON) {
+                    return null;
+                }
+                double[] swap = a[col];
+                a[col] = a[pivot];
+                a[pivot] = swap;
+                double scale = a[col][col];
+                for (int k = 0; k < 2 * m; k++) {
+                    a[col][k] /= scale;
+                }
+                for (int r = 0; r < m; r++) {
+                    double factor = a[r][col];
+                    if (r != col && factor != 0) {
+                        for (int k = 0; k < 2 * m; k++) {
+                            a[r][k] -= factor * a[col][k];
+                        }
+                    }
+                }
+            }
+            double[][] inverse = new double[m][];
+            for (int r = 0; r < m; r++) {
+                inverse[r] = Arrays.copyOfRange(a[r], m, 2 * m);
+            }
+            return inverse;
+        }
+
+        private double value(int column, int constraint) {
+            return matrix.get(row(column), aminoAcids[constraint]);
+        }
+
+        private int row(int column) {
+            return candidates != null ? candidates[column] : column;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package com.example.NutritionTracker.api;
 
+import com.example.NutritionTracker.dto.AminoProfileSummaryDTO;
+import com.example.NutritionTracker.dto.FoodRecommendationDTO;
+import com.example.NutritionTracker.dto.MealPlanDTO;
 import com.example.NutritionTracker.service.AminoProfileService;
+import com.example.NutritionTracker.service.CoverageStreamService;
+import com.example.NutritionTracker.service.ResourceVersions;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Endpoints of the amino acid profile. The GET reads of values derived from the latest log and the user carry an
+ * ETag of the versions they are computed from (see {@link ResourceVersions}); a request with a matching
+ * {@code If-None-Match} header is answered with 304 Not Modified before anything is computed.
+ */
 @RestController
 @RequestMapping("/amino-profile")
 @RequiredArgsConstructor
 public class AminoProfileController {
     private final AminoProfileService aminoProfileService;
+    private final CoverageStreamService coverageStreamService;
+    private final ResourceVersions resourceVersions;
     private static final Logger logger = LoggerFactory.getLogger(AminoProfileController.class);
 
     /**
@@ -24,20 +41,25 @@ public class AminoProfileController {
     public ResponseEntity<Map<String, Double>> calculateAminoAcidSum() {
         logger.info("Request zum Berechnen der Aminosäuren für das neueste Log erhalten.");
 
-        Map<String, Double> aminoAcidSum = aminoProfileService.calculateAminoAcidSumsForLatestLog();
+        Map<String, Double> aminoAcidSum = aminoProfileService.calculateAminoAcidSumsForLatestLog().toMap();
 
         return ResponseEntity.ok(aminoAcidSum);
     }
 
     /**
      * Retrieves the calculated daily amino acid needs based on user weight and decorators.
+     * @param request the current request, used for the conditional GET
      * @return a map of amino acids and their daily required amounts
      */
     @GetMapping("/daily-needs")
-    public ResponseEntity<Map<String, Double>> calculateDailyAminoNeeds() {
+    public ResponseEntity<Map<String, Double>> calculateDailyAminoNeeds(WebRequest request) {
         logger.info("Received request to calculate daily amino acid needs.");
-        Map<String, Double> dailyNeeds = aminoProfileService.calculateDailyAminoAcidNeeds();
-        return ResponseEntity.ok(dailyNeeds);
+        String eTag = resourceVersions.getDailyNeedsETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        Map<String, Double> dailyNeeds = aminoProfileService.calculateDailyAminoAcidNeeds().toMap();
+        return ResponseEntity.ok().eTag(eTag).body(dailyNeeds);
     }
 
     /**
@@ -49,8 +71,64 @@ public class AminoProfileController {
         logger.info("Request zum Berechnen der Aminosäurenabdeckung für das neueste Log erhalten.");
 
         // Calculates Coverage with newest NutritionLog
-        Map<String, Double> coverage = aminoProfileService.calculateAminoAcidCoverageForLatestLog();
+        Map<String, Double> coverage = aminoProfileService.calculateAminoAcidCoverageForLatestLog().toMap();
 
         return ResponseEntity.ok(coverage);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams the coverage of a log as Server-Sent Events: first the current coverage, then a delta after every
+     * committed change of its food items, and heartbeat comments while nothing changes.
+     * @param logId the UUID of the log; the newest log at subscription time if omitted
+     * @return the event stream
+     */
+    @GetMapping(value = "/coverage/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAminoAcidCoverage(@RequestParam(required = false) UUID logId) {
+        logger.info("Received request to stream the amino acid coverage of log {}.", logId != null ? logId : "newest");
+        return coverageStreamService.subscribe(logId);
+    }
+
+    /**
+     * Calculates the amino acid sums, the daily needs and the coverage of the newest log in one request.
+     * @param request the current request, used for the conditional GET
+     * @return the sums and daily needs in grams and the coverage in percent
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<AminoProfileSummaryDTO> calculateAminoProfileSummary(WebRequest request) {
+        logger.info("Received request to summarize the amino acids of the newest log.");
+        String eTag = resourceVersions.getAminoProfileETag("summary");
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(aminoProfileService.calculateSummaryForLatestLog());
+    }
+
+    /**
+     * Recommends the food items that close most of the remaining amino acid gap of the newest log.
+     * @param limit the maximum number of recommendations, at most {@value AminoProfileService#MAX_RECOMMENDATIONS}
+     * @param request the current request, used for the conditional GET
+     * @return the recommended food items, best first
+     */
+    @GetMapping("/recommendations")
+    public ResponseEntity<List<FoodRecommendationDTO>> recommendFoods(@RequestParam(defaultValue = "10") int limit,
+                                                                      WebRequest request) {
+        logger.info("Received request to recommend food items for the newest log.");
+        String eTag = resourceVersions.getAminoProfileETag("recommendations");
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(aminoProfileService.recommendFoodsForLatestLog(limit));
+    }
+
+    /**
+     * Plans the fewest portions of food items that close the remaining amino acid gaps of the newest log.
+     * Not conditional, as the plan depends on the time the solver gets and reports how long it took.
+     * @param maxPortionsPerFood the most portions of a single food item, at most {@value AminoProfileService#MAX_PORTIONS_PER_FOOD}
+     * @return the meal plan, with the solve time and whether the previous plan was reused as a start
+     */
+    @GetMapping("/meal-plan")
+    public ResponseEntity<MealPlanDTO> planMeals(@RequestParam(defaultValue = "5") double maxPortionsPerFood) {
+        logger.info("Received request to plan meals for the newest log.");
+        return ResponseEntity.ok(aminoProfileService.planMealsForLatestLog(maxPortionsPerFood));
+    }
+}
@@ -1,29 +1,161 @@
 package com.example.NutritionTracker.api;
 
+import com.example.NutritionTracker.dto.FoodImportResultDTO;
+import com.example.NutritionTracker.dto.FoodItemCursor;
 import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.dto.FoodItemPageDTO;
+import com.example.NutritionTracker.importer.FoodImportFormat;
+import com.example.NutritionTracker.service.FoodCatalogVersion;
+import com.example.NutritionTracker.service.FoodImportService;
 import com.example.NutritionTracker.service.FoodItemService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+/**
+ * Endpoints of the food catalog. All reads carry the catalog ETag (see {@link FoodCatalogVersion});
+ * a request with a matching {@code If-None-Match} header is answered with 304 Not Modified
+ * before the database is queried.
+ */
 @RestController
 @RequestMapping("/food-items")
 @RequiredArgsConstructor
 public class FoodItemController {
     private final FoodItemService foodItemService;
+    private final FoodCatalogVersion foodCatalogVersion;
+    private final FoodImportService foodImportService;
+    private final ObjectMapper objectMapper;
 
 
     /**
      * Retrieves all available food items as DTOs to prevent Lazy-Loading issues.
      * Converts FoodItem entities into FoodItemDTOs before returning them.
      *
+     * @param request The current request, used for the conditional GET.
      * @return List of all food items as DTOs.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<FoodItemDTO>> getAllFoodItems() {
+    public ResponseEntity<List<FoodItemDTO>> getAllFoodItems(WebRequest request) {
+        String eTag = foodCatalogVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<FoodItemDTO> foodItems = foodItemService.getAllFoodItems();
-        return ResponseEntity.ok(foodItems);
+        return ResponseEntity.ok().eTag(eTag).body(foodItems);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves one page of food items, ordered by name and id.
+     *
+     * @param after The {@code nextCursor} of the previous page; omitted for the first page.
+     * @param limit The page size, at most {@value FoodItemService#MAX_PAGE_SIZE}.
+     * @param request The current request, used for the conditional GET.
+     * @return The page of food items and the cursor of the next page.
+     */
+    @GetMapping
+    public ResponseEntity<FoodItemPageDTO> getFoodItemPage(@RequestParam(required = false) FoodItemCursor after,
+                                                           @RequestParam(defaultValue = "50") int limit,
+                                                           WebRequest request) {
+        String eTag = foodCatalogVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(foodItemService.getFoodItemPage(after, limit));
+    }
+
+    /**
+     * Searches food items by name, e.g. for autocompletion.
+     * Matches the start of the words in the name, ignoring case and umlaut spelling, and tolerates small typos.
+     *
+     * @param query The search query.
+     * @param limit The maximum number of results, at most {@value FoodItemService#MAX_SEARCH_RESULTS}.
+     * @param request The current request, used for the conditional GET.
+     * @return The matching food items, best matches first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<FoodItemDTO>> searchFoodItems(@RequestParam("q") String query,
+                                                             @RequestParam(defaultValue = "10") int limit,
+                                                             WebRequest request) {
+        String eTag = foodCatalogVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(foodItemService.searchFoodItems(query, limit));
+    }
+
+    /**
+     * Streams all food items as one JSON array, ordered by name and id.
+     * The rows are written as they are read from the database cursor, so memory use
+     * does not depend on the size of the catalog.
+     *
+     * @param request The current request, used for the conditional GET.
+     * @return The streamed JSON array of food items.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamFoodItems(WebRequest request) {
+        String eTag = foodCatalogVersion.getETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                foodItemService.forEachFoodItem(foodItem -> {
+                    try {
+                        generator.writeObject(foodItem);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Imports food items from a CSV or NDJSON upload, chosen by the content type.
+     * The body is streamed into the catalog in chunks, so files of millions of rows can be uploaded.
+     * Uploading the same source again resumes after the last committed chunk of the previous upload.
+     *
+     * @param source The name of the source the checkpoint is kept under, e.g. the file name.
+     * @param restart Whether to ignore the checkpoint and import the whole file again; rejected with 409 Conflict
+     *                once food items of the source were imported.
+     * @param contentType The content type of the body, {@value FoodImportFormat#CSV_MEDIA_TYPE}
+     *                    or {@value FoodImportFormat#NDJSON_MEDIA_TYPE}.
+     * @param body The file.
+     * @return The outcome of the import.
+     * @throws IOException If the upload cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {FoodImportFormat.CSV_MEDIA_TYPE, FoodImportFormat.NDJSON_MEDIA_TYPE})
+    public ResponseEntity<FoodImportResultDTO> importFoodItems(@RequestParam String source,
+                                                               @RequestParam(defaultValue = "false") boolean restart,
+                                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                               InputStream body) throws IOException {
+        FoodImportFormat format = FoodImportFormat.fromMediaType(MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(foodImportService.importFoodItems(source, format, body, restart));
+    }
+
+    /**
+     * Retrieves the progress of the running food import, or the outcome of the last one.
+     *
+     * @return The progress of the import.
+     */
+    @GetMapping("/import/progress")
+    public ResponseEntity<FoodImportResultDTO> getImportProgress() {
+        return ResponseEntity.ok(foodImportService.getProgress()
+                .orElseThrow(() -> new EntityNotFoundException("No food import has run yet")));
+    }
+}
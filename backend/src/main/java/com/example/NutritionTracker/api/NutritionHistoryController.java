@@ -0,0 +1,40 @@
+package com.example.NutritionTracker.api;
+
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/nutrition-history")
+@RequiredArgsConstructor
+public class NutritionHistoryController {
+
+    private final NutritionHistoryService nutritionHistoryService;
+
+    /**
+     * Averages the amino acid intake and coverage of the user over the last days, today included.
+     * @param days the number of days, at most {@value NutritionHistoryService#MAX_DAYS}
+     * @return the averages over the days a log was kept for
+     */
+    @GetMapping("/average")
+    public ResponseEntity<NutritionHistoryDTO> averageOverLastDays(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(nutritionHistoryService.averageOverLastDays(days));
+    }
+
+    /**
+     * Averages the amino acid intake and coverage of the user per day, week or month.
+     * @param period the length of the periods: DAY, WEEK or MONTH
+     * @param count the number of periods, the current one included, at most {@value NutritionHistoryService#MAX_TREND_PERIODS}
+     * @return one entry per period, oldest first
+     */
+    @GetMapping("/trend")
+    public ResponseEntity<List<NutritionHistoryDTO>> trend(@RequestParam(defaultValue = "WEEK") RollupPeriod period,
+                                                           @RequestParam(defaultValue = "12") int count) {
+        return ResponseEntity.ok(nutritionHistoryService.trend(period, count));
+    }
+}
@@ -1,16 +1,34 @@
 package com.example.NutritionTracker.api;
 
+import com.example.NutritionTracker.dto.AminoTotalsDriftDTO;
 import com.example.NutritionTracker.dto.NutritionLogCreateDTO;
 import com.example.NutritionTracker.dto.NutritionLogDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemCreateDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemDTO;
 import com.example.NutritionTracker.dto.NutritionLogResponseDTO;
 import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.exporter.NutritionLogExportFormat;
+import com.example.NutritionTracker.exporter.NutritionLogExportWriter;
+import com.example.NutritionTracker.service.AminoTotalsConsistencyService;
+import com.example.NutritionTracker.service.NutritionHistoryService;
 import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.ResourceVersions;
+import com.example.NutritionTracker.service.UserDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +37,11 @@ import java.util.UUID;
 public class NutritionLogController {
 
     private final NutritionLogService nutritionLogService;
+    private final AminoTotalsConsistencyService aminoTotalsConsistencyService;
+    private final NutritionHistoryService nutritionHistoryService;
+    private final UserDataService userDataService;
+    private final ResourceVersions resourceVersions;
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a new NutritionLog for a user.
@@ -38,18 +61,93 @@ public class NutritionLogController {
     /**
      * Adds a food item to an existing NutritionLog.
      *
-     * The specified food item is linked to the provided NutritionLog ID.
+     * The specified food item is linked to the provided NutritionLog ID with the eaten portion.
      *
      * @param logId The ID of the NutritionLog.
      * @param foodItemId The ID of the food item to be added.
+     * @param grams The eaten portion in grams; defaults to the 100 g the amino acid profiles refer to.
      * @return ResponseEntity with HTTP status 201 (Created) if the food item was successfully added.
      */
     @PostMapping("/{logId}/food-items/{foodItemId}")
-    public ResponseEntity<Void> addFoodItemToLog(@PathVariable UUID logId, @PathVariable UUID foodItemId) {
-        nutritionLogService.addFoodItemToLog(logId, foodItemId);
+    public ResponseEntity<Void> addFoodItemToLog(@PathVariable UUID logId, @PathVariable UUID foodItemId,
+                                                 @RequestParam(defaultValue = "100") double grams) {
+        nutritionLogService.addFoodItemToLog(logId, foodItemId, grams);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /**
+     * Adds several food items, e.g. a whole meal, to an existing NutritionLog with one request.
+     *
+     * Food items already present in the log are skipped.
+     *
+     * @param logId The ID of the NutritionLog.
+     * @param items The food items with their portions in grams; a missing portion counts as 100 g.
+     * @return ResponseEntity with HTTP status 201 (Created) containing the added entries.
+     */
+    @PostMapping("/{logId}/food-items")
+    public ResponseEntity<List<NutritionLogFoodItemDTO>> addFoodItemsToLog(
+            @PathVariable UUID logId, @RequestBody List<NutritionLogFoodItemCreateDTO> items) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(nutritionLogService.addFoodItemsToLog(logId, items));
+    }
+
+    /**
+     * Removes a food item from an existing NutritionLog.
+     *
+     * @param logId The ID of the NutritionLog.
+     * @param foodItemId The ID of the food item to be removed.
+     * @return ResponseEntity with HTTP status 204 (No Content) if the food item was removed.
+     */
+    @DeleteMapping("/{logId}/food-items/{foodItemId}")
+    public ResponseEntity<Void> removeFoodItemFromLog(@PathVariable UUID logId, @PathVariable UUID foodItemId) {
+        nutritionLogService.removeFoodItemFromLog(logId, foodItemId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Recomputes the amino acid totals of all NutritionLogs from their food items and reports drift.
+     *
+     * @param repair If {@code true}, drifted totals are overwritten with the recomputed values.
+     * @return ResponseEntity containing one entry per NutritionLog whose stored totals deviate.
+     */
+    @PostMapping("/totals/verify")
+    public ResponseEntity<List<AminoTotalsDriftDTO>> verifyAminoAcidTotals(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(aminoTotalsConsistencyService.verifyTotals(repair));
+    }
+
+    /**
+     * Exports all NutritionLogs of the user, ordered by day, with their amino acid intake and coverage.
+     * The logs are written as they are read from the database cursor, so memory use does not depend on
+     * the number of logs, and the first log is sent before the rest has been read.
+     *
+     * @param format The file format, {@code NDJSON} (one JSON object per line) or {@code CSV}.
+     * @return The streamed export, or HTTP 404 (Not Found) if no user exists.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNutritionLogs(
+            @RequestParam(defaultValue = "NDJSON") NutritionLogExportFormat format) {
+        // Checked before the body is written, as a missing user can no longer be answered with 404 afterwards
+        userDataService.getUser().orElseThrow(() -> new EntityNotFoundException("No user found"));
+        StreamingResponseBody body = outputStream -> {
+            try (NutritionLogExportWriter writer = format.open(outputStream, objectMapper)) {
+                nutritionHistoryService.forEachLog(nutritionLog -> {
+                    try {
+                        writer.write(nutritionLog);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("nutrition-logs." + format.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(body);
+    }
+
     /**
      * Retrieves a specific NutritionLog by its ID.
      *
@@ -65,14 +163,24 @@ public class NutritionLogController {
     /**
      * Retrieves the latest NutritionLog from the database.
      *
-     * This method fetches the most recent NutritionLog entry if available.
+     * This method fetches the most recent NutritionLog entry if available. It carries an ETag of the ID and
+     * versions of the log, so that a request with a matching {@code If-None-Match} header is answered with
+     * 304 Not Modified after a single indexed lookup, without loading the food items.
      *
+     * @param request The current request, used for the conditional GET.
      * @return ResponseEntity containing the latest NutritionLogDTO if found, otherwise HTTP 404 (Not Found).
      */
     @GetMapping("/latest")
-    public ResponseEntity<NutritionLogDTO> getLatestNutritionLog() {
+    public ResponseEntity<NutritionLogDTO> getLatestNutritionLog(WebRequest request) {
+        Optional<String> eTag = resourceVersions.getLatestLogETag();
+        if (eTag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return nutritionLogService.getLatestNutritionLog()
-                .map(ResponseEntity::ok)
+                .map(latestLog -> ResponseEntity.ok().eTag(eTag.get()).body(latestLog))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -3,19 +3,25 @@ package com.example.NutritionTracker.api;
 import com.example.NutritionTracker.dto.UserDTO;
 import com.example.NutritionTracker.dto.UserDataDTO;
 import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.service.ResourceVersions;
 import com.example.NutritionTracker.service.UserDataService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/user-data")
 public class UserDataController {
 
     private final UserDataService userDataService;
+    private final ResourceVersions resourceVersions;
 
-    public UserDataController(UserDataService userDataService) {
+    public UserDataController(UserDataService userDataService, ResourceVersions resourceVersions) {
         this.userDataService = userDataService;
+        this.resourceVersions = resourceVersions;
     }
 
     /**
@@ -35,13 +41,22 @@ public class UserDataController {
     /**
      * Retrieves the current user from the database.
      * This API is used by the frontend to display the user's name.
+     * It carries an ETag of the user's version; a request with a matching {@code If-None-Match} header
+     * is answered with 304 Not Modified.
      *
+     * @param request The current request, used for the conditional GET.
      * @return The current user as a DTO if found, otherwise 404 Not Found.
      */
     @GetMapping("/current")
-    public ResponseEntity<UserDTO> getCurrentUser() {
-        return userDataService.getUser()
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<UserDTO> getCurrentUser(WebRequest request) {
+        Optional<UserDTO> user = userDataService.getUser();
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = resourceVersions.getUserETag(user.get());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(user.get());
     }
 }
\ No newline at end of file
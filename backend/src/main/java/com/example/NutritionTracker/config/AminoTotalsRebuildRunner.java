@@ -0,0 +1,42 @@
+package com.example.NutritionTracker.config;
+
+import com.example.NutritionTracker.dto.AminoTotalsDriftDTO;
+import com.example.NutritionTracker.service.AminoTotalsConsistencyService;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds the running amino acid totals of all NutritionLogs, and the history rollups summed from them, at startup.
+ * Only active when the application is started with {@code --nutrition.totals.rebuild=true}.
+ * Runs after all other startup runners, so that seeded data is included.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "nutrition.totals.rebuild", havingValue = "true")
+@RequiredArgsConstructor
+public class AminoTotalsRebuildRunner implements CommandLineRunner {
+
+    private final AminoTotalsConsistencyService aminoTotalsConsistencyService;
+    private final NutritionHistoryService nutritionHistoryService;
+
+    /**
+     * Verifies and repairs the amino acid totals of all NutritionLogs, then rebuilds the rollups from them.
+     *
+     * @param args Command-line arguments (not used in this implementation).
+     */
+    @Override
+    public void run(String... args) {
+        List<AminoTotalsDriftDTO> drifts = aminoTotalsConsistencyService.verifyTotals(true);
+        log.info("Amino acid totals rebuilt. {} NutritionLogs had drifted totals.", drifts.size());
+        nutritionHistoryService.rebuildRollups();
+    }
+}
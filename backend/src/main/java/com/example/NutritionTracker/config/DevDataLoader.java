@@ -7,7 +7,7 @@ import com.example.NutritionTracker.entity.User;
 import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
 import com.example.NutritionTracker.repo.FoodItemRepository;
 import com.example.NutritionTracker.repo.NutritionLogRepository;
-import com.example.NutritionTracker.repo.UserRepository;
+import com.example.NutritionTracker.service.CurrentUserResolver;
 import com.example.NutritionTracker.service.FoodItemService;
 import com.example.NutritionTracker.service.NutritionLogService;
 import com.example.NutritionTracker.service.UserService;
@@ -37,7 +37,7 @@ public class DevDataLoader implements CommandLineRunner {
     private final NutritionLogService nutritionLogService;
     private final UserService userService;
     private final AminoAcidRequirementRepository aminoAcidRequirementRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
     private final NutritionLogRepository nutritionLogRepository;
 
 
@@ -65,7 +65,8 @@ public class DevDataLoader implements CommandLineRunner {
 
         try {
             // Check if a user already exists
-            Optional<User> existingUser = userRepository.findAll().stream().findFirst();           User user;
+            Optional<User> existingUser = currentUserResolver.findCurrentUser();
+            User user;
             if (existingUser.isPresent()) {
                 user = existingUser.get();
                 log.warn("Ein Benutzer existiert bereits. Nutze vorhandenen Benutzer mit ID: {}", user.getId());
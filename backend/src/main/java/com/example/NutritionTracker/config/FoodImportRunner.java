@@ -0,0 +1,57 @@
+package com.example.NutritionTracker.config;
+
+import com.example.NutritionTracker.dto.FoodImportResultDTO;
+import com.example.NutritionTracker.importer.FoodImportFormat;
+import com.example.NutritionTracker.service.FoodImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a food composition file into the catalog at startup.
+ * Only active when the application is started with {@code --nutrition.import.file=<path>}, the format follows
+ * the extension ({@code .csv}, {@code .ndjson} or {@code .jsonl}). The checkpoint is kept under the file name,
+ * so restarting after an interrupted import continues where it stopped.
+ * Runs after all other startup runners, so that seeded data comes first.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "nutrition.import.file")
+public class FoodImportRunner implements CommandLineRunner {
+
+    private final FoodImportService foodImportService;
+    private final Path file;
+
+    /**
+     * Constructs the runner.
+     *
+     * @param foodImportService The service importing the file.
+     * @param file              The file to import.
+     */
+    public FoodImportRunner(FoodImportService foodImportService, @Value("${nutrition.import.file}") Path file) {
+        this.foodImportService = foodImportService;
+        this.file = file;
+    }
+
+    /**
+     * Imports the configured file.
+     *
+     * @param args Command-line arguments (not used in this implementation).
+     * @throws Exception If the file cannot be read.
+     */
+    @Override
+    public void run(String... args) throws Exception {
+        String source = file.getFileName().toString();
+        FoodImportResultDTO result = foodImportService.importFoodItems(
+                source, FoodImportFormat.fromFileName(source), Files.newInputStream(file), false);
+        log.info("Imported {} food items from {} ({} rows rejected).", result.getRowsImported(), file, result.getRowsRejected());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.NutritionTracker.config;
+
+import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuration of the Hibernate second-level cache, enabled with {@code nutrition.second-level-cache}.
+ *
+ * The regions live in a Caffeine-backed JCache {@link CacheManager} owned by this application context,
+ * so that test contexts running side by side never share cached entities. Entity and collection regions
+ * are bounded and expire after an hour as a safety net for changes made outside of Hibernate; the
+ * update timestamps region must never evict, otherwise cached query results could outlive a write.
+ * The regions are exported as {@code cache_*} meters. Hibernate's own statistics stay off, since they also log the
+ * metrics of every session; {@code spring.jpa.properties.hibernate.generate_statistics=true} adds them as {@code hibernate_*} meters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "nutrition.second-level-cache", havingValue = "true")
+public class HibernateCacheConfig {
+
+    private static final Duration ENTITY_TTL = Duration.ofHours(1);
+
+    /**
+     * Creates the JCache manager holding the second-level cache regions.
+     *
+     * @param registry The meter registry the region metrics are registered in.
+     * @return The cache manager, closed together with the application context.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry registry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("nutrition-tracker-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, registry, FoodItem.CACHE_REGION, bounded(10_000, ENTITY_TTL));
+        createRegion(cacheManager, registry, FoodItem.PROFILE_CACHE_REGION, bounded(10_000, ENTITY_TTL));
+        createRegion(cacheManager, registry, AminoAcidRequirement.CACHE_REGION, bounded(1_000, ENTITY_TTL));
+        createRegion(cacheManager, registry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(1_000, ENTITY_TTL));
+        createRegion(cacheManager, registry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, statisticsEnabled(new CaffeineConfiguration<>()));
+        return cacheManager;
+    }
+
+    /**
+     * Enables the second-level and query cache and hands the cache manager to Hibernate,
+     * instead of letting it look up the JVM-wide default manager. A region that was not created
+     * above fails the startup rather than being created with default settings.
+     *
+     * @param hibernateCacheManager The cache manager holding the regions.
+     * @return The customizer adding the cache settings to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return statisticsEnabled(configuration);
+    }
+
+    private static CaffeineConfiguration<Object, Object> statisticsEnabled(CaffeineConfiguration<Object, Object> configuration) {
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry registry, String name,
+                                     CaffeineConfiguration<Object, Object> configuration) {
+        JCacheMetrics.monitor(registry, cacheManager.createCache(name, configuration));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.NutritionTracker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for Micrometer metrics.
+ *
+ * Enables {@code @Timed} on service classes. Percentiles and histograms for the
+ * {@code nutrition.service} and {@code http.server.requests} timers are configured
+ * in application.yml and exported via {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Creates the aspect that records a timer for every method of a class annotated with {@code @Timed}.
+     *
+     * @param registry The meter registry the timers are registered in.
+     * @return The timed aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -40,6 +40,9 @@ public class WebConfig {
         // Allow all headers
         config.setAllowedHeaders(List.of("*"));
 
+        // Let the frontend read the ETag for conditional requests
+        config.setExposedHeaders(List.of("ETag"));
+
         // Allow common HTTP methods
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
@@ -1,6 +1,6 @@
 package com.example.NutritionTracker.decorator;
 
-import java.util.Map;
+import com.example.NutritionTracker.amino.AminoVector;
 
 /**
  * Interface for calculating amino acid requirements.
@@ -12,8 +12,8 @@ public interface AminoAcidCalculator {
     /**
      * Calculates the daily amino acid requirements based on the given input values.
      *
-     * @param dailyNeeds A map containing the base amino acid requirements.
-     * @return A map with the calculated amino acid values after modifications.
+     * @param dailyNeeds A vector containing the base amino acid requirements.
+     * @return A vector with the calculated amino acid values after modifications.
      */
-    Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds);
+    AminoVector calculateAminoAcids(AminoVector dailyNeeds);
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.example.NutritionTracker.decorator;
 
-import java.util.Map;
+import com.example.NutritionTracker.amino.AminoVector;
 
 /**
  * Abstract decorator class for modifying amino acid calculations.
  * This serves as a base class for specific decorators that adjust the amino acid requirements.
  * The decorator pattern allows multiple modifications to be applied dynamically.
+ *
+ * Every decorator scales amino acids by constant factors. These factors are exposed through
+ * {@link #getMultipliers()} so that {@link CompiledAminoAcidChain} can fold a whole stack of
+ * decorators into a single multiplier vector.
  */
 public abstract class AminoAcidCalculatorDecorator implements AminoAcidCalculator {
     protected final AminoAcidCalculator wrapped;
@@ -23,11 +27,28 @@ public abstract class AminoAcidCalculatorDecorator implements AminoAcidCalculato
      * Calculates amino acid needs by delegating the computation to the wrapped calculator.
      * Specific decorators will override this method to modify the calculation.
      *
-     * @param dailyNeeds A map of amino acid requirements before modifications.
-     * @return A modified map of amino acid needs.
+     * @param dailyNeeds A vector of amino acid requirements before modifications.
+     * @return A modified vector of amino acid needs.
      */
     @Override
-    public Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds) {
+    public AminoVector calculateAminoAcids(AminoVector dailyNeeds) {
         return wrapped.calculateAminoAcids(dailyNeeds);
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the factors this decorator multiplies the amino acid needs with.
+     * Amino acids without a factor are left unchanged. The returned vector is shared and must not be modified.
+     *
+     * @return The per-amino-acid multipliers of this decorator.
+     */
+    protected abstract AminoVector getMultipliers();
+
+    /**
+     * Indicates whether this decorator adds amino acids that are missing from its input (with a value of 0).
+     *
+     * @return {@code true} if missing amino acids are added, {@code false} by default.
+     */
+    protected boolean addsMissingAminoAcids() {
+        return false;
+    }
+}
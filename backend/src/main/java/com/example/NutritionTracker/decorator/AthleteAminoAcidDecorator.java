@@ -1,8 +1,11 @@
 package com.example.NutritionTracker.decorator;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Decorator class for adjusting amino acid requirements for athletes.
@@ -11,6 +14,18 @@ import java.util.Map;
  */
 public class AthleteAminoAcidDecorator extends AminoAcidCalculatorDecorator {
 
+    /** Branched-Chain Amino Acids (BCAAs). */
+    private static final Set<AminoAcid> BCAAS = EnumSet.of(AminoAcid.LEUCIN, AminoAcid.ISOLEUCIN, AminoAcid.VALIN);
+
+    /** Multipliers applied by this decorator: BCAAs +30%, all other amino acids +15%. */
+    private static final AminoVector MULTIPLIERS = AminoVector.empty();
+
+    static {
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            MULTIPLIERS.set(aminoAcid, BCAAS.contains(aminoAcid) ? 1.3 : 1.15);
+        }
+    }
+
     /**
      * Constructs an {@code AthleteAminoAcidDecorator} with the given base calculator.
      *
@@ -24,38 +39,22 @@ public class AthleteAminoAcidDecorator extends AminoAcidCalculatorDecorator {
      * Adjusts the daily amino acid requirements for athletes.
      * Increases BCAAs (Leucine, Isoleucine, Valine) by 30% and all other amino acids by 15%.
      *
-     * @param dailyNeeds A map of baseline amino acid requirements before adjustments.
-     * @return A modified map with increased amino acid needs for athletes.
+     * @param dailyNeeds A vector of baseline amino acid requirements before adjustments.
+     * @return A modified vector with increased amino acid needs for athletes.
      */
     @Override
-    public Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds) {
-        // Create a copy of the calculated values to avoid side effects
-        Map<String, Double> aminoAcids = new HashMap<>(super.calculateAminoAcids(dailyNeeds));
-
-        // List of BCAAs
-        List<String> BCAAs = List.of("Leucin", "Isoleucin", "Valin");
+    public AminoVector calculateAminoAcids(AminoVector dailyNeeds) {
+        // Work on whole milligrams, so every product is rounded exactly once
+        AminoMilligrams aminoAcids = AminoMilligrams.fromGrams(super.calculateAminoAcids(dailyNeeds));
 
-        // Increase BCAAs by 30%
-        for (String bcaa : BCAAs) {
-            aminoAcids.computeIfPresent(bcaa, (k, v) -> v * 1.3);
-        }
-
-        // Increase all other amino acids by 15%, except for BCAAs
-        aminoAcids.replaceAll((key, value) -> BCAAs.contains(key) ? value : value * 1.15);
+        // Increase BCAAs by 30% and all other amino acids by 15%
+        aminoAcids.multiplyAll(MULTIPLIERS);
 
-        // Round values to two decimal places
-        aminoAcids.replaceAll((key, value) -> round(value));
-
-        return aminoAcids;
+        return aminoAcids.toGrams();
     }
 
-    /**
-     * Helper method to round values to 2 decimal places.
-     *
-     * @param value The value to be rounded.
-     * @return The rounded value with 2 decimal places.
-     */
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    @Override
+    protected AminoVector getMultipliers() {
+        return MULTIPLIERS;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.example.NutritionTracker.decorator;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.Milligrams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A stack of {@link AminoAcidCalculatorDecorator}s folded into one multiplier per amino acid.
+ *
+ * Every decorator only scales amino acids by constant factors, so a whole chain is equivalent to
+ * the product of its factors. Applying a compiled chain is a single loop over the amino acids,
+ * with rounding to whole milligrams done once at the end instead of after every decorator.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class CompiledAminoAcidChain {
+
+    /** The chain without any decorators. */
+    public static final CompiledAminoAcidChain IDENTITY = compile(dailyNeeds -> dailyNeeds);
+
+    private final double[] multipliers;
+    private final Set<AminoAcid> addedAminoAcids;
+    private final List<String> decorators;
+
+    private CompiledAminoAcidChain(double[] multipliers, Set<AminoAcid> addedAminoAcids, List<String> decorators) {
+        this.multipliers = multipliers;
+        this.addedAminoAcids = addedAminoAcids;
+        this.decorators = decorators;
+    }
+
+    /**
+     * Compiles a decorator stack into a single chain.
+     * The innermost calculator (the one that is not a decorator) is expected to pass its input through
+     * unchanged, as {@link DailyAminoAcidCalculator#calculateAminoAcids} does.
+     *
+     * @param calculator The outermost calculator of the stack.
+     * @return The compiled chain.
+     */
+    public static CompiledAminoAcidChain compile(AminoAcidCalculator calculator) {
+        double[] multipliers = new double[AminoAcid.COUNT];
+        Arrays.fill(multipliers, 1.0);
+        Set<AminoAcid> addedAminoAcids = EnumSet.noneOf(AminoAcid.class);
+        List<String> decorators = new ArrayList<>();
+
+        AminoAcidCalculator current = calculator;
+        while (current instanceof AminoAcidCalculatorDecorator decorator) {
+            AminoVector factors = decorator.getMultipliers();
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                if (factors.isPresent(aminoAcid)) {
+                    multipliers[aminoAcid.ordinal()] *= factors.get(aminoAcid);
+                    if (decorator.addsMissingAminoAcids()) {
+                        addedAminoAcids.add(aminoAcid);
+                    }
+                }
+            }
+            decorators.add(0, decorator.getClass().getSimpleName());
+            current = decorator.wrapped;
+        }
+
+        return new CompiledAminoAcidChain(multipliers, addedAminoAcids, Collections.unmodifiableList(decorators));
+    }
+
+    /**
+     * Applies the chain to the base daily needs.
+     *
+     * @param dailyNeeds The base daily amino acid requirements in grams. Not modified.
+     * @return A new vector with the adjusted needs, rounded to whole milligrams.
+     */
+    public AminoVector apply(AminoVector dailyNeeds) {
+        return apply(AminoMilligrams.fromGrams(dailyNeeds)).toGrams();
+    }
+
+    /**
+     * Applies the chain to the base daily needs in milligrams.
+     *
+     * @param dailyNeeds The base daily amino acid requirements. Not modified.
+     * @return A new vector with the adjusted needs.
+     */
+    public AminoMilligrams apply(AminoMilligrams dailyNeeds) {
+        AminoMilligrams adjusted = AminoMilligrams.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (dailyNeeds.isPresent(aminoAcid)) {
+                adjusted.set(aminoAcid, Milligrams.multiply(dailyNeeds.get(aminoAcid), multipliers[aminoAcid.ordinal()]));
+            } else if (addedAminoAcids.contains(aminoAcid)) {
+                adjusted.set(aminoAcid, 0);
+            }
+        }
+        return adjusted;
+    }
+
+    /**
+     * Returns the combined multiplier for an amino acid.
+     *
+     * @param aminoAcid The amino acid.
+     * @return The product of all decorator factors for it.
+     */
+    public double getMultiplier(AminoAcid aminoAcid) {
+        return multipliers[aminoAcid.ordinal()];
+    }
+
+    /**
+     * Returns the simple class names of the compiled decorators, innermost first.
+     *
+     * @return The decorators this chain was compiled from.
+     */
+    public List<String> getDecorators() {
+        return decorators;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledAminoAcidChain" + decorators;
+    }
+}
@@ -1,41 +1,28 @@
 package com.example.NutritionTracker.decorator;
 
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
 import com.example.NutritionTracker.dto.UserDTO;
-import com.example.NutritionTracker.entity.AminoAcidRequirement;
-import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
  * Service responsible for calculating daily amino acid requirements.
  * Implements {@link AminoAcidCalculator} to provide baseline amino acid calculations.
+ * The requirements per kilogram are passed in by the caller, which loads them.
  */
 @Service
 public class DailyAminoAcidCalculator implements AminoAcidCalculator {
 
-    private final AminoAcidRequirementRepository aminoAcidRequirementRepository;
-
-    /**
-     * Constructs a {@code DailyAminoAcidCalculator} with a reference to the amino acid requirement repository.
-     *
-     * @param repository The repository providing base amino acid requirements per kilogram.
-     */
-    public DailyAminoAcidCalculator(AminoAcidRequirementRepository repository) {
-        this.aminoAcidRequirementRepository = repository;
-    }
-
     /**
      * Returns the input daily needs without modifications.
      * Used when no specific decorator is applied.
      *
-     * @param dailyNeeds A map of baseline daily amino acid requirements.
+     * @param dailyNeeds A vector of baseline daily amino acid requirements.
      * @return The unchanged daily amino acid requirements.
      */
     @Override
-    public Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds) {
+    public AminoVector calculateAminoAcids(AminoVector dailyNeeds) {
         return dailyNeeds;
     }
 
@@ -43,18 +30,29 @@ public class DailyAminoAcidCalculator implements AminoAcidCalculator {
      * Calculates the individual daily amino acid needs based on the user's weight.
      * Converts the amino acid requirement from mg/kg to g/day.
      *
+     * @param requirementsPerKg The base amino acid requirements in mg per kg body weight.
      * @param user The user whose amino acid requirements are to be calculated.
-     * @return A map containing the calculated daily amino acid needs.
+     * @return A vector containing the calculated daily amino acid needs.
      */
-    public Map<String, Double> calculateDailyNeeds(UserDTO user) {
-        List<AminoAcidRequirement> requirements = aminoAcidRequirementRepository.findAll();
-        Map<String, Double> dailyNeeds = new HashMap<>();
+    public AminoVector calculateDailyNeeds(AminoVector requirementsPerKg, UserDTO user) {
+        return calculateDailyNeedsMilligrams(requirementsPerKg, user).toGrams();
+    }
 
-        for (AminoAcidRequirement req : requirements) {
-            double need = (req.getBaseAmountPerKg() * user.getWeight()) / 1000; // Convert mg to g
-            dailyNeeds.merge(req.getAminoAcid(), need, Double::sum);
+    /**
+     * Calculates the individual daily amino acid needs in whole milligrams.
+     * The requirement per kg is already given in mg, so it only has to be scaled by the user's weight.
+     *
+     * @param requirementsPerKg The base amino acid requirements in mg per kg body weight.
+     * @param user The user whose amino acid requirements are to be calculated.
+     * @return A vector containing the daily amino acid needs in milligrams.
+     */
+    public AminoMilligrams calculateDailyNeedsMilligrams(AminoVector requirementsPerKg, UserDTO user) {
+        AminoMilligrams dailyNeeds = AminoMilligrams.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (requirementsPerKg.isPresent(aminoAcid)) {
+                dailyNeeds.set(aminoAcid, Math.round(requirementsPerKg.get(aminoAcid) * user.getWeight()));
+            }
         }
-
         return dailyNeeds;
     }
-}
\ No newline at end of file
+}
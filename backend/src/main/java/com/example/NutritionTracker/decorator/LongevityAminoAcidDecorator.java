@@ -1,8 +1,9 @@
 package com.example.NutritionTracker.decorator;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
 
 /**
  * The {@code LongevityAminoAcidDecorator} adjusts amino acid requirements to promote longevity.
@@ -11,6 +12,24 @@ import java.util.Map;
  */
 public class LongevityAminoAcidDecorator extends AminoAcidCalculatorDecorator {
 
+    /** Multipliers applied by this decorator. Amino acids without a multiplier stay unchanged. */
+    private static final AminoVector MULTIPLIERS = AminoVector.empty();
+
+    static {
+        // Reduce or increase specific amino acids
+        MULTIPLIERS.set(METHIONIN, 0.8); // -20%
+        MULTIPLIERS.set(THREONIN, 0.95); // -5%
+        MULTIPLIERS.set(TRYPTOPHAN, 1.1); // +10%
+        MULTIPLIERS.set(LYSIN, 1.05); // +5%
+
+        // Grouped adjustments
+        MULTIPLIERS.set(LEUCIN, 0.9); // -10%
+        MULTIPLIERS.set(ISOLEUCIN, 0.9); // -10%
+        MULTIPLIERS.set(VALIN, 0.9); // -10%
+        MULTIPLIERS.set(PHENYLALANIN, 1.2); // +20%
+        MULTIPLIERS.set(GLYCIN, 1.25); // +25%
+    }
+
     /**
      * Constructs a {@code LongevityAminoAcidDecorator} that wraps an existing {@link AminoAcidCalculator}.
      *
@@ -24,49 +43,21 @@ public class LongevityAminoAcidDecorator extends AminoAcidCalculatorDecorator {
      * Adjusts the daily amino acid requirements for longevity.
      * Increases Glycin and Phenylalanin while reducing Methionin, Leucin, and other aging-related amino acids.
      *
-     * @param dailyNeeds A map of baseline amino acid requirements before adjustments.
-     * @return A modified map with longevity-focused adjustments.
+     * @param dailyNeeds A vector of baseline amino acid requirements before adjustments.
+     * @return A modified vector with longevity-focused adjustments.
      */
     @Override
-    public Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds) {
-        // Create a copy of the calculated values to avoid side effects
-        Map<String, Double> aminoAcids = new HashMap<>(super.calculateAminoAcids(dailyNeeds));
-
-        // List of amino acids that will be increased or decreased**
-        List<String> reduceBy10 = List.of("Leucin", "Isoleucin", "Valin");
-        List<String> increaseBy20 = List.of("Phenylalanin");
-        List<String> increaseBy25 = List.of("Glycin");
-
-        // Reduce specific amino acids**
-        aminoAcids.computeIfPresent("Methionin", (k, v) -> v * 0.8); // -20%
-        aminoAcids.computeIfPresent("Threonin", (k, v) -> v * 0.95); // -5%
-        aminoAcids.computeIfPresent("Tryptophan", (k, v) -> v * 1.1); // +10%
-        aminoAcids.computeIfPresent("Lysin", (k, v) -> v * 1.05); // +5%
+    public AminoVector calculateAminoAcids(AminoVector dailyNeeds) {
+        // Work on whole milligrams, so every product is rounded exactly once
+        AminoMilligrams aminoAcids = AminoMilligrams.fromGrams(super.calculateAminoAcids(dailyNeeds));
 
-        // Increase or decrease grouped amino acids
-        for (String aa : reduceBy10) {
-            aminoAcids.computeIfPresent(aa, (k, v) -> v * 0.9); // -10%
-        }
-        for (String aa : increaseBy20) {
-            aminoAcids.computeIfPresent(aa, (k, v) -> v * 1.2); // +20%
-        }
-        for (String aa : increaseBy25) {
-            aminoAcids.computeIfPresent(aa, (k, v) -> v * 1.25); // +25%
-        }
+        aminoAcids.multiplyAll(MULTIPLIERS);
 
-        // Round values to two decimal places
-        aminoAcids.replaceAll((key, value) -> round(value));
-
-        return aminoAcids;
+        return aminoAcids.toGrams();
     }
 
-    /**
-     * Helper method to round values to 2 decimal places.
-     *
-     * @param value The value to be rounded.
-     * @return The rounded value with 2 decimal places.
-     */
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    @Override
+    protected AminoVector getMultipliers() {
+        return MULTIPLIERS;
     }
 }
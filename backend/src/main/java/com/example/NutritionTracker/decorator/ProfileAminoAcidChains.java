@@ -0,0 +1,66 @@
+package com.example.NutritionTracker.decorator;
+
+import com.example.NutritionTracker.dto.UserDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one precompiled decorator chain for every combination of the user profile flags
+ * (athlete, vegan, longevity), so that no decorators have to be built per request.
+ * The chains are compiled once at startup and are shared between all threads.
+ */
+@Component
+public class ProfileAminoAcidChains {
+
+    private static final int ATHLETE = 1;
+    private static final int VEGAN = 1 << 1;
+    private static final int LONGEVITY = 1 << 2;
+
+    private final CompiledAminoAcidChain[] chains = new CompiledAminoAcidChain[8];
+
+    /**
+     * Compiles the chains for all eight profile combinations.
+     * Decorators are stacked in the same order as before: athlete, vegan, longevity.
+     *
+     * @param dailyAminoAcidCalculator The base calculator at the bottom of every chain.
+     */
+    public ProfileAminoAcidChains(DailyAminoAcidCalculator dailyAminoAcidCalculator) {
+        for (int profile = 0; profile < chains.length; profile++) {
+            AminoAcidCalculator calculator = dailyAminoAcidCalculator;
+            if ((profile & ATHLETE) != 0) {
+                calculator = new AthleteAminoAcidDecorator(calculator);
+            }
+            if ((profile & VEGAN) != 0) {
+                calculator = new VeganAminoAcidDecorator(calculator);
+            }
+            if ((profile & LONGEVITY) != 0) {
+                calculator = new LongevityAminoAcidDecorator(calculator);
+            }
+            chains[profile] = CompiledAminoAcidChain.compile(calculator);
+        }
+    }
+
+    /**
+     * Returns the compiled chain matching the profile flags of the given user.
+     *
+     * @param user The user whose profile determines the chain.
+     * @return The shared compiled chain.
+     */
+    public CompiledAminoAcidChain forUser(UserDTO user) {
+        return forProfile(Boolean.TRUE.equals(user.getIsAthlete()),
+                Boolean.TRUE.equals(user.getIsVegan()),
+                Boolean.TRUE.equals(user.getIsLongevityFocused()));
+    }
+
+    /**
+     * Returns the compiled chain for the given combination of profile flags.
+     *
+     * @param athlete   Whether the athlete adjustments apply.
+     * @param vegan     Whether the vegan adjustments apply.
+     * @param longevity Whether the longevity adjustments apply.
+     * @return The shared compiled chain.
+     */
+    public CompiledAminoAcidChain forProfile(boolean athlete, boolean vegan, boolean longevity) {
+        int profile = (athlete ? ATHLETE : 0) | (vegan ? VEGAN : 0) | (longevity ? LONGEVITY : 0);
+        return chains[profile];
+    }
+}
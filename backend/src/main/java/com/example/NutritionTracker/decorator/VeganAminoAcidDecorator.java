@@ -1,7 +1,11 @@
 package com.example.NutritionTracker.decorator;
 
-import java.util.HashMap;
-import java.util.Map;
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.Milligrams;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
 
 /**
  * The {@code VeganAminoAcidDecorator} adjusts amino acid requirements to account for common deficiencies
@@ -10,6 +14,25 @@ import java.util.Map;
  */
 public class VeganAminoAcidDecorator extends AminoAcidCalculatorDecorator {
 
+    /** Multipliers applied by this decorator. */
+    private static final AminoVector MULTIPLIERS = AminoVector.empty();
+
+    static {
+        // Adjustments for essential amino acids in a vegan diet
+        MULTIPLIERS.set(LYSIN, 1.25);
+        MULTIPLIERS.set(METHIONIN, 1.2);
+        MULTIPLIERS.set(TRYPTOPHAN, 1.15);
+        MULTIPLIERS.set(THREONIN, 1.15);
+        MULTIPLIERS.set(LEUCIN, 1.1);
+        MULTIPLIERS.set(HISTIDIN, 1.1);
+        MULTIPLIERS.set(ISOLEUCIN, 1.05);
+        MULTIPLIERS.set(VALIN, 1.1);
+
+        // Additional adjustments for plant-based diets
+        MULTIPLIERS.set(PHENYLALANIN, 1.2);
+        MULTIPLIERS.set(GLYCIN, 1.2);
+    }
+
     /**
      * Constructs a {@code VeganAminoAcidDecorator} that wraps an existing {@link AminoAcidCalculator}.
      *
@@ -21,39 +44,32 @@ public class VeganAminoAcidDecorator extends AminoAcidCalculatorDecorator {
 
     /**
      * Modifies the base amino acid needs by increasing essential amino acids that are often lacking in a vegan diet.
+     * Amino acids missing from the input are added with a value of 0.
      *
      * @param dailyNeeds The base daily amino acid requirements.
-     * @return A modified map of amino acid requirements with adjustments for a vegan diet.
+     * @return A modified vector of amino acid requirements with adjustments for a vegan diet.
      */
     @Override
-    public Map<String, Double> calculateAminoAcids(Map<String, Double> dailyNeeds) {
-        // Create a copy of the calculated values to avoid side effects
-        Map<String, Double> aminoAcids = new HashMap<>(super.calculateAminoAcids(dailyNeeds));
+    public AminoVector calculateAminoAcids(AminoVector dailyNeeds) {
+        // Work on whole milligrams, so every product is rounded exactly once
+        AminoMilligrams aminoAcids = AminoMilligrams.fromGrams(super.calculateAminoAcids(dailyNeeds));
 
-        // Adjustments for essential amino acids in a vegan diet
-        aminoAcids.put("Lysin", round(aminoAcids.getOrDefault("Lysin", 0.0) * 1.25));
-        aminoAcids.put("Methionin", round(aminoAcids.getOrDefault("Methionin", 0.0) * 1.2));
-        aminoAcids.put("Tryptophan", round(aminoAcids.getOrDefault("Tryptophan", 0.0) * 1.15));
-        aminoAcids.put("Threonin", round(aminoAcids.getOrDefault("Threonin", 0.0) * 1.15));
-        aminoAcids.put("Leucin", round(aminoAcids.getOrDefault("Leucin", 0.0) * 1.1));
-        aminoAcids.put("Histidin", round(aminoAcids.getOrDefault("Histidin", 0.0) * 1.1));
-        aminoAcids.put("Isoleucin", round(aminoAcids.getOrDefault("Isoleucin", 0.0) * 1.05));
-        aminoAcids.put("Valin", round(aminoAcids.getOrDefault("Valin", 0.0) * 1.1));
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (MULTIPLIERS.isPresent(aminoAcid)) {
+                aminoAcids.set(aminoAcid, Milligrams.multiply(aminoAcids.get(aminoAcid), MULTIPLIERS.get(aminoAcid)));
+            }
+        }
 
-        // Additional adjustments for plant-based diets
-        aminoAcids.put("Phenylalanin", round(aminoAcids.getOrDefault("Phenylalanin", 0.0) * 1.2));
-        aminoAcids.put("Glycin", round(aminoAcids.getOrDefault("Glycin", 0.0) * 1.2));
+        return aminoAcids.toGrams();
+    }
 
-        return aminoAcids;
+    @Override
+    protected AminoVector getMultipliers() {
+        return MULTIPLIERS;
     }
 
-    /**
-     * Helper method to round values to 2 decimal places.
-     *
-     * @param value The value to be rounded.
-     * @return The rounded value with 2 decimal places.
-     */
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+    @Override
+    protected boolean addsMissingAminoAcids() {
+        return true;
     }
-}
\ No newline at end of file
+}
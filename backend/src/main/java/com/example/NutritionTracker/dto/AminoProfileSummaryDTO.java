@@ -0,0 +1,30 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for everything the result page shows about the latest log:
+ * the consumed amino acids, the daily needs of the user and their coverage, calculated together.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AminoProfileSummaryDTO {
+
+    /** The unique identifier of the latest NutritionLog. */
+    private UUID nutritionLogId;
+
+    /** The summed amino acids of the log in grams, as returned by {@code POST /amino-profile/sum}. */
+    private Map<String, Double> aminoAcidSums;
+
+    /** The daily needs of the user in grams, as returned by {@code GET /amino-profile/daily-needs}. */
+    private Map<String, Double> dailyNeeds;
+
+    /** The coverage per amino acid in percent of the daily need, as returned by {@code POST /amino-profile/coverage}. */
+    private Map<String, Double> coverage;
+}
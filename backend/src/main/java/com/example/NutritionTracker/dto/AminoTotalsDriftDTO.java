@@ -0,0 +1,39 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) describing a NutritionLog whose stored amino acid totals
+ * deviate from the totals recomputed from its food items.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AminoTotalsDriftDTO {
+
+    /** The unique identifier of the affected NutritionLog. */
+    private UUID nutritionLogId;
+
+    /** The item count stored with the totals. */
+    private int storedItemCount;
+
+    /** The number of food items actually linked to the log. */
+    private int actualItemCount;
+
+    /** The stored totals per amino acid. */
+    private Map<String, Double> storedTotals;
+
+    /** The totals recomputed from the linked food items. */
+    private Map<String, Double> recomputedTotals;
+
+    /** The largest absolute difference between a stored and a recomputed total. */
+    private double maxDeviation;
+
+    /** Indicates whether the stored totals were overwritten with the recomputed values. */
+    private boolean repaired;
+}
@@ -0,0 +1,40 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for an event of {@code GET /amino-profile/coverage/stream}: the change of a log's
+ * amino acids and coverage by one or more committed changes of its food items, together with the coverage afterwards.
+ * The first event of a stream carries the coverage at subscription time and no changes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoverageUpdateDTO {
+
+    /** The unique identifier of the NutritionLog. */
+    private UUID nutritionLogId;
+
+    /** The revision of the log the event brings the client to; also the id of the event. */
+    private long revision;
+
+    /** The number of food items in the log afterwards. */
+    private int itemCount;
+
+    /** The change of the number of food items, negative for removed ones. */
+    private int itemCountDelta;
+
+    /** The change of the summed amino acids in grams, negative for removed food items. */
+    private Map<String, Double> aminoAcidDelta;
+
+    /** The change of the coverage per amino acid in percentage points. */
+    private Map<String, Double> coverageDelta;
+
+    /** The coverage per amino acid in percent of the daily need afterwards. */
+    private Map<String, Double> coverage;
+}
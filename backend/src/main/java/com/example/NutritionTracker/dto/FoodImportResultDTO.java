@@ -0,0 +1,46 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the progress and outcome of a food import.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodImportResultDTO {
+
+    /** The name of the imported source. */
+    private String source;
+
+    /** {@code RUNNING} while rows are imported, then {@code COMPLETED} or {@code FAILED}. */
+    private String status;
+
+    /** The rows skipped at the start, because a previous run had already committed them. */
+    private long resumedAfter;
+
+    /** The rows read in this run after the skipped ones. */
+    private long rowsRead;
+
+    /** The food items imported in this run. */
+    private long rowsImported;
+
+    /** The rows rejected in this run, see {@link #errors}. */
+    private long rowsRejected;
+
+    /** The rows of the source committed so far, over all runs; a new run resumes after them. */
+    private long rowsCommitted;
+
+    /** The food items imported per second in this run. */
+    private double rowsPerSecond;
+
+    /** The columns or fields that are neither the name nor an amino acid and were ignored. */
+    private List<String> ignoredColumns;
+
+    /** Why rows were rejected, or why the import failed; at most the first 20 messages. */
+    private List<String> errors;
+}
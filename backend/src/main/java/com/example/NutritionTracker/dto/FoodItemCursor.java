@@ -0,0 +1,61 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the food catalog, which is ordered by name and id.
+ * Sent to clients as an opaque URL-safe string; {@link #valueOf(String)} lets Spring bind it
+ * directly from a request parameter, so that a malformed cursor is answered with 400 Bad Request.
+ */
+@Getter
+@AllArgsConstructor
+public class FoodItemCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    /** The name of the last food item on the previous page. */
+    private final String name;
+
+    /** The id of the last food item on the previous page. */
+    private final UUID id;
+
+    /**
+     * Creates the cursor pointing behind the given food item.
+     *
+     * @param foodItem The last food item of a page.
+     * @return The cursor for the next page.
+     */
+    public static FoodItemCursor after(FoodItemDTO foodItem) {
+        return new FoodItemCursor(foodItem.getName(), foodItem.getId());
+    }
+
+    /**
+     * Decodes a cursor created by {@link #toString()}.
+     *
+     * @param value The encoded cursor.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the value is not a valid cursor.
+     */
+    public static FoodItemCursor valueOf(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = decoded.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid food item cursor: " + value);
+        }
+        return new FoodItemCursor(decoded.substring(0, separator), UUID.fromString(decoded.substring(separator + 1)));
+    }
+
+    /**
+     * @return The cursor encoded as an opaque, URL-safe string.
+     */
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((name + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of the food catalog, ordered by name and id.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodItemPageDTO {
+
+    /** The food items of this page. */
+    private List<FoodItemDTO> items;
+
+    /** The cursor to pass as {@code after} for the next page, or {@code null} on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,32 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for a food item recommended to close the amino acid gaps of the latest log.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodRecommendationDTO {
+
+    /** The unique identifier of the food item. */
+    private UUID foodItemId;
+
+    /** The name of the food item. */
+    private String name;
+
+    /** The share of the remaining amino acid gap closed by the food item, in percent. */
+    private double gapClosed;
+
+    /**
+     * The coverage gained per amino acid, in percentage points of the daily need.
+     * Only amino acids with a gap are listed, and no gain exceeds the gap.
+     */
+    private Map<String, Double> coverageGain;
+}
@@ -0,0 +1,41 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) for the fewest portions of food items that close the amino acid gaps of the latest log.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanDTO {
+
+    /**
+     * The outcome of the optimization: {@code OPTIMAL}, {@code INFEASIBLE} if the catalog cannot close the gaps
+     * within the portion cap, or {@code LIMIT_REACHED} if the time limit ran out first.
+     */
+    private String status;
+
+    /** The food items to eat; empty unless the status is {@code OPTIMAL}. */
+    private List<MealPlanItemDTO> items;
+
+    /** The sum of all portions. */
+    private double totalPortions;
+
+    /** The coverage per amino acid after eating the plan, in percent of the daily need. */
+    private Map<String, Double> coverage;
+
+    /** The time spent optimizing, in milliseconds. */
+    private double solveTimeMillis;
+
+    /** The simplex iterations performed, including those dropping food items. */
+    private int iterations;
+
+    /** Whether the optimization started from the result of the previous one. */
+    private boolean warmStart;
+}
@@ -0,0 +1,25 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for one food item of a meal plan and how much of it to eat.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanItemDTO {
+
+    /** The unique identifier of the food item. */
+    private UUID foodItemId;
+
+    /** The name of the food item. */
+    private String name;
+
+    /** The portions to eat, rounded up to hundredths; a portion is the amount the amino acid profile refers to. */
+    private double portions;
+}
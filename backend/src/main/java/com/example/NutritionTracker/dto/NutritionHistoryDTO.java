@@ -0,0 +1,32 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) for the average amino acid intake and coverage of the user within a range of days.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NutritionHistoryDTO {
+
+    /** The first day of the range. */
+    private LocalDate from;
+
+    /** The last day of the range. */
+    private LocalDate to;
+
+    /** The number of days within the range a log was kept for; the averages refer to these days. */
+    private int loggedDays;
+
+    /** The average intake per logged day and amino acid, in grams; empty if no day was logged. */
+    private Map<String, Double> averageIntake;
+
+    /** The average intake per logged day in percent of the current daily need; empty if no day was logged. */
+    private Map<String, Double> averageCoverage;
+}
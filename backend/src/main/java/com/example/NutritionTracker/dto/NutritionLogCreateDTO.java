@@ -2,11 +2,12 @@ package com.example.NutritionTracker.dto;
 
 import lombok.*;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
  * Data Transfer Object (DTO) for creating a new NutritionLog.
- * This DTO is used by the frontend to send only the user ID to the backend,
+ * This DTO is used by the frontend to send the user ID, and optionally the day, to the backend,
  * indicating that a new NutritionLog should be created for this user.
  */
 @Getter
@@ -18,4 +19,7 @@ public class NutritionLogCreateDTO {
 
     /** The unique identifier of the user for whom the NutritionLog is created. */
     private UUID userId;
+
+    /** The day the NutritionLog records; today if not given. An existing log of the user for this day is replaced. */
+    private LocalDate logDate;
 }
\ No newline at end of file
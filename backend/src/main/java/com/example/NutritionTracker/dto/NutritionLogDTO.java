@@ -3,6 +3,8 @@ package com.example.NutritionTracker.dto;
 import com.example.NutritionTracker.entity.NutritionLog;
 import lombok.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -21,6 +23,12 @@ public class NutritionLogDTO {
     /** The unique identifier of the NutritionLog. */
     private UUID id;
 
+    /** The point in time the NutritionLog was created. */
+    private Instant createdAt;
+
+    /** The day the NutritionLog records. */
+    private LocalDate logDate;
+
     /** The unique identifier of the associated user (instead of the full user entity). */
     private UUID userId;
 
@@ -29,12 +37,14 @@ public class NutritionLogDTO {
 
     /**
      * Constructs a NutritionLogDTO from a given NutritionLog entity.
-     * Extracts only relevant data (ID, user ID, and food items) to keep the DTO lightweight.
+     * Extracts only relevant data (ID, creation time, day, user ID, and food items) to keep the DTO lightweight.
      *
      * @param nutritionLog The NutritionLog entity from which to create the DTO.
      */
     public NutritionLogDTO(NutritionLog nutritionLog) {
         this.id = nutritionLog.getId();
+        this.createdAt = nutritionLog.getCreatedAt();
+        this.logDate = nutritionLog.getLogDate();
         this.userId = nutritionLog.getUser().getId();
         this.foodItems = nutritionLog.getFoodItems().stream()
                 .map(NutritionLogFoodItemDTO::new)
@@ -0,0 +1,37 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for one nutrition log in an export, with its amino acid totals and coverage.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NutritionLogExportDTO {
+
+    /** The ID of the nutrition log. */
+    private UUID id;
+
+    /** The day the nutrition log records. */
+    private LocalDate logDate;
+
+    /** The point in time the nutrition log was created. */
+    private Instant createdAt;
+
+    /** The number of food items in the log. */
+    private int itemCount;
+
+    /** The intake per amino acid, in grams. */
+    private Map<String, Double> intake;
+
+    /** The intake in percent of the current daily need per amino acid. */
+    private Map<String, Double> coverage;
+}
@@ -0,0 +1,23 @@
+package com.example.NutritionTracker.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for adding a food item to a NutritionLog.
+ * Used by the frontend to log several food items, e.g. a whole meal, with a single request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NutritionLogFoodItemCreateDTO {
+
+    /** The unique identifier of the FoodItem to be added. */
+    private UUID foodItemId;
+
+    /** The eaten portion in grams; the 100 g the amino acid profiles refer to if not given. */
+    private Double grams;
+}
@@ -1,5 +1,6 @@
 package com.example.NutritionTracker.dto;
 
+import com.example.NutritionTracker.amino.Milligrams;
 import com.example.NutritionTracker.entity.NutritionLogFoodItem;
 import lombok.*;
 
@@ -25,6 +26,9 @@ public class NutritionLogFoodItemDTO {
     /** The unique identifier of the associated NutritionLog (instead of the full NutritionLog entity). */
     private UUID nutritionLogId;
 
+    /** The eaten portion in grams. */
+    private double grams;
+
     /**
      * Constructs a NutritionLogFoodItemDTO from a given NutritionLogFoodItem entity.
      * Extracts only relevant data (IDs) to keep the DTO lightweight.
@@ -35,5 +39,6 @@ public class NutritionLogFoodItemDTO {
         this.id = nutritionLogFoodItem.getId();
         this.foodItemId = nutritionLogFoodItem.getFoodItem().getId();
         this.nutritionLogId = nutritionLogFoodItem.getNutritionLog().getId();
+        this.grams = Milligrams.toGrams(nutritionLogFoodItem.getAmountMilligrams());
     }
 }
\ No newline at end of file
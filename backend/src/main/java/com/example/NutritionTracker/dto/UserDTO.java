@@ -37,4 +37,7 @@ public class UserDTO {
 
     /** Indicates whether the user is focused on longevity-based nutrition. */
     private Boolean isLongevityFocused;
+
+    /** The version of the user entity, raised by every update of the user. */
+    private Long version;
 }
\ No newline at end of file
@@ -1,15 +1,21 @@
 package com.example.NutritionTracker.entity;
 
+import com.example.NutritionTracker.listener.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 /**
  * Entity representing the daily amino acid requirement per kilogram of body weight.
  * This class defines the base nutritional needs for essential amino acids.
+ * Requirements rarely change and are kept in the second-level cache.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AminoAcidRequirement.CACHE_REGION)
+@EntityListeners(EntityChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,6 +23,9 @@ import java.util.UUID;
 @Builder
 public class AminoAcidRequirement {
 
+    /** Second-level cache region of the amino acid requirements. */
+    public static final String CACHE_REGION = "aminoAcidRequirement";
+
     /** The unique identifier for the amino acid requirement entry. */
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
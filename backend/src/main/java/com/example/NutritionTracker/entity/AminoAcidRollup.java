@@ -0,0 +1,56 @@
+package com.example.NutritionTracker.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The amino acid totals of all nutrition logs of a user within one day, week or month.
+ *
+ * Rollups are maintained on write by {@code NutritionHistoryService}, in the same transaction as the change to
+ * the log, with relative updates ({@code total = total + delta}), so concurrent writes to the same period
+ * never overwrite each other. Range queries then read a few rows per month, week or day instead of every log.
+ */
+@Entity
+@Table(name = "amino_acid_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_amino_acid_rollup_user_period_start", columnNames = {"user_id", "period", "period_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AminoAcidRollup {
+
+    /** The unique identifier of the rollup, time-ordered (UUIDv7). */
+    @Id
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    /** The user whose logs are rolled up. */
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /** The length of the period. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 5)
+    private RollupPeriod period;
+
+    /** The first day of the period. */
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    /** The number of days within the period a log was kept for. */
+    @Column(name = "logged_days", nullable = false)
+    @ColumnDefault("0")
+    private int loggedDays;
+
+    /** The summed totals of all logs within the period. */
+    @Embedded
+    @Builder.Default
+    private AminoAcidTotals totals = new AminoAcidTotals();
+}
@@ -0,0 +1,199 @@
+package com.example.NutritionTracker.entity;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.Milligrams;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Map;
+
+/**
+ * Running amino acid totals of a {@link NutritionLog}, stored in the log's own row.
+ * The totals are updated whenever a food item is added to or removed from the log,
+ * so reading the sums of a log does not require loading its food items.
+ * They are kept in whole milligrams (see {@link Milligrams}), so they match a recomputation exactly,
+ * no matter in which order the food items were added and removed.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AminoAcidTotals {
+
+    /** Number of food items the totals were accumulated from. */
+    @Column(name = "total_item_count", nullable = false)
+    @ColumnDefault("0")
+    private int itemCount;
+
+    @Column(name = "total_lysin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long lysin;
+
+    @Column(name = "total_leucin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long leucin;
+
+    @Column(name = "total_isoleucin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long isoleucin;
+
+    @Column(name = "total_valin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long valin;
+
+    @Column(name = "total_methionin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long methionin;
+
+    @Column(name = "total_phenylalanin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long phenylalanin;
+
+    @Column(name = "total_threonin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long threonin;
+
+    @Column(name = "total_tryptophan_mg", nullable = false)
+    @ColumnDefault("0")
+    private long tryptophan;
+
+    @Column(name = "total_histidin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long histidin;
+
+    @Column(name = "total_glycin_mg", nullable = false)
+    @ColumnDefault("0")
+    private long glycin;
+
+    /**
+     * Adds the amino acid profile of 100 g of a food item to the totals.
+     *
+     * @param foodItem The food item that was added to the log.
+     */
+    public void addFood(FoodItem foodItem) {
+        addFood(foodItem, Milligrams.REFERENCE_AMOUNT);
+    }
+
+    /**
+     * Adds the amino acid profile of a food item, scaled to the eaten amount, to the totals.
+     *
+     * @param foodItem         The food item that was added to the log.
+     * @param amountMilligrams The eaten amount in milligrams.
+     */
+    public void addFood(FoodItem foodItem, long amountMilligrams) {
+        apply(foodItem, amountMilligrams, 1);
+    }
+
+    /**
+     * Subtracts the amino acid profile of 100 g of a food item from the totals.
+     *
+     * @param foodItem The food item that was removed from the log.
+     */
+    public void removeFood(FoodItem foodItem) {
+        removeFood(foodItem, Milligrams.REFERENCE_AMOUNT);
+    }
+
+    /**
+     * Subtracts the amino acid profile of a food item, scaled to the eaten amount, from the totals.
+     *
+     * @param foodItem         The food item that was removed from the log.
+     * @param amountMilligrams The amount it was added with, in milligrams.
+     */
+    public void removeFood(FoodItem foodItem, long amountMilligrams) {
+        apply(foodItem, amountMilligrams, -1);
+    }
+
+    /**
+     * Replaces the totals with the given values.
+     *
+     * @param sums      The recomputed amino acid sums.
+     * @param itemCount The number of food items the sums were computed from.
+     */
+    public void reset(AminoMilligrams sums, int itemCount) {
+        this.itemCount = itemCount;
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            set(aminoAcid, sums.get(aminoAcid));
+        }
+    }
+
+    /**
+     * Returns the total for a single amino acid in grams.
+     *
+     * @param aminoAcid The amino acid.
+     * @return The accumulated amount in grams.
+     */
+    public double get(AminoAcid aminoAcid) {
+        return Milligrams.toGrams(getMilligrams(aminoAcid));
+    }
+
+    /**
+     * Returns the total for a single amino acid.
+     *
+     * @param aminoAcid The amino acid.
+     * @return The accumulated amount in milligrams.
+     */
+    public long getMilligrams(AminoAcid aminoAcid) {
+        return switch (aminoAcid) {
+            case LYSIN -> lysin;
+            case LEUCIN -> leucin;
+            case ISOLEUCIN -> isoleucin;
+            case VALIN -> valin;
+            case METHIONIN -> methionin;
+            case PHENYLALANIN -> phenylalanin;
+            case THREONIN -> threonin;
+            case TRYPTOPHAN -> tryptophan;
+            case HISTIDIN -> histidin;
+            case GLYCIN -> glycin;
+        };
+    }
+
+    /**
+     * Converts the totals into an {@link AminoMilligrams} vector.
+     *
+     * @return A vector with all amino acids, or an empty vector if no food items were added.
+     */
+    public AminoMilligrams toMilligrams() {
+        AminoMilligrams vector = AminoMilligrams.empty();
+        if (itemCount == 0) {
+            return vector;
+        }
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            vector.set(aminoAcid, getMilligrams(aminoAcid));
+        }
+        return vector;
+    }
+
+    private void apply(FoodItem foodItem, long amountMilligrams, int sign) {
+        itemCount += sign;
+        if (foodItem.getAminoAcidProfile() == null) {
+            return;
+        }
+        for (Map.Entry<String, Double> entry : foodItem.getAminoAcidProfile().entrySet()) {
+            AminoAcid aminoAcid = AminoAcid.fromName(entry.getKey());
+            if (aminoAcid != null && entry.getValue() != null) {
+                long amount = Milligrams.scale(Milligrams.fromGrams(entry.getValue()), amountMilligrams);
+                set(aminoAcid, getMilligrams(aminoAcid) + sign * amount);
+            }
+        }
+    }
+
+    private void set(AminoAcid aminoAcid, long value) {
+        switch (aminoAcid) {
+            case LYSIN -> lysin = value;
+            case LEUCIN -> leucin = value;
+            case ISOLEUCIN -> isoleucin = value;
+            case VALIN -> valin = value;
+            case METHIONIN -> methionin = value;
+            case PHENYLALANIN -> phenylalanin = value;
+            case THREONIN -> threonin = value;
+            case TRYPTOPHAN -> tryptophan = value;
+            case HISTIDIN -> histidin = value;
+            case GLYCIN -> glycin = value;
+        }
+    }
+}
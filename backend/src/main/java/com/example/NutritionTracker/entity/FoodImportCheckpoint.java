@@ -0,0 +1,51 @@
+package com.example.NutritionTracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entity recording how far a food import has come, so that it can be resumed after a failure.
+ * It is written in the same transaction as each chunk of imported food items: the rows up to
+ * {@link #rowsCommitted} are in the catalog, none after them.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodImportCheckpoint {
+
+    /** The name of the imported source, e.g. the file name. */
+    @Id
+    @Column(length = 255)
+    private String source;
+
+    /** The number of rows of the source, counted from its start, whose food items are committed. */
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    /** The number of food items imported from the source, over all runs. */
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    /** The number of rows of the source that were rejected, over all runs. */
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    /** The time of the last committed chunk. */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Version field for optimistic locking.
+     * Keeps two imports of the same source from committing the same rows.
+     */
+    @Version
+    private Long version;
+}
@@ -1,7 +1,12 @@
 package com.example.NutritionTracker.entity;
 
+import com.example.NutritionTracker.listener.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.Map;
 import java.util.UUID;
@@ -9,8 +14,12 @@ import java.util.UUID;
 /**
  * Entity representing a food item that contains various amino acids.
  * Each food item has an amino acid profile, mapping amino acid names to their respective values.
+ * Food items and their profiles are read far more often than written and are kept in the second-level cache.
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FoodItem.CACHE_REGION)
+@EntityListeners(EntityChangeListener.class)
+@Table(indexes = @Index(name = "idx_food_item_name_id", columnList = "name, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,19 +27,30 @@ import java.util.UUID;
 @Builder
 public class FoodItem {
 
-    /** The unique identifier for the food item. */
+    /** Second-level cache region of the food items. */
+    public static final String CACHE_REGION = "foodItem";
+
+    /** Second-level cache region of the amino acid profiles. */
+    public static final String PROFILE_CACHE_REGION = "foodItem.aminoAcidProfile";
+
+    /** The unique identifier for the food item, time-ordered (UUIDv7). */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
-    /** The name of the food item. */
+    /** The name of the food item. Together with the id, it is the sort key of the catalog pages. */
+    @Column(nullable = false)
     private String name;
 
     /**
      * A mapping of amino acid names to their respective values.
      * This represents the amino acid profile of the food item.
+     * Profiles are loaded in batches for up to 100 food items, to avoid one query per food item.
      */
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FoodItem.PROFILE_CACHE_REGION)
     @CollectionTable(name = "food_item_amino_acids", joinColumns = @JoinColumn(name = "food_item_id"))
     @MapKeyColumn(name = "amino_acid")
     @Column(name = "amino_acid_value")
@@ -3,7 +3,12 @@ package com.example.NutritionTracker.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -13,6 +18,14 @@ import java.util.UUID;
  * This log keeps track of food items consumed by the user.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_nutrition_log_log_date", columnList = "log_date DESC, id DESC"),
+        @Index(name = "idx_nutrition_log_user_log_date", columnList = "user_id, log_date", unique = true)
+})
+@NamedEntityGraph(
+        name = NutritionLog.GRAPH_FOOD_ITEMS,
+        attributeNodes = @NamedAttributeNode(value = "foodItems", subgraph = "logItems"),
+        subgraphs = @NamedSubgraph(name = "logItems", attributeNodes = @NamedAttributeNode("foodItem")))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,11 +33,35 @@ import java.util.UUID;
 @Builder
 public class NutritionLog {
 
-    /** The unique identifier for the nutrition log. */
+    /**
+     * Entity graph loading the log items and their food items in one query.
+     * The amino acid profiles are not part of the graph, as joining them would repeat every log item
+     * once per profile entry; they are batch fetched instead (see {@link FoodItem#getAminoAcidProfile()}).
+     */
+    public static final String GRAPH_FOOD_ITEMS = "NutritionLog.foodItems";
+
+    /** The unique identifier for the nutrition log, time-ordered (UUIDv7). */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
+    /** The point in time the nutrition log was created. */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private Instant createdAt;
+
+    /**
+     * The day the nutrition log records. Together with the ID it defines which log is the latest, see the indexes
+     * above. A user keeps one log per day, enforced by the unique index above; the amino acid rollups of the day,
+     * its week and its month are maintained by {@code NutritionHistoryService}.
+     */
+    @Column(name = "log_date", nullable = false)
+    @ColumnDefault("CURRENT_DATE")
+    @Builder.Default
+    private LocalDate logDate = LocalDate.now();
+
     /** The user associated with this nutrition log. */
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", nullable = false)
@@ -40,10 +77,28 @@ public class NutritionLog {
     @Builder.Default
     private List<NutritionLogFoodItem> foodItems = new ArrayList<>();
 
+    /**
+     * Running amino acid totals of all food items in this log.
+     * Kept up to date by {@code NutritionLogService} in the same transaction as the food item changes.
+     */
+    @Embedded
+    @Builder.Default
+    private AminoAcidTotals aminoAcidTotals = new AminoAcidTotals();
+
     /**
      * Version field for optimistic locking.
      * Helps prevent conflicts when multiple transactions modify the same entity.
      */
     @Version
     private Long version;
+
+    /**
+     * Counts the changes of the food items of this log. Unlike {@link #version} it is raised by the relative
+     * update of the totals ({@code NutritionLogRepository.addTotals}), which leaves the version alone;
+     * together the two tell whether anything derived from the log is still current.
+     */
+    @Column(name = "revision", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long revision = 0;
 }
\ No newline at end of file
@@ -1,17 +1,23 @@
 package com.example.NutritionTracker.entity;
 
+import com.example.NutritionTracker.amino.Milligrams;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
 /**
  * Entity representing the relationship between a NutritionLog and a FoodItem.
  * This class links food items to a specific nutrition log entry.
+ * A food item is part of a log at most once, which the database enforces for concurrent additions.
  */
 @Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = NutritionLogFoodItem.LOG_FOOD_CONSTRAINT, columnNames = {"nutrition_log_id", "food_item_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,9 +25,13 @@ import java.util.UUID;
 @EqualsAndHashCode
 public class NutritionLogFoodItem {
 
-    /** The unique identifier for this NutritionLogFoodItem entry. */
+    /** The name of the unique constraint on the log and the food item. */
+    public static final String LOG_FOOD_CONSTRAINT = "uk_nutrition_log_food_item_log_food";
+
+    /** The unique identifier for this NutritionLogFoodItem entry, time-ordered (UUIDv7). */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     /**
@@ -39,14 +49,35 @@ public class NutritionLogFoodItem {
     private FoodItem foodItem;
 
     /**
-     * Constructor to create a new NutritionLogFoodItem entry.
+     * The eaten amount of the food item in milligrams; 100 g, the amount the amino acid profiles refer to,
+     * unless given otherwise.
+     */
+    @Column(name = "amount_mg", nullable = false)
+    @ColumnDefault("100000")
+    @Builder.Default
+    private long amountMilligrams = Milligrams.REFERENCE_AMOUNT;
+
+    /**
+     * Constructor to create a new NutritionLogFoodItem entry of 100 g.
      *
      * @param nutritionLog The associated nutrition log.
      * @param foodItem     The food item being added to the log.
      */
     public NutritionLogFoodItem(NutritionLog nutritionLog, FoodItem foodItem) {
+        this(nutritionLog, foodItem, Milligrams.REFERENCE_AMOUNT);
+    }
+
+    /**
+     * Constructor to create a new NutritionLogFoodItem entry.
+     *
+     * @param nutritionLog     The associated nutrition log.
+     * @param foodItem         The food item being added to the log.
+     * @param amountMilligrams The eaten amount in milligrams.
+     */
+    public NutritionLogFoodItem(NutritionLog nutritionLog, FoodItem foodItem, long amountMilligrams) {
         this.nutritionLog = nutritionLog;
         this.foodItem = foodItem;
+        this.amountMilligrams = amountMilligrams;
     }
 
     /**
@@ -0,0 +1,74 @@
+package com.example.NutritionTracker.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The periods amino acid totals are rolled up into, see {@link AminoAcidRollup}.
+ * Weeks are ISO weeks starting on Monday.
+ */
+public enum RollupPeriod {
+
+    DAY {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    },
+
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    /**
+     * Returns the first day of the period containing the given date.
+     *
+     * @param date Any day of the period.
+     * @return The first day of the period.
+     */
+    public abstract LocalDate start(LocalDate date);
+
+    /**
+     * Returns the first day of the following period.
+     *
+     * @param start The first day of a period.
+     * @return The first day of the period after it.
+     */
+    public abstract LocalDate next(LocalDate start);
+
+    /**
+     * Returns the last day of the period starting at the given date.
+     *
+     * @param start The first day of a period.
+     * @return The last day of the period.
+     */
+    public LocalDate end(LocalDate start) {
+        return next(start).minusDays(1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.NutritionTracker.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDs in the version 7 layout of RFC 9562:
+ * 48 bits Unix time in milliseconds, 4 bits version, 12 bits counter, 2 bits variant, 62 random bits.
+ * <p>
+ * The 12 bit counter makes IDs generated within the same millisecond strictly increasing
+ * in this JVM; if it overflows, the timestamp is advanced by one millisecond. New rows therefore
+ * get increasing keys, which keeps B-tree inserts at the right edge of the primary key index
+ * and lets "latest" queries be answered from an index.
+ * <p>
+ * Used via {@code @UuidGenerator(algorithm = UuidV7Generator.class)}.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /** Last issued timestamp (upper bits) and counter (lower 12 bits). */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    /**
+     * Creates a new time-ordered UUID.
+     *
+     * @return A version 7 UUID greater than all UUIDs previously generated by this JVM.
+     */
+    public static UUID generate() {
+        long next;
+        while (true) {
+            long last = LAST.get();
+            long now = System.currentTimeMillis() << COUNTER_BITS;
+            // Continue from the last value if the clock did not advance (or went backwards)
+            next = now > last ? now : last + 1;
+            if (LAST.compareAndSet(last, next)) {
+                break;
+            }
+        }
+
+        long timestamp = next >>> COUNTER_BITS;
+        long counter = next & COUNTER_MASK;
+        long mostSigBits = (timestamp << 16) | (0x7L << 12) | counter;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
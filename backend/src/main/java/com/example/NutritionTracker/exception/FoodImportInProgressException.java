@@ -0,0 +1,17 @@
+package com.example.NutritionTracker.exception;
+
+/**
+ * Thrown when a food import is started while another one is running.
+ * Answered with 409 Conflict by the {@link GlobalExceptionHandler}.
+ */
+public class FoodImportInProgressException extends IllegalStateException {
+
+    /**
+     * Constructs the exception with the reason of the conflict.
+     *
+     * @param message the reason, returned to the client
+     */
+    public FoodImportInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.NutritionTracker.exception;
+
+/**
+ * Thrown when a food import is restarted although food items of its source are already in the catalog,
+ * which would import them a second time. Answered with 409 Conflict by the {@link GlobalExceptionHandler}.
+ */
+public class FoodImportRestartException extends IllegalStateException {
+
+    /**
+     * Constructs the exception with the reason of the conflict.
+     *
+     * @param message the reason, returned to the client
+     */
+    public FoodImportRestartException(String message) {
+        super(message);
+    }
+}
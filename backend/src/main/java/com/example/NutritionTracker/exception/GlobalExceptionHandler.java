@@ -1,8 +1,12 @@
 package com.example.NutritionTracker.exception;
 
+import com.example.NutritionTracker.service.NutritionMetrics;
 import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,8 +23,11 @@ import java.util.UUID;
  * This class provides centralized exception handling across all controllers.
  */
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final NutritionMetrics nutritionMetrics;
+
     /**
      * Handles validation errors for @Valid request bodies.
      * Captures validation failures triggered by @Valid in DTOs
@@ -82,6 +89,66 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Handles input the services reject, such as a portion out of range.
+     * Returns a 400 Bad Request response with the reason; any other
+     * {@link IllegalArgumentException} is a server error.
+     *
+     * @param ex the exception thrown for the invalid input
+     * @return a response with the reason the input was rejected
+     */
+    @ExceptionHandler(InvalidInputException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> handleInvalidInput(InvalidInputException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
+    /**
+     * Handles a food import started while another one is running.
+     * Returns a 409 Conflict response, so that the client can retry once the running import has ended.
+     *
+     * @param ex the exception thrown for the second import
+     * @return a response with the reason of the conflict
+     */
+    @ExceptionHandler(FoodImportInProgressException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleFoodImportInProgress(FoodImportInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Handles a food import restarted while food items of its source are in the catalog.
+     * Returns a 409 Conflict response; the source can be imported again from its first row after a reset of the catalog.
+     *
+     * @param ex the exception thrown for the restart
+     * @return a response with the reason of the conflict
+     */
+    @ExceptionHandler(FoodImportRestartException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleFoodImportRestart(FoodImportRestartException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Handles concurrent modifications of an entity with a {@code @Version} field.
+     * Returns a 409 Conflict response, so that the client can reload and retry,
+     * and counts the failure per entity.
+     *
+     * @param ex the exception thrown when the version of the entity changed in between
+     * @return a response indicating the conflict
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        String entity = "unknown";
+        if (ex instanceof ObjectOptimisticLockingFailureException objectEx && objectEx.getPersistentClassName() != null) {
+            String className = objectEx.getPersistentClassName();
+            entity = className.substring(className.lastIndexOf('.') + 1);
+        }
+        nutritionMetrics.optimisticLockFailure(entity);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("The " + entity + " was modified concurrently, please retry.");
+    }
+
     /**
      * Handles unexpected server errors and prevents raw stack traces from being exposed.
      * Returns a generic 500 Internal Server Error response.
@@ -0,0 +1,18 @@
+package com.example.NutritionTracker.exception;
+
+/**
+ * Thrown when the input of a request is rejected, such as a portion out of range.
+ * Answered with 400 Bad Request and the message by the {@link GlobalExceptionHandler},
+ * so the message must describe the input only.
+ */
+public class InvalidInputException extends IllegalArgumentException {
+
+    /**
+     * Constructs the exception with the reason the input was rejected.
+     *
+     * @param message the reason, returned to the client
+     */
+    public InvalidInputException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.NutritionTracker.exporter;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.NutritionLogExportDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported nutrition logs as CSV: a header row, then one row per log with the intake in grams
+ * ({@code Lysin g}, ...) and the coverage in percent ({@code Lysin %}, ...) of every amino acid.
+ * A coverage without a daily need is left empty. No field contains a comma, so none is quoted.
+ */
+public class CsvNutritionLogExportWriter extends NutritionLogExportWriter {
+
+    private final Writer writer;
+
+    /**
+     * Opens the writer and writes the header row.
+     *
+     * @param output The stream to write to.
+     * @throws IOException If the header cannot be written.
+     */
+    public CsvNutritionLogExportWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("id,logDate,createdAt,itemCount");
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            writer.write("," + aminoAcid.getDisplayName() + " g");
+        }
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            writer.write("," + aminoAcid.getDisplayName() + " %");
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeLog(NutritionLogExportDTO nutritionLog) throws IOException {
+        writer.write(nutritionLog.getId() + "," + nutritionLog.getLogDate() + "," + nutritionLog.getCreatedAt()
+                + "," + nutritionLog.getItemCount());
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            writeValue(nutritionLog.getIntake().get(aminoAcid.getDisplayName()));
+        }
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            writeValue(nutritionLog.getCoverage().get(aminoAcid.getDisplayName()));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeValue(Double value) throws IOException {
+        writer.write(',');
+        if (value != null) {
+            writer.write(Double.toString(value));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.NutritionTracker.exporter;
+
+import com.example.NutritionTracker.dto.NutritionLogExportDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes exported nutrition logs as newline-delimited JSON, one {@link NutritionLogExportDTO} per line.
+ */
+public class NdjsonNutritionLogExportWriter extends NutritionLogExportWriter {
+
+    private final JsonGenerator generator;
+
+    /**
+     * Opens the writer.
+     *
+     * @param output       The stream to write to.
+     * @param objectMapper The mapper serializing each log.
+     * @throws IOException If the generator cannot be created.
+     */
+    public NdjsonNutritionLogExportWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(output);
+        // Each value on its own line instead of separated by a space
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    protected void writeLog(NutritionLogExportDTO nutritionLog) throws IOException {
+        generator.writeObject(nutritionLog);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.NutritionTracker.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The file formats of the nutrition log export.
+ */
+public enum NutritionLogExportFormat {
+
+    /** One JSON object per line, see {@link NdjsonNutritionLogExportWriter}. */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public NutritionLogExportWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonNutritionLogExportWriter(output, objectMapper);
+        }
+    },
+
+    /** Comma-separated values with a header row, see {@link CsvNutritionLogExportWriter}. */
+    CSV("text/csv", "csv") {
+        @Override
+        public NutritionLogExportWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            return new CsvNutritionLogExportWriter(output);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    NutritionLogExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Opens a writer for the logs in this format.
+     *
+     * @param output       The stream to write to; it is closed with the writer.
+     * @param objectMapper The mapper for JSON based formats.
+     * @return The writer.
+     * @throws IOException If the beginning of the file cannot be written.
+     */
+    public abstract NutritionLogExportWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Returns the content type of the export.
+     *
+     * @return The media type.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the extension of the downloaded file.
+     *
+     * @return The extension, without a dot.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.NutritionTracker.exporter;
+
+import com.example.NutritionTracker.dto.NutritionLogExportDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes exported nutrition logs one at a time, so that only the current log is held in memory.
+ * The first log is flushed right away, so that the download starts before the rest has been read;
+ * after that the output is handed on whenever the buffer is full.
+ */
+public abstract class NutritionLogExportWriter implements Closeable {
+
+    private boolean flushed;
+
+    /**
+     * Writes one log.
+     *
+     * @param nutritionLog The log with its totals and coverage.
+     * @throws IOException If the output cannot be written, e.g. because the client went away.
+     */
+    public void write(NutritionLogExportDTO nutritionLog) throws IOException {
+        writeLog(nutritionLog);
+        if (!flushed) {
+            flush();
+            flushed = true;
+        }
+    }
+
+    /**
+     * Writes one log to the buffer.
+     *
+     * @param nutritionLog The log with its totals and coverage.
+     * @throws IOException If the output cannot be written.
+     */
+    protected abstract void writeLog(NutritionLogExportDTO nutritionLog) throws IOException;
+
+    /**
+     * Hands the buffered output on.
+     *
+     * @throws IOException If the output cannot be written.
+     */
+    protected abstract void flush() throws IOException;
+}
@@ -0,0 +1,174 @@
+package com.example.NutritionTracker.importer;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.exception.InvalidInputException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads food rows from CSV (RFC 4180): a header row with a {@code name} column and one column per amino acid,
+ * then one row per food item. Fields may be quoted, including separators, doubled quotes and line breaks.
+ * The separator is a comma, or a semicolon if the header contains semicolons but no commas.
+ * A record longer than {@value #MAX_RECORD_LENGTH} characters or with a field longer than
+ * {@value #MAX_FIELD_LENGTH} characters is skipped without being held in memory, and its row is rejected
+ * with the line it starts on, so that e.g. an unterminated quote cannot read the rest of the file into one field.
+ */
+public class CsvFoodRowReader extends FoodRowReader {
+
+    /** The longest field of a valid row, far above any name or number. */
+    public static final int MAX_FIELD_LENGTH = 4 * 1024;
+
+    /** The longest record of a valid row, including its separators. */
+    public static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final int MAX_HEADER_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private char separator = ',';
+    private int nameColumn = -1;
+    private AminoAcid[] columns;
+    private long number;
+    private long lines;
+    private long recordLine;
+    private String recordError;
+
+    /**
+     * Opens the reader and reads the header row.
+     *
+     * @param reader The CSV text.
+     * @throws IOException If the header cannot be read.
+     * @throws InvalidInputException If the header has no name column or no amino acid column.
+     */
+    public CsvFoodRowReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        readHeader();
+    }
+
+    @Override
+    public FoodRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (recordError == null && fields.size() == 1 && fields.get(0).isBlank());
+
+        number++;
+        if (recordError != null) {
+            return FoodRow.rejected(number, "Row " + number + " (line " + recordLine + "): " + recordError);
+        }
+        Map<AminoAcid, String> values = new EnumMap<>(AminoAcid.class);
+        for (int i = 0; i < columns.length && i < fields.size(); i++) {
+            if (columns[i] != null) {
+                values.put(columns[i], fields.get(i));
+            }
+        }
+        return toRow(number, nameColumn < fields.size() ? fields.get(nameColumn) : null, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(MAX_HEADER_LENGTH);
+        String firstLine = reader.readLine();
+        reader.reset();
+        if (firstLine != null && firstLine.indexOf(';') >= 0 && firstLine.indexOf(',') < 0) {
+            separator = ';';
+        }
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidInputException("The CSV file is empty");
+        }
+        if (recordError != null) {
+            throw new InvalidInputException("The CSV header is invalid: " + recordError);
+        }
+
+        columns = new AminoAcid[header.size()];
+        boolean anyAminoAcid = false;
+        for (int i = 0; i < header.size(); i++) {
+            // A byte order mark is read as part of the first column name
+            String column = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+            if (isNameColumn(column) && nameColumn < 0) {
+                nameColumn = i;
+            } else {
+                columns[i] = resolveColumn(column);
+                anyAminoAcid |= columns[i] != null;
+            }
+        }
+        if (nameColumn < 0) {
+            throw new InvalidInputException("The CSV header has no name column: " + String.join(",", header));
+        }
+        if (!anyAminoAcid) {
+            throw new InvalidInputException("The CSV header has no amino acid column: " + String.join(",", header));
+        }
+    }
+
+    /**
+     * Reads the fields of the next record. If the record or one of its fields is too long, the rest of the record
+     * is read without keeping it, and {@link #recordError} tells why.
+     *
+     * @return The fields, or {@code null} at the end of the file; no fields if the record is too long.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lines + 1;
+        recordError = null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (c == '\n') {
+                lines++;
+            }
+            if (recordError == null && ++length > MAX_RECORD_LENGTH) {
+                recordError = "the record is longer than " + MAX_RECORD_LENGTH + " characters";
+            } else if (recordError == null && field.length() > MAX_FIELD_LENGTH) {
+                recordError = "a field is longer than " + MAX_FIELD_LENGTH + " characters";
+            }
+            if (recordError != null) {
+                fields.clear();
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    // An unterminated quote ends with the file
+                    fields.add(field.toString());
+                    return recordError == null ? fields : List.of();
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                fields.add(field.toString());
+                return recordError == null ? fields : List.of();
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
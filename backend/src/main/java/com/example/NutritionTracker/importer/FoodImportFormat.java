@@ -0,0 +1,87 @@
+package com.example.NutritionTracker.importer;
+
+import com.example.NutritionTracker.exception.InvalidInputException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * The file formats of the food import.
+ */
+public enum FoodImportFormat {
+
+    /** Comma- or semicolon-separated values with a header row, see {@link CsvFoodRowReader}. */
+    CSV(FoodImportFormat.CSV_MEDIA_TYPE) {
+        @Override
+        public FoodRowReader open(Reader reader, ObjectMapper objectMapper) throws IOException {
+            return new CsvFoodRowReader(reader);
+        }
+    },
+
+    /** One JSON object per line, see {@link NdjsonFoodRowReader}. */
+    NDJSON(FoodImportFormat.NDJSON_MEDIA_TYPE) {
+        @Override
+        public FoodRowReader open(Reader reader, ObjectMapper objectMapper) {
+            return new NdjsonFoodRowReader(reader, objectMapper);
+        }
+    };
+
+    /** The content type of CSV uploads. */
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    /** The content type of NDJSON uploads. */
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    private final MediaType mediaType;
+
+    FoodImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * Opens a reader for the rows of a file in this format.
+     *
+     * @param reader       The text of the file.
+     * @param objectMapper The mapper for JSON based formats.
+     * @return The row reader, which closes the given reader.
+     * @throws IOException If the beginning of the file cannot be read.
+     */
+    public abstract FoodRowReader open(Reader reader, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Resolves the format of an upload by its content type.
+     *
+     * @param contentType The content type of the request.
+     * @return The format.
+     * @throws InvalidInputException If the content type is not supported.
+     */
+    public static FoodImportFormat fromMediaType(MediaType contentType) {
+        for (FoodImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new InvalidInputException("Unsupported content type for a food import: " + contentType);
+    }
+
+    /**
+     * Resolves the format of a file by its extension: {@code .csv}, or {@code .ndjson} / {@code .jsonl}.
+     *
+     * @param fileName The name of the file.
+     * @return The format.
+     * @throws InvalidInputException If the extension is not supported.
+     */
+    public static FoodImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new InvalidInputException("Unsupported file extension for a food import: " + fileName);
+    }
+}
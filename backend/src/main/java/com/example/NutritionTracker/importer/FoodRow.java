@@ -0,0 +1,46 @@
+package com.example.NutritionTracker.importer;
+
+import java.util.Map;
+
+/**
+ * One data row of a food composition file, either valid or rejected.
+ *
+ * @param number  The number of the row within the file, counted from 1; a CSV header and blank lines are not counted.
+ * @param name    The name of the food item; {@code null} if the row is rejected.
+ * @param profile The amino acid values in grams per 100 g, by display name; {@code null} if the row is rejected.
+ * @param error   Why the row is rejected, or {@code null} if it is valid.
+ */
+public record FoodRow(long number, String name, Map<String, Double> profile, String error) {
+
+    /**
+     * Creates a valid row.
+     *
+     * @param number  The number of the row.
+     * @param name    The name of the food item.
+     * @param profile The amino acid values in grams per 100 g.
+     * @return The row.
+     */
+    public static FoodRow valid(long number, String name, Map<String, Double> profile) {
+        return new FoodRow(number, name, profile, null);
+    }
+
+    /**
+     * Creates a rejected row.
+     *
+     * @param number The number of the row.
+     * @param error  Why the row is rejected.
+     * @return The row.
+     */
+    public static FoodRow rejected(long number, String error) {
+        return new FoodRow(number, null, null, error);
+    }
+
+    /**
+     * Tells whether the row can be imported.
+     *
+     * @return {@code true} unless the row is rejected.
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.NutritionTracker.importer;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads the rows of a food composition file one at a time, so that only the current row is held in memory.
+ *
+ * Every row names a food item and gives its amino acid values in grams per 100 g, keyed by the display names
+ * of the {@link AminoAcid}s (case-insensitive). Other columns or fields, e.g. further nutrients, are ignored.
+ * Empty values are left out of the profile. A decimal comma is accepted.
+ */
+public abstract class FoodRowReader implements Closeable {
+
+    /** The longest food name that fits into the catalog. */
+    public static final int MAX_NAME_LENGTH = 255;
+
+    /** The largest amino acid value of a valid row: all of the 100 g. */
+    public static final double MAX_GRAMS = 100.0;
+
+    private static final int MAX_IGNORED_COLUMNS = 100;
+
+    private static final Map<String, AminoAcid> AMINO_ACIDS_BY_KEY = new HashMap<>();
+
+    static {
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            AMINO_ACIDS_BY_KEY.put(aminoAcid.getDisplayName().toLowerCase(Locale.ROOT), aminoAcid);
+        }
+    }
+
+    private final Set<String> ignoredColumns = new LinkedHashSet<>();
+
+    /**
+     * Reads the next row.
+     *
+     * @return The row, or {@code null} at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    public abstract FoodRow next() throws IOException;
+
+    /**
+     * Returns the columns or fields seen so far that are neither the name nor an amino acid, at most 100.
+     *
+     * @return The ignored column names, in the order they were first seen.
+     */
+    public List<String> getIgnoredColumns() {
+        return List.copyOf(ignoredColumns);
+    }
+
+    /**
+     * Resolves a column or field name.
+     *
+     * @param column The name from the file.
+     * @return The amino acid, or {@code null} if the column is the name or is ignored.
+     */
+    protected AminoAcid resolveColumn(String column) {
+        String key = column.trim().toLowerCase(Locale.ROOT);
+        AminoAcid aminoAcid = AMINO_ACIDS_BY_KEY.get(key);
+        if (aminoAcid == null && !isNameColumn(column) && ignoredColumns.size() < MAX_IGNORED_COLUMNS) {
+            ignoredColumns.add(column.trim());
+        }
+        return aminoAcid;
+    }
+
+    /**
+     * Tells whether a column or field holds the name of the food item.
+     *
+     * @param column The name from the file.
+     * @return {@code true} for {@code name}, in any case.
+     */
+    protected static boolean isNameColumn(String column) {
+        return column.trim().equalsIgnoreCase("name");
+    }
+
+    /**
+     * Validates the values of a row and converts them into a {@link FoodRow}.
+     *
+     * @param number The number of the row.
+     * @param name   The name as read, or {@code null} if it is missing.
+     * @param values The amino acid values as read; {@code null} or blank values are left out.
+     * @return The valid row, or the rejected row with the first problem found.
+     */
+    protected static FoodRow toRow(long number, String name, Map<AminoAcid, String> values) {
+        if (name == null || name.isBlank()) {
+            return FoodRow.rejected(number, "Row " + number + ": the name is missing");
+        }
+        if (name.trim().length() > MAX_NAME_LENGTH) {
+            return FoodRow.rejected(number, "Row " + number + ": the name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        Map<String, Double> profile = new HashMap<>();
+        for (Map.Entry<AminoAcid, String> entry : values.entrySet()) {
+            String text = entry.getValue();
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            double grams;
+            try {
+                grams = Double.parseDouble(text.trim().replace(',', '.'));
+            } catch (NumberFormatException e) {
+                return FoodRow.rejected(number, "Row " + number + ": " + entry.getKey().getDisplayName()
+                        + " is not a number: " + text);
+            }
+            if (!(grams >= 0 && grams <= MAX_GRAMS)) {
+                return FoodRow.rejected(number, "Row " + number + ": " + entry.getKey().getDisplayName()
+                        + " must be between 0 and " + MAX_GRAMS + " g per 100 g: " + text);
+            }
+            profile.put(entry.getKey().getDisplayName(), grams);
+        }
+        return FoodRow.valid(number, name.trim(), profile);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.NutritionTracker.importer;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reads food rows from newline-delimited JSON: one object per line with the same keys as the CSV columns,
+ * e.g. {@code {"name": "Linsen", "Lysin": 1.7, "Leucin": 1.8}}. Values may be numbers or strings.
+ * A line that is not a JSON object is rejected; blank lines are skipped.
+ */
+public class NdjsonFoodRowReader extends FoodRowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long number;
+
+    /**
+     * Opens the reader.
+     *
+     * @param reader       The NDJSON text.
+     * @param objectMapper The mapper parsing each line.
+     */
+    public NdjsonFoodRowReader(Reader reader, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public FoodRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        number++;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return FoodRow.rejected(number, "Row " + number + ": not valid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return FoodRow.rejected(number, "Row " + number + ": not a JSON object");
+        }
+
+        String name = null;
+        Map<AminoAcid, String> values = new EnumMap<>(AminoAcid.class);
+        for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (isNameColumn(field.getKey())) {
+                name = field.getValue().isValueNode() && !field.getValue().isNull() ? field.getValue().asText() : null;
+                continue;
+            }
+            AminoAcid aminoAcid = resolveColumn(field.getKey());
+            if (aminoAcid != null && !field.getValue().isNull()) {
+                values.put(aminoAcid, field.getValue().isValueNode() ? field.getValue().asText() : field.getValue().toString());
+            }
+        }
+        return toRow(number, name, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
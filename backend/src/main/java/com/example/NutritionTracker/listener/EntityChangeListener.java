@@ -0,0 +1,34 @@
+package com.example.NutritionTracker.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that publishes an {@link EntityChangedEvent} whenever an entity it is attached to is
+ * inserted, updated or deleted. The event is delivered synchronously during the flush, so its listeners can defer
+ * their work to the end of the surrounding transaction. Bulk JPQL/SQL statements bypass entity listeners.
+ * <p>
+ * Instantiated by Hibernate through Spring. The entities only name this listener, so they do not depend on the
+ * services that react to their changes.
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Change.SAVED));
+    }
+
+    @PostRemove
+    void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, EntityChangedEvent.Change.REMOVED));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.NutritionTracker.listener;
+
+/**
+ * Application event published by the {@link EntityChangeListener} when an entity has been written.
+ *
+ * @param entity The entity, as written.
+ * @param change Whether the entity was saved or removed.
+ */
+public record EntityChangedEvent(Object entity, Change change) {
+
+    /** The kind of write. */
+    public enum Change {
+        /** The entity was inserted or updated. */
+        SAVED,
+        /** The entity was deleted. */
+        REMOVED
+    }
+
+    /**
+     * Tells whether the event concerns an entity of the given type.
+     *
+     * @param type The entity type.
+     * @return {@code true} if the changed entity is an instance of the type.
+     */
+    public boolean isAbout(Class<?> type) {
+        return type.isInstance(entity);
+    }
+}
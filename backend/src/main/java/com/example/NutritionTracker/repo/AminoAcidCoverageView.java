@@ -0,0 +1,17 @@
+package com.example.NutritionTracker.repo;
+
+/**
+ * Projection for the coverage aggregate query: one row per amino acid requirement,
+ * together with the amount of this amino acid consumed in a nutrition log.
+ */
+public interface AminoAcidCoverageView {
+
+    /** The name of the amino acid, e.g. "Lysin". */
+    String getAminoAcid();
+
+    /** The base required amount of this amino acid per kilogram of body weight. */
+    Double getBaseAmountPerKg();
+
+    /** The consumed amount of this amino acid in milligrams, 0 if none of the food items contains it. */
+    Long getTotal();
+}
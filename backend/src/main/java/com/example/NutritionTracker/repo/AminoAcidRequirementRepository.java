@@ -1,7 +1,10 @@
 package com.example.NutritionTracker.repo;
 
 import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.lang.NonNull;
 
 import java.util.List;
@@ -16,9 +19,11 @@ public interface AminoAcidRequirementRepository extends JpaRepository<AminoAcidR
 
     /**
      * Retrieves all stored amino acid requirements from the database.
+     * The result is kept in the query cache and invalidated whenever a requirement is written.
      *
      * @return a list of all {@link AminoAcidRequirement} entities.
      */
     @NonNull
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<AminoAcidRequirement> findAll();
 }
\ No newline at end of file
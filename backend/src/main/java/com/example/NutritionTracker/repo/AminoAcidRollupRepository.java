@@ -0,0 +1,121 @@
+package com.example.NutritionTracker.repo;
+
+import com.example.NutritionTracker.entity.AminoAcidRollup;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link AminoAcidRollup} entities.
+ * All reads are answered from the unique index on (user_id, period, period_start).
+ */
+@Repository
+public interface AminoAcidRollupRepository extends JpaRepository<AminoAcidRollup, UUID> {
+
+    /**
+     * Retrieves the rollups of a user for the given periods.
+     *
+     * @param userId the user whose rollups are queried.
+     * @param period the length of the periods.
+     * @param starts the first days of the periods.
+     * @return the existing rollups; periods without a log have none.
+     */
+    List<AminoAcidRollup> findByUserIdAndPeriodAndPeriodStartIn(UUID userId, RollupPeriod period,
+                                                               Collection<LocalDate> starts);
+
+    /**
+     * Retrieves the rollups covering a range of days: the months lying within it, and the single days before
+     * and after them. Bounds instead of lists of periods keep the query the same for every range, so its plan is cached.
+     *
+     * @param userId     the user whose rollups are queried.
+     * @param from       the first day of the range, inclusive.
+     * @param headEnd    the last day before the first month, inclusive; before {@code from} if there is none.
+     * @param firstMonth the first day of the first month.
+     * @param lastMonth  the first day of the last month; before {@code firstMonth} if no month lies within the range.
+     * @param tailStart  the first day after the last month; after {@code to} if there is none.
+     * @param to         the last day of the range, inclusive.
+     * @return the existing rollups; periods without a log have none.
+     */
+    @Query("""
+            SELECT r FROM AminoAcidRollup r
+            WHERE r.userId = :userId
+              AND ((r.period = com.example.NutritionTracker.entity.RollupPeriod.MONTH AND r.periodStart BETWEEN :firstMonth AND :lastMonth)
+                OR (r.period = com.example.NutritionTracker.entity.RollupPeriod.DAY AND r.periodStart BETWEEN :from AND :headEnd)
+                OR (r.period = com.example.NutritionTracker.entity.RollupPeriod.DAY AND r.periodStart BETWEEN :tailStart AND :to))
+            """)
+    List<AminoAcidRollup> findCovering(@Param("userId") UUID userId, @Param("from") LocalDate from,
+                                       @Param("headEnd") LocalDate headEnd, @Param("firstMonth") LocalDate firstMonth,
+                                       @Param("lastMonth") LocalDate lastMonth, @Param("tailStart") LocalDate tailStart,
+                                       @Param("to") LocalDate to);
+
+    /**
+     * Retrieves the rollups of a user for all periods starting within a range, oldest first.
+     *
+     * @param userId the user whose rollups are queried.
+     * @param period the length of the periods.
+     * @param from   the first day of the oldest period, inclusive.
+     * @param to     the first day of the newest period, inclusive.
+     * @return the existing rollups; periods without a log have none.
+     */
+    List<AminoAcidRollup> findByUserIdAndPeriodAndPeriodStartBetweenOrderByPeriodStart(UUID userId, RollupPeriod period,
+                                                                                      LocalDate from, LocalDate to);
+
+    /**
+     * Adds a change of the totals to the day, week and month rollups containing it.
+     * The update is relative, so concurrent changes within the same period add up instead of overwriting each other.
+     *
+     * @param userId the user the changed log belongs to.
+     * @param day    the day of the changed log.
+     * @param week   the first day of its week.
+     * @param month  the first day of its month.
+     * @param delta  the change; negative values are subtracted.
+     * @return the number of updated rollups.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE AminoAcidRollup r SET
+                r.totals.itemCount = r.totals.itemCount + :#{#delta.itemCount},
+                r.totals.lysin = r.totals.lysin + :#{#delta.lysin},
+                r.totals.leucin = r.totals.leucin + :#{#delta.leucin},
+                r.totals.isoleucin = r.totals.isoleucin + :#{#delta.isoleucin},
+                r.totals.valin = r.totals.valin + :#{#delta.valin},
+                r.totals.methionin = r.totals.methionin + :#{#delta.methionin},
+                r.totals.phenylalanin = r.totals.phenylalanin + :#{#delta.phenylalanin},
+                r.totals.threonin = r.totals.threonin + :#{#delta.threonin},
+                r.totals.tryptophan = r.totals.tryptophan + :#{#delta.tryptophan},
+                r.totals.histidin = r.totals.histidin + :#{#delta.histidin},
+                r.totals.glycin = r.totals.glycin + :#{#delta.glycin}
+            WHERE r.userId = :userId
+              AND ((r.period = com.example.NutritionTracker.entity.RollupPeriod.DAY AND r.periodStart = :day)
+                OR (r.period = com.example.NutritionTracker.entity.RollupPeriod.WEEK AND r.periodStart = :week)
+                OR (r.period = com.example.NutritionTracker.entity.RollupPeriod.MONTH AND r.periodStart = :month))
+            """)
+    int addTotals(@Param("userId") UUID userId, @Param("day") LocalDate day, @Param("week") LocalDate week,
+                  @Param("month") LocalDate month, @Param("delta") AminoAcidTotals delta);
+
+    /**
+     * Counts a newly logged day in the rollups of its week and month.
+     *
+     * @param userId the user the log belongs to.
+     * @param week   the first day of the week of the log.
+     * @param month  the first day of the month of the log.
+     * @return the number of updated rollups.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE AminoAcidRollup r SET r.loggedDays = r.loggedDays + 1
+            WHERE r.userId = :userId
+              AND ((r.period = com.example.NutritionTracker.entity.RollupPeriod.WEEK AND r.periodStart = :week)
+                OR (r.period = com.example.NutritionTracker.entity.RollupPeriod.MONTH AND r.periodStart = :month))
+            """)
+    int countLoggedDay(@Param("userId") UUID userId, @Param("week") LocalDate week, @Param("month") LocalDate month);
+}
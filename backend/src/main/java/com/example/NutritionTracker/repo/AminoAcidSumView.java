@@ -0,0 +1,13 @@
+package com.example.NutritionTracker.repo;
+
+/**
+ * Projection for aggregate queries returning one summed value per amino acid.
+ */
+public interface AminoAcidSumView {
+
+    /** The name of the amino acid, e.g. "Lysin". */
+    String getAminoAcid();
+
+    /** The summed amount of this amino acid in milligrams. */
+    Long getTotal();
+}
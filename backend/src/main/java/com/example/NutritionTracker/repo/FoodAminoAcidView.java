@@ -0,0 +1,22 @@
+package com.example.NutritionTracker.repo;
+
+import java.util.UUID;
+
+/**
+ * Projection of one amino acid value of a food item, as streamed to build the recommendation matrix.
+ * Food items without any amino acid values appear once, with {@code null} amino acid and amount.
+ */
+public interface FoodAminoAcidView {
+
+    /** The unique identifier of the food item. */
+    UUID getFoodItemId();
+
+    /** The name of the food item. */
+    String getName();
+
+    /** The name of the amino acid, e.g. "Lysin". */
+    String getAminoAcid();
+
+    /** The amount of this amino acid in the food item. */
+    Double getAmount();
+}
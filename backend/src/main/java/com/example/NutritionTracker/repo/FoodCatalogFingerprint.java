@@ -0,0 +1,14 @@
+package com.example.NutritionTracker.repo;
+
+/**
+ * Projection summarizing the food catalog, used to derive its ETag.
+ * Every insert or delete changes the item count, every update increments a {@code @Version}.
+ */
+public interface FoodCatalogFingerprint {
+
+    /** @return The number of food items. */
+    long getItemCount();
+
+    /** @return The sum of the {@code @Version} fields of all food items. */
+    long getVersionSum();
+}
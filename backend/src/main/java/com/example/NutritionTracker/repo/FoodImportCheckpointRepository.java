@@ -0,0 +1,12 @@
+package com.example.NutritionTracker.repo;
+
+import com.example.NutritionTracker.entity.FoodImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for managing {@link FoodImportCheckpoint} entities, keyed by the name of the source.
+ */
+@Repository
+public interface FoodImportCheckpointRepository extends JpaRepository<FoodImportCheckpoint, String> {
+}
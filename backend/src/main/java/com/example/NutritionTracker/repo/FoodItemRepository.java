@@ -1,12 +1,21 @@
 package com.example.NutritionTracker.repo;
 
+import com.example.NutritionTracker.dto.FoodItemDTO;
 import com.example.NutritionTracker.entity.FoodItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link FoodItem} entities.
@@ -16,6 +25,16 @@ import java.util.UUID;
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, UUID> {
 
+    /**
+     * Retrieves all food items. The result is kept in the query cache and
+     * invalidated whenever a food item is written.
+     *
+     * @return a list of all {@link FoodItem} entities.
+     */
+    @NonNull
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<FoodItem> findAll();
+
     /**
      * Retrieves a list of {@link FoodItem} entities by their IDs.
      *
@@ -24,4 +43,72 @@ public interface FoodItemRepository extends JpaRepository<FoodItem, UUID> {
      */
     @NonNull
     List<FoodItem> findAllById(@NonNull Iterable<UUID> ids);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the first page of the catalog, ordered by name and id.
+     *
+     * @param limit the maximum number of food items.
+     * @return the food items as DTOs.
+     */
+    @Query("select new com.example.NutritionTracker.dto.FoodItemDTO(f.id, f.name) from FoodItem f order by f.name, f.id")
+    List<FoodItemDTO> findFirstPage(Limit limit);
+
+    /**
+     * Retrieves the page following the given name and id (keyset pagination).
+     * The row value comparison is answered from the {@code (name, id)} index, no matter how deep the page is.
+     *
+     * @param name the name of the last food item of the previous page.
+     * @param id the id of the last food item of the previous page.
+     * @param limit the maximum number of food items.
+     * @return the food items as DTOs.
+     */
+    @Query("""
+            select new com.example.NutritionTracker.dto.FoodItemDTO(f.id, f.name) from FoodItem f
+            where (f.name, f.id) > (:name, :id)
+            order by f.name, f.id""")
+    List<FoodItemDTO> findPageAfter(@Param("name") String name, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Streams the whole catalog, ordered by name and id, from a database cursor.
+     * The DTOs are not managed by the persistence context, so memory stays constant;
+     * the stream must be consumed and closed within a transaction.
+     *
+     * @return a stream of all food items as DTOs.
+     */
+    @Query("select new com.example.NutritionTracker.dto.FoodItemDTO(f.id, f.name) from FoodItem f order by f.name, f.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<FoodItemDTO> streamAllOrderedByName();
+
+    /**
+     * Streams the amino acid profiles of all food items, one row per value, grouped by food item.
+     * Only the ids, names and profile values are read, no entities are built;
+     * the stream must be consumed and closed within a transaction.
+     *
+     * @return a stream of the amino acid values, ordered by food item id.
+     */
+    @Query("""
+            select f.id as foodItemId, f.name as name, key(p) as aminoAcid, value(p) as amount
+            from FoodItem f left join f.aminoAcidProfile p
+            order by f.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<FoodAminoAcidView> streamAminoAcidProfiles();
+
+    /**
+     * Summarizes the catalog for its ETag.
+     *
+     * @return the item count and the sum of all versions.
+     */
+    @Query("select count(f) as itemCount, coalesce(sum(f.version), 0) as versionSum from FoodItem f")
+    FoodCatalogFingerprint findCatalogFingerprint();
+
+    /**
+     * Deletes the amino acid profiles of all food items with one statement, as required before
+     * {@link #deleteAllInBatch()}, which does not cascade to the profiles. Entity listeners are bypassed;
+     * Hibernate evicts the second-level cache regions, as it cannot tell which ones the statement touches.
+     *
+     * @return the number of deleted profile values.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM food_item_amino_acids", nativeQuery = true)
+    int deleteAllAminoAcidProfiles();
+}
@@ -3,8 +3,15 @@ package com.example.NutritionTracker.repo;
 import com.example.NutritionTracker.entity.NutritionLog;
 import com.example.NutritionTracker.entity.NutritionLogFoodItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
 /**
  * Repository interface for managing {@link NutritionLogFoodItem} entities.
  * This interface extends {@link JpaRepository} to provide CRUD operations
@@ -19,4 +26,26 @@ public interface NutritionLogFoodItemRepository extends JpaRepository<NutritionL
        * @param nutritionLog the nutrition log for which all associated food items should be deleted.
        */
       void deleteByNutritionLog(NutritionLog nutritionLog);
+
+      /**
+       * Finds which of the given food items are already part of a {@link NutritionLog}.
+       * Answered from the unique index on (nutrition_log_id, food_item_id) without loading the entries of the log.
+       *
+       * @param logId       the ID of the nutrition log.
+       * @param foodItemIds the IDs of the food items to look for.
+       * @return the IDs of the food items the log already contains.
+       */
+      @Query("""
+              select i.foodItem.id from NutritionLogFoodItem i
+              where i.nutritionLog.id = :logId and i.foodItem.id in :foodItemIds""")
+      Set<UUID> findFoodItemIdsInLog(@Param("logId") UUID logId, @Param("foodItemIds") Collection<UUID> foodItemIds);
+
+      /**
+       * Retrieves the entry of a food item in a {@link NutritionLog}.
+       *
+       * @param logId      the ID of the nutrition log.
+       * @param foodItemId the ID of the food item.
+       * @return an {@link Optional} containing the entry, if the food item is part of the log.
+       */
+      Optional<NutritionLogFoodItem> findByNutritionLogIdAndFoodItemId(UUID logId, UUID foodItemId);
 }
\ No newline at end of file
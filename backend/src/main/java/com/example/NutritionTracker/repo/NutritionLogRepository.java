@@ -1,12 +1,23 @@
 package com.example.NutritionTracker.repo;
 
+import com.example.NutritionTracker.entity.AminoAcidTotals;
 import com.example.NutritionTracker.entity.NutritionLog;
 import com.example.NutritionTracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link NutritionLog} entities.
@@ -16,17 +27,162 @@ import java.util.UUID;
 public interface NutritionLogRepository extends JpaRepository<NutritionLog, UUID> {
 
     /**
-     * Retrieves the most recent {@link NutritionLog} entry based on ID order.
+     * Retrieves the {@link NutritionLog} of the latest day, whenever it was created; a log backfilled for a past day
+     * does not displace it. Logs of different users for the same day are ordered by their time-ordered ID.
+     * Answered from the index on (log_date, id) without sorting the table.
      *
-     * @return an {@link Optional} containing the most recently created nutrition log, if available.
+     * @return an {@link Optional} containing the nutrition log of the latest day, if available.
      */
-    Optional<NutritionLog> findTopByOrderByIdDesc();
+    Optional<NutritionLog> findFirstByOrderByLogDateDescIdDesc();
 
     /**
-     * Retrieves a {@link NutritionLog} associated with a specific {@link User}.
+     * Retrieves the identity and versions of the {@link NutritionLog} of the latest day, without its user,
+     * totals or food items. Answered from the index on (log_date, id) plus one row.
      *
-     * @param user the user whose nutrition log is being queried.
-     * @return an {@link Optional} containing the user's nutrition log, if found.
+     * @param type the projection, e.g. {@link NutritionLogVersionView}.
+     * @param <T>  the type of the projection.
+     * @return an {@link Optional} containing the projection of the nutrition log of the latest day, if available.
      */
-    Optional<NutritionLog> findByUser(User user);
+    <T> Optional<T> findFirstByOrderByLogDateDescIdDesc(Class<T> type);
+
+    /**
+     * Retrieves the {@link NutritionLog} of the latest day of a specific {@link User}.
+     * A user keeps one log per day, so it is answered from the unique index on (user_id, log_date).
+     *
+     * @param user the user whose latest nutrition log is being queried.
+     * @return an {@link Optional} containing the user's nutrition log of the latest day, if available.
+     */
+    Optional<NutritionLog> findFirstByUserOrderByLogDateDesc(User user);
+
+    /**
+     * Retrieves the {@link NutritionLog}s a specific {@link User} kept for a day.
+     * Answered from the index on (user_id, log_date).
+     *
+     * @param user    the user whose nutrition logs are being queried.
+     * @param logDate the day of the logs.
+     * @return the user's nutrition logs of the day; normally at most one.
+     */
+    List<NutritionLog> findByUserAndLogDate(User user, LocalDate logDate);
+
+    /**
+     * Streams the running totals of all {@link NutritionLog}s of a user, ordered by day, creation and id,
+     * from a forward-only database cursor. No entities are built, so memory stays constant;
+     * the stream must be consumed and closed within a transaction.
+     *
+     * @param userId the ID of the user.
+     * @return a stream of the user's nutrition logs without their food items.
+     */
+    @Query("""
+            select l.id as id, l.user.id as userId, l.logDate as logDate, l.createdAt as createdAt,
+                   l.aminoAcidTotals as totals
+            from NutritionLog l
+            where l.user.id = :userId
+            order by l.logDate, l.createdAt, l.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NutritionLogTotalsView> streamTotalsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Streams the running totals of the {@link NutritionLog}s of all users, ordered by user, day and id,
+     * from a forward-only database cursor, like {@link #streamTotalsByUserId(UUID)}.
+     *
+     * @return a stream of all nutrition logs without their food items.
+     */
+    @Query("""
+            select l.id as id, l.user.id as userId, l.logDate as logDate, l.createdAt as createdAt,
+                   l.aminoAcidTotals as totals
+            from NutritionLog l
+            order by l.user.id, l.logDate, l.id""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NutritionLogTotalsView> streamAllTotals();
+
+    /**
+     * Retrieves a {@link NutritionLog} and locks its row until the end of the transaction.
+     * A plain {@code FOR UPDATE}, which H2 and PostgreSQL both understand; it does not raise the version.
+     *
+     * @param id the ID of the nutrition log.
+     * @return an {@link Optional} containing the locked nutrition log, if found.
+     */
+    @Query(value = "SELECT * FROM nutrition_log WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<NutritionLog> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Adds a change of the food items to the running totals of a {@link NutritionLog}.
+     * The update is relative and leaves the version alone, so adding food items does not collide
+     * with other changes of the log; it raises the revision instead.
+     *
+     * @param id    the ID of the nutrition log.
+     * @param delta the change; negative values are subtracted.
+     * @return the number of updated logs.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE NutritionLog l SET
+                l.aminoAcidTotals.itemCount = l.aminoAcidTotals.itemCount + :#{#delta.itemCount},
+                l.aminoAcidTotals.lysin = l.aminoAcidTotals.lysin + :#{#delta.lysin},
+                l.aminoAcidTotals.leucin = l.aminoAcidTotals.leucin + :#{#delta.leucin},
+                l.aminoAcidTotals.isoleucin = l.aminoAcidTotals.isoleucin + :#{#delta.isoleucin},
+                l.aminoAcidTotals.valin = l.aminoAcidTotals.valin + :#{#delta.valin},
+                l.aminoAcidTotals.methionin = l.aminoAcidTotals.methionin + :#{#delta.methionin},
+                l.aminoAcidTotals.phenylalanin = l.aminoAcidTotals.phenylalanin + :#{#delta.phenylalanin},
+                l.aminoAcidTotals.threonin = l.aminoAcidTotals.threonin + :#{#delta.threonin},
+                l.aminoAcidTotals.tryptophan = l.aminoAcidTotals.tryptophan + :#{#delta.tryptophan},
+                l.aminoAcidTotals.histidin = l.aminoAcidTotals.histidin + :#{#delta.histidin},
+                l.aminoAcidTotals.glycin = l.aminoAcidTotals.glycin + :#{#delta.glycin},
+                l.revision = l.revision + 1
+            WHERE l.id = :id
+            """)
+    int addTotals(@Param("id") UUID id, @Param("delta") AminoAcidTotals delta);
+
+    /**
+     * Retrieves a {@link NutritionLog} together with its food items in a single query.
+     * The amino acid profiles of the food items are then batch fetched on first access.
+     *
+     * @param id the ID of the nutrition log.
+     * @return an {@link Optional} containing the fully loaded nutrition log, if found.
+     */
+    @EntityGraph(NutritionLog.GRAPH_FOOD_ITEMS)
+    Optional<NutritionLog> findWithFoodItemsById(UUID id);
+
+    /**
+     * Sums the amino acid profiles of all food items in a {@link NutritionLog} inside the database.
+     * Returns one row per amino acid without loading any entities.
+     * Each profile value is rounded to milligrams per 100 g with {@code FLOOR(x + 0.5)}, which for the non-negative
+     * profile values rounds half away from zero like {@link com.example.NutritionTracker.amino.Milligrams#fromGrams},
+     * as {@code ROUND} on a double rounds ties to even in PostgreSQL; it is then scaled to the eaten amount in whole
+     * milligrams, rounded the same way as {@link com.example.NutritionTracker.amino.Milligrams#scale}, and summed
+     * as integers.
+     *
+     * @param logId the ID of the nutrition log.
+     * @return the summed milligrams per amino acid; empty if the log has no food items.
+     */
+    @Query(value = """
+            SELECT a.amino_acid AS aminoAcid,
+                   SUM((CAST(FLOOR(a.amino_acid_value * 1000 + 0.5) AS BIGINT) * i.amount_mg + 50000) / 100000) AS total
+            FROM nutrition_log_food_item i
+            JOIN food_item_amino_acids a ON a.food_item_id = i.food_item_id
+            WHERE i.nutrition_log_id = :logId
+            GROUP BY a.amino_acid
+            """, nativeQuery = true)
+    List<AminoAcidSumView> sumAminoAcidsByLogId(@Param("logId") UUID logId);
+
+    /**
+     * Joins the amino acid requirements with the summed amino acid profiles of a {@link NutritionLog}.
+     * Returns one row per requirement, so that coverage can be calculated from a single query.
+     *
+     * @param logId the ID of the nutrition log.
+     * @return the base requirement per kg and the consumed milligrams per amino acid.
+     */
+    @Query(value = """
+            SELECT r.amino_acid AS aminoAcid, r.base_amount_per_kg AS baseAmountPerKg, COALESCE(s.total, 0) AS total
+            FROM amino_acid_requirement r
+            LEFT JOIN (
+                SELECT a.amino_acid AS amino_acid,
+                       SUM((CAST(FLOOR(a.amino_acid_value * 1000 + 0.5) AS BIGINT) * i.amount_mg + 50000) / 100000) AS total
+                FROM nutrition_log_food_item i
+                JOIN food_item_amino_acids a ON a.food_item_id = i.food_item_id
+                WHERE i.nutrition_log_id = :logId
+                GROUP BY a.amino_acid
+            ) s ON s.amino_acid = r.amino_acid
+            """, nativeQuery = true)
+    List<AminoAcidCoverageView> findCoverageInputsByLogId(@Param("logId") UUID logId);
 }
\ No newline at end of file
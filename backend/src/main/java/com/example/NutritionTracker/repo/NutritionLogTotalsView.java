@@ -0,0 +1,28 @@
+package com.example.NutritionTracker.repo;
+
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of a nutrition log without its food items: its identity, day and running totals.
+ */
+public interface NutritionLogTotalsView {
+
+    /** The ID of the nutrition log. */
+    UUID getId();
+
+    /** The ID of the user the nutrition log belongs to. */
+    UUID getUserId();
+
+    /** The day the nutrition log records. */
+    LocalDate getLogDate();
+
+    /** The point in time the nutrition log was created. */
+    Instant getCreatedAt();
+
+    /** The running amino acid totals of the nutrition log. */
+    AminoAcidTotals getTotals();
+}
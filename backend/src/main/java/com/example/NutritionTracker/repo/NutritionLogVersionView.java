@@ -0,0 +1,19 @@
+package com.example.NutritionTracker.repo;
+
+import java.util.UUID;
+
+/**
+ * Projection of a nutrition log to its identity and versions, which change whenever the log
+ * or its food items change.
+ */
+public interface NutritionLogVersionView {
+
+    /** The ID of the nutrition log. */
+    UUID getId();
+
+    /** The optimistic locking version of the nutrition log. */
+    Long getVersion();
+
+    /** The number of changes of the food items of the nutrition log. */
+    long getRevision();
+}
@@ -2,8 +2,11 @@ package com.example.NutritionTracker.repo;
 
 import com.example.NutritionTracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -12,4 +15,22 @@ import java.util.UUID;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
+
+    /**
+     * Finds the user with the lowest id, reading a single row off the primary key index.
+     * The application holds exactly one user, so this is the current user.
+     *
+     * @return An Optional containing the user, or empty if no user exists.
+     */
+    Optional<User> findFirstByOrderByIdAsc();
+
+    /**
+     * Retrieves a user and locks its row until the end of the transaction.
+     * A plain {@code FOR UPDATE}, which H2 and PostgreSQL both understand; it does not raise the version.
+     *
+     * @param id the ID of the user.
+     * @return an {@link Optional} containing the locked user, if found.
+     */
+    @Query(value = "SELECT * FROM app_user WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.NutritionTracker.search;
+
+/**
+ * Row-wise optimal string alignment distance (Levenshtein plus swaps of adjacent characters)
+ * between a growing word prefix and a search term, as used by the typo-tolerant matching.
+ */
+final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /**
+     * Returns the number of edits tolerated for a search term: none up to three characters,
+     * one up to seven, two beyond.
+     */
+    static int maxEdits(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Tells whether some prefix of the word is within {@code maxEdits} edits of the term.
+     * As for the index lookups, the first character must match.
+     */
+    static boolean isPrefixWithin(String term, String word, int maxEdits) {
+        if (maxEdits == 0) {
+            return word.startsWith(term);
+        }
+        if (word.isEmpty() || word.charAt(0) != term.charAt(0)) {
+            return false;
+        }
+        int[] previousRow = null;
+        int[] row = firstRow(term);
+        for (int i = 0; i < word.length(); i++) {
+            int[] next = nextRow(term, previousRow, row, word.charAt(i), i > 0 ? word.charAt(i - 1) : '\0', i + 1);
+            if (next[term.length()] <= maxEdits) {
+                return true;
+            }
+            if (min(next) > maxEdits) {
+                return false;
+            }
+            previousRow = row;
+            row = next;
+        }
+        return false;
+    }
+
+    /** Returns the distances between the empty prefix and every prefix of the term. */
+    static int[] firstRow(String term) {
+        int[] row = new int[term.length() + 1];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j;
+        }
+        return row;
+    }
+
+    /**
+     * Computes the distances between the word prefix of length {@code depth}, ending in {@code c},
+     * and every prefix of the term, from the rows of the two shorter word prefixes.
+     */
+    static int[] nextRow(String term, int[] previousRow, int[] row, char c, char previousChar, int depth) {
+        int[] next = new int[row.length];
+        next[0] = depth;
+        for (int j = 1; j < next.length; j++) {
+            char t = term.charAt(j - 1);
+            int distance = Math.min(Math.min(row[j] + 1, next[j - 1] + 1), row[j - 1] + (t == c ? 0 : 1));
+            if (previousRow != null && j > 1 && t == previousChar && term.charAt(j - 2) == c) {
+                distance = Math.min(distance, previousRow[j - 2] + 1);
+            }
+            next[j] = distance;
+        }
+        return next;
+    }
+
+    static int min(int[] row) {
+        int min = row[0];
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
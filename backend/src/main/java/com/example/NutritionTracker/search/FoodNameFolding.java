@@ -0,0 +1,71 @@
+package com.example.NutritionTracker.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Folds food names and search queries into comparable words.
+ *
+ * Text is lower-cased, German umlauts and ß are spelled out ({@code ä → ae}, {@code ß → ss}),
+ * so that "Käse" and "Kaese" fold to the same word, and any other diacritics are dropped.
+ * Words are separated by everything that is neither a letter nor a digit.
+ */
+public final class FoodNameFolding {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private FoodNameFolding() {
+    }
+
+    /**
+     * Folds the given text.
+     *
+     * @param text The food name or query.
+     * @return The folded text.
+     */
+    public static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length() + 4);
+        boolean hasDiacritics = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            switch (c) {
+                case 'ä' -> folded.append("ae");
+                case 'ö' -> folded.append("oe");
+                case 'ü' -> folded.append("ue");
+                case 'ß', 'ẞ' -> folded.append("ss");
+                default -> {
+                    hasDiacritics |= c >= 'À';
+                    folded.append(c);
+                }
+            }
+        }
+        // Names are mostly plain ASCII once umlauts are spelled out; only decompose the others
+        return hasDiacritics
+                ? DIACRITICS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("")
+                : folded.toString();
+    }
+
+    /**
+     * Folds the given text and splits it into words.
+     *
+     * @param text The food name or query.
+     * @return The folded words, in order of appearance, possibly with duplicates.
+     */
+    public static List<String> words(String text) {
+        String folded = fold(text);
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
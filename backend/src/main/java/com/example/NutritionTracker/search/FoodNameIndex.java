@@ -0,0 +1,209 @@
+package com.example.NutritionTracker.search;
+
+import com.example.NutritionTracker.dto.FoodItemDTO;
+
+import java.util.*;
+
+/**
+ * Immutable search index over food names, answering autocomplete queries with prefix and typo-tolerant matching.
+ *
+ * Names are folded into words (see {@link FoodNameFolding}) and matched from the start of a word, so parts
+ * inside compound words are not found. Query terms of up to three characters must match exactly, up to seven
+ * may contain one edit, longer ones two; an edit is an insertion, deletion, substitution or swap of adjacent
+ * characters, except that the first character must match.
+ *
+ * The words live in a large base {@link FoodNameSegment} and a small delta segment. Changes are applied with
+ * {@link #apply(Map, Collection)}, which returns a new index: saved items go to the delta, replaced or removed
+ * base items are hidden by tombstones, so a change costs time in proportion to the delta rather than the
+ * catalog. Once the delta grows beyond {@value #MAX_DELTA} entries, it is merged into a new base.
+ */
+public final class FoodNameIndex {
+
+    /** The number of delta items and tombstones above which the delta is merged into the base. */
+    private static final int MAX_DELTA = 4096;
+
+    private static final FoodNameIndex EMPTY = new FoodNameIndex(FoodNameSegment.EMPTY, FoodNameSegment.EMPTY, Set.of());
+
+    private final FoodNameSegment base;
+    private final FoodNameSegment delta;
+    private final Set<UUID> tombstones;
+
+    private FoodNameIndex(FoodNameSegment base, FoodNameSegment delta, Set<UUID> tombstones) {
+        this.base = base;
+        this.delta = delta;
+        this.tombstones = tombstones;
+    }
+
+    /**
+     * Returns the index without any food items.
+     *
+     * @return The empty index.
+     */
+    public static FoodNameIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index over the given food items.
+     *
+     * @param names The food names by food item id.
+     * @return The new index.
+     */
+    public static FoodNameIndex of(Map<UUID, String> names) {
+        return new FoodNameIndex(FoodNameSegment.EMPTY.apply(names, List.of()), FoodNameSegment.EMPTY, Set.of());
+    }
+
+    /** @return Number of food items in the index. */
+    public int size() {
+        return base.size() - tombstones.size() + delta.size();
+    }
+
+    /**
+     * Returns an index with the given changes applied; this index is not modified.
+     * Items saved with an unchanged name are skipped.
+     *
+     * @param saved   The names of inserted or updated food items by id.
+     * @param removed The ids of deleted food items.
+     * @return The changed index.
+     */
+    public FoodNameIndex apply(Map<UUID, String> saved, Collection<UUID> removed) {
+        if (saved.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+
+        Set<UUID> newTombstones = new HashSet<>(tombstones);
+        Map<UUID, String> deltaSaved = new LinkedHashMap<>();
+        for (UUID id : removed) {
+            if (base.nameOf(id) != null) {
+                newTombstones.add(id);
+            }
+        }
+        for (Map.Entry<UUID, String> entry : saved.entrySet()) {
+            String baseName = newTombstones.contains(entry.getKey()) ? null : base.nameOf(entry.getKey());
+            if (entry.getValue().equals(baseName)) {
+                continue;
+            }
+            if (baseName != null) {
+                newTombstones.add(entry.getKey());
+            }
+            deltaSaved.put(entry.getKey(), entry.getValue());
+        }
+
+        FoodNameSegment newDelta = delta.apply(deltaSaved, removed);
+        if (newDelta.size() + newTombstones.size() <= MAX_DELTA) {
+            return new FoodNameIndex(base, newDelta, newTombstones);
+        }
+        Map<UUID, String> deltaNames = new LinkedHashMap<>();
+        newDelta.copyTo(deltaNames);
+        return new FoodNameIndex(base.apply(deltaNames, newTombstones), FoodNameSegment.EMPTY, Set.of());
+    }
+
+    /**
+     * Searches food items whose name matches every word of the query. The most selective query word is looked up
+     * in the index: exact prefix matches come first, ordered by the matching word, followed by matches with typos,
+     * closest first. The other query words are checked against the names of the candidates.
+     *
+     * @param query The search query.
+     * @param limit The maximum number of results.
+     * @return The matching food items, best matches first.
+     */
+    public List<FoodItemDTO> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(FoodNameFolding.words(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String driver = mostSelective(terms);
+        terms.remove(driver);
+
+        FoodNameSegment[] segments = {base, delta};
+        List<Set<Integer>> seen = List.of(new HashSet<>(), new HashSet<>());
+        List<FoodItemDTO> results = new ArrayList<>(Math.min(limit, 16));
+
+        int[][] exact = new int[segments.length][];
+        for (int s = 0; s < segments.length; s++) {
+            exact[s] = segments[s].prefixRange(driver);
+            if (collect(segments[s], exact[s][0], exact[s][1], terms, seen.get(s), results, limit)) {
+                return results;
+            }
+        }
+
+        int maxEdits = EditDistance.maxEdits(driver);
+        if (maxEdits == 0) {
+            return results;
+        }
+        List<FuzzyRange> fuzzy = new ArrayList<>();
+        for (int s = 0; s < segments.length; s++) {
+            for (FoodNameSegment.WordRange range : segments[s].fuzzyRanges(driver, maxEdits)) {
+                fuzzy.add(new FuzzyRange(s, range));
+            }
+        }
+        fuzzy.sort(Comparator.comparingInt(fuzzyRange -> fuzzyRange.range().distance()));
+        for (FuzzyRange fuzzyRange : fuzzy) {
+            int s = fuzzyRange.segment();
+            FoodNameSegment.WordRange range = fuzzyRange.range();
+            // Exact matches have already been collected; a fuzzy range either contains them or is disjoint
+            if (collect(segments[s], range.from(), Math.min(range.to(), exact[s][0]), terms, seen.get(s), results, limit)
+                    || collect(segments[s], Math.max(range.from(), exact[s][1]), range.to(), terms, seen.get(s), results, limit)) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Picks the query word with the fewest exact prefix matches, preferring longer words on a tie.
+     */
+    private String mostSelective(List<String> terms) {
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        List<String> longestFirst = new ArrayList<>(terms);
+        longestFirst.sort(Comparator.comparingInt(String::length).reversed());
+        String best = null;
+        long bestCount = Long.MAX_VALUE;
+        for (String term : longestFirst) {
+            long count = base.prefixCount(term, bestCount) + delta.prefixCount(term, bestCount);
+            if (count < bestCount) {
+                best = term;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private boolean collect(FoodNameSegment segment, int from, int to, List<String> otherTerms, Set<Integer> seen,
+                            List<FoodItemDTO> results, int limit) {
+        boolean hidden = segment == base && !tombstones.isEmpty();
+        for (int w = from; w < to; w++) {
+            for (int slot : segment.postings(w)) {
+                UUID id = segment.id(slot);
+                if (id == null || (hidden && tombstones.contains(id)) || !seen.add(slot)
+                        || !matchesAll(segment.name(slot), otherTerms)) {
+                    continue;
+                }
+                results.add(new FoodItemDTO(id, segment.name(slot)));
+                if (results.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAll(String name, List<String> terms) {
+        if (terms.isEmpty()) {
+            return true;
+        }
+        List<String> nameWords = FoodNameFolding.words(name);
+        for (String term : terms) {
+            int maxEdits = EditDistance.maxEdits(term);
+            if (nameWords.stream().noneMatch(word -> EditDistance.isPrefixWithin(term, word, maxEdits))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record FuzzyRange(int segment, FoodNameSegment.WordRange range) {
+    }
+}
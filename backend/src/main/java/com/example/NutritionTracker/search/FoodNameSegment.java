@@ -0,0 +1,253 @@
+package com.example.NutritionTracker.search;
+
+import java.util.*;
+
+/**
+ * Immutable word index over a set of food items, the building block of {@link FoodNameIndex}.
+ *
+ * Every food item occupies a slot; the folded words of its name are kept in one sorted array, each with the
+ * ascending slots of the items containing it. Since the array is sorted, every range of words sharing a prefix
+ * forms a node of an implicit prefix trie: prefix matches are a binary search, and typo-tolerant matches walk
+ * the trie depth-first while tracking the edit distance to the term, pruning every subtree that is too far off.
+ *
+ * Removed and renamed items leave dead slots behind, which are skipped and compacted once they outnumber
+ * the live ones.
+ */
+final class FoodNameSegment {
+
+    /** Dead slots are compacted once they outnumber the live ones, but not before there are this many. */
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 1024;
+
+    static final FoodNameSegment EMPTY =
+            new FoodNameSegment(new String[0], new int[0][], new UUID[0], new String[0], Map.of(), 0);
+
+    private final String[] words;
+    private final int[][] postings;
+    private final UUID[] ids;
+    private final String[] names;
+    private final Map<UUID, Integer> slotsById;
+    private final int deadSlots;
+
+    private FoodNameSegment(String[] words, int[][] postings, UUID[] ids, String[] names,
+                            Map<UUID, Integer> slotsById, int deadSlots) {
+        this.words = words;
+        this.postings = postings;
+        this.ids = ids;
+        this.names = names;
+        this.slotsById = slotsById;
+        this.deadSlots = deadSlots;
+    }
+
+    /** A range {@code [from, to)} of words within {@code distance} edits of a term. */
+    record WordRange(int from, int to, int distance) {
+    }
+
+    int size() {
+        return slotsById.size();
+    }
+
+    String nameOf(UUID id) {
+        Integer slot = slotsById.get(id);
+        return slot != null ? names[slot] : null;
+    }
+
+    /** Copies the live food names by id into the given map, in slot order. */
+    void copyTo(Map<UUID, String> target) {
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] != null) {
+                target.put(ids[slot], names[slot]);
+            }
+        }
+    }
+
+    /** @return The id of the item in the slot, or {@code null} if it is dead. */
+    UUID id(int slot) {
+        return ids[slot];
+    }
+
+    String name(int slot) {
+        return names[slot];
+    }
+
+    int[] postings(int word) {
+        return postings[word];
+    }
+
+    /**
+     * Returns a segment with the given changes applied. Only the words of the saved items are folded and merged
+     * into the word array; items whose name did not change are left untouched.
+     */
+    FoodNameSegment apply(Map<UUID, String> saved, Collection<UUID> removed) {
+        if (saved.isEmpty() && removed.isEmpty()) {
+            return this;
+        }
+
+        UUID[] newIds = Arrays.copyOf(ids, ids.length + saved.size());
+        String[] newNames = Arrays.copyOf(names, newIds.length);
+        Map<UUID, Integer> newSlots = new HashMap<>(slotsById);
+        int dead = deadSlots;
+
+        for (UUID id : removed) {
+            Integer slot = newSlots.remove(id);
+            if (slot != null) {
+                newIds[slot] = null;
+                newNames[slot] = null;
+                dead++;
+            }
+        }
+
+        List<WordSlot> added = new ArrayList<>();
+        int next = ids.length;
+        for (Map.Entry<UUID, String> entry : saved.entrySet()) {
+            Integer slot = newSlots.get(entry.getKey());
+            if (slot != null) {
+                if (entry.getValue().equals(newNames[slot])) {
+                    continue;
+                }
+                // Renamed: the old slot dies, the item moves to a new one
+                newIds[slot] = null;
+                newNames[slot] = null;
+                dead++;
+            }
+            newIds[next] = entry.getKey();
+            newNames[next] = entry.getValue();
+            newSlots.put(entry.getKey(), next);
+            for (String word : new LinkedHashSet<>(FoodNameFolding.words(entry.getValue()))) {
+                added.add(new WordSlot(word, next));
+            }
+            next++;
+        }
+        newIds = Arrays.copyOf(newIds, next);
+        newNames = Arrays.copyOf(newNames, next);
+
+        if (dead >= MIN_DEAD_SLOTS_TO_COMPACT && dead > newSlots.size()) {
+            Map<UUID, String> live = new LinkedHashMap<>();
+            new FoodNameSegment(words, postings, newIds, newNames, newSlots, dead).copyTo(live);
+            return EMPTY.apply(live, List.of());
+        }
+        added.sort(Comparator.comparing(WordSlot::word).thenComparingInt(WordSlot::slot));
+        return merge(added, newIds, newNames, newSlots, dead);
+    }
+
+    /**
+     * Returns the range of words starting with the given prefix.
+     *
+     * @return {@code {from, to}}.
+     */
+    int[] prefixRange(String prefix) {
+        return new int[]{lowerBound(prefix), lowerBound(prefix + Character.MAX_VALUE)};
+    }
+
+    /**
+     * Counts the postings of the words starting with the given prefix, stopping once {@code cap} is exceeded.
+     */
+    long prefixCount(String prefix, long cap) {
+        int[] range = prefixRange(prefix);
+        long count = 0;
+        for (int w = range[0]; w < range[1] && count <= cap; w++) {
+            count += postings[w].length;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the words having a prefix within {@code maxEdits} edits of the term. The first character must match,
+     * which confines the walk to one subtree of the trie.
+     */
+    List<WordRange> fuzzyRanges(String term, int maxEdits) {
+        List<WordRange> out = new ArrayList<>();
+        int[] range = prefixRange(term.substring(0, 1));
+        if (range[0] == range[1]) {
+            return out;
+        }
+        int[] root = EditDistance.firstRow(term);
+        char first = term.charAt(0);
+        collectFuzzy(term, maxEdits, range[0], range[1], 1, root, EditDistance.nextRow(term, null, root, first, '\0', 1), first, out);
+        return out;
+    }
+
+    /**
+     * Walks the subtree of words {@code [from, to)}, which share a prefix of {@code depth} characters.
+     * {@code row} holds the edit distances between that prefix and every prefix of the term.
+     */
+    private void collectFuzzy(String term, int maxEdits, int from, int to, int depth,
+                              int[] previousRow, int[] row, char previousChar, List<WordRange> out) {
+        int distance = row[term.length()];
+        if (distance <= maxEdits) {
+            out.add(new WordRange(from, to, distance));
+            return;
+        }
+        if (EditDistance.min(row) > maxEdits) {
+            return;
+        }
+
+        int child = from;
+        // The word equal to the prefix sorts first and has no children
+        if (child < to && words[child].length() == depth) {
+            child++;
+        }
+        while (child < to) {
+            char c = words[child].charAt(depth);
+            int end = childEnd(child, to, depth, c);
+            collectFuzzy(term, maxEdits, child, end, depth + 1,
+                    row, EditDistance.nextRow(term, previousRow, row, c, previousChar, depth + 1), c, out);
+            child = end;
+        }
+    }
+
+    private int childEnd(int from, int to, int depth, char c) {
+        int low = from + 1;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].charAt(depth) <= c) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int lowerBound(String word) {
+        int index = Arrays.binarySearch(words, word);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private FoodNameSegment merge(List<WordSlot> added, UUID[] newIds, String[] newNames,
+                                  Map<UUID, Integer> newSlots, int dead) {
+        String[] mergedWords = new String[words.length + added.size()];
+        int[][] mergedPostings = new int[mergedWords.length][];
+        int size = 0;
+        int w = 0;
+        int a = 0;
+        while (w < words.length || a < added.size()) {
+            int cmp = w == words.length ? 1
+                    : a == added.size() ? -1
+                    : words[w].compareTo(added.get(a).word());
+            if (cmp < 0) {
+                mergedWords[size] = words[w];
+                mergedPostings[size++] = postings[w++];
+                continue;
+            }
+            String word = added.get(a).word();
+            int groupEnd = a;
+            while (groupEnd < added.size() && added.get(groupEnd).word().equals(word)) {
+                groupEnd++;
+            }
+            int[] existing = cmp == 0 ? postings[w++] : new int[0];
+            // New slots are higher than all existing ones, so appending keeps the postings ascending
+            int[] slots = Arrays.copyOf(existing, existing.length + groupEnd - a);
+            for (int i = existing.length; a < groupEnd; i++, a++) {
+                slots[i] = added.get(a).slot();
+            }
+            mergedWords[size] = word;
+            mergedPostings[size++] = slots;
+        }
+        return new FoodNameSegment(Arrays.copyOf(mergedWords, size), Arrays.copyOf(mergedPostings, size),
+                newIds, newNames, newSlots, dead);
+    }
+
+    private record WordSlot(String word, int slot) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory cache of the amino acid requirements per kilogram of body weight.
+ * The requirements are loaded once into an immutable snapshot, which is dropped whenever
+ * a requirement is saved or deleted (see {@link AminoAcidRequirementCacheInvalidator})
+ * and replaced on the next access.
+ */
+@Slf4j
+@Component
+public class AminoAcidRequirementCache {
+
+    private final AminoAcidRequirementRepository aminoAcidRequirementRepository;
+
+    private final AtomicReference<AminoVector> snapshot = new AtomicReference<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Constructs the cache on top of the requirement repository.
+     *
+     * @param repository The repository providing base amino acid requirements per kilogram.
+     */
+    public AminoAcidRequirementCache(AminoAcidRequirementRepository repository) {
+        this.aminoAcidRequirementRepository = repository;
+    }
+
+    /**
+     * Returns the base amino acid requirements in mg per kg body weight.
+     * The returned vector is shared by all callers and must not be modified; copy it first.
+     *
+     * @return The current requirement snapshot.
+     */
+    public AminoVector getRequirementsPerKg() {
+        AminoVector current = snapshot.get();
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return reload();
+    }
+
+    /**
+     * Drops the current snapshot, so that the next access loads the requirements again.
+     * Waits for a reload in progress, so that a snapshot read before the change cannot outlive it.
+     */
+    public synchronized void invalidate() {
+        snapshot.set(null);
+        invalidations.increment();
+        log.debug("Amino acid requirement cache invalidated");
+    }
+
+    private synchronized AminoVector reload() {
+        // Another thread may have loaded the snapshot while this one waited for the lock
+        AminoVector current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+
+        List<AminoAcidRequirement> requirements = aminoAcidRequirementRepository.findAll();
+        AminoVector requirementsPerKg = AminoVector.empty();
+        for (AminoAcidRequirement req : requirements) {
+            AminoAcid aminoAcid = AminoAcid.fromName(req.getAminoAcid());
+            if (aminoAcid == null) {
+                log.warn("Ignoring requirement for unknown amino acid: {}", req.getAminoAcid());
+                continue;
+            }
+            requirementsPerKg.add(aminoAcid, req.getBaseAmountPerKg());
+        }
+
+        snapshot.set(requirementsPerKg);
+        reloads.increment();
+        log.debug("Amino acid requirement cache loaded {} requirements", requirements.size());
+        return requirementsPerKg;
+    }
+
+    /** @return Number of accesses served from the snapshot. */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** @return Number of accesses that found no snapshot. */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** @return Number of times the requirements were loaded from the database. */
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /** @return Number of times the snapshot was dropped because requirements changed. */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import com.example.NutritionTracker.listener.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates the {@link AminoAcidRequirementCache} whenever an {@link AminoAcidRequirement} is inserted,
+ * updated or deleted, as published by the {@link com.example.NutritionTracker.listener.EntityChangeListener}.
+ * Inside a transaction the cache is invalidated once it completes, so that no snapshot
+ * loaded before the commit survives it. Bulk JPQL/SQL statements bypass entity listeners
+ * and have to call {@link AminoAcidRequirementCache#invalidate()} themselves.
+ */
+@Component
+public class AminoAcidRequirementCacheInvalidator {
+
+    private final AminoAcidRequirementCache cache;
+
+    public AminoAcidRequirementCacheInvalidator(AminoAcidRequirementCache cache) {
+        this.cache = cache;
+    }
+
+    @EventListener
+    void onEntityChanged(EntityChangedEvent event) {
+        if (!event.isAbout(AminoAcidRequirement.class)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate();
+            }
+        });
+    }
+}
@@ -1,129 +1,286 @@
 package com.example.NutritionTracker.service;
 
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.Milligrams;
 import com.example.NutritionTracker.decorator.*;
+import com.example.NutritionTracker.dto.AminoProfileSummaryDTO;
+import com.example.NutritionTracker.dto.FoodRecommendationDTO;
+import com.example.NutritionTracker.dto.MealPlanDTO;
 import com.example.NutritionTracker.dto.UserDTO;
-import com.example.NutritionTracker.entity.FoodItem;
 import com.example.NutritionTracker.entity.NutritionLog;
-import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.exception.InvalidInputException;
 import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogVersionView;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service responsible for managing amino acid profile calculations.
+ * Sums, daily needs, coverage and the summary are computed once for all concurrent callers asking for the same
+ * log and user versions (see {@link SingleFlight}); the versions are read with one indexed lookup beforehand.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@Timed("nutrition.service")
 public class AminoProfileService {
+
+    /** The largest number of food recommendations that is returned at once. */
+    public static final int MAX_RECOMMENDATIONS = 100;
+
+    /** The largest number of portions of a single food item a meal plan may contain. */
+    public static final double MAX_PORTIONS_PER_FOOD = 20;
+
     private final DailyAminoAcidCalculator dailyAminoAcidCalculator;
+    private final AminoAcidRequirementCache aminoAcidRequirementCache;
+    private final ProfileAminoAcidChains profileAminoAcidChains;
     private final NutritionLogRepository nutritionLogRepository;
     private final UserDataService userDataService;
+    private final AminoSumStrategy aminoSumStrategy;
+    private final FoodRecommender foodRecommender;
+    private final MealPlanner mealPlanner;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AminoProfileService(DailyAminoAcidCalculator dailyAminoAcidCalculator,
+                               AminoAcidRequirementCache aminoAcidRequirementCache,
+                               ProfileAminoAcidChains profileAminoAcidChains,
+                               NutritionLogRepository nutritionLogRepository,
+                               UserDataService userDataService,
+                               AminoSumStrategy aminoSumStrategy,
+                               FoodRecommender foodRecommender,
+                               MealPlanner mealPlanner,
+                               SingleFlight singleFlight,
+                               PlatformTransactionManager transactionManager) {
+        this.dailyAminoAcidCalculator = dailyAminoAcidCalculator;
+        this.aminoAcidRequirementCache = aminoAcidRequirementCache;
+        this.profileAminoAcidChains = profileAminoAcidChains;
+        this.nutritionLogRepository = nutritionLogRepository;
+        this.userDataService = userDataService;
+        this.aminoSumStrategy = aminoSumStrategy;
+        this.foodRecommender = foodRecommender;
+        this.mealPlanner = mealPlanner;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
      * Calculates the sum of all consumed amino acids in the latest nutrition log.
-     * @return A map containing amino acids and their summed values.
+     * @return A vector containing amino acids and their summed values.
      */
-    @Transactional(readOnly = true)
-    public Map<String, Double> calculateAminoAcidSumsForLatestLog() {
+    public AminoVector calculateAminoAcidSumsForLatestLog() {
         log.info("Calculating amino acid sums for the latest nutrition log...");
 
-        NutritionLog latestLog = nutritionLogRepository.findTopByOrderByIdDesc()
-                .orElseThrow(() -> new IllegalArgumentException("No NutritionLog found!"));
+        ComputationKey key = new ComputationKey("sum", findLatestLogVersion(), null);
+        return coalesce(key, this::sumsForLatestLog).copy();
+    }
 
-        log.info("Found NutritionLog with ID: {}", latestLog.getId());
+    private AminoVector sumsForLatestLog() {
+        NutritionLog latestLog = findLatestLog();
 
-        if (latestLog.getFoodItems() == null || latestLog.getFoodItems().isEmpty()) {
+        AminoVector aminoAcidSums = aminoSumStrategy.sumFor(latestLog).toGrams();
+        if (aminoAcidSums.isEmpty()) {
             log.warn("No food items found in the latest NutritionLog.");
-            return Collections.emptyMap();
+        } else {
+            log.info("Amino acid sums calculated: {}", aminoAcidSums);
         }
+        return aminoAcidSums;
+    }
 
-        Map<String, Double> aminoAcidSums = new HashMap<>();
-        for (NutritionLogFoodItem logFoodItem : latestLog.getFoodItems()) {
-            FoodItem foodItem = logFoodItem.getFoodItem();
-            log.info("Processing FoodItem: {}", foodItem.getName());
+    /**
+     * Calculates the daily amino acid requirements based on the user's weight and profile settings.
+     * @return A vector of amino acids with their required daily intake values.
+     */
+    public AminoVector calculateDailyAminoAcidNeeds() {
+        UserDTO userDTO = loadUser();
+        return coalesce(new ComputationKey("daily-needs", null, userDTO),
+                () -> applyProfile(userDTO, dailyAminoAcidCalculator.calculateDailyNeedsMilligrams(aminoAcidRequirementCache.getRequirementsPerKg(), userDTO)).toGrams())
+                .copy();
+    }
 
-            if (foodItem.getAminoAcidProfile() != null) {
-                foodItem.getAminoAcidProfile().forEach((amino, value) -> aminoAcidSums.merge(amino, value, Double::sum));
-            }
-        }
+    /**
+     * Calculates the amino acid coverage percentage based on the latest log and daily requirements.
+     * @return A vector containing amino acids and their percentage coverage values.
+     */
+    public AminoVector calculateAminoAcidCoverageForLatestLog() {
+        log.info("Calculating amino acid coverage for the latest NutritionLog...");
 
-        log.info("Amino acid sums calculated: {}", aminoAcidSums);
-        return aminoAcidSums;
+        UserDTO userDTO = loadUser();
+        ComputationKey key = new ComputationKey("coverage", findLatestLogVersion(), userDTO);
+        return coalesce(key, () -> {
+            NeedsAndConsumption latest = needsAndConsumption(userDTO, findLatestLog());
+            return calculateCoverage(latest.dailyNeeds(), latest.consumed());
+        }).copy();
     }
 
     /**
-     * Calculates the daily amino acid requirements based on the user's weight and profile settings.
-     * @return A map of amino acids with their required daily intake values.
+     * Calculates the amino acid sums, the daily needs and the coverage of the latest log together.
+     * The user and the log are loaded once and summed once, in one transaction, instead of once per value.
+     * @return The sums and daily needs in grams and the coverage in percent; shared with concurrent callers,
+     *         so it must not be modified.
      */
-    @Transactional(readOnly = true)
-    public Map<String, Double> calculateDailyAminoAcidNeeds() {
-        UserDTO userDTO = userDataService.getUser()
-                .orElseThrow(() -> new EntityNotFoundException("No user found"));
+    public AminoProfileSummaryDTO calculateSummaryForLatestLog() {
+        log.info("Calculating the amino acid summary for the latest NutritionLog...");
 
-        Map<String, Double> dailyNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(userDTO);
-        log.info("Base daily amino acid needs for {}: {}", userDTO.getName(), dailyNeeds);
+        UserDTO userDTO = loadUser();
+        ComputationKey key = new ComputationKey("summary", findLatestLogVersion(), userDTO);
+        return coalesce(key, () -> {
+            NutritionLog latestLog = findLatestLog();
+            NeedsAndConsumption latest = needsAndConsumption(userDTO, latestLog);
+            return AminoProfileSummaryDTO.builder()
+                    .nutritionLogId(latestLog.getId())
+                    .aminoAcidSums(latest.consumed().toGrams().toMap())
+                    .dailyNeeds(latest.dailyNeeds().toGrams().toMap())
+                    .coverage(calculateCoverage(latest.dailyNeeds(), latest.consumed()).toMap())
+                    .build();
+        });
+    }
 
-        AminoAcidCalculator calculator = dailyAminoAcidCalculator;
+    /**
+     * Names a computation and the versions of the log and the user it is computed from.
+     * A change of the log, its food items or the user leads to a new key.
+     */
+    private record ComputationKey(String computation, UUID logId, Long logVersion, Long logRevision,
+                                  UUID userId, Long userVersion) {
 
-        if (Boolean.TRUE.equals(userDTO.getIsAthlete())) {
-            calculator = new AthleteAminoAcidDecorator(calculator);
-            log.info("Applying AthleteAminoAcidDecorator for user: {}", userDTO.getName());
+        ComputationKey(String computation, NutritionLogVersionView nutritionLog, UserDTO user) {
+            this(computation,
+                    nutritionLog != null ? nutritionLog.getId() : null,
+                    nutritionLog != null ? nutritionLog.getVersion() : null,
+                    nutritionLog != null ? nutritionLog.getRevision() : null,
+                    user != null ? user.getId() : null,
+                    user != null ? user.getVersion() : null);
         }
+    }
 
-        if (Boolean.TRUE.equals(userDTO.getIsVegan())) {
-            calculator = new VeganAminoAcidDecorator(calculator);
-            log.info("Applying VeganAminoAcidDecorator for user: {}", userDTO.getName());
-        }
+    /**
+     * Runs a computation in a read-only transaction, or joins the one running for the same key.
+     * The transaction is only begun by the caller that computes, so waiting callers hold no connection.
+     */
+    private <T> T coalesce(ComputationKey key, Supplier<T> computation) {
+        return singleFlight.run(key, () -> readOnlyTransaction.execute(status -> computation.get()));
+    }
 
-        if (Boolean.TRUE.equals(userDTO.getIsLongevityFocused())) {
-            calculator = new LongevityAminoAcidDecorator(calculator);
-            log.info("Applying LongevityAminoAcidDecorator for user: {}", userDTO.getName());
-        }
+    /**
+     * Recommends the food items that close most of the remaining amino acid gap of the latest log.
+     * @param limit The maximum number of recommendations, clamped to 1..{@value #MAX_RECOMMENDATIONS}.
+     * @return The recommended food items, best first; empty if every daily need is covered.
+     */
+    @Transactional(readOnly = true)
+    public List<FoodRecommendationDTO> recommendFoodsForLatestLog(int limit) {
+        log.info("Recommending food items for the latest NutritionLog...");
 
-        Map<String, Double> adjustedNeeds = calculator.calculateAminoAcids(dailyNeeds);
-        log.info("Final daily amino acid needs for {}: {}", userDTO.getName(), adjustedNeeds);
-        return adjustedNeeds;
+        NeedsAndConsumption latest = needsAndConsumptionForLatestLog();
+        return foodRecommender.recommend(latest.dailyNeeds().toGrams(), latest.consumed().toGrams(),
+                Math.max(1, Math.min(limit, MAX_RECOMMENDATIONS)));
     }
 
     /**
-     * Calculates the amino acid coverage percentage based on the latest log and daily requirements.
-     * @return A map containing amino acids and their percentage coverage values.
+     * Plans the fewest portions of food items that close the remaining amino acid gaps of the latest log.
+     * @param maxPortionsPerFood The most portions of a single food item, clamped to 0.1..{@value #MAX_PORTIONS_PER_FOOD}.
+     * @return The meal plan.
+     * @throws InvalidInputException If maxPortionsPerFood is not a finite number.
      */
     @Transactional(readOnly = true)
-    public Map<String, Double> calculateAminoAcidCoverageForLatestLog() {
-        log.info("Calculating amino acid coverage for the latest NutritionLog...");
+    public MealPlanDTO planMealsForLatestLog(double maxPortionsPerFood) {
+        // NaN would pass the clamping unchanged
+        if (!Double.isFinite(maxPortionsPerFood)) {
+            throw new InvalidInputException("maxPortionsPerFood must be a finite number, got " + maxPortionsPerFood);
+        }
+        log.info("Planning meals for the latest NutritionLog...");
+
+        NeedsAndConsumption latest = needsAndConsumptionForLatestLog();
+        return mealPlanner.plan(latest.dailyNeeds().toGrams(), latest.consumed().toGrams(),
+                Math.max(0.1, Math.min(maxPortionsPerFood, MAX_PORTIONS_PER_FOOD)));
+    }
+
+    private NeedsAndConsumption needsAndConsumptionForLatestLog() {
+        return needsAndConsumption(loadUser(), findLatestLog());
+    }
+
+    private NeedsAndConsumption needsAndConsumption(UserDTO userDTO, NutritionLog latestLog) {
+        // Strategies which aggregate in the database deliver requirements and sums with one query
+        Optional<AminoSumStrategy.CoverageInputs> inputs = aminoSumStrategy.coverageInputsFor(latestLog);
+        AminoMilligrams dailyNeeds = applyProfile(userDTO, inputs
+                .map(in -> dailyAminoAcidCalculator.calculateDailyNeedsMilligrams(in.getRequirementsPerKg(), userDTO))
+                .orElseGet(() -> dailyAminoAcidCalculator.calculateDailyNeedsMilligrams(aminoAcidRequirementCache.getRequirementsPerKg(), userDTO)));
+        AminoMilligrams consumedAminoAcids = inputs
+                .map(AminoSumStrategy.CoverageInputs::getConsumed)
+                .orElseGet(() -> aminoSumStrategy.sumFor(latestLog));
+
+        return new NeedsAndConsumption(dailyNeeds, consumedAminoAcids);
+    }
+
+    /** The daily needs of the user and the amino acids consumed in the latest log, in milligrams. */
+    private record NeedsAndConsumption(AminoMilligrams dailyNeeds, AminoMilligrams consumed) {
+    }
 
-        Map<String, Double> dailyNeeds = calculateDailyAminoAcidNeeds();
+    private NutritionLogVersionView findLatestLogVersion() {
+        return nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc(NutritionLogVersionView.class)
+                .orElseThrow(() -> new EntityNotFoundException("No NutritionLog found!"));
+    }
+
+    private NutritionLog findLatestLog() {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc()
+                .orElseThrow(() -> new EntityNotFoundException("No NutritionLog found!"));
+        log.info("Found NutritionLog with ID: {}", latestLog.getId());
+        return latestLog;
+    }
+
+    private UserDTO loadUser() {
+        return userDataService.getUser()
+                .orElseThrow(() -> new EntityNotFoundException("No user found"));
+    }
+
+    private AminoMilligrams applyProfile(UserDTO userDTO, AminoMilligrams dailyNeeds) {
+        log.info("Base daily amino acid needs for {}: {}", userDTO.getName(), dailyNeeds);
+
+        CompiledAminoAcidChain chain = profileAminoAcidChains.forUser(userDTO);
+        log.info("Applying {} for user: {}", chain.getDecorators(), userDTO.getName());
+
+        AminoMilligrams adjustedNeeds = chain.apply(dailyNeeds);
+        log.info("Final daily amino acid needs for {}: {}", userDTO.getName(), adjustedNeeds);
+        return adjustedNeeds;
+    }
+
+    private AminoVector calculateCoverage(AminoMilligrams dailyNeeds, AminoMilligrams consumedAminoAcids) {
         if (dailyNeeds == null || dailyNeeds.isEmpty()) {
             log.error("Error: No daily amino acid requirements found!");
-            return Collections.emptyMap();
+            return AminoVector.empty();
         }
         log.info("Daily amino acid requirements: {}", dailyNeeds);
 
-        Map<String, Double> consumedAminoAcids = calculateAminoAcidSumsForLatestLog();
         if (consumedAminoAcids == null || consumedAminoAcids.isEmpty()) {
             log.warn("No consumed amino acids found. Returning empty result.");
-            return Collections.emptyMap();
+            return AminoVector.empty();
         }
         log.info("Consumed amino acids: {}", consumedAminoAcids);
 
-        Map<String, Double> coverage = new HashMap<>();
-        for (String aminoAcid : dailyNeeds.keySet()) {
-            double need = dailyNeeds.getOrDefault(aminoAcid, 0.0);
-            double consumed = consumedAminoAcids.getOrDefault(aminoAcid, 0.0);
+        AminoVector coverage = AminoVector.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (!dailyNeeds.isPresent(aminoAcid)) {
+                continue;
+            }
+            long need = dailyNeeds.get(aminoAcid);
+            long consumed = consumedAminoAcids.get(aminoAcid);
 
             if (need > 0) {
-                double percentage = Math.round((consumed / need) * 100 * 100.0) / 100.0;
-                coverage.put(aminoAcid, percentage);
+                coverage.set(aminoAcid, Milligrams.percent(consumed, need));
             } else {
                 log.warn("Daily need for {} is 0. Preventing division by zero.", aminoAcid);
-                coverage.put(aminoAcid, 0.0);
+                coverage.set(aminoAcid, 0.0);
             }
         }
 
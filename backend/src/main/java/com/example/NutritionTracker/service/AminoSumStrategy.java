@@ -0,0 +1,53 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.entity.NutritionLog;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * Strategy for summing the amino acids consumed in a {@link NutritionLog}, each food item scaled to its eaten amount.
+ * All strategies sum whole milligrams, so they agree exactly.
+ * Exactly one implementation is active, selected via {@code nutrition.amino.aggregation}:
+ * <ul>
+ *     <li>{@code totals} (default) – reads the running totals kept on the log.</li>
+ *     <li>{@code jvm} – walks the food items of the log in memory.</li>
+ *     <li>{@code database} – aggregates in the database with a single query.</li>
+ * </ul>
+ */
+public interface AminoSumStrategy {
+
+    /**
+     * Sums the amino acid profiles of all food items in the given log.
+     *
+     * @param nutritionLog The nutrition log to sum.
+     * @return A vector with the summed milligrams; empty if the log has no food items.
+     */
+    AminoMilligrams sumFor(NutritionLog nutritionLog);
+
+    /**
+     * Loads the requirements per kg and the consumed amounts for a coverage calculation in one step.
+     * Strategies that cannot do better than loading both separately return an empty optional.
+     *
+     * @param nutritionLog The nutrition log to calculate the coverage for.
+     * @return The coverage inputs, or an empty optional if the caller should load them itself.
+     */
+    default Optional<CoverageInputs> coverageInputsFor(NutritionLog nutritionLog) {
+        return Optional.empty();
+    }
+
+    /**
+     * Requirements per kg body weight and consumed amounts, as loaded for a coverage calculation.
+     */
+    @Getter
+    @AllArgsConstructor
+    class CoverageInputs {
+        /** The base amino acid requirements in mg per kg body weight. */
+        private final AminoVector requirementsPerKg;
+        /** The summed amino acids of the log in milligrams; empty if the log has no food items. */
+        private final AminoMilligrams consumed;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.Milligrams;
+import com.example.NutritionTracker.dto.AminoTotalsDriftDTO;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service that checks the running amino acid totals stored on each NutritionLog
+ * against the totals recomputed from the log's food items, and optionally rebuilds them.
+ */
+@Slf4j
+@Service
+public class AminoTotalsConsistencyService {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final NutritionLogRepository nutritionLogRepository;
+    private final NutritionHistoryService nutritionHistoryService;
+    private final CoverageStreamService coverageStreamService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
+
+    public AminoTotalsConsistencyService(NutritionLogRepository nutritionLogRepository,
+                                         NutritionHistoryService nutritionHistoryService,
+                                         CoverageStreamService coverageStreamService,
+                                         EntityManager entityManager,
+                                         PlatformTransactionManager transactionManager) {
+        this.nutritionLogRepository = nutritionLogRepository;
+        this.nutritionHistoryService = nutritionHistoryService;
+        this.coverageStreamService = coverageStreamService;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Recomputes the totals of every NutritionLog and reports all logs whose stored totals drifted.
+     * The logs are read in pages of {@value #PAGE_SIZE}, each in a read-only transaction of its own that detaches it
+     * again, so the persistence context holds one page with its food items at a time. With {@code repair}, each
+     * drifted log of a page is then repaired in a transaction of its own, so its lock is held only for the repair
+     * and not for the rest of the scan.
+     *
+     * @param repair If {@code true}, drifted totals are corrected to the recomputed values.
+     * @return One entry per drifted NutritionLog.
+     */
+    public List<AminoTotalsDriftDTO> verifyTotals(boolean repair) {
+        log.info("Verifying amino acid totals of all NutritionLogs (repair={})...", repair);
+
+        List<AminoTotalsDriftDTO> drifts = new ArrayList<>();
+        int checked = 0;
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        while (pageable != null) {
+            Pageable current = pageable;
+            CheckedPage page = readOnlyTransaction.execute(status -> checkPage(current));
+            checked += page.checked();
+            for (AminoTotalsDriftDTO drift : page.drifts()) {
+                AminoTotalsDriftDTO reported = repair
+                        ? transactionTemplate.execute(status -> repair(drift.getNutritionLogId()))
+                        : drift;
+                if (reported != null) {
+                    drifts.add(reported);
+                }
+            }
+            pageable = page.next();
+        }
+
+        log.info("Checked {} NutritionLogs, {} with drifted totals.", checked, drifts.size());
+        return drifts;
+    }
+
+    /**
+     * Compares the stored totals of each log of a page with the totals recomputed from its food items,
+     * then detaches the page.
+     *
+     * @param pageable The page to check.
+     * @return The number of logs checked, the drift reports and the next page, if any.
+     */
+    private CheckedPage checkPage(Pageable pageable) {
+        Page<NutritionLog> page = nutritionLogRepository.findAll(pageable);
+        List<AminoTotalsDriftDTO> drifts = new ArrayList<>();
+        for (NutritionLog nutritionLog : page) {
+            AminoTotalsDriftDTO drift = compare(nutritionLog, recompute(nutritionLog), nutritionLog.getFoodItems().size());
+            if (drift != null) {
+                drifts.add(drift);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new CheckedPage(page.getNumberOfElements(), drifts, page.hasNext() ? page.nextPageable() : null);
+    }
+
+    /**
+     * Repairs the totals of a drifted log. The page was read without a lock, and the log and its food items with
+     * separate statements, so a change committed meanwhile would be lost by writing the totals recomputed from it.
+     * The log is therefore read again under the lock every change of its food items takes, compared once more,
+     * and the difference is added with a relative update, which raises the revision like any other change.
+     * The rollups of the log get the same difference, so that the history and a later replacement of the log agree.
+     * Runs in a transaction of its own, after whose commit the subscribers of the log get the change.
+     *
+     * @param logId The UUID of the log found drifted in its page.
+     * @return The drift report of the locked log, or {@code null} if it is consistent or has been deleted meanwhile.
+     */
+    private AminoTotalsDriftDTO repair(UUID logId) {
+        NutritionLog nutritionLog = nutritionLogRepository.findByIdForUpdate(logId).orElse(null);
+        if (nutritionLog == null) {
+            return null;
+        }
+        // Its totals are changed with a relative update only; the entity itself is never written back
+        entityManager.unwrap(Session.class).setReadOnly(nutritionLog, true);
+
+        AminoMilligrams recomputed = recompute(nutritionLog);
+        int actualItemCount = nutritionLog.getFoodItems().size();
+        AminoTotalsDriftDTO drift = compare(nutritionLog, recomputed, actualItemCount);
+        if (drift == null) {
+            return null;
+        }
+
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+        AminoMilligrams difference = AminoMilligrams.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            difference.set(aminoAcid, recomputed.get(aminoAcid) - totals.getMilligrams(aminoAcid));
+        }
+        AminoAcidTotals delta = new AminoAcidTotals();
+        delta.reset(difference, actualItemCount - totals.getItemCount());
+        nutritionLogRepository.addTotals(nutritionLog.getId(), delta);
+        totals.reset(recomputed, actualItemCount);
+        nutritionLog.setRevision(nutritionLog.getRevision() + 1);
+        nutritionHistoryService.totalsRepaired(nutritionLog, delta);
+        coverageStreamService.logChanged(nutritionLog);
+
+        drift.setRepaired(true);
+        return drift;
+    }
+
+    /** The outcome of checking one page: the number of logs in it, their drift reports and the next page. */
+    private record CheckedPage(int checked, List<AminoTotalsDriftDTO> drifts, Pageable next) {
+    }
+
+    private static AminoMilligrams recompute(NutritionLog nutritionLog) {
+        AminoMilligrams recomputed = AminoMilligrams.empty();
+        for (NutritionLogFoodItem logFoodItem : nutritionLog.getFoodItems()) {
+            if (logFoodItem.getFoodItem().getAminoAcidProfile() != null) {
+                recomputed.addScaled(logFoodItem.getFoodItem().getAminoAcidProfile(), logFoodItem.getAmountMilligrams());
+            }
+        }
+        return recomputed;
+    }
+
+    private static AminoTotalsDriftDTO compare(NutritionLog nutritionLog, AminoMilligrams recomputed, int actualItemCount) {
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+
+        // The totals are whole milligrams, so any deviation is a real drift
+        long maxDeviation = 0;
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            maxDeviation = Math.max(maxDeviation, Math.abs(totals.getMilligrams(aminoAcid) - recomputed.get(aminoAcid)));
+        }
+
+        if (maxDeviation == 0 && totals.getItemCount() == actualItemCount) {
+            return null;
+        }
+
+        log.warn("Amino acid totals of NutritionLog {} drifted (max deviation {}, items {} stored vs {} actual).",
+                nutritionLog.getId(), maxDeviation, totals.getItemCount(), actualItemCount);
+
+        return AminoTotalsDriftDTO.builder()
+                .nutritionLogId(nutritionLog.getId())
+                .storedItemCount(totals.getItemCount())
+                .actualItemCount(actualItemCount)
+                .storedTotals(totals.toMilligrams().toGrams().toMap())
+                .recomputedTotals(recomputed.toGrams().toMap())
+                .maxDeviation(Milligrams.toGrams(maxDeviation))
+                .repaired(false)
+                .build();
+    }
+}
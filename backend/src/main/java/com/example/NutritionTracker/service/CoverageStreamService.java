@@ -0,0 +1,659 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.Milligrams;
+import com.example.NutritionTracker.dto.CoverageUpdateDTO;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogVersionView;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes the coverage of a nutrition log to Server-Sent Events subscribers whenever its food items change.
+ *
+ * A subscriber first gets a {@value #SNAPSHOT_EVENT} event with the current coverage, then a {@value #DELTA_EVENT}
+ * event per committed change. The events are computed from the running totals of the locked log, which the change
+ * has just advanced by the profile of the added or removed food item, and the daily needs of the user; the food
+ * items of the log are never loaded. The state is kept once per log and each event is shared by all of its
+ * subscribers, carrying the revision of the log as its id. Changes whose afterCommit callbacks overtake each other
+ * are put back in order by that revision.
+ *
+ * The daily needs for a change are loaded once per change on a thread of their own, and the events are sent on a
+ * small pool, so a committing request never waits for a client and a sender never waits for the database. Each
+ * subscriber queues at most {@code nutrition.coverage-stream.buffer-size} events; a client that falls further behind
+ * is dropped and its stream completed, and so is one whose send takes longer than
+ * {@code nutrition.coverage-stream.send-timeout}. A timed-out send is interrupted and the pool gets a thread for as
+ * long as it is stuck, so stalled clients never hold up the others. An idle stream gets a heartbeat comment every
+ * {@code nutrition.coverage-stream.heartbeat}, which also finds clients that went away.
+ */
+@Slf4j
+@Service
+public class CoverageStreamService {
+
+    /** The name of the first event of a stream, carrying the coverage at subscription time. */
+    public static final String SNAPSHOT_EVENT = "coverage";
+
+    /** The name of the events carrying committed changes. */
+    public static final String DELTA_EVENT = "coverage-delta";
+
+    private final AminoProfileService aminoProfileService;
+    private final NutritionLogRepository nutritionLogRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bufferSize;
+    private final int senderThreads;
+    private final long sendTimeoutNanos;
+    private final long timeoutMillis;
+
+    private final ConcurrentMap<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService changes;
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeats;
+    private int stalledSends;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructs the stream service and starts the heartbeats.
+     *
+     * @param aminoProfileService    The service computing the daily needs of the user.
+     * @param nutritionLogRepository The repository the log is read from at subscription time.
+     * @param transactionManager     The transaction manager for reading the log.
+     * @param bufferSize             The most events queued per subscriber before it is dropped.
+     * @param senderThreads          The threads sending the events, not counting those stuck in a timed-out send.
+     * @param sendTimeout            The time after which a send is given up and its subscriber dropped.
+     * @param heartbeat              The interval of the heartbeat comments on idle streams.
+     * @param timeout                The time after which a stream is closed; clients reconnect.
+     */
+    public CoverageStreamService(AminoProfileService aminoProfileService,
+                                 NutritionLogRepository nutritionLogRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${nutrition.coverage-stream.buffer-size:16}") int bufferSize,
+                                 @Value("${nutrition.coverage-stream.sender-threads:2}") int senderThreads,
+                                 @Value("${nutrition.coverage-stream.send-timeout:10s}") Duration sendTimeout,
+                                 @Value("${nutrition.coverage-stream.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${nutrition.coverage-stream.timeout:30m}") Duration timeout) {
+        this.aminoProfileService = aminoProfileService;
+        this.nutritionLogRepository = nutritionLogRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bufferSize = Math.max(1, bufferSize);
+        this.senderThreads = Math.max(1, senderThreads);
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+
+        this.changes = Executors.newSingleThreadExecutor(daemon("coverage-stream-changes"));
+        this.sender = new ThreadPoolExecutor(this.senderThreads, this.senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemon("coverage-stream-sender"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("coverage-stream-heartbeat"));
+        long interval = heartbeat.toMillis();
+        heartbeats.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+        long check = Math.max(1, sendTimeout.toMillis() / 2);
+        heartbeats.scheduleAtFixedRate(this::dropStalledSubscribers, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes to the coverage of a nutrition log.
+     *
+     * @param logId The UUID of the NutritionLog, or {@code null} for the latest one at subscription time.
+     * @return The emitter of the stream, with the current coverage already queued.
+     * @throws EntityNotFoundException If there is no log with the given UUID, or none at all if no UUID is given.
+     */
+    public SseEmitter subscribe(UUID logId) {
+        UUID id = logId != null ? logId : nutritionLogRepository
+                .findFirstByOrderByLogDateDescIdDesc(NutritionLogVersionView.class)
+                .map(NutritionLogVersionView::getId)
+                .orElseThrow(() -> new EntityNotFoundException("No NutritionLog found!"));
+
+        // Joined before the log is read, so that no change committed after the read can pass unnoticed
+        Channel channel = join(id);
+        State state;
+        try {
+            state = readOnlyTransaction.execute(status -> loadState(id));
+        } catch (RuntimeException e) {
+            channel.abandon();
+            release(channel);
+            throw e;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.incrementAndGet();
+        channel.start(subscriber, state);
+        return emitter;
+    }
+
+    /**
+     * Publishes the change of a locked log to its subscribers once the transaction has committed.
+     * The totals and the revision of the log must already include the change.
+     *
+     * @param nutritionLog The locked NutritionLog after the change.
+     */
+    public void logChanged(NutritionLog nutritionLog) {
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+        Change change = new Change(nutritionLog.getId(), nutritionLog.getRevision(), totals.getItemCount(), totals.toMilligrams());
+        afterCommit(() -> {
+            if (channels.containsKey(change.logId())) {
+                submitChange(change);
+            }
+        });
+    }
+
+    /**
+     * Ends the streams of a log once the transaction deleting it has committed.
+     *
+     * @param logId The UUID of the deleted NutritionLog.
+     */
+    public void logDeleted(UUID logId) {
+        afterCommit(() -> {
+            Channel channel = channels.get(logId);
+            if (channel != null) {
+                channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            }
+        });
+    }
+
+    /**
+     * Returns the number of open streams.
+     *
+     * @return The number of subscribers over all logs.
+     */
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    /**
+     * Returns the number of events sent, not counting heartbeats.
+     *
+     * @return The number of events sent to subscribers.
+     */
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    /**
+     * Returns the number of subscribers dropped because their buffer overflowed or a send to them timed out.
+     *
+     * @return The number of dropped subscribers.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        changes.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private State loadState(UUID logId) {
+        NutritionLog nutritionLog = nutritionLogRepository.findById(logId)
+                .orElseThrow(() -> new EntityNotFoundException("NutritionLog not found with ID: " + logId));
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+        return new State(nutritionLog.getRevision(), totals.getItemCount(), totals.toMilligrams(),
+                AminoMilligrams.fromGrams(aminoProfileService.calculateDailyAminoAcidNeeds()));
+    }
+
+    /**
+     * Loads the daily needs for a committed change once and applies it to the subscribers of its log. Runs on a
+     * thread of its own, which keeps the committing request and the senders away from the database.
+     */
+    private void submitChange(Change change) {
+        try {
+            changes.execute(() -> {
+                Channel channel = channels.get(change.logId());
+                if (channel != null) {
+                    channel.apply(change, loadNeeds(change.logId()));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Coverage stream is shut down, dropping a change.");
+        }
+    }
+
+    /**
+     * Loads the current daily needs for the coverage after a change, keeping the previous ones if that fails.
+     */
+    private AminoMilligrams loadNeeds(UUID logId) {
+        try {
+            return AminoMilligrams.fromGrams(aminoProfileService.calculateDailyAminoAcidNeeds());
+        } catch (RuntimeException e) {
+            log.warn("Daily needs for the coverage stream of NutritionLog {} could not be loaded: {}", logId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Channel join(UUID logId) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(logId, Channel::new);
+            synchronized (channel) {
+                if (!channel.closed) {
+                    channel.joining++;
+                    return channel;
+                }
+            }
+            // The last subscriber has just left and the channel is being removed; take a new one
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (close(subscriber, false)) {
+            leave(subscriber);
+        }
+    }
+
+    /**
+     * Closes a subscriber that cannot keep up and completes its stream once no send to it is under way any more.
+     */
+    private void drop(Subscriber subscriber) {
+        if (close(subscriber, true)) {
+            dropped.increment();
+            leave(subscriber);
+        }
+    }
+
+    /**
+     * Marks a subscriber closed and discards its queue. With {@code complete}, its emitter is completed by a drain,
+     * which is started unless one is under way; completing it here could wait for a send that hangs.
+     *
+     * @return Whether the subscriber was open until now, in which case the caller must let it leave its channel.
+     */
+    private boolean close(Subscriber subscriber, boolean complete) {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return false;
+            }
+            subscriber.closed = true;
+            subscriber.pending = null;
+            subscriber.completeDue = complete;
+            if (!complete || subscriber.sending) {
+                return true;
+            }
+            subscriber.sending = true;
+        }
+        execute(() -> drain(subscriber));
+        return true;
+    }
+
+    private void leave(Subscriber subscriber) {
+        subscribers.decrementAndGet();
+        subscriber.channel.subscribers.remove(subscriber);
+        release(subscriber.channel);
+    }
+
+    private void release(Channel channel) {
+        channels.computeIfPresent(channel.logId, (id, current) -> current == channel && channel.closeIfUnused() ? null : current);
+    }
+
+    /**
+     * Queues an event for a subscriber and starts sending unless a send is already under way.
+     * A subscriber whose queue is full is dropped; it leaves its channel on a sender thread, because the caller
+     * holds the lock of the channel.
+     */
+    private void offer(Subscriber subscriber, Update update) {
+        boolean overflow;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (subscriber.pending == null) {
+                subscriber.pending = new ArrayDeque<>(Math.min(bufferSize, 4));
+            }
+            overflow = subscriber.pending.size() >= bufferSize;
+            if (!overflow) {
+                subscriber.pending.addLast(update);
+                if (subscriber.sending) {
+                    return;
+                }
+                subscriber.sending = true;
+            }
+        }
+        if (!overflow) {
+            execute(() -> drain(subscriber));
+            return;
+        }
+        log.debug("Coverage stream of NutritionLog {} has fallen {} events behind, dropping it.", subscriber.channel.logId, bufferSize);
+        if (close(subscriber, true)) {
+            dropped.increment();
+            execute(() -> leave(subscriber));
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                synchronized (subscriber) {
+                    // A stream that is sending events anyway needs no heartbeat
+                    if (subscriber.closed || subscriber.sending) {
+                        continue;
+                    }
+                    subscriber.heartbeatDue = true;
+                    subscriber.sending = true;
+                }
+                execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    /**
+     * Drops the subscribers whose current send has taken longer than the send timeout. The send is interrupted, and
+     * until it returns the pool has an additional thread, so that the other subscribers are served meanwhile.
+     */
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                synchronized (subscriber) {
+                    if (subscriber.sendingThread == null || subscriber.stalled
+                            || now - subscriber.sendStarted < sendTimeoutNanos) {
+                        continue;
+                    }
+                    subscriber.stalled = true;
+                    subscriber.sendingThread.interrupt();
+                    resizeSender(1);
+                }
+                log.debug("Send to the coverage stream of NutritionLog {} timed out, dropping it.", channel.logId);
+                drop(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Sends the queued events of a subscriber, then a due heartbeat, or completes a dropped subscriber.
+     * Only one drain runs per subscriber at a time.
+     */
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Update update = null;
+            boolean complete = false;
+            synchronized (subscriber) {
+                if (subscriber.closed) {
+                    complete = subscriber.completeDue;
+                    subscriber.completeDue = false;
+                    if (!complete) {
+                        subscriber.sending = false;
+                        return;
+                    }
+                } else {
+                    update = subscriber.pending != null ? subscriber.pending.pollFirst() : null;
+                    boolean heartbeat = subscriber.heartbeatDue;
+                    subscriber.heartbeatDue = false;
+                    if (update == null) {
+                        // Idle subscribers hold no queue
+                        subscriber.pending = null;
+                        if (!heartbeat) {
+                            subscriber.sending = false;
+                            return;
+                        }
+                    }
+                }
+                subscriber.sendStarted = System.nanoTime();
+                subscriber.sendingThread = Thread.currentThread();
+            }
+            try {
+                if (complete) {
+                    subscriber.emitter.complete();
+                } else if (update != null) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(update.event)
+                            .id(Long.toString(update.revision))
+                            .data(update.dto));
+                    sent.increment();
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Coverage stream of NutritionLog {} is gone: {}", subscriber.channel.logId, e.getMessage());
+                subscriber.emitter.completeWithError(e);
+                unsubscribe(subscriber);
+                return;
+            } finally {
+                synchronized (subscriber) {
+                    subscriber.sendingThread = null;
+                    if (subscriber.stalled) {
+                        subscriber.stalled = false;
+                        resizeSender(-1);
+                    }
+                    // An interrupt that came too late for this send must not hit the next one on this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a thread to the sender pool for a send that timed out, or takes it away again once the send has returned.
+     */
+    private synchronized void resizeSender(int change) {
+        stalledSends += change;
+        int size = senderThreads + stalledSends;
+        if (change > 0) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Coverage stream is shut down, dropping an event.");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static AminoVector coverage(AminoMilligrams totals, AminoMilligrams dailyNeeds) {
+        AminoVector coverage = AminoVector.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (dailyNeeds.isPresent(aminoAcid)) {
+                long need = dailyNeeds.get(aminoAcid);
+                coverage.set(aminoAcid, need > 0 ? Milligrams.percent(totals.get(aminoAcid), need) : 0.0);
+            }
+        }
+        return coverage;
+    }
+
+    /** Rounds a difference of percentages back to the two decimal places of {@link Milligrams#percent}. */
+    private static double roundPercent(double percent) {
+        return Math.round(percent * 100) / 100.0;
+    }
+
+    /** A committed change: the revision, item count and totals of the log after it. */
+    private record Change(UUID logId, long revision, int itemCount, AminoMilligrams totals) {
+    }
+
+    /** The state of a log read at subscription time, together with the daily needs of the user. */
+    private record State(long revision, int itemCount, AminoMilligrams totals, AminoMilligrams dailyNeeds) {
+    }
+
+    /**
+     * The streams of one log and the last state they were brought to. All state is guarded by the channel itself,
+     * except the set of subscribers, which the heartbeats walk without it.
+     */
+    private final class Channel {
+
+        private final UUID logId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private long revision = -1;
+        private int itemCount;
+        private AminoMilligrams totals;
+        private AminoMilligrams dailyNeeds;
+        private AminoVector coverage;
+        private Update snapshot;
+        private int joining;
+        private boolean closed;
+
+        Channel(UUID logId) {
+            this.logId = logId;
+        }
+
+        /**
+         * Starts a subscriber with the current coverage; the log it read may be behind a change applied meanwhile.
+         */
+        synchronized void start(Subscriber subscriber, State state) {
+            joining--;
+            if (state.revision() > revision) {
+                advance(state.revision(), state.itemCount(), state.totals(), state.dailyNeeds());
+            } else if (coverage == null) {
+                advance(revision, itemCount, totals, state.dailyNeeds());
+            }
+            subscribers.add(subscriber);
+            if (snapshot == null) {
+                snapshot = new Update(SNAPSHOT_EVENT, revision, itemCount, 0, AminoMilligrams.empty(), AminoVector.empty(), coverage, logId);
+            }
+            offer(subscriber, snapshot);
+        }
+
+        /**
+         * Applies a committed change and sends its delta to the started subscribers. Changes the channel has already
+         * gone past are contained in its state and dropped. Without daily needs, which happens only if they could
+         * not be loaded before anyone started, the totals are kept and the coverage waits for the first subscriber.
+         */
+        synchronized void apply(Change change, AminoMilligrams loadedNeeds) {
+            if (change.revision() <= revision) {
+                return;
+            }
+            AminoMilligrams needs = loadedNeeds != null ? loadedNeeds : dailyNeeds;
+            // Before the first subscriber has started there is nothing to compare with, and nobody to send to
+            Update update = coverage != null && needs != null ? delta(change, needs) : null;
+            advance(change.revision(), change.itemCount(), change.totals(), needs);
+            if (update != null) {
+                for (Subscriber subscriber : subscribers) {
+                    offer(subscriber, update);
+                }
+            }
+        }
+
+        void abandon() {
+            synchronized (this) {
+                joining--;
+            }
+        }
+
+        synchronized boolean closeIfUnused() {
+            closed = subscribers.isEmpty() && joining == 0;
+            return closed;
+        }
+
+        private Update delta(Change change, AminoMilligrams needs) {
+            AminoMilligrams aminoAcidDelta = AminoMilligrams.empty();
+            AminoVector newCoverage = coverage(change.totals(), needs);
+            AminoVector coverageDelta = AminoVector.empty();
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                long difference = change.totals().get(aminoAcid) - totals.get(aminoAcid);
+                if (difference != 0) {
+                    aminoAcidDelta.set(aminoAcid, difference);
+                }
+                if (newCoverage.isPresent(aminoAcid)) {
+                    coverageDelta.set(aminoAcid, roundPercent(newCoverage.get(aminoAcid) - coverage.get(aminoAcid)));
+                }
+            }
+            return new Update(DELTA_EVENT, change.revision(), change.itemCount(), change.itemCount() - itemCount,
+                    aminoAcidDelta, coverageDelta, newCoverage, logId);
+        }
+
+        private void advance(long revision, int itemCount, AminoMilligrams totals, AminoMilligrams dailyNeeds) {
+            this.revision = revision;
+            this.itemCount = itemCount;
+            this.totals = totals;
+            this.dailyNeeds = dailyNeeds;
+            this.coverage = dailyNeeds != null ? coverage(totals, dailyNeeds) : null;
+            this.snapshot = null;
+        }
+    }
+
+    /**
+     * An open stream and the events queued for it, which it allocates only while it has any. While a send is under
+     * way, the thread and the start of the send are kept for the send timeout.
+     */
+    private static final class Subscriber {
+
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private ArrayDeque<Update> pending;
+        private boolean heartbeatDue;
+        private boolean sending;
+        private boolean closed;
+        private boolean completeDue;
+        private Thread sendingThread;
+        private long sendStarted;
+        private boolean stalled;
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+    }
+
+    /** An event shared by all subscribers of a log, with its payload built once. */
+    private static final class Update {
+
+        private final String event;
+        private final long revision;
+        private final CoverageUpdateDTO dto;
+
+        Update(String event, long revision, int itemCount, int itemCountDelta,
+               AminoMilligrams aminoAcidDelta, AminoVector coverageDelta, AminoVector coverage, UUID logId) {
+            this.event = event;
+            this.revision = revision;
+            this.dto = CoverageUpdateDTO.builder()
+                    .nutritionLogId(logId)
+                    .revision(revision)
+                    .itemCount(itemCount)
+                    .itemCountDelta(itemCountDelta)
+                    .aminoAcidDelta(aminoAcidDelta.toGrams().toMap())
+                    .coverageDelta(coverageDelta.toMap())
+                    .coverage(coverage.toMap())
+                    .build();
+        }
+    }
+}
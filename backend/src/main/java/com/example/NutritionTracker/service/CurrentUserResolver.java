@@ -0,0 +1,120 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.repo.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves the single user of the application.
+ * The user is looked up once by primary key and kept as a {@link UserDTO}, which is written through
+ * whenever the user is created or updated and dropped when the users are deleted.
+ * Reads of the current user therefore neither scan the user table nor rebuild the DTO.
+ */
+@Slf4j
+@Component
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+
+    private final AtomicReference<UserDTO> currentUser = new AtomicReference<>();
+
+    /**
+     * Constructs the resolver on top of the user repository.
+     *
+     * @param userRepository The repository holding the user.
+     */
+    public CurrentUserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Returns the current user as a DTO, loading it on first access.
+     * The returned DTO is shared by all callers and must not be modified.
+     *
+     * @return An Optional containing the user, or empty if no user exists.
+     */
+    public Optional<UserDTO> getCurrentUser() {
+        UserDTO cached = currentUser.get();
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return userRepository.findFirstByOrderByIdAsc()
+                .map(CurrentUserResolver::toDto)
+                .map(loaded -> currentUser.compareAndSet(null, loaded) ? loaded : currentUser.get());
+    }
+
+    /**
+     * Loads the current user entity, using the cached id for a primary key lookup.
+     *
+     * @return An Optional containing the user entity, or empty if no user exists.
+     */
+    public Optional<User> findCurrentUser() {
+        UserDTO cached = currentUser.get();
+        if (cached != null) {
+            Optional<User> user = userRepository.findById(cached.getId());
+            if (user.isPresent()) {
+                return user;
+            }
+            log.warn("Cached user {} no longer exists, resolving the current user again", cached.getId());
+            currentUser.compareAndSet(cached, null);
+        }
+        return userRepository.findFirstByOrderByIdAsc();
+    }
+
+    /**
+     * Returns the id of the current user.
+     *
+     * @return An Optional containing the user id, or empty if no user exists.
+     */
+    public Optional<UUID> getCurrentUserId() {
+        return getCurrentUser().map(UserDTO::getId);
+    }
+
+    /**
+     * Writes the given user through to the cache.
+     * Inside a transaction the new state becomes visible only after the commit.
+     *
+     * @param user The user that has been saved.
+     */
+    public void remember(User user) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Converted only now, as the version is raised when the transaction is flushed
+                    currentUser.set(toDto(user));
+                }
+            });
+        } else {
+            currentUser.set(toDto(user));
+        }
+    }
+
+    /**
+     * Drops the cached user, e.g. after all users have been deleted.
+     */
+    public void forget() {
+        currentUser.set(null);
+    }
+
+    private static UserDTO toDto(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .age(user.getAge())
+                .weight(user.getWeight())
+                .isAthlete(user.getIsAthlete())
+                .isVegan(user.getIsVegan())
+                .isLongevityFocused(user.getIsLongevityFocused())
+                .version(user.getVersion())
+                .build();
+    }
+}
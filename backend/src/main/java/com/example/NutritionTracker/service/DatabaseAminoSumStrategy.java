@@ -0,0 +1,64 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.AminoAcidCoverageView;
+import com.example.NutritionTracker.repo.AminoAcidSumView;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sums the amino acids with an aggregate query, so that neither food items nor their
+ * amino acid profiles are loaded into the JVM.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nutrition.amino.aggregation", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseAminoSumStrategy implements AminoSumStrategy {
+    private final NutritionLogRepository nutritionLogRepository;
+
+    @Override
+    public AminoMilligrams sumFor(NutritionLog nutritionLog) {
+        List<AminoAcidSumView> rows = nutritionLogRepository.sumAminoAcidsByLogId(nutritionLog.getId());
+
+        AminoMilligrams aminoAcidSums = AminoMilligrams.empty();
+        for (AminoAcidSumView row : rows) {
+            AminoAcid aminoAcid = AminoAcid.fromName(row.getAminoAcid());
+            if (aminoAcid == null) {
+                log.warn("Ignoring sum for unknown amino acid: {}", row.getAminoAcid());
+                continue;
+            }
+            aminoAcidSums.add(aminoAcid, row.getTotal());
+        }
+        return aminoAcidSums;
+    }
+
+    @Override
+    public Optional<CoverageInputs> coverageInputsFor(NutritionLog nutritionLog) {
+        List<AminoAcidCoverageView> rows = nutritionLogRepository.findCoverageInputsByLogId(nutritionLog.getId());
+
+        AminoVector requirementsPerKg = AminoVector.empty();
+        AminoMilligrams consumed = AminoMilligrams.empty();
+        for (AminoAcidCoverageView row : rows) {
+            AminoAcid aminoAcid = AminoAcid.fromName(row.getAminoAcid());
+            if (aminoAcid == null) {
+                log.warn("Ignoring requirement for unknown amino acid: {}", row.getAminoAcid());
+                continue;
+            }
+            requirementsPerKg.add(aminoAcid, row.getBaseAmountPerKg());
+            if (row.getTotal() > 0) {
+                consumed.add(aminoAcid, row.getTotal());
+            }
+        }
+        return Optional.of(new CoverageInputs(requirementsPerKg, consumed));
+    }
+}
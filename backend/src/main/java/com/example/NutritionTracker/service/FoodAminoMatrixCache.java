@@ -0,0 +1,93 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import com.example.NutritionTracker.repo.FoodAminoAcidView;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Holds the amino acid profiles of the food catalog as a {@link FoodAminoMatrix}, built once per catalog version
+ * (see {@link FoodCatalogVersion}) and shared by the recommender and the meal planner. Callers keep working on
+ * the matrix they got, so a rebuild never changes it under their feet.
+ */
+@Slf4j
+@Component
+public class FoodAminoMatrixCache {
+
+    private final FoodItemRepository foodItemRepository;
+    private final FoodCatalogVersion foodCatalogVersion;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<CatalogMatrix> snapshot = new AtomicReference<>();
+
+    /** The matrix together with the catalog version it was built for. */
+    private record CatalogMatrix(String eTag, FoodAminoMatrix matrix) {
+    }
+
+    /**
+     * Constructs the cache on top of the food item repository.
+     *
+     * @param foodItemRepository The repository the profiles are read from.
+     * @param foodCatalogVersion The catalog version telling when the matrix is outdated.
+     * @param transactionManager The transaction manager used to stream the profiles.
+     */
+    public FoodAminoMatrixCache(FoodItemRepository foodItemRepository, FoodCatalogVersion foodCatalogVersion,
+                                PlatformTransactionManager transactionManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.foodCatalogVersion = foodCatalogVersion;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Returns the matrix of the current catalog version, building it if the catalog changed.
+     *
+     * @return The matrix; the same instance until the catalog changes.
+     */
+    public FoodAminoMatrix getMatrix() {
+        String eTag = foodCatalogVersion.getETag();
+        CatalogMatrix current = snapshot.get();
+        return current != null && current.eTag().equals(eTag) ? current.matrix() : reload(eTag);
+    }
+
+    private synchronized FoodAminoMatrix reload(String eTag) {
+        // Another thread may have built the matrix while this one waited for the lock
+        CatalogMatrix current = snapshot.get();
+        if (current != null && current.eTag().equals(eTag)) {
+            return current.matrix();
+        }
+
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<FoodAminoAcidView> values = foodItemRepository.streamAminoAcidProfiles()) {
+                UUID foodItemId = null;
+                int row = -1;
+                for (Iterator<FoodAminoAcidView> it = values.iterator(); it.hasNext(); ) {
+                    FoodAminoAcidView value = it.next();
+                    // The values arrive grouped by food item
+                    if (!value.getFoodItemId().equals(foodItemId)) {
+                        foodItemId = value.getFoodItemId();
+                        row = builder.addFood(foodItemId, value.getName());
+                    }
+                    AminoAcid aminoAcid = value.getAminoAcid() != null ? AminoAcid.fromName(value.getAminoAcid()) : null;
+                    if (aminoAcid != null && value.getAmount() != null) {
+                        builder.set(row, aminoAcid, value.getAmount());
+                    }
+                }
+            }
+        });
+        FoodAminoMatrix matrix = builder.build();
+        snapshot.set(new CatalogMatrix(eTag, matrix));
+        log.info("Amino acid matrix built over {} food items", matrix.size());
+        return matrix;
+    }
+}
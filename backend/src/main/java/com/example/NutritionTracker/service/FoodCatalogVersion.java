@@ -0,0 +1,71 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.repo.FoodCatalogFingerprint;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the ETag of the food catalog.
+ * The tag is derived once from the item count and the sum of the {@code @Version} fields, plus a generation
+ * that is incremented on every change (see {@link FoodCatalogVersionInvalidator}) and the start time of the
+ * application. Until the next change it is served from memory, so conditional requests for an unchanged
+ * catalog are answered without a database query. Changes made by another application instance are not seen.
+ */
+@Slf4j
+@Component
+public class FoodCatalogVersion {
+
+    private final FoodItemRepository foodItemRepository;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicReference<String> etag = new AtomicReference<>();
+
+    private long generation;
+
+    /**
+     * Constructs the catalog version on top of the food item repository.
+     *
+     * @param foodItemRepository The repository providing the catalog fingerprint.
+     */
+    public FoodCatalogVersion(FoodItemRepository foodItemRepository) {
+        this.foodItemRepository = foodItemRepository;
+    }
+
+    /**
+     * Returns the current ETag of the catalog, including the quotes.
+     *
+     * @return The ETag.
+     */
+    public String getETag() {
+        String current = etag.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Drops the current ETag, so that the next access derives a new one.
+     * Waits for a reload in progress, so that a tag derived before the change cannot outlive it.
+     */
+    public synchronized void invalidate() {
+        etag.set(null);
+        generation++;
+        log.debug("Food catalog version invalidated, generation {}", generation);
+    }
+
+    private synchronized String reload() {
+        // Another thread may have derived the tag while this one waited for the lock
+        String current = etag.get();
+        if (current != null) {
+            return current;
+        }
+
+        FoodCatalogFingerprint fingerprint = foodItemRepository.findCatalogFingerprint();
+        String derived = "\"catalog-" + fingerprint.getItemCount() + "-" + fingerprint.getVersionSum()
+                + "-" + epoch + "." + generation + "\"";
+        etag.set(derived);
+        return derived;
+    }
+}
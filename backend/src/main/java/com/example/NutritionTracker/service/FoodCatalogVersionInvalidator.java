@@ -0,0 +1,42 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.listener.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates the {@link FoodCatalogVersion} whenever a {@link FoodItem} is inserted, updated or deleted,
+ * as published by the {@link com.example.NutritionTracker.listener.EntityChangeListener},
+ * once the surrounding transaction completes.
+ * Bulk JPQL/SQL statements bypass entity listeners and have to call
+ * {@link FoodCatalogVersion#invalidate()} themselves.
+ */
+@Component
+public class FoodCatalogVersionInvalidator {
+
+    private final FoodCatalogVersion version;
+
+    public FoodCatalogVersionInvalidator(FoodCatalogVersion version) {
+        this.version = version;
+    }
+
+    @EventListener
+    void onEntityChanged(EntityChangedEvent event) {
+        if (!event.isAbout(FoodItem.class)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                version.invalidate();
+            }
+        });
+    }
+}
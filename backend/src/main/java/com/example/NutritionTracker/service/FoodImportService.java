@@ -0,0 +1,249 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.dto.FoodImportResultDTO;
+import com.example.NutritionTracker.entity.FoodImportCheckpoint;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.exception.FoodImportInProgressException;
+import com.example.NutritionTracker.exception.FoodImportRestartException;
+import com.example.NutritionTracker.exception.InvalidInputException;
+import com.example.NutritionTracker.importer.FoodImportFormat;
+import com.example.NutritionTracker.importer.FoodRow;
+import com.example.NutritionTracker.importer.FoodRowReader;
+import com.example.NutritionTracker.repo.FoodImportCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service importing food composition files (CSV or NDJSON, see {@link FoodImportFormat}) into the catalog.
+ *
+ * The file is read row by row and written in chunks of {@code nutrition.import.chunk-size} rows, each in its own
+ * transaction with JDBC batches of {@code nutrition.import.batch-size} inserts, so memory use does not depend on
+ * the size of the file. Every chunk also moves the {@link FoodImportCheckpoint} of the source; after a failure,
+ * importing the same source again skips the committed rows and continues with the first missing one.
+ *
+ * Imported food items are written through JPA, so the catalog ETag and the search index follow each chunk.
+ * They are not put into the second-level cache, which would otherwise be flooded with items nobody has read yet;
+ * the cached catalog queries are still invalidated by every commit.
+ */
+@Slf4j
+@Service
+public class FoodImportService {
+
+    private static final int MAX_ERRORS = 20;
+
+    private final EntityManager entityManager;
+    private final FoodImportCheckpointRepository checkpointRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<FoodImportResultDTO> progress = new AtomicReference<>();
+
+    /**
+     * Constructs the import service.
+     *
+     * @param entityManager        The entity manager the food items are persisted with.
+     * @param checkpointRepository The repository holding the checkpoints.
+     * @param objectMapper         The mapper parsing NDJSON rows.
+     * @param transactionManager   The transaction manager used for the chunks.
+     * @param chunkSize            The rows committed per transaction.
+     * @param batchSize            The inserts sent to the database per JDBC batch.
+     */
+    public FoodImportService(EntityManager entityManager,
+                             FoodImportCheckpointRepository checkpointRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${nutrition.import.chunk-size:1000}") int chunkSize,
+                             @Value("${nutrition.import.batch-size:100}") int batchSize) {
+        this.entityManager = entityManager;
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports the food items of a file, resuming after the rows committed by a previous run of the same source.
+     * Invalid rows are rejected and counted, the rest of the file is imported. Only one import runs at a time.
+     *
+     * @param source  The name of the source, under which the checkpoint is kept, e.g. the file name.
+     * @param format  The format of the file.
+     * @param input   The content of the file, UTF-8 encoded; it is closed when the import ends.
+     * @param restart Whether to discard the checkpoint and import the whole file again; only allowed while none
+     *                of the source's food items is in the catalog, as they would be imported a second time.
+     * @return The outcome of this run.
+     * @throws IOException If the file cannot be read; the chunks committed before stay imported.
+     * @throws InvalidInputException If the source name is blank or the file has no usable header.
+     * @throws FoodImportInProgressException If another import is running.
+     * @throws FoodImportRestartException If {@code restart} is set and food items of the source were imported.
+     */
+    public FoodImportResultDTO importFoodItems(String source, FoodImportFormat format, InputStream input,
+                                               boolean restart) throws IOException {
+        if (source == null || source.isBlank() || source.length() > 255) {
+            throw new InvalidInputException("The source of a food import must have 1 to 255 characters");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new FoodImportInProgressException("Another food import is running");
+        }
+        try (FoodRowReader reader = format.open(new InputStreamReader(input, StandardCharsets.UTF_8), objectMapper)) {
+            if (restart) {
+                Optional<FoodImportCheckpoint> checkpoint = checkpointRepository.findById(source);
+                // Food item names are not unique, so the items of the earlier runs cannot be told apart from others
+                if (checkpoint.isPresent() && checkpoint.get().getRowsImported() > 0) {
+                    throw new FoodImportRestartException("The catalog already contains " + checkpoint.get().getRowsImported()
+                            + " food items of " + source + "; reset the catalog to import it again from the start");
+                }
+                checkpoint.ifPresent(checkpointRepository::delete);
+            }
+            long resumeAfter = checkpointRepository.findById(source).map(FoodImportCheckpoint::getRowsCommitted).orElse(0L);
+            Run run = new Run(source, resumeAfter, reader);
+            log.info("Food import of {} started{}", source, resumeAfter > 0 ? ", resuming after row " + resumeAfter : "");
+
+            try {
+                List<FoodRow> chunk = new ArrayList<>(chunkSize);
+                FoodRow row;
+                while ((row = reader.next()) != null) {
+                    if (row.number() <= resumeAfter) {
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(run, chunk);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writeChunk(run, chunk);
+                }
+            } catch (IOException | RuntimeException e) {
+                run.error("Failed after row " + run.rowsCommitted + ": " + e.getMessage());
+                progress.set(run.toResult("FAILED"));
+                log.error("Food import of {} failed after row {}, it resumes from there", source, run.rowsCommitted, e);
+                throw e;
+            }
+
+            FoodImportResultDTO result = run.toResult("COMPLETED");
+            progress.set(result);
+            log.info("Food import of {} completed: {} imported, {} rejected, {} rows/s",
+                    source, result.getRowsImported(), result.getRowsRejected(), Math.round(result.getRowsPerSecond()));
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Returns the progress of the running import, or the outcome of the last one.
+     *
+     * @return The progress, or empty if no import has run since the start of the application.
+     */
+    public Optional<FoodImportResultDTO> getProgress() {
+        return Optional.ofNullable(progress.get());
+    }
+
+    private void writeChunk(Run run, List<FoodRow> rows) {
+        long lastRow = rows.get(rows.size() - 1).number();
+        int[] counts = new int[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize);
+            session.setCacheMode(CacheMode.IGNORE);
+
+            for (FoodRow row : rows) {
+                if (row.isValid()) {
+                    entityManager.persist(FoodItem.builder().name(row.name()).aminoAcidProfile(row.profile()).build());
+                    counts[0]++;
+                } else {
+                    counts[1]++;
+                }
+            }
+
+            FoodImportCheckpoint checkpoint = checkpointRepository.findById(run.source)
+                    .orElseGet(() -> FoodImportCheckpoint.builder().source(run.source).build());
+            checkpoint.setRowsCommitted(lastRow);
+            checkpoint.setRowsImported(checkpoint.getRowsImported() + counts[0]);
+            checkpoint.setRowsRejected(checkpoint.getRowsRejected() + counts[1]);
+            checkpoint.setUpdatedAt(Instant.now());
+            checkpointRepository.save(checkpoint);
+        });
+
+        // Only counted once committed, so that the progress never reports rows a failed chunk rolled back
+        run.rowsRead += rows.size();
+        run.rowsImported += counts[0];
+        run.rowsRejected += counts[1];
+        run.rowsCommitted = lastRow;
+        for (FoodRow row : rows) {
+            if (!row.isValid()) {
+                run.error(row.error());
+            }
+        }
+        FoodImportResultDTO snapshot = run.toResult("RUNNING");
+        progress.set(snapshot);
+        log.debug("Food import of {}: {} rows committed, {} imported, {} rejected, {} rows/s", run.source,
+                snapshot.getRowsCommitted(), snapshot.getRowsImported(), snapshot.getRowsRejected(),
+                Math.round(snapshot.getRowsPerSecond()));
+    }
+
+    /** The counters of one run of an import. */
+    private static final class Run {
+        private final String source;
+        private final long resumedAfter;
+        private final FoodRowReader reader;
+        private final long startNanos = System.nanoTime();
+        private final List<String> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long rowsCommitted;
+
+        private Run(String source, long resumedAfter, FoodRowReader reader) {
+            this.source = source;
+            this.resumedAfter = resumedAfter;
+            this.reader = reader;
+            this.rowsCommitted = resumedAfter;
+        }
+
+        private void error(String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        private FoodImportResultDTO toResult(String status) {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return FoodImportResultDTO.builder()
+                    .source(source)
+                    .status(status)
+                    .resumedAfter(resumedAfter)
+                    .rowsRead(rowsRead)
+                    .rowsImported(rowsImported)
+                    .rowsRejected(rowsRejected)
+                    .rowsCommitted(rowsCommitted)
+                    .rowsPerSecond(seconds > 0 ? rowsImported / seconds : 0)
+                    .ignoredColumns(reader.getIgnoredColumns())
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
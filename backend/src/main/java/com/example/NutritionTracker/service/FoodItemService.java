@@ -1,26 +1,44 @@
 package com.example.NutritionTracker.service;
 
+import com.example.NutritionTracker.dto.FoodItemCursor;
 import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.dto.FoodItemPageDTO;
 import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.FoodImportCheckpointRepository;
 import com.example.NutritionTracker.repo.FoodItemRepository;
-import jakarta.annotation.PreDestroy;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for managing FoodItem entities.
  */
 @Slf4j
 @Service
+@Timed("nutrition.service")
 @RequiredArgsConstructor
 public class FoodItemService {
 
+    /** The largest page of the food catalog that is returned at once. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** The largest number of search results that is returned at once. */
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private final FoodItemRepository foodItemRepository;
+    private final FoodImportCheckpointRepository checkpointRepository;
+    private final FoodSearchIndex foodSearchIndex;
+    private final FoodCatalogVersion foodCatalogVersion;
 
     /**
      * Retrieves all available FoodItems as DTOs.
@@ -35,14 +53,74 @@ public class FoodItemService {
     }
 
     /**
-     * Cleans up all food items from the database before the application shuts down.
-     * This method ensures that food items are deleted when the application is stopped.
+     * Retrieves one page of the food catalog, ordered by name and id.
+     * Pages are addressed by keyset, so every page costs the same, however deep it is.
+     *
+     * @param after The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The page size, clamped to 1..{@value #MAX_PAGE_SIZE}.
+     * @return The page, with the cursor for the next page unless it is the last one.
      */
-    @PreDestroy
+    @Transactional(readOnly = true)
+    public FoodItemPageDTO getFoodItemPage(FoodItemCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether there is a next page
+        Limit fetch = Limit.of(pageSize + 1);
+        List<FoodItemDTO> items = after == null
+                ? foodItemRepository.findFirstPage(fetch)
+                : foodItemRepository.findPageAfter(after.getName(), after.getId(), fetch);
+
+        if (items.size() <= pageSize) {
+            return new FoodItemPageDTO(items, null);
+        }
+        List<FoodItemDTO> page = items.subList(0, pageSize);
+        return new FoodItemPageDTO(new ArrayList<>(page), FoodItemCursor.after(page.get(pageSize - 1)).toString());
+    }
+
+    /**
+     * Passes every food item, ordered by name and id, to the given action while it is read from a database cursor.
+     * Only the current row is held in memory.
+     *
+     * @param action The action receiving each food item.
+     */
+    @Transactional(readOnly = true)
+    public void forEachFoodItem(Consumer<FoodItemDTO> action) {
+        try (Stream<FoodItemDTO> foodItems = foodItemRepository.streamAllOrderedByName()) {
+            foodItems.forEach(action);
+        }
+    }
+
+    /**
+     * Searches food items by name for autocompletion, from the in-memory {@link FoodSearchIndex}.
+     * Umlauts may be spelled out and small typos are tolerated.
+     *
+     * @param query The search query.
+     * @param limit The maximum number of results, clamped to 1..{@value #MAX_SEARCH_RESULTS}.
+     * @return The matching food items, best matches first.
+     */
+    public List<FoodItemDTO> searchFoodItems(String query, int limit) {
+        return foodSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Deletes all food items and the import checkpoints with bulk statements, without loading the items.
+     * The checkpoints go with the catalog, so that importing a source again after a reset imports all of its rows.
+     * The statements bypass the entity listeners, so the catalog ETag and the search index are reset once the
+     * transaction completes.
+     */
+    @Transactional
     public void cleanup() {
         log.info("Cleaning up food items from the database...");
-        foodItemRepository.deleteAll();
-        log.info("All food items have been deleted.");
+        foodItemRepository.deleteAllAminoAcidProfiles();
+        foodItemRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                foodCatalogVersion.invalidate();
+                foodSearchIndex.invalidate();
+            }
+        });
+        log.info("All food items and import checkpoints have been deleted.");
     }
 
     /**
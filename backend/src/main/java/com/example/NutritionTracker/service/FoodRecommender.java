@@ -0,0 +1,95 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import com.example.NutritionTracker.dto.FoodRecommendationDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ranks the food catalog by how much of the remaining amino acid gap each food item closes.
+ *
+ * A food item scores {@code sum(min(amount[a], gap[a]) / need[a])} over the amino acids with a gap, i.e. the
+ * coverage it adds, counting no amino acid beyond its gap. The profiles come from the {@link FoodAminoMatrixCache}
+ * and are scored on a dedicated pool of {@code nutrition.recommendations.parallelism} threads, by default one per core.
+ */
+@Slf4j
+@Component
+public class FoodRecommender {
+
+    private final FoodAminoMatrixCache matrixCache;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs the recommender on top of the shared matrix.
+     *
+     * @param matrixCache The cache holding the matrix of the current catalog version.
+     * @param parallelism The number of scoring threads; 0 for one per core.
+     */
+    public FoodRecommender(FoodAminoMatrixCache matrixCache,
+                           @Value("${nutrition.recommendations.parallelism:0}") int parallelism) {
+        this.matrixCache = matrixCache;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Recommends the food items closing most of the gap between the daily needs and the consumed amino acids.
+     *
+     * @param dailyNeeds The daily amino acid needs.
+     * @param consumed   The amino acids consumed so far.
+     * @param limit      The maximum number of recommendations.
+     * @return The recommendations, best first; empty if there is no gap.
+     */
+    public List<FoodRecommendationDTO> recommend(AminoVector dailyNeeds, AminoVector consumed, int limit) {
+        AminoVector weights = AminoVector.empty();
+        AminoVector gaps = AminoVector.empty();
+        double totalGap = 0;
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            double need = dailyNeeds.get(aminoAcid);
+            double gap = need - consumed.get(aminoAcid);
+            if (dailyNeeds.isPresent(aminoAcid) && need > 0 && gap > 0) {
+                weights.set(aminoAcid, 1 / need);
+                gaps.set(aminoAcid, gap);
+                totalGap += gap / need;
+            }
+        }
+        if (totalGap == 0) {
+            log.info("No amino acid gap left, nothing to recommend.");
+            return List.of();
+        }
+
+        FoodAminoMatrix matrix = matrixCache.getMatrix();
+        List<FoodRecommendationDTO> recommendations = new ArrayList<>();
+        for (FoodAminoMatrix.Scored scored : matrix.topK(weights, gaps, limit, pool)) {
+            Map<String, Double> coverageGain = new LinkedHashMap<>();
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                if (weights.isPresent(aminoAcid)) {
+                    double gain = Math.min(matrix.get(scored.row(), aminoAcid), gaps.get(aminoAcid)) * weights.get(aminoAcid);
+                    coverageGain.put(aminoAcid.getDisplayName(), round(gain * 100));
+                }
+            }
+            recommendations.add(FoodRecommendationDTO.builder()
+                    .foodItemId(matrix.getId(scored.row()))
+                    .name(matrix.getName(scored.row()))
+                    .gapClosed(round(scored.score() / totalGap * 100))
+                    .coverageGain(coverageGain)
+                    .build());
+        }
+        return recommendations;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.search.FoodNameIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search index over the food names.
+ * The index is built from the database on the first search and kept as an immutable {@link FoodNameIndex}
+ * snapshot, so searches never wait for a lock. Food items written through JPA are merged into a new snapshot
+ * once their transaction commits (see {@link FoodSearchIndexUpdater}); writes bypassing JPA have to call
+ * {@link #invalidate()}, which makes the next search build the index again.
+ */
+@Slf4j
+@Component
+public class FoodSearchIndex {
+
+    private final FoodItemRepository foodItemRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<FoodNameIndex> snapshot = new AtomicReference<>();
+
+    /**
+     * Constructs the index on top of the food item repository.
+     *
+     * @param foodItemRepository The repository the index is built from.
+     * @param transactionManager The transaction manager used to stream the food items.
+     */
+    public FoodSearchIndex(FoodItemRepository foodItemRepository, PlatformTransactionManager transactionManager) {
+        this.foodItemRepository = foodItemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Searches food items by name, building the index on first use.
+     *
+     * @param query The search query; see {@link FoodNameIndex#search(String, int)} for the matching rules.
+     * @param limit The maximum number of results.
+     * @return The matching food items, best matches first.
+     */
+    public List<FoodItemDTO> search(String query, int limit) {
+        FoodNameIndex current = snapshot.get();
+        return (current != null ? current : reload()).search(query, limit);
+    }
+
+    /**
+     * Merges committed changes into the index. Does nothing while the index has not been built,
+     * as the next build reads the changes from the database anyway.
+     * Waits for a build in progress, so that changes committed during the build are not lost.
+     *
+     * @param saved   The names of inserted or updated food items by id.
+     * @param removed The ids of deleted food items.
+     */
+    public synchronized void apply(Map<UUID, String> saved, Collection<UUID> removed) {
+        FoodNameIndex current = snapshot.get();
+        if (current != null) {
+            snapshot.set(current.apply(saved, removed));
+            log.debug("Food search index updated: {} saved, {} removed", saved.size(), removed.size());
+        }
+    }
+
+    /**
+     * Drops the index, so that the next search builds it again from the database.
+     */
+    public synchronized void invalidate() {
+        snapshot.set(null);
+        log.debug("Food search index invalidated");
+    }
+
+    private synchronized FoodNameIndex reload() {
+        // Another thread may have built the index while this one waited for the lock
+        FoodNameIndex current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+
+        Map<UUID, String> names = new LinkedHashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<FoodItemDTO> foodItems = foodItemRepository.streamAllOrderedByName()) {
+                foodItems.forEach(foodItem -> names.put(foodItem.getId(), foodItem.getName()));
+            }
+        });
+        FoodNameIndex built = FoodNameIndex.of(names);
+        snapshot.set(built);
+        log.info("Food search index built over {} food items", built.size());
+        return built;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.listener.EntityChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Keeps the {@link FoodSearchIndex} up to date with the food item changes published by the
+ * {@link com.example.NutritionTracker.listener.EntityChangeListener}.
+ * The food items written in a transaction are collected and merged into the index in one step
+ * after the commit, so that e.g. {@link FoodItemService#saveAllFoodItems(List)} updates the index once
+ * and rolled back changes never reach it.
+ */
+@Component
+public class FoodSearchIndexUpdater {
+
+    private final FoodSearchIndex index;
+
+    public FoodSearchIndexUpdater(FoodSearchIndex index) {
+        this.index = index;
+    }
+
+    @EventListener
+    void onEntityChanged(EntityChangedEvent event) {
+        if (event.entity() instanceof FoodItem foodItem) {
+            switch (event.change()) {
+                case SAVED -> onFoodItemSaved(foodItem);
+                case REMOVED -> onFoodItemRemoved(foodItem);
+            }
+        }
+    }
+
+    private void onFoodItemSaved(FoodItem foodItem) {
+        PendingChanges changes = pendingChanges();
+        changes.removed.remove(foodItem.getId());
+        changes.saved.put(foodItem.getId(), foodItem.getName());
+        changes.applyUnlessDeferred();
+    }
+
+    private void onFoodItemRemoved(FoodItem foodItem) {
+        PendingChanges changes = pendingChanges();
+        changes.saved.remove(foodItem.getId());
+        changes.removed.add(foodItem.getId());
+        changes.applyUnlessDeferred();
+    }
+
+    /**
+     * Returns the changes collected for the current transaction, registering them for the commit
+     * on first use. Outside of a transaction, the returned changes are applied right away.
+     */
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingChanges(index, false);
+        }
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(index);
+        if (changes == null) {
+            PendingChanges registered = new PendingChanges(index, true);
+            TransactionSynchronizationManager.bindResource(index, registered);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registered.apply();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(index);
+                }
+            });
+            changes = registered;
+        }
+        return changes;
+    }
+
+    private static final class PendingChanges {
+        private final FoodSearchIndex index;
+        private final boolean deferred;
+        private final Map<UUID, String> saved = new LinkedHashMap<>();
+        private final Set<UUID> removed = new LinkedHashSet<>();
+
+        private PendingChanges(FoodSearchIndex index, boolean deferred) {
+            this.index = index;
+            this.deferred = deferred;
+        }
+
+        private void applyUnlessDeferred() {
+            if (!deferred) {
+                apply();
+            }
+        }
+
+        private void apply() {
+            index.apply(saved, removed);
+        }
+    }
+}
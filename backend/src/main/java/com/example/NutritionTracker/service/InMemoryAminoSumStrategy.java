@@ -0,0 +1,37 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sums the amino acids by loading the food items of the log and adding up their profiles, scaled to the
+ * eaten amounts, in the JVM.
+ * The items and foods are loaded with an entity graph and the profiles are batch fetched,
+ * so the number of queries does not grow with the number of food items.
+ */
+@Component
+@ConditionalOnProperty(name = "nutrition.amino.aggregation", havingValue = "jvm")
+@RequiredArgsConstructor
+public class InMemoryAminoSumStrategy implements AminoSumStrategy {
+    private final NutritionLogRepository nutritionLogRepository;
+
+    @Override
+    public AminoMilligrams sumFor(NutritionLog nutritionLog) {
+        NutritionLog loadedLog = nutritionLogRepository.findWithFoodItemsById(nutritionLog.getId())
+                .orElse(nutritionLog);
+
+        AminoMilligrams aminoAcidSums = AminoMilligrams.empty();
+        if (loadedLog.getFoodItems() == null) {
+            return aminoAcidSums;
+        }
+        for (NutritionLogFoodItem logItem : loadedLog.getFoodItems()) {
+            aminoAcidSums.addScaled(logItem.getFoodItem().getAminoAcidProfile(), logItem.getAmountMilligrams());
+        }
+        return aminoAcidSums;
+    }
+}
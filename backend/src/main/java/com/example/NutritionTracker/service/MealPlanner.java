@@ -0,0 +1,155 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import com.example.NutritionTracker.amino.PortionOptimizer;
+import com.example.NutritionTracker.dto.MealPlanDTO;
+import com.example.NutritionTracker.dto.MealPlanItemDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Plans the fewest portions of food items that close the amino acid gaps left by what was consumed.
+ *
+ * The portions are the optimum of the linear program solved by {@link PortionOptimizer} over the whole catalog.
+ * A linear optimum may spread over up to one food item per amino acid, so afterwards food items are dropped one by
+ * one, smallest first, as long as the remaining ones can still close the gaps. The final basis is kept: the next
+ * plan over the same catalog version starts from it, so after another food item was logged, only the changed gaps
+ * are worked off. Every plan gives up after {@code nutrition.meal-plan.time-limit}.
+ */
+@Slf4j
+@Component
+public class MealPlanner {
+
+    private final FoodAminoMatrixCache matrixCache;
+    private final Duration timeLimit;
+
+    private final AtomicReference<WarmStart> lastBasis = new AtomicReference<>();
+
+    /** The basis of the last plan, together with the matrix and amino acids it belongs to. */
+    private record WarmStart(FoodAminoMatrix matrix, List<AminoAcid> aminoAcids, PortionOptimizer.Basis basis) {
+    }
+
+    /**
+     * Constructs the planner on top of the shared matrix.
+     *
+     * @param matrixCache The cache holding the matrix of the current catalog version.
+     * @param timeLimit   The time after which a plan gives up.
+     */
+    public MealPlanner(FoodAminoMatrixCache matrixCache,
+                       @Value("${nutrition.meal-plan.time-limit:200ms}") Duration timeLimit) {
+        this.matrixCache = matrixCache;
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Plans the fewest portions closing the gap between the daily needs and the consumed amino acids.
+     *
+     * @param dailyNeeds  The daily amino acid needs.
+     * @param consumed    The amino acids consumed so far.
+     * @param maxPortions The most portions of a single food item.
+     * @return The plan; without items if there is no gap.
+     */
+    public MealPlanDTO plan(AminoVector dailyNeeds, AminoVector consumed, double maxPortions) {
+        // Every amino acid with a need is a constraint, even if already covered, so the basis stays reusable
+        List<AminoAcid> aminoAcids = new ArrayList<>();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            if (dailyNeeds.isPresent(aminoAcid) && dailyNeeds.get(aminoAcid) > 0) {
+                aminoAcids.add(aminoAcid);
+            }
+        }
+        double[] gaps = new double[aminoAcids.size()];
+        for (int r = 0; r < gaps.length; r++) {
+            AminoAcid aminoAcid = aminoAcids.get(r);
+            gaps[r] = Math.max(0, dailyNeeds.get(aminoAcid) - consumed.get(aminoAcid));
+        }
+
+        FoodAminoMatrix matrix = matrixCache.getMatrix();
+        long start = System.nanoTime();
+        long deadline = start + timeLimit.toNanos();
+        PortionOptimizer optimizer = new PortionOptimizer(matrix, aminoAcids.toArray(AminoAcid[]::new));
+        WarmStart warmStart = lastBasis.get();
+        boolean warm = warmStart != null && warmStart.matrix() == matrix && warmStart.aminoAcids().equals(aminoAcids);
+
+        PortionOptimizer.Solution solution = optimizer.solve(gaps, maxPortions, warm ? warmStart.basis() : null, deadline);
+        lastBasis.set(new WarmStart(matrix, aminoAcids, solution.basis()));
+        int iterations = solution.iterations();
+
+        if (solution.status() == PortionOptimizer.Status.OPTIMAL) {
+            // Drop the smallest food items first, as long as the others still close the gaps
+            Integer[] order = new Integer[solution.rows().length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            double[] portions = solution.portions();
+            Arrays.sort(order, Comparator.comparingDouble(i -> portions[i]));
+            int[] initialRows = solution.rows();
+            for (int i : order) {
+                int dropped = initialRows[i];
+                int[] remaining = Arrays.stream(solution.rows()).filter(row -> row != dropped).toArray();
+                if (remaining.length == solution.rows().length || System.nanoTime() - deadline > 0) {
+                    continue;
+                }
+                PortionOptimizer.Solution reduced = optimizer.solve(remaining, gaps, maxPortions, deadline);
+                iterations += reduced.iterations();
+                if (reduced.status() == PortionOptimizer.Status.OPTIMAL) {
+                    solution = new PortionOptimizer.Solution(reduced.status(), reduced.rows(), reduced.portions(),
+                            iterations, solution.basis());
+                }
+            }
+        }
+
+        MealPlanDTO plan = toPlan(matrix, aminoAcids, dailyNeeds, consumed, solution, maxPortions);
+        plan.setIterations(iterations);
+        plan.setWarmStart(warm);
+        plan.setSolveTimeMillis(round((System.nanoTime() - start) / 1_000_000.0));
+        log.info("Meal plan {} with {} food items after {} iterations in {} ms (warm start: {})",
+                plan.getStatus(), plan.getItems().size(), iterations, plan.getSolveTimeMillis(), warm);
+        return plan;
+    }
+
+    private static MealPlanDTO toPlan(FoodAminoMatrix matrix, List<AminoAcid> aminoAcids, AminoVector dailyNeeds,
+                                      AminoVector consumed, PortionOptimizer.Solution solution, double maxPortions) {
+        double[] planned = new double[aminoAcids.size()];
+        List<MealPlanItemDTO> items = new ArrayList<>();
+        double totalPortions = 0;
+        for (int i = 0; i < solution.rows().length; i++) {
+            int row = solution.rows()[i];
+            // Rounding up keeps every gap closed
+            double portions = Math.min(Math.ceil(solution.portions()[i] * 100 - 1e-6) / 100.0, maxPortions);
+            for (int r = 0; r < planned.length; r++) {
+                planned[r] += matrix.get(row, aminoAcids.get(r)) * portions;
+            }
+            totalPortions += portions;
+            items.add(MealPlanItemDTO.builder()
+                    .foodItemId(matrix.getId(row))
+                    .name(matrix.getName(row))
+                    .portions(portions)
+                    .build());
+        }
+        items.sort(Comparator.comparingDouble(MealPlanItemDTO::getPortions).reversed());
+
+        Map<String, Double> coverage = new LinkedHashMap<>();
+        for (int r = 0; r < planned.length; r++) {
+            AminoAcid aminoAcid = aminoAcids.get(r);
+            double total = consumed.get(aminoAcid) + planned[r];
+            coverage.put(aminoAcid.getDisplayName(), round(total / dailyNeeds.get(aminoAcid) * 100));
+        }
+        return MealPlanDTO.builder()
+                .status(solution.status().name())
+                .items(items)
+                .totalPortions(round(totalPortions))
+                .coverage(coverage)
+                .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
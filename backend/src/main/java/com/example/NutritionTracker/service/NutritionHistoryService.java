@@ -0,0 +1,403 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.Milligrams;
+import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
+import com.example.NutritionTracker.decorator.ProfileAminoAcidChains;
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.dto.NutritionLogExportDTO;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.AminoAcidRollup;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import com.example.NutritionTracker.repo.AminoAcidRollupRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogTotalsView;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining and reading the amino acid history of the user, see {@link AminoAcidRollup}.
+ *
+ * Every change to a nutrition log is added to the rollups of its day, week and month by
+ * {@link NutritionLogService}, in the same transaction. A range of days is then read from the rollups of the
+ * whole months within it and of the single days before and after them; the weeks serve the weekly trend.
+ * Ten years of history are answered from at most 180 rows instead of 3,650 logs.
+ *
+ * Coverage is measured against the current daily needs of the user, averaged over the days a log was kept for.
+ */
+@Slf4j
+@Service
+@Timed("nutrition.service")
+@RequiredArgsConstructor
+public class NutritionHistoryService {
+
+    /** The longest range of days that can be read at once, about ten years. */
+    public static final int MAX_DAYS = 3660;
+
+    /** The largest number of periods a trend can contain. */
+    public static final int MAX_TREND_PERIODS = 520;
+
+    private final AminoAcidRollupRepository rollupRepository;
+    private final NutritionLogRepository nutritionLogRepository;
+    private final UserDataService userDataService;
+    private final DailyAminoAcidCalculator dailyAminoAcidCalculator;
+    private final AminoAcidRequirementCache aminoAcidRequirementCache;
+    private final ProfileAminoAcidChains profileAminoAcidChains;
+    private final EntityManager entityManager;
+
+    /**
+     * Registers the day of a newly created log, creating the rollups of its day, week and month if missing.
+     * A day that already has a log is counted once.
+     *
+     * @param nutritionLog The created log.
+     */
+    @Transactional
+    public void logCreated(NutritionLog nutritionLog) {
+        createMissingRollups(nutritionLog, new AminoAcidTotals());
+    }
+
+    /**
+     * Removes the totals of a deleted log from its rollups. The day stays counted as logged,
+     * as a log is only deleted to be replaced by a new one for the same day.
+     * Missing rollups are not created here, as they would book the deleted log; the new log creates them.
+     *
+     * @param nutritionLog The log that is deleted.
+     */
+    @Transactional
+    public void logDeleted(NutritionLog nutritionLog) {
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+        AminoAcidTotals delta = new AminoAcidTotals();
+        AminoMilligrams negated = AminoMilligrams.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            negated.set(aminoAcid, -totals.getMilligrams(aminoAcid));
+        }
+        delta.reset(negated, -totals.getItemCount());
+        updateRollups(nutritionLog, delta);
+    }
+
+    /**
+     * Adds food items, just added to a log, to the rollups of the log with a single update.
+     *
+     * @param nutritionLog The log, whose totals already contain the food items.
+     * @param added        The summed portions and the number of the added food items.
+     */
+    @Transactional
+    public void foodsAdded(NutritionLog nutritionLog, AminoAcidTotals added) {
+        addToRollups(nutritionLog, added);
+    }
+
+    /**
+     * Subtracts a portion of a food item, just removed from a log, from the rollups of the log.
+     *
+     * @param nutritionLog     The log, whose totals no longer contain the food item.
+     * @param foodItem         The removed food item.
+     * @param amountMilligrams The portion it was added with, in milligrams.
+     */
+    @Transactional
+    public void foodRemoved(NutritionLog nutritionLog, FoodItem foodItem, long amountMilligrams) {
+        AminoAcidTotals delta = new AminoAcidTotals();
+        delta.removeFood(foodItem, amountMilligrams);
+        addToRollups(nutritionLog, delta);
+    }
+
+    /**
+     * Adds the correction of a log's drifted totals to the rollups of the log, which were booked with the same
+     * changes as the totals and drifted alike. Missing rollups are not created here; the next change of the log
+     * creates them from its repaired totals.
+     *
+     * @param nutritionLog The log, whose totals are already repaired.
+     * @param difference   The recomputed totals minus the stored ones.
+     */
+    @Transactional
+    public void totalsRepaired(NutritionLog nutritionLog, AminoAcidTotals difference) {
+        updateRollups(nutritionLog, difference);
+    }
+
+    /**
+     * Calculates the average daily intake and coverage of the current user over the last days, today included.
+     *
+     * @param days The number of days, clamped to 1..{@value #MAX_DAYS}.
+     * @return The averages over the days a log was kept for.
+     */
+    @Transactional(readOnly = true)
+    public NutritionHistoryDTO averageOverLastDays(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(Math.max(1, Math.min(days, MAX_DAYS)) - 1L);
+        return averageOverRange(from, to);
+    }
+
+    /**
+     * Calculates the average daily intake and coverage of the current user within a range of days.
+     *
+     * @param from The first day, inclusive.
+     * @param to   The last day, inclusive.
+     * @return The averages over the days a log was kept for.
+     */
+    @Transactional(readOnly = true)
+    public NutritionHistoryDTO averageOverRange(LocalDate from, LocalDate to) {
+        UserDTO user = loadUser();
+
+        AminoMilligrams sums = AminoMilligrams.empty();
+        int loggedDays = 0;
+        // The whole months within the range, and the days before and after them; without a whole month all days
+        LocalDate firstMonth = RollupPeriod.MONTH.start(from).equals(from)
+                ? from : RollupPeriod.MONTH.next(RollupPeriod.MONTH.start(from));
+        LocalDate afterMonths = RollupPeriod.MONTH.start(to.plusDays(1));
+        boolean wholeMonths = afterMonths.isAfter(firstMonth);
+        List<AminoAcidRollup> rollups = rollupRepository.findCovering(user.getId(),
+                from, wholeMonths ? firstMonth.minusDays(1) : to,
+                firstMonth, afterMonths.minusMonths(1),
+                wholeMonths ? afterMonths : to.plusDays(1), to);
+        for (AminoAcidRollup rollup : rollups) {
+            addAll(sums, rollup.getTotals());
+            loggedDays += rollup.getLoggedDays();
+        }
+        log.debug("History from {} to {} read from {} rollups", from, to, rollups.size());
+        return toHistory(from, to, loggedDays, sums, dailyNeeds(user));
+    }
+
+    /**
+     * Calculates the average daily intake and coverage of the current user per period, for the last periods.
+     *
+     * @param period The length of the periods.
+     * @param count  The number of periods, the current one included, clamped to 1..{@value #MAX_TREND_PERIODS}.
+     * @return One entry per period, oldest first; periods without a log have no averages.
+     */
+    @Transactional(readOnly = true)
+    public List<NutritionHistoryDTO> trend(RollupPeriod period, int count) {
+        UserDTO user = loadUser();
+        AminoMilligrams dailyNeeds = dailyNeeds(user);
+
+        LocalDate last = period.start(LocalDate.now());
+        LocalDate first = last;
+        for (int i = 1; i < Math.max(1, Math.min(count, MAX_TREND_PERIODS)); i++) {
+            first = period.start(first.minusDays(1));
+        }
+
+        Map<LocalDate, AminoAcidRollup> rollups = new HashMap<>();
+        for (AminoAcidRollup rollup : rollupRepository.findByUserIdAndPeriodAndPeriodStartBetweenOrderByPeriodStart(
+                user.getId(), period, first, last)) {
+            rollups.put(rollup.getPeriodStart(), rollup);
+        }
+
+        List<NutritionHistoryDTO> trend = new ArrayList<>();
+        for (LocalDate start = first; !start.isAfter(last); start = period.next(start)) {
+            AminoAcidRollup rollup = rollups.get(start);
+            AminoMilligrams sums = AminoMilligrams.empty();
+            if (rollup != null) {
+                addAll(sums, rollup.getTotals());
+            }
+            trend.add(toHistory(start, period.end(start), rollup != null ? rollup.getLoggedDays() : 0, sums, dailyNeeds));
+        }
+        return trend;
+    }
+
+    /**
+     * Passes every nutrition log of the current user, ordered by day, to the given action while it is read
+     * from a database cursor, with its intake and its coverage of the current daily needs.
+     * Only the running totals are read, no food items, and only the current log is held in memory.
+     *
+     * @param action The action receiving each log.
+     * @throws EntityNotFoundException If no user exists.
+     */
+    @Transactional(readOnly = true)
+    public void forEachLog(Consumer<NutritionLogExportDTO> action) {
+        UserDTO user = loadUser();
+        AminoMilligrams dailyNeeds = dailyNeeds(user);
+        try (Stream<NutritionLogTotalsView> logs = nutritionLogRepository.streamTotalsByUserId(user.getId())) {
+            logs.forEach(nutritionLog -> action.accept(toExport(nutritionLog, dailyNeeds)));
+        }
+    }
+
+    /**
+     * Deletes the rollups of all users, together with their nutrition logs.
+     */
+    @Transactional
+    public void deleteHistory() {
+        rollupRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Recomputes all rollups from the stored nutrition logs, e.g. for logs kept before the rollups existed.
+     * The running totals of the logs are read from a database cursor, ordered by user and day, and the rollups
+     * of each user are written before the next user's are summed, so only one user's rollups are held in memory.
+     *
+     * @return The number of rollups written.
+     */
+    @Transactional
+    public int rebuildRollups() {
+        rollupRepository.deleteAllInBatch();
+
+        Map<RollupKey, AminoAcidRollup> rollups = new LinkedHashMap<>();
+        int written = 0;
+        UUID userId = null;
+        LocalDate lastDay = null;
+        try (Stream<NutritionLogTotalsView> logs = nutritionLogRepository.streamAllTotals()) {
+            for (Iterator<NutritionLogTotalsView> iterator = logs.iterator(); iterator.hasNext(); ) {
+                NutritionLogTotalsView nutritionLog = iterator.next();
+                if (!nutritionLog.getUserId().equals(userId)) {
+                    written += saveRollups(rollups);
+                    userId = nutritionLog.getUserId();
+                    lastDay = null;
+                }
+                boolean newDay = !nutritionLog.getLogDate().equals(lastDay);
+                lastDay = nutritionLog.getLogDate();
+                AminoAcidTotals totals = nutritionLog.getTotals();
+                for (RollupPeriod period : RollupPeriod.values()) {
+                    UUID owner = userId;
+                    AminoAcidRollup rollup = rollups.computeIfAbsent(
+                            new RollupKey(owner, period, period.start(nutritionLog.getLogDate())),
+                            key -> AminoAcidRollup.builder().userId(owner).period(period).periodStart(key.start()).build());
+                    if (newDay) {
+                        rollup.setLoggedDays(rollup.getLoggedDays() + 1);
+                    }
+                    AminoMilligrams sums = rollup.getTotals().toMilligrams();
+                    addAll(sums, totals);
+                    rollup.getTotals().reset(sums, rollup.getTotals().getItemCount() + totals.getItemCount());
+                }
+            }
+        }
+        written += saveRollups(rollups);
+        log.info("Rebuilt {} amino acid rollups", written);
+        return written;
+    }
+
+    private void addToRollups(NutritionLog nutritionLog, AminoAcidTotals delta) {
+        if (updateRollups(nutritionLog, delta) < RollupPeriod.values().length) {
+            // The log was not created through the service: start its missing rollups from the whole log
+            log.warn("Rollups of NutritionLog {} on {} were missing and have been created", nutritionLog.getId(), nutritionLog.getLogDate());
+            createMissingRollups(nutritionLog, nutritionLog.getAminoAcidTotals());
+        }
+    }
+
+    private int updateRollups(NutritionLog nutritionLog, AminoAcidTotals delta) {
+        LocalDate day = nutritionLog.getLogDate();
+        return rollupRepository.addTotals(nutritionLog.getUser().getId(), day,
+                RollupPeriod.WEEK.start(day), RollupPeriod.MONTH.start(day), delta);
+    }
+
+    /**
+     * Looks up the rollups of the log's day, week and month and inserts the missing ones. A concurrent insert of the
+     * same rollup violates the unique index, so callers either hold the lock of the user, like
+     * {@link NutritionLogService#createLogFromFrontend}, or run in a change that is retried on that collision.
+     */
+    private void createMissingRollups(NutritionLog nutritionLog, AminoAcidTotals totals) {
+        UUID userId = nutritionLog.getUser().getId();
+        LocalDate day = nutritionLog.getLogDate();
+        Map<RollupPeriod, LocalDate> starts = new EnumMap<>(RollupPeriod.class);
+        for (RollupPeriod period : RollupPeriod.values()) {
+            starts.put(period, period.start(day));
+        }
+
+        boolean newDay = false;
+        for (RollupPeriod period : RollupPeriod.values()) {
+            if (!rollupRepository.findByUserIdAndPeriodAndPeriodStartIn(userId, period, List.of(starts.get(period))).isEmpty()) {
+                continue;
+            }
+            AminoAcidTotals initial = new AminoAcidTotals();
+            initial.reset(totals.toMilligrams(), totals.getItemCount());
+            rollupRepository.save(AminoAcidRollup.builder()
+                    .userId(userId)
+                    .period(period)
+                    .periodStart(starts.get(period))
+                    .loggedDays(period == RollupPeriod.DAY ? 1 : 0)
+                    .totals(initial)
+                    .build());
+            newDay |= period == RollupPeriod.DAY;
+        }
+        if (newDay) {
+            rollupRepository.countLoggedDay(userId, starts.get(RollupPeriod.WEEK), starts.get(RollupPeriod.MONTH));
+        }
+    }
+
+    /**
+     * Writes the rollups of one user and detaches them, so the persistence context does not grow with the users.
+     */
+    private int saveRollups(Map<RollupKey, AminoAcidRollup> rollups) {
+        int count = rollups.size();
+        if (count > 0) {
+            rollupRepository.saveAll(rollups.values());
+            entityManager.flush();
+            entityManager.clear();
+            rollups.clear();
+        }
+        return count;
+    }
+
+    private UserDTO loadUser() {
+        return userDataService.getUser()
+                .orElseThrow(() -> new EntityNotFoundException("No user found"));
+    }
+
+    private AminoMilligrams dailyNeeds(UserDTO user) {
+        return profileAminoAcidChains.forUser(user).apply(dailyAminoAcidCalculator.calculateDailyNeedsMilligrams(aminoAcidRequirementCache.getRequirementsPerKg(), user));
+    }
+
+    private static void addAll(AminoMilligrams sums, AminoAcidTotals totals) {
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            sums.add(aminoAcid, totals.getMilligrams(aminoAcid));
+        }
+    }
+
+    private static NutritionHistoryDTO toHistory(LocalDate from, LocalDate to, int loggedDays,
+                                                 AminoMilligrams sums, AminoMilligrams dailyNeeds) {
+        Map<String, Double> averageIntake = new LinkedHashMap<>();
+        Map<String, Double> averageCoverage = new LinkedHashMap<>();
+        if (loggedDays > 0) {
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                long sum = sums.get(aminoAcid);
+                averageIntake.put(aminoAcid.getDisplayName(), Milligrams.toGrams(Math.round((double) sum / loggedDays)));
+                if (dailyNeeds.isPresent(aminoAcid) && dailyNeeds.get(aminoAcid) > 0) {
+                    averageCoverage.put(aminoAcid.getDisplayName(),
+                            Milligrams.percent(sum, dailyNeeds.get(aminoAcid) * loggedDays));
+                }
+            }
+        }
+        return NutritionHistoryDTO.builder()
+                .from(from)
+                .to(to)
+                .loggedDays(loggedDays)
+                .averageIntake(averageIntake)
+                .averageCoverage(averageCoverage)
+                .build();
+    }
+
+    private static NutritionLogExportDTO toExport(NutritionLogTotalsView nutritionLog, AminoMilligrams dailyNeeds) {
+        AminoAcidTotals totals = nutritionLog.getTotals();
+        Map<String, Double> intake = new LinkedHashMap<>();
+        Map<String, Double> coverage = new LinkedHashMap<>();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            long total = totals.getMilligrams(aminoAcid);
+            intake.put(aminoAcid.getDisplayName(), Milligrams.toGrams(total));
+            if (dailyNeeds.isPresent(aminoAcid) && dailyNeeds.get(aminoAcid) > 0) {
+                coverage.put(aminoAcid.getDisplayName(), Milligrams.percent(total, dailyNeeds.get(aminoAcid)));
+            }
+        }
+        return NutritionLogExportDTO.builder()
+                .id(nutritionLog.getId())
+                .logDate(nutritionLog.getLogDate())
+                .createdAt(nutritionLog.getCreatedAt())
+                .itemCount(totals.getItemCount())
+                .intake(intake)
+                .coverage(coverage)
+                .build();
+    }
+
+    /** Identifies a rollup while rebuilding. */
+    private record RollupKey(UUID userId, RollupPeriod period, LocalDate start) {
+    }
+}
@@ -1,36 +1,73 @@
 package com.example.NutritionTracker.service;
 
+import com.example.NutritionTracker.amino.Milligrams;
 import com.example.NutritionTracker.dto.NutritionLogCreateDTO;
 import com.example.NutritionTracker.dto.NutritionLogDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemCreateDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemDTO;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
 import com.example.NutritionTracker.entity.FoodItem;
 import com.example.NutritionTracker.entity.NutritionLog;
 import com.example.NutritionTracker.entity.NutritionLogFoodItem;
 import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.exception.InvalidInputException;
 import com.example.NutritionTracker.repo.FoodItemRepository;
 import com.example.NutritionTracker.repo.NutritionLogFoodItemRepository;
 import com.example.NutritionTracker.repo.NutritionLogRepository;
 import com.example.NutritionTracker.repo.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 /**
  * Service class responsible for managing NutritionLogs.
  */
 @Slf4j
 @Service
+@Timed("nutrition.service")
 @RequiredArgsConstructor
 public class NutritionLogService {
 
+    /** The largest portion of a single log entry, in grams. */
+    public static final double MAX_PORTION_GRAMS = 10_000;
+
+    /** The most food items added to a log with a single request. */
+    public static final int MAX_FOOD_ITEMS_PER_REQUEST = 100;
+
+    /** The attempts of a change to the entries of a log that collides with concurrent changes. */
+    private static final int MAX_CHANGE_ATTEMPTS = 5;
+
+    /** The pause before the second attempt of a change; it doubles with every further attempt. */
+    private static final long CHANGE_RETRY_PAUSE_MILLIS = 10;
+
+    /** The SQLState of a unique constraint violation. */
+    private static final String UNIQUE_VIOLATION = "23505";
 
     private final NutritionLogRepository nutritionLogRepository;
     private final FoodItemRepository foodItemRepository;
     private final NutritionLogFoodItemRepository nutritionLogFoodItemRepository;
     private final UserRepository userRepository;
+    private final NutritionMetrics nutritionMetrics;
+    private final NutritionHistoryService nutritionHistoryService;
+    private final CoverageStreamService coverageStreamService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Cleans up all nutrition logs before application shutdown.
@@ -39,38 +76,259 @@ public class NutritionLogService {
     public void cleanup() {
         log.info("Cleaning up database before shutdown...");
         nutritionLogRepository.deleteAll();
+        nutritionHistoryService.deleteHistory();
         log.info("All nutrition logs deleted.");
     }
 
     /**
-     * Adds a food item to an existing NutritionLog.
+     * Adds a reference portion of 100 g of a food item to an existing NutritionLog.
      *
      * @param logId The UUID of the NutritionLog.
      * @param foodItemId The UUID of the FoodItem to be added.
      */
-    @Transactional
     public void addFoodItemToLog(UUID logId, UUID foodItemId) {
-        NutritionLog nutritionLog = nutritionLogRepository.findById(logId)
-                .orElseThrow(() -> new EntityNotFoundException("NutritionLog not found with ID: " + logId));
+        addFoodItemToLog(logId, foodItemId, Milligrams.toGrams(Milligrams.REFERENCE_AMOUNT));
+    }
+
+    /**
+     * Adds a portion of a food item to an existing NutritionLog.
+     * The portion is stored in whole milligrams and scales the amino acid profile of the food item,
+     * which refers to 100 g. Concurrent additions to the same log are applied one after the other,
+     * see {@link #changeLog(String, Supplier)}.
+     *
+     * @param logId The UUID of the NutritionLog.
+     * @param foodItemId The UUID of the FoodItem to be added.
+     * @param grams The eaten amount in grams, greater than 0 and at most {@value #MAX_PORTION_GRAMS}.
+     */
+    public void addFoodItemToLog(UUID logId, UUID foodItemId, double grams) {
+        long amount = toMilligrams(grams);
+
+        changeLog("Adding FoodItem " + foodItemId + " to NutritionLog " + logId, () -> {
+            NutritionLog nutritionLog = lockLog(logId);
+
+            FoodItem foodItem = foodItemRepository.findById(foodItemId)
+                    .orElseThrow(() -> new EntityNotFoundException("FoodItem not found with ID: " + foodItemId));
 
-        FoodItem foodItem = foodItemRepository.findById(foodItemId)
-                .orElseThrow(() -> new EntityNotFoundException("FoodItem not found with ID: " + foodItemId));
+            // Check if the FoodItem is already in the NutritionLog
+            if (!nutritionLogFoodItemRepository.findFoodItemIdsInLog(logId, List.of(foodItemId)).isEmpty()) {
+                log.warn("FoodItem {} is already present in NutritionLog {}", foodItemId, logId);
+                return null;
+            }
 
-        // Check if the FoodItem is already in the NutritionLog
-        if (nutritionLog.getFoodItems().stream().anyMatch(item -> item.getFoodItem().getId().equals(foodItemId))) {
-            log.warn("FoodItem {} is already present in NutritionLog {}", foodItemId, logId);
-            return;
+            append(nutritionLog, List.of(new NutritionLogFoodItem(nutritionLog, foodItem, amount)));
+            log.info("Added {} g of FoodItem {} to NutritionLog {}", Milligrams.toGrams(amount), foodItemId, logId);
+            return null;
+        });
+    }
+
+    /**
+     * Adds several food items, e.g. a whole meal, to an existing NutritionLog in one transaction.
+     * The food items are loaded with one query and looked up in the log with another, without loading
+     * the entries of the log; the new entries are inserted in one JDBC batch and the totals of the log
+     * are updated once.
+     * Food items already present in the log are skipped; a food item listed twice is added with its first portion.
+     *
+     * @param logId The UUID of the NutritionLog.
+     * @param items The food items to be added with their portions, at most {@value #MAX_FOOD_ITEMS_PER_REQUEST}.
+     * @return The added entries, in the order of the request.
+     * @throws InvalidInputException If there are too many items, an item has no foodItemId or a portion is out of range.
+     */
+    public List<NutritionLogFoodItemDTO> addFoodItemsToLog(UUID logId, List<NutritionLogFoodItemCreateDTO> items) {
+        if (items.size() > MAX_FOOD_ITEMS_PER_REQUEST) {
+            throw new InvalidInputException("At most " + MAX_FOOD_ITEMS_PER_REQUEST + " food items can be added at once, got " + items.size());
+        }
+        Map<UUID, Long> amounts = new LinkedHashMap<>();
+        for (NutritionLogFoodItemCreateDTO item : items) {
+            if (item.getFoodItemId() == null) {
+                throw new InvalidInputException("foodItemId cannot be null!");
+            }
+            long amount = item.getGrams() != null ? toMilligrams(item.getGrams()) : Milligrams.REFERENCE_AMOUNT;
+            if (amounts.putIfAbsent(item.getFoodItemId(), amount) != null) {
+                log.warn("FoodItem {} is listed more than once, only its first portion is added", item.getFoodItemId());
+            }
         }
 
-        NutritionLogFoodItem logFoodItem = new NutritionLogFoodItem();
-        logFoodItem.setNutritionLog(nutritionLog);
-        logFoodItem.setFoodItem(foodItem);
+        return changeLog("Adding " + amounts.size() + " FoodItems to NutritionLog " + logId, () -> {
+            NutritionLog nutritionLog = lockLog(logId);
+            if (amounts.isEmpty()) {
+                return List.of();
+            }
+
+            Map<UUID, FoodItem> foodItems = new HashMap<>();
+            foodItemRepository.findAllById(amounts.keySet()).forEach(foodItem -> foodItems.put(foodItem.getId(), foodItem));
+            for (UUID foodItemId : amounts.keySet()) {
+                if (!foodItems.containsKey(foodItemId)) {
+                    throw new EntityNotFoundException("FoodItem not found with ID: " + foodItemId);
+                }
+            }
+
+            Set<UUID> present = nutritionLogFoodItemRepository.findFoodItemIdsInLog(logId, amounts.keySet());
+            if (!present.isEmpty()) {
+                log.warn("FoodItems {} are already present in NutritionLog {}", present, logId);
+            }
+
+            List<NutritionLogFoodItem> entries = new ArrayList<>();
+            amounts.forEach((foodItemId, amount) -> {
+                if (!present.contains(foodItemId)) {
+                    entries.add(new NutritionLogFoodItem(nutritionLog, foodItems.get(foodItemId), amount));
+                }
+            });
+            if (entries.isEmpty()) {
+                return List.of();
+            }
+
+            entityManager.unwrap(Session.class).setJdbcBatchSize(entries.size());
+            append(nutritionLog, entries);
+            log.info("Added {} FoodItems to NutritionLog {}", entries.size(), logId);
+            return entries.stream().map(NutritionLogFoodItemDTO::new).toList();
+        });
+    }
 
-        nutritionLog.getFoodItems().add(logFoodItem);
-        nutritionLogFoodItemRepository.save(logFoodItem);
-        nutritionLogRepository.save(nutritionLog);
+    /**
+     * Removes a food item from an existing NutritionLog.
+     *
+     * @param logId The UUID of the NutritionLog.
+     * @param foodItemId The UUID of the FoodItem to be removed.
+     */
+    public void removeFoodItemFromLog(UUID logId, UUID foodItemId) {
+        changeLog("Removing FoodItem " + foodItemId + " from NutritionLog " + logId, () -> {
+            NutritionLog nutritionLog = lockLog(logId);
+
+            NutritionLogFoodItem logFoodItem = nutritionLogFoodItemRepository.findByNutritionLogIdAndFoodItemId(logId, foodItemId)
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "FoodItem " + foodItemId + " is not part of NutritionLog " + logId));
+
+            AminoAcidTotals removed = new AminoAcidTotals();
+            removed.removeFood(logFoodItem.getFoodItem(), logFoodItem.getAmountMilligrams());
+            nutritionLog.getAminoAcidTotals().removeFood(logFoodItem.getFoodItem(), logFoodItem.getAmountMilligrams());
+            nutritionLogFoodItemRepository.delete(logFoodItem);
+            nutritionLogRepository.addTotals(logId, removed);
+            nutritionLog.setRevision(nutritionLog.getRevision() + 1);
+            nutritionHistoryService.foodRemoved(nutritionLog, logFoodItem.getFoodItem(), logFoodItem.getAmountMilligrams());
+            nutritionMetrics.foodItemRemoved(nutritionLog);
+            coverageStreamService.logChanged(nutritionLog);
+
+            log.info("Removed FoodItem {} from NutritionLog {}", foodItemId, logId);
+            return null;
+        });
+    }
 
-        log.info("Added FoodItem {} to NutritionLog {}", foodItemId, logId);
+    /**
+     * Locks a NutritionLog for the rest of the transaction and loads it read-only.
+     * Changes of the entries of a log take this lock first, so they are applied one after the other
+     * and each one sees the entries and totals of the previous ones.
+     *
+     * @param logId The UUID of the NutritionLog.
+     * @return The locked NutritionLog.
+     */
+    private NutritionLog lockLog(UUID logId) {
+        NutritionLog nutritionLog = nutritionLogRepository.findByIdForUpdate(logId)
+                .orElseThrow(() -> new EntityNotFoundException("NutritionLog not found with ID: " + logId));
+        // Its totals are changed with relative updates only; the entity itself is never written back
+        entityManager.unwrap(Session.class).setReadOnly(nutritionLog, true);
+        return nutritionLog;
+    }
+
+    /**
+     * Inserts new entries into a locked NutritionLog and adds them to its totals and rollups.
+     * The totals are raised with a relative update, so the log entity is not written and its version stays the same;
+     * the loaded totals and revision, which nobody else can change while the log is locked, follow in memory.
+     * Subscribers of the coverage stream get the change after the commit.
+     *
+     * @param nutritionLog The locked NutritionLog.
+     * @param entries      The new entries, none of whose food items is part of the log yet.
+     */
+    private void append(NutritionLog nutritionLog, List<NutritionLogFoodItem> entries) {
+        AminoAcidTotals added = new AminoAcidTotals();
+        for (NutritionLogFoodItem entry : entries) {
+            added.addFood(entry.getFoodItem(), entry.getAmountMilligrams());
+            nutritionLog.getAminoAcidTotals().addFood(entry.getFoodItem(), entry.getAmountMilligrams());
+        }
+        nutritionLogFoodItemRepository.saveAll(entries);
+        nutritionLogRepository.addTotals(nutritionLog.getId(), added);
+        nutritionLog.setRevision(nutritionLog.getRevision() + 1);
+        nutritionHistoryService.foodsAdded(nutritionLog, added);
+        nutritionMetrics.foodItemsAdded(nutritionLog, entries.size());
+        coverageStreamService.logChanged(nutritionLog);
+    }
+
+    /**
+     * Runs a change of the entries of a NutritionLog in its own transaction. A change that collides with a
+     * concurrent one, by a lock timeout, a deadlock or an entry inserted in between, is rolled back and run again
+     * after a short pause, which doubles with every attempt, up to {@value #MAX_CHANGE_ATTEMPTS} attempts.
+     * Any other integrity violation, such as a missing value or reference, would fail again and is thrown at once.
+     * Within a surrounding transaction the change joins it and is not retried, as the surrounding transaction
+     * can no longer commit after a collision.
+     *
+     * @param description The change, for the log.
+     * @param change      The change.
+     * @param <T>         The type of the result.
+     * @return The result of the change.
+     */
+    private <T> T changeLog(String description, Supplier<T> change) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return change.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> change.get());
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException && !isDuplicateEntry(e)) {
+                    throw e;
+                }
+                if (attempt == MAX_CHANGE_ATTEMPTS) {
+                    log.warn("{} failed after {} attempts", description, attempt);
+                    throw e;
+                }
+                long pause = CHANGE_RETRY_PAUSE_MILLIS << (attempt - 1);
+                log.debug("{} collided with a concurrent change, attempt {} of {} in about {} ms: {}",
+                        description, attempt + 1, MAX_CHANGE_ATTEMPTS, pause, e.getMessage());
+                nutritionMetrics.logChangeRetried();
+                try {
+                    // Randomized, so that the colliding changes do not meet again
+                    Thread.sleep(pause + ThreadLocalRandom.current().nextLong(pause));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether an integrity violation is an entry for the same log and food item inserted by a concurrent change.
+     * The constraint is recognized by its name, or by the SQLState of a unique violation if the driver names none.
+     *
+     * @param e The integrity violation.
+     * @return Whether the change collided with a concurrent one and may be run again.
+     */
+    private static boolean isDuplicateEntry(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                // Databases report the name in their own case, some with a suffix of the index
+                return violation.getConstraintName().toLowerCase(Locale.ROOT)
+                        .contains(NutritionLogFoodItem.LOG_FOOD_CONSTRAINT);
+            }
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts an eaten portion to whole milligrams.
+     *
+     * @param grams The portion in grams.
+     * @return The portion in milligrams.
+     * @throws InvalidInputException If the portion is not greater than 0 and at most {@value #MAX_PORTION_GRAMS} g.
+     */
+    private static long toMilligrams(double grams) {
+        long amount = Milligrams.fromGrams(grams);
+        if (!(grams <= MAX_PORTION_GRAMS) || amount <= 0) {
+            throw new InvalidInputException("The portion must be between 0.001 and " + MAX_PORTION_GRAMS + " g, got " + grams);
+        }
+        return amount;
     }
 
     /**
@@ -89,6 +347,7 @@ public class NutritionLogService {
             throw new IllegalStateException("Error saving NutritionLog.");
         }
 
+        nutritionHistoryService.logCreated(savedLog);
         return savedLog;
     }
 
@@ -97,6 +356,7 @@ public class NutritionLogService {
      *
      * @param logId The UUID of the NutritionLog.
      * @return The NutritionLog entity.
+     * @throws EntityNotFoundException If there is no log with the given UUID.
      */
     @Transactional(readOnly = true)
     public NutritionLog getNutritionLogById(UUID logId) {
@@ -114,13 +374,14 @@ public class NutritionLogService {
                 })
                 .orElseThrow(() -> {
                     log.warn("NutritionLog with logId {} was not found.", logId);
-                    return new IllegalArgumentException("NutritionLog with UUID " + logId + " was not found.");
+                    return new EntityNotFoundException("NutritionLog with UUID " + logId + " was not found.");
                 });
     }
 
     /**
-     * Creates a new NutritionLog from frontend data.
-     * If an existing log exists for the user, it is deleted before creating a new one.
+     * Creates a new NutritionLog from frontend data for the given day, today by default.
+     * An existing log of the user for the same day is replaced; the logs of other days are kept as history.
+     * Creations for the same user wait for each other on the lock of the user.
      *
      * @param logDTO DTO containing the user ID.
      * @return The newly created NutritionLog.
@@ -136,8 +397,9 @@ public class NutritionLogService {
 
         log.info("🔍 Searching for user with ID: {}", logDTO.getUserId());
 
-        // Retrieve the user from the database
-        User user = userRepository.findById(logDTO.getUserId())
+        // Retrieve and lock the user, so that its logs are created one after the other: the log of the day and
+        // the rollups of its day, week and month are looked up and inserted without a concurrent creation in between
+        User user = userRepository.findByIdForUpdate(logDTO.getUserId())
                 .orElseThrow(() -> {
                     log.error("User with ID {} not found!", logDTO.getUserId());
                     return new EntityNotFoundException("User with ID " + logDTO.getUserId() + " not found");
@@ -145,24 +407,32 @@ public class NutritionLogService {
 
         log.info("User found: {} (ID: {})", user.getName(), user.getId());
 
-        // Check if an existing NutritionLog exists for this user
-        Optional<NutritionLog> existingLog = nutritionLogRepository.findByUser(user);
+        // Replace an existing NutritionLog of this user for the same day
+        LocalDate logDate = logDTO.getLogDate() != null ? logDTO.getLogDate() : LocalDate.now();
+        for (NutritionLog found : nutritionLogRepository.findByUserAndLogDate(user, logDate)) {
+            log.warn("Existing NutritionLog with ID {} found for {}. Deleting old log and associated entries...",
+                    found.getId(), logDate);
 
-        if (existingLog.isPresent()) {
-            NutritionLog oldLog = existingLog.get();
-            log.warn("Existing NutritionLog with ID {} found. Deleting old log and associated entries...", oldLog.getId());
+            // Lock it like every change of its food items, and read it again under the lock,
+            // so that the totals taken out below include a food item added after it was found
+            entityManager.detach(found);
+            NutritionLog oldLog = nutritionLogRepository.findByIdForUpdate(found.getId())
+                    .orElseThrow(() -> new EntityNotFoundException("NutritionLog not found with ID: " + found.getId()));
 
-            // Remove all NutritionLogFoodItem entries related to this log
+            // Take its totals out of the history before the log and its food item entries are deleted
+            nutritionHistoryService.logDeleted(oldLog);
             nutritionLogFoodItemRepository.deleteByNutritionLog(oldLog);
-
-            // Delete the old NutritionLog
             nutritionLogRepository.delete(oldLog);
+            // Hibernate would insert the new log before deleting this one, violating the unique index on user and day
+            nutritionLogRepository.flush();
+            coverageStreamService.logDeleted(oldLog.getId());
             log.info("🗑️ Old NutritionLog and its food item entries successfully deleted.");
         }
 
         // Create a new NutritionLog for the user
         NutritionLog newLog = NutritionLog.builder()
                 .user(user)
+                .logDate(logDate)
                 .build();
 
         // Save the new NutritionLog
@@ -174,7 +444,8 @@ public class NutritionLogService {
             throw new IllegalStateException("Error saving NutritionLog.");
         }
 
-        log.info("Successfully created new NutritionLog with ID: {}", savedLog.getId());
+        nutritionHistoryService.logCreated(savedLog);
+        log.info("Successfully created new NutritionLog with ID: {} for {}", savedLog.getId(), logDate);
 
         return savedLog;
     }
@@ -186,7 +457,7 @@ public class NutritionLogService {
      */
     @Transactional(readOnly = true)
     public Optional<NutritionLogDTO> getLatestNutritionLog() {
-        return nutritionLogRepository.findTopByOrderByIdDesc()
+        return nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc()
                 .map(NutritionLogDTO::new); // Convert NutritionLog to NutritionLogDTO if present
     }
 
@@ -197,7 +468,7 @@ public class NutritionLogService {
      */
     @Transactional(readOnly = true)
     public Optional<NutritionLog> getLatestNutritionLogEntity() {
-        return nutritionLogRepository.findTopByOrderByIdDesc(); // Returns the entity directly
+        return nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc(); // Returns the entity directly
     }
 }
 
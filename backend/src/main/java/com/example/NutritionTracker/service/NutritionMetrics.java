@@ -0,0 +1,135 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.entity.NutritionLog;
+import io.micrometer.core.instrument.*;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application specific metrics: food item additions and removals, nutrition log sizes,
+ * retried log changes, optimistic lock failures, the amino acid requirement cache, the coalescing
+ * of amino acid computations and the coverage streams.
+ * Timers for the services are recorded separately via {@code @Timed}.
+ */
+@Component
+public class NutritionMetrics {
+
+    private static final String REQUIREMENT_CACHE = "amino_acid_requirements";
+
+    private final MeterRegistry registry;
+    private final Counter foodItemsAdded;
+    private final Counter foodItemsRemoved;
+    private final DistributionSummary logSize;
+    private final Counter logChangeRetries;
+
+    public NutritionMetrics(MeterRegistry registry, AminoAcidRequirementCache requirementCache, SingleFlight singleFlight,
+                            CoverageStreamService coverageStreams) {
+        this.registry = registry;
+
+        this.foodItemsAdded = Counter.builder("nutrition.log.food_items.added")
+                .description("Food items added to nutrition logs")
+                .register(registry);
+        this.foodItemsRemoved = Counter.builder("nutrition.log.food_items.removed")
+                .description("Food items removed from nutrition logs")
+                .register(registry);
+        this.logChangeRetries = Counter.builder("nutrition.log.change.retries")
+                .description("Changes of nutrition log entries run again after colliding with a concurrent change")
+                .register(registry);
+        this.logSize = DistributionSummary.builder("nutrition.log.size")
+                .description("Number of food items in a nutrition log after a change")
+                .baseUnit("items")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+
+        FunctionCounter.builder("nutrition.cache.gets", requirementCache, AminoAcidRequirementCache::getHitCount)
+                .description("Accesses to an in-memory cache")
+                .tags("cache", REQUIREMENT_CACHE, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("nutrition.cache.gets", requirementCache, AminoAcidRequirementCache::getMissCount)
+                .description("Accesses to an in-memory cache")
+                .tags("cache", REQUIREMENT_CACHE, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("nutrition.cache.reloads", requirementCache, AminoAcidRequirementCache::getReloadCount)
+                .description("Loads of an in-memory cache from the database")
+                .tag("cache", REQUIREMENT_CACHE)
+                .register(registry);
+        FunctionCounter.builder("nutrition.cache.invalidations", requirementCache, AminoAcidRequirementCache::getInvalidationCount)
+                .description("Invalidations of an in-memory cache after writes")
+                .tag("cache", REQUIREMENT_CACHE)
+                .register(registry);
+        Gauge.builder("nutrition.cache.hit.ratio", requirementCache, NutritionMetrics::hitRatio)
+                .description("Share of cache accesses served from memory")
+                .tag("cache", REQUIREMENT_CACHE)
+                .register(registry);
+
+        FunctionCounter.builder("nutrition.single_flight.calls", singleFlight, SingleFlight::getComputedCount)
+                .description("Amino acid computations requested, by whether the caller computed or joined a running one")
+                .tag("result", "computed")
+                .register(registry);
+        FunctionCounter.builder("nutrition.single_flight.calls", singleFlight, SingleFlight::getJoinedCount)
+                .description("Amino acid computations requested, by whether the caller computed or joined a running one")
+                .tag("result", "joined")
+                .register(registry);
+        Gauge.builder("nutrition.single_flight.coalescing.ratio", singleFlight, NutritionMetrics::coalescingRatio)
+                .description("Share of amino acid computations served by a computation of another caller")
+                .register(registry);
+
+        Gauge.builder("nutrition.coverage_stream.subscribers", coverageStreams, CoverageStreamService::getSubscriberCount)
+                .description("Open coverage streams")
+                .register(registry);
+        FunctionCounter.builder("nutrition.coverage_stream.events", coverageStreams, CoverageStreamService::getSentCount)
+                .description("Coverage stream events sent")
+                .register(registry);
+        FunctionCounter.builder("nutrition.coverage_stream.dropped", coverageStreams, CoverageStreamService::getDroppedCount)
+                .description("Coverage streams dropped because the client fell too far behind or a send timed out")
+                .register(registry);
+    }
+
+    /**
+     * Records that food items were added to the given log.
+     *
+     * @param nutritionLog The log after the change.
+     * @param count        The number of added food items.
+     */
+    public void foodItemsAdded(NutritionLog nutritionLog, int count) {
+        foodItemsAdded.increment(count);
+        logSize.record(nutritionLog.getAminoAcidTotals().getItemCount());
+    }
+
+    /**
+     * Records that a food item was removed from the given log.
+     *
+     * @param nutritionLog The log after the change.
+     */
+    public void foodItemRemoved(NutritionLog nutritionLog) {
+        foodItemsRemoved.increment();
+        logSize.record(nutritionLog.getAminoAcidTotals().getItemCount());
+    }
+
+    /**
+     * Records that a change of the entries of a log collided with a concurrent change and is run again.
+     */
+    public void logChangeRetried() {
+        logChangeRetries.increment();
+    }
+
+    /**
+     * Records a failed write because another transaction changed the same versioned entity.
+     *
+     * @param entity The simple name of the entity class, or "unknown".
+     */
+    public void optimisticLockFailure(String entity) {
+        registry.counter("nutrition.optimistic_lock.failures", "entity", entity).increment();
+    }
+
+    private static double coalescingRatio(SingleFlight singleFlight) {
+        long joined = singleFlight.getJoinedCount();
+        long total = joined + singleFlight.getComputedCount();
+        return total == 0 ? 0.0 : (double) joined / total;
+    }
+
+    private static double hitRatio(AminoAcidRequirementCache cache) {
+        long hits = cache.getHitCount();
+        long total = hits + cache.getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
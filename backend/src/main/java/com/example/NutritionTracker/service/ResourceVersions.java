@@ -0,0 +1,115 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogVersionView;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Derives the strong ETags of the reads of the current user, the latest log and its amino acid profile
+ * from the versions of everything they are computed from, so that a conditional request can be answered
+ * with 304 Not Modified before any of it is loaded or aggregated.
+ *
+ * The latest log is identified by its ID, {@code version} and {@code revision}, read with one indexed lookup;
+ * the user comes from the {@link CurrentUserResolver}, the requirements from the generation of the
+ * {@link AminoAcidRequirementCache} and the food items from the {@link FoodCatalogVersion}, all without a query.
+ * The in-memory parts restart with the application, so the tags include its start time.
+ * A tag is derived before the response is computed; a change in between only costs the client one more full response.
+ */
+@Component
+public class ResourceVersions {
+
+    private final NutritionLogRepository nutritionLogRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final AminoAcidRequirementCache requirementCache;
+    private final FoodCatalogVersion foodCatalogVersion;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Constructs the resource versions on top of the sources of the versions.
+     *
+     * @param nutritionLogRepository The repository providing the versions of the latest log.
+     * @param currentUserResolver    The resolver holding the current user.
+     * @param requirementCache       The cache of the amino acid requirements.
+     * @param foodCatalogVersion     The version of the food catalog.
+     */
+    public ResourceVersions(NutritionLogRepository nutritionLogRepository,
+                            CurrentUserResolver currentUserResolver,
+                            AminoAcidRequirementCache requirementCache,
+                            FoodCatalogVersion foodCatalogVersion) {
+        this.nutritionLogRepository = nutritionLogRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.requirementCache = requirementCache;
+        this.foodCatalogVersion = foodCatalogVersion;
+    }
+
+    /**
+     * Returns the ETag of the current user as returned by {@code /user-data/current}.
+     *
+     * @param user The current user.
+     * @return The ETag, including the quotes.
+     */
+    public String getUserETag(UserDTO user) {
+        return "\"user-" + userVersion(user) + "\"";
+    }
+
+    /**
+     * Returns the ETag of the latest log as returned by {@code /nutrition-logs/latest}: its ID and versions.
+     *
+     * @return The ETag, including the quotes, or empty if there is no log.
+     */
+    public Optional<String> getLatestLogETag() {
+        return findLatestLogVersion().map(latestLog -> "\"log-" + logVersion(latestLog) + "\"");
+    }
+
+    /**
+     * Returns the ETag of the daily needs of the current user.
+     *
+     * @return The ETag, including the quotes.
+     * @throws EntityNotFoundException If there is no user.
+     */
+    public String getDailyNeedsETag() {
+        return "\"daily-needs-" + userVersion(loadUser()) + "-" + requirementsVersion() + "\"";
+    }
+
+    /**
+     * Returns the ETag of a read computed from the latest log, the daily needs of the current user and the food items.
+     *
+     * @param resource The name of the read, e.g. {@code summary}.
+     * @return The ETag, including the quotes.
+     * @throws EntityNotFoundException If there is no user or no log.
+     */
+    public String getAminoProfileETag(String resource) {
+        UserDTO user = loadUser();
+        NutritionLogVersionView latestLog = findLatestLogVersion()
+                .orElseThrow(() -> new EntityNotFoundException("No NutritionLog found!"));
+        String catalog = foodCatalogVersion.getETag();
+        return "\"" + resource + "-" + logVersion(latestLog) + "-" + userVersion(user) + "-" + requirementsVersion()
+                + "-" + catalog.substring(1, catalog.length() - 1) + "\"";
+    }
+
+    private Optional<NutritionLogVersionView> findLatestLogVersion() {
+        return nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc(NutritionLogVersionView.class);
+    }
+
+    private UserDTO loadUser() {
+        return currentUserResolver.getCurrentUser()
+                .orElseThrow(() -> new EntityNotFoundException("No user found"));
+    }
+
+    private static String logVersion(NutritionLogVersionView nutritionLog) {
+        return nutritionLog.getId() + "." + nutritionLog.getVersion() + "." + nutritionLog.getRevision();
+    }
+
+    private static String userVersion(UserDTO user) {
+        return user.getId() + "." + user.getVersion();
+    }
+
+    private String requirementsVersion() {
+        return "req." + epoch + "." + requirementCache.getInvalidationCount();
+    }
+}
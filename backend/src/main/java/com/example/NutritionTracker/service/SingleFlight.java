@@ -0,0 +1,103 @@
+package com.example.NutritionTracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent computations: while a computation for a key is running, further callers
+ * with the same key wait for it and get its result instead of computing it again. Nothing is kept once the
+ * computation is done, so the next caller computes afresh; the key must therefore name everything the result
+ * depends on, e.g. the versions of the entities it is computed from.
+ * Turned off with {@code nutrition.single-flight.enabled=false}, in which case every caller computes on its own.
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Constructs the single-flight layer.
+     *
+     * @param enabled Whether concurrent callers with the same key share one computation.
+     */
+    public SingleFlight(@Value("${nutrition.single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the result of the computation for the given key, joining a running one if there is one.
+     * A failure of the computation is thrown to every caller waiting for it. The result is shared by all
+     * of them and must not be modified.
+     *
+     * @param key         The key naming the computation and everything its result depends on.
+     * @param computation The computation, run by the first caller only.
+     * @param <T>         The type of the result.
+     * @return The result of the computation.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T run(Object key, Supplier<T> computation) {
+        if (!enabled) {
+            computed.increment();
+            return computation.get();
+        }
+
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            joined.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        computed.increment();
+        try {
+            T result = computation.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Returns the number of computations that were run.
+     *
+     * @return The number of callers that computed a result themselves.
+     */
+    public long getComputedCount() {
+        return computed.sum();
+    }
+
+    /**
+     * Returns the number of callers that got the result of a computation run by another caller.
+     *
+     * @return The number of coalesced callers.
+     */
+    public long getJoinedCount() {
+        return joined.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.NutritionTracker.service;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.NutritionLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the amino acid sums from the running {@link AminoAcidTotals} of the log.
+ * Needs no further query, as the totals are maintained on every change of the log.
+ */
+@Component
+@ConditionalOnProperty(name = "nutrition.amino.aggregation", havingValue = "totals", matchIfMissing = true)
+public class TotalsAminoSumStrategy implements AminoSumStrategy {
+
+    @Override
+    public AminoMilligrams sumFor(NutritionLog nutritionLog) {
+        AminoAcidTotals totals = nutritionLog.getAminoAcidTotals();
+        if (totals == null || totals.getItemCount() == 0) {
+            return AminoMilligrams.empty();
+        }
+        return totals.toMilligrams();
+    }
+}
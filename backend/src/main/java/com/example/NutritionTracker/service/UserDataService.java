@@ -4,10 +4,10 @@ import com.example.NutritionTracker.dto.UserDTO;
 import com.example.NutritionTracker.dto.UserDataDTO;
 import com.example.NutritionTracker.entity.User;
 import com.example.NutritionTracker.repo.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -16,32 +16,24 @@ import java.util.Optional;
  */
 @Slf4j
 @Service
+@Timed("nutrition.service")
 public class UserDataService {
 
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
-    public UserDataService(UserRepository userRepository) {
+    public UserDataService(UserRepository userRepository, CurrentUserResolver currentUserResolver) {
         this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
     }
 
     /**
-     * Retrieves the first available user from the database.
+     * Retrieves the current user, served from the {@link CurrentUserResolver} cache.
      *
      * @return An Optional containing the user as a DTO, or empty if no user exists.
      */
-    @Transactional(readOnly = true)
     public Optional<UserDTO> getUser() {
-        return userRepository.findAll().stream()
-                .findFirst()
-                .map(user -> UserDTO.builder()
-                        .id(user.getId())
-                        .name(user.getName())
-                        .age(user.getAge())
-                        .weight(user.getWeight())
-                        .isAthlete(user.getIsAthlete())
-                        .isVegan(user.getIsVegan())
-                        .isLongevityFocused(user.getIsLongevityFocused())
-                        .build());
+        return currentUserResolver.getCurrentUser();
     }
 
     /**
@@ -58,7 +50,7 @@ public class UserDataService {
                 userDataDTO.getIsAthlete(), userDataDTO.getIsVegan(), userDataDTO.getIsLongevityFocused());
 
         // Load the existing user from the database
-        User user = userRepository.findAll().stream().findFirst()
+        User user = currentUserResolver.findCurrentUser()
                 .orElseThrow(() -> new EntityNotFoundException("No user found in the database."));
 
         log.info("Existing user before update: {}", user);
@@ -83,6 +75,7 @@ public class UserDataService {
 
         // Save the updated user
         User savedUser = userRepository.save(user);
+        currentUserResolver.remember(savedUser);
 
         // Log after saving
         log.info("Saved user: {}", savedUser);
@@ -20,6 +20,7 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     /**
      * Deletes all users from the database before application shutdown.
@@ -28,6 +29,7 @@ public class UserService {
     public void cleanup() {
         log.info("Cleaning up database before shutdown...");
         userRepository.deleteAll();
+        currentUserResolver.forget();
         log.info("All users deleted.");
     }
 
@@ -43,25 +45,15 @@ public class UserService {
         if (userRepository.count() > 0) {
             throw new IllegalStateException("A user already exists. Only one user is allowed.");
         }
-        userRepository.save(user);
+        currentUserResolver.remember(userRepository.save(user));
     }
 
     /**
-     * Retrieves the first available user from the database.
+     * Retrieves the current user, served from the {@link CurrentUserResolver} cache.
      *
      * @return An Optional containing the user as a DTO, or empty if no user exists.
      */
-    @Transactional(readOnly = true)
     public Optional<UserDTO> getSingleUser() {
-        return userRepository.findAll().stream().findFirst()
-                .map(user -> new UserDTO(
-                        user.getId(),
-                        user.getName(),
-                        user.getAge(),
-                        user.getWeight(),
-                        user.getIsAthlete(),
-                        user.getIsVegan(),
-                        user.getIsLongevityFocused()
-                ));
+        return currentUserResolver.getCurrentUser();
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+-- Upgrades a PostgreSQL database created by the first release to the current schema, which the
+-- integration-test profile only validates (ddl-auto: validate). Run it once, with the application stopped:
+--
+--   psql -d nutrition_tracker -v ON_ERROR_STOP=1 -f upgrade-postgresql.sql
+--
+-- then start the application once with --nutrition.totals.rebuild=true to fill the running totals of the logs
+-- and the history rollups from their food items. The statements may be run again on an upgraded database.
+--
+-- The first release kept no date per log. Every existing log is dated the day of the upgrade; of several logs
+-- of one user, the one with the most food items is kept and the food items of the others are moved into it.
+-- Entries of the same food item in one log are merged into one entry with the sum of their portions.
+
+BEGIN;
+
+-- Logs: creation time, day, revision and running totals in whole milligrams
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS created_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS log_date DATE DEFAULT CURRENT_DATE NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS revision BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_item_count INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_lysin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_leucin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_isoleucin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_valin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_methionin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_phenylalanin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_threonin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_tryptophan_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_histidin_mg BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE nutrition_log ADD COLUMN IF NOT EXISTS total_glycin_mg BIGINT DEFAULT 0 NOT NULL;
+
+-- Gram totals of development databases updated by Hibernate before the totals were kept in milligrams
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_lysin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_leucin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_isoleucin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_valin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_methionin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_phenylalanin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_threonin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_tryptophan;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_histidin;
+ALTER TABLE nutrition_log DROP COLUMN IF EXISTS total_glycin;
+
+-- Log entries: the eaten portion, 100 g for the entries of the first release
+ALTER TABLE nutrition_log_food_item ADD COLUMN IF NOT EXISTS amount_mg BIGINT DEFAULT 100000 NOT NULL;
+
+-- One log per user and day: keep the log with the most food items and move the others' food items into it
+CREATE TEMPORARY TABLE kept_log ON COMMIT DROP AS
+SELECT DISTINCT ON (nl.user_id, nl.log_date) nl.user_id, nl.log_date, nl.id, count(item.id) AS item_count
+FROM nutrition_log nl
+LEFT JOIN nutrition_log_food_item item ON item.nutrition_log_id = nl.id
+GROUP BY nl.user_id, nl.log_date, nl.id
+ORDER BY nl.user_id, nl.log_date, item_count DESC, nl.id DESC;
+
+UPDATE nutrition_log_food_item item
+SET nutrition_log_id = (SELECT kept.id
+                        FROM nutrition_log nl
+                        JOIN kept_log kept ON kept.user_id = nl.user_id AND kept.log_date = nl.log_date
+                        WHERE nl.id = item.nutrition_log_id)
+WHERE NOT EXISTS (SELECT 1 FROM kept_log kept WHERE kept.id = item.nutrition_log_id);
+
+DELETE FROM nutrition_log nl
+WHERE NOT EXISTS (SELECT 1 FROM kept_log kept WHERE kept.id = nl.id);
+
+-- One entry per log and food item: keep the first entry with the sum of the portions
+CREATE TEMPORARY TABLE kept_log_food_item ON COMMIT DROP AS
+SELECT DISTINCT ON (item.nutrition_log_id, item.food_item_id) item.id,
+       sum(item.amount_mg) OVER (PARTITION BY item.nutrition_log_id, item.food_item_id) AS amount_mg
+FROM nutrition_log_food_item item
+ORDER BY item.nutrition_log_id, item.food_item_id, item.id;
+
+DELETE FROM nutrition_log_food_item item
+WHERE NOT EXISTS (SELECT 1 FROM kept_log_food_item kept WHERE kept.id = item.id);
+
+UPDATE nutrition_log_food_item item
+SET amount_mg = (SELECT kept.amount_mg FROM kept_log_food_item kept WHERE kept.id = item.id)
+WHERE EXISTS (SELECT 1 FROM kept_log_food_item kept WHERE kept.id = item.id AND kept.amount_mg <> item.amount_mg);
+
+-- Constraints and indexes
+ALTER TABLE nutrition_log_food_item DROP CONSTRAINT IF EXISTS uk_nutrition_log_food_item_log_food;
+ALTER TABLE nutrition_log_food_item
+    ADD CONSTRAINT uk_nutrition_log_food_item_log_food UNIQUE (nutrition_log_id, food_item_id);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_nutrition_log_user_log_date ON nutrition_log (user_id, log_date);
+CREATE INDEX IF NOT EXISTS idx_nutrition_log_log_date ON nutrition_log (log_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_food_item_name_id ON food_item (name, id);
+
+-- Intake per user and day, ISO week and month, filled by the rebuild
+CREATE TABLE IF NOT EXISTS amino_acid_rollup (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    period VARCHAR(5) NOT NULL CHECK (period IN ('DAY', 'WEEK', 'MONTH')),
+    period_start DATE NOT NULL,
+    logged_days INTEGER DEFAULT 0 NOT NULL,
+    total_item_count INTEGER DEFAULT 0 NOT NULL,
+    total_lysin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_leucin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_isoleucin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_valin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_methionin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_phenylalanin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_threonin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_tryptophan_mg BIGINT DEFAULT 0 NOT NULL,
+    total_histidin_mg BIGINT DEFAULT 0 NOT NULL,
+    total_glycin_mg BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_amino_acid_rollup_user_period_start UNIQUE (user_id, period, period_start)
+);
+
+-- Progress of the food imports, to resume a failed import
+CREATE TABLE IF NOT EXISTS food_import_checkpoint (
+    source VARCHAR(255) NOT NULL,
+    rows_committed BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_rejected BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (source)
+);
+
+COMMIT;
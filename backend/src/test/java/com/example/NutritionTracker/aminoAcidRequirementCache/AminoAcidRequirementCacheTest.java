@@ -0,0 +1,77 @@
+package com.example.NutritionTracker.aminoAcidRequirementCache;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
+import com.example.NutritionTracker.service.AminoAcidRequirementCacheInvalidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a surrounding test transaction, so that repository writes commit
+ * and the cache invalidation after completion can be observed.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AminoAcidRequirementCache.class, AminoAcidRequirementCacheInvalidator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AminoAcidRequirementCacheTest {
+
+    @Autowired
+    private AminoAcidRequirementCache cache;
+
+    @Autowired
+    private AminoAcidRequirementRepository aminoAcidRequirementRepository;
+
+    @AfterEach
+    void tearDown() {
+        aminoAcidRequirementRepository.deleteAll();
+    }
+
+    @Test
+    void testRequirementsAreLoadedOnce() {
+        aminoAcidRequirementRepository.save(new AminoAcidRequirement("Lysin", 30.0));
+        long reloadsBefore = cache.getReloadCount();
+        long hitsBefore = cache.getHitCount();
+
+        AminoVector first = cache.getRequirementsPerKg();
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, cache.getRequirementsPerKg());
+        }
+
+        assertEquals(30.0, first.get(LYSIN), 1e-9);
+        assertEquals(reloadsBefore + 1, cache.getReloadCount());
+        assertEquals(hitsBefore + 10, cache.getHitCount());
+    }
+
+    @Test
+    void testSaveAndDeleteInvalidateSnapshot() {
+        AminoAcidRequirement lysin = aminoAcidRequirementRepository.save(new AminoAcidRequirement("Lysin", 30.0));
+        assertFalse(cache.getRequirementsPerKg().isPresent(LEUCIN));
+
+        long invalidationsBefore = cache.getInvalidationCount();
+        aminoAcidRequirementRepository.save(new AminoAcidRequirement("Leucin", 39.0));
+        assertEquals(invalidationsBefore + 1, cache.getInvalidationCount());
+        assertEquals(39.0, cache.getRequirementsPerKg().get(LEUCIN), 1e-9);
+
+        lysin.setBaseAmountPerKg(32.0);
+        aminoAcidRequirementRepository.save(lysin);
+        assertEquals(32.0, cache.getRequirementsPerKg().get(LYSIN), 1e-9);
+
+        aminoAcidRequirementRepository.delete(lysin);
+        assertFalse(cache.getRequirementsPerKg().isPresent(LYSIN));
+        assertEquals(invalidationsBefore + 3, cache.getInvalidationCount());
+    }
+}
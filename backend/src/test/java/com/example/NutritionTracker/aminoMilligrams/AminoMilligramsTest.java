@@ -0,0 +1,89 @@
+package com.example.NutritionTracker.aminoMilligrams;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.amino.Milligrams;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.FoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the fixed-point milligram arithmetic used for consumption and requirements.
+ */
+class AminoMilligramsTest {
+
+    @Test
+    void testRoundingIsHalfAwayFromZero() {
+        assertEquals(500, Milligrams.scale(333, 150_000)); // 499.5 mg
+        assertEquals(111, Milligrams.scale(333, 33_333)); // 110.99 mg
+        assertEquals(-500, Milligrams.scale(-333, 150_000));
+        assertEquals(3, Milligrams.multiply(2, 1.25)); // 2.5 mg
+        assertEquals(-3, Milligrams.multiply(-2, 1.25));
+        assertEquals(33.33, Milligrams.percent(1, 3), 0.0);
+        assertEquals(1234, Milligrams.fromGrams(1.234));
+        assertEquals(63, Milligrams.fromGrams(0.0625)); // 62.5 mg
+        assertEquals(-63, Milligrams.fromGrams(-0.0625));
+        assertEquals(1.234, Milligrams.toGrams(1234), 0.0);
+    }
+
+    @Test
+    void testSumsDoNotDependOnTheSummationOrder() {
+        Random random = new Random(42);
+        List<Map<String, Double>> profiles = new ArrayList<>();
+        List<Long> portions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            profiles.add(Map.of("Lysin", random.nextDouble() * 3, "Leucin", random.nextDouble() / 7));
+            portions.add(1 + (long) random.nextInt(1_000_000));
+        }
+
+        AminoMilligrams expected = sum(profiles, portions);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < profiles.size(); i++) {
+            order.add(i);
+        }
+        for (int round = 0; round < 5; round++) {
+            Collections.shuffle(order, random);
+            List<Map<String, Double>> shuffledProfiles = new ArrayList<>();
+            List<Long> shuffledPortions = new ArrayList<>();
+            for (int i : order) {
+                shuffledProfiles.add(profiles.get(i));
+                shuffledPortions.add(portions.get(i));
+            }
+            assertEquals(expected, sum(shuffledProfiles, shuffledPortions));
+        }
+    }
+
+    @Test
+    void testRemovingAPortionRestoresTheTotals() {
+        FoodItem tofu = FoodItem.builder().name("Tofu").aminoAcidProfile(Map.of("Lysin", 0.777, "Glycin", 0.1)).build();
+        FoodItem beans = FoodItem.builder().name("Beans").aminoAcidProfile(Map.of("Lysin", 0.333)).build();
+
+        AminoAcidTotals totals = new AminoAcidTotals();
+        totals.addFood(tofu, 12_345);
+        AminoMilligrams before = totals.toMilligrams();
+
+        totals.addFood(beans, 33_333);
+        totals.removeFood(beans, 33_333);
+
+        assertEquals(before, totals.toMilligrams());
+        assertEquals(96, totals.getMilligrams(LYSIN)); // 0.777 g * 12.345 g / 100 g = 95.92 mg
+        assertEquals(0.096, totals.get(LYSIN), 0.0);
+        assertEquals(1, totals.getItemCount());
+    }
+
+    private static AminoMilligrams sum(List<Map<String, Double>> profiles, List<Long> portions) {
+        AminoMilligrams sum = AminoMilligrams.empty();
+        for (int i = 0; i < profiles.size(); i++) {
+            sum.addScaled(profiles.get(i), portions.get(i));
+        }
+        return sum;
+    }
+}
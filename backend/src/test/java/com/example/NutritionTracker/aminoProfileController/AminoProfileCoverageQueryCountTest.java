@@ -0,0 +1,104 @@
+package com.example.NutritionTracker.aminoProfileController;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionLogService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 queries: the number of statements for {@code /amino-profile/coverage}
+ * must not grow from 5 to 55 food items in the log. Runs the in-memory strategy,
+ * as it is the one that loads food items and profiles. The second-level cache is off, as it would serve
+ * the food items and profiles loaded while filling the log and hide any N+1 queries.
+ */
+@SpringBootTest(properties = {
+        "nutrition.amino.aggregation=jvm",
+        "nutrition.second-level-cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AminoProfileCoverageQueryCountTest {
+
+    private static final int FEW_ITEMS = 5;
+    private static final int MANY_ITEMS = 55;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Test
+    void testCoverageStatementCountIsIndependentOfItemCount() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        // A food item is part of a log at most once, so the seeded catalog is too small for the larger log
+        List<FoodItem> foods = new ArrayList<>();
+        for (int i = 0; i < MANY_ITEMS; i++) {
+            foods.add(FoodItem.builder().name("Query Count Test " + i)
+                    .aminoAcidProfile(Map.of("Lysin", 0.01 * (i + 1), "Leucin", 1.0)).build());
+        }
+        foods = foodItemRepository.saveAll(foods);
+        try {
+            // Warm up caches that are loaded once, e.g. the amino acid requirements
+            countCoverageStatements();
+
+            addFoodItems(latestLog, foods.subList(0, FEW_ITEMS));
+            long statementsWithFewItems = countCoverageStatements();
+
+            addFoodItems(latestLog, foods.subList(FEW_ITEMS, MANY_ITEMS));
+            assertEquals(MANY_ITEMS, nutritionLogRepository.findWithFoodItemsById(latestLog.getId()).orElseThrow()
+                    .getFoodItems().stream().filter(item -> item.getFoodItem().getName().startsWith("Query Count Test")).count());
+            long statementsWithManyItems = countCoverageStatements();
+
+            assertTrue(statementsWithFewItems > 0);
+            assertEquals(statementsWithFewItems, statementsWithManyItems,
+                    "Statement count for /amino-profile/coverage grows with the number of food items");
+        } finally {
+            for (FoodItem food : foods) {
+                nutritionLogService.removeFoodItemFromLog(latestLog.getId(), food.getId());
+            }
+            foodItemRepository.deleteAll(foods);
+        }
+    }
+
+    private void addFoodItems(NutritionLog nutritionLog, List<FoodItem> foods) {
+        for (FoodItem food : foods) {
+            nutritionLogService.addFoodItemToLog(nutritionLog.getId(), food.getId());
+        }
+    }
+
+    private long countCoverageStatements() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(post("/amino-profile/coverage")).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.NutritionTracker.aminoProfileController;
+
+import com.example.NutritionTracker.dto.AminoProfileSummaryDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@code /amino-profile/summary} answers with the same values as the sum, daily needs
+ * and coverage endpoints together, with fewer statements than the three of them.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AminoProfileSummaryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Test
+    void testSummaryMatchesTheSingleEndpoints() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        List<FoodItem> foods = foodItemRepository.findAll();
+        for (FoodItem food : foods.subList(0, Math.min(3, foods.size()))) {
+            nutritionLogService.addFoodItemToLog(latestLog.getId(), food.getId(), 150);
+        }
+
+        // Warm up caches that are loaded once, e.g. the amino acid requirements
+        perform(get("/amino-profile/summary"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, Double> sums = readMap(perform(post("/amino-profile/sum")));
+        Map<String, Double> dailyNeeds = readMap(perform(get("/amino-profile/daily-needs")));
+        Map<String, Double> coverage = readMap(perform(post("/amino-profile/coverage")));
+        long separateStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        AminoProfileSummaryDTO summary = objectMapper.readValue(perform(get("/amino-profile/summary")), AminoProfileSummaryDTO.class);
+        long summaryStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(latestLog.getId(), summary.getNutritionLogId());
+        assertFalse(sums.isEmpty());
+        assertEquals(sums, summary.getAminoAcidSums());
+        assertEquals(dailyNeeds, summary.getDailyNeeds());
+        assertEquals(coverage, summary.getCoverage());
+        assertTrue(summaryStatements < separateStatements,
+                "the summary took " + summaryStatements + " statements, the three endpoints " + separateStatements);
+    }
+
+    private String perform(RequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+
+    private Map<String, Double> readMap(String json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+}
@@ -1,19 +1,27 @@
 package com.example.NutritionTracker.aminoProfileService;
 
+import com.example.NutritionTracker.amino.AminoVector;
 import com.example.NutritionTracker.entity.FoodItem;
 import com.example.NutritionTracker.entity.NutritionLog;
 import com.example.NutritionTracker.entity.NutritionLogFoodItem;
 import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.NutritionLogVersionView;
 import com.example.NutritionTracker.service.AminoProfileService;
+import com.example.NutritionTracker.service.AminoSumStrategy;
+import com.example.NutritionTracker.service.SingleFlight;
+import com.example.NutritionTracker.service.TotalsAminoSumStrategy;
 import com.example.NutritionTracker.service.UserDataService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.*;
 
+import static com.example.NutritionTracker.amino.AminoAcid.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +37,15 @@ class AminoProfileServiceTest {
     @Mock
     private NutritionLogRepository nutritionLogRepository;
 
+    @Spy
+    private AminoSumStrategy aminoSumStrategy = new TotalsAminoSumStrategy();
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(true);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Test
     void testCalculateAminoAcidSumsForLatestLog() {
         // Create two sample amino acid profiles for two food items
@@ -74,24 +91,32 @@ class AminoProfileServiceTest {
                 .foodItems(List.of(logItem1, logItem2))
                 .build();
 
-        // Mock repository behavior to return the created NutritionLog
-        when(nutritionLogRepository.findTopByOrderByIdDesc()).thenReturn(Optional.of(log));
+        // Keep the running totals in sync, as NutritionLogService does when food items are added
+        log.getAminoAcidTotals().addFood(food1);
+        log.getAminoAcidTotals().addFood(food2);
+
+        // Mock repository behavior to return the created NutritionLog and its versions
+        NutritionLogVersionView version = mock(NutritionLogVersionView.class);
+        when(version.getId()).thenReturn(log.getId());
+        when(nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc(NutritionLogVersionView.class))
+                .thenReturn(Optional.of(version));
+        when(nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc()).thenReturn(Optional.of(log));
 
         // Call the method under test
-        Map<String, Double> result = aminoProfileService.calculateAminoAcidSumsForLatestLog();
+        AminoVector result = aminoProfileService.calculateAminoAcidSumsForLatestLog();
 
         // Assert that all amino acid sums are correct
         assertAll(
-                () -> assertEquals(1.6, result.get("Lysin"), 0.0001),
-                () -> assertEquals(3.8, result.get("Leucin"), 0.0001),
-                () -> assertEquals(2.5, result.get("Isoleucin"), 0.0001),
-                () -> assertEquals(2.1, result.get("Valin"), 0.0001),
-                () -> assertEquals(1.3, result.get("Methionin"), 0.0001),
-                () -> assertEquals(2.3, result.get("Phenylalanin"), 0.0001),
-                () -> assertEquals(2.1, result.get("Threonin"), 0.0001),
-                () -> assertEquals(1.3, result.get("Tryptophan"), 0.0001),
-                () -> assertEquals(1.9, result.get("Histidin"), 0.0001),
-                () -> assertEquals(2.5, result.get("Glycin"), 0.0001)
+                () -> assertEquals(1.6, result.get(LYSIN), 0.0001),
+                () -> assertEquals(3.8, result.get(LEUCIN), 0.0001),
+                () -> assertEquals(2.5, result.get(ISOLEUCIN), 0.0001),
+                () -> assertEquals(2.1, result.get(VALIN), 0.0001),
+                () -> assertEquals(1.3, result.get(METHIONIN), 0.0001),
+                () -> assertEquals(2.3, result.get(PHENYLALANIN), 0.0001),
+                () -> assertEquals(2.1, result.get(THREONIN), 0.0001),
+                () -> assertEquals(1.3, result.get(TRYPTOPHAN), 0.0001),
+                () -> assertEquals(1.9, result.get(HISTIDIN), 0.0001),
+                () -> assertEquals(2.5, result.get(GLYCIN), 0.0001)
         );
     }
 }
\ No newline at end of file
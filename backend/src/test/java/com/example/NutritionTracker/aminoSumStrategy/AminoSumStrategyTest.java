@@ -0,0 +1,137 @@
+package com.example.NutritionTracker.aminoSumStrategy;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.entity.*;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.UserRepository;
+import com.example.NutritionTracker.service.AminoSumStrategy;
+import com.example.NutritionTracker.service.DatabaseAminoSumStrategy;
+import com.example.NutritionTracker.service.InMemoryAminoSumStrategy;
+import com.example.NutritionTracker.service.TotalsAminoSumStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AminoSumStrategyTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AminoAcidRequirementRepository aminoAcidRequirementRepository;
+
+    private NutritionLog nutritionLog;
+
+    @BeforeEach
+    void setUp() {
+        aminoAcidRequirementRepository.save(new AminoAcidRequirement("Lysin", 30.0));
+        aminoAcidRequirementRepository.save(new AminoAcidRequirement("Leucin", 39.0));
+        aminoAcidRequirementRepository.save(new AminoAcidRequirement("Histidin", 10.0));
+
+        User user = userRepository.save(User.builder().name("Test").weight(70.0).build());
+
+        FoodItem tofu = foodItemRepository.save(FoodItem.builder().name("Tofu")
+                .aminoAcidProfile(Map.of("Lysin", 1.0, "Leucin", 2.0)).build());
+        FoodItem beans = foodItemRepository.save(FoodItem.builder().name("Beans")
+                .aminoAcidProfile(Map.of("Lysin", 0.5, "Leucin", 1.5, "Glycin", 0.25)).build());
+        // A food item is part of a log at most once, so the second tofu is a food item of its own
+        FoodItem smokedTofu = foodItemRepository.save(FoodItem.builder().name("Smoked Tofu")
+                .aminoAcidProfile(Map.of("Lysin", 1.0, "Leucin", 2.0)).build());
+
+        nutritionLog = NutritionLog.builder().user(user).build();
+        for (FoodItem food : new FoodItem[]{tofu, beans, smokedTofu}) {
+            nutritionLog.getFoodItems().add(NutritionLogFoodItem.builder().nutritionLog(nutritionLog).foodItem(food).build());
+            nutritionLog.getAminoAcidTotals().addFood(food);
+        }
+        nutritionLog = nutritionLogRepository.save(nutritionLog);
+        entityManager.flush();
+        entityManager.clear();
+        nutritionLog = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+    }
+
+    @Test
+    void testAllStrategiesAgreeOnSums() {
+        assertStrategiesAgree(nutritionLog);
+
+        AminoMilligrams database = new DatabaseAminoSumStrategy(nutritionLogRepository).sumFor(nutritionLog);
+        assertEquals(2500, database.get(LYSIN));
+        assertEquals(5500, database.get(LEUCIN));
+        assertEquals(250, database.get(GLYCIN));
+        assertFalse(database.isPresent(VALIN));
+    }
+
+    @Test
+    void testPortionsAreScaledExactlyInEveryStrategy() {
+        // Every entry is scaled and rounded on its own, so the sum does not depend on the summation order
+        NutritionLog portions = NutritionLog.builder().user(nutritionLog.getUser()).logDate(LocalDate.now().minusDays(1)).build();
+        for (long amount : new long[]{33_333, 33_333, 33_334, 150_000}) {
+            FoodItem lentils = foodItemRepository.save(FoodItem.builder().name("Lentils " + amount)
+                    .aminoAcidProfile(Map.of("Lysin", 0.333, "Leucin", 0.1)).build());
+            portions.getFoodItems().add(new NutritionLogFoodItem(portions, lentils, amount));
+            portions.getAminoAcidTotals().addFood(lentils, amount);
+        }
+        portions = nutritionLogRepository.save(portions);
+        entityManager.flush();
+        entityManager.clear();
+        portions = nutritionLogRepository.findById(portions.getId()).orElseThrow();
+
+        assertStrategiesAgree(portions);
+
+        // 111 + 111 + 111 + 500 mg Lysin, 33 + 33 + 33 + 150 mg Leucin
+        AminoMilligrams database = new DatabaseAminoSumStrategy(nutritionLogRepository).sumFor(portions);
+        assertEquals(833, database.get(LYSIN));
+        assertEquals(249, database.get(LEUCIN));
+        assertEquals(0.833, database.toGrams().get(LYSIN), 0.0);
+    }
+
+    private void assertStrategiesAgree(NutritionLog log) {
+        AminoMilligrams database = new DatabaseAminoSumStrategy(nutritionLogRepository).sumFor(log);
+        AminoMilligrams jvm = new InMemoryAminoSumStrategy(nutritionLogRepository).sumFor(log);
+        AminoMilligrams totals = new TotalsAminoSumStrategy().sumFor(log);
+
+        assertEquals(jvm, database);
+
+        // The totals report every amino acid, so compare only the values
+        for (var aminoAcid : values()) {
+            assertEquals(jvm.get(aminoAcid), totals.get(aminoAcid), aminoAcid.name());
+        }
+    }
+
+    @Test
+    void testDatabaseCoverageInputsJoinRequirements() {
+        AminoSumStrategy.CoverageInputs inputs = new DatabaseAminoSumStrategy(nutritionLogRepository)
+                .coverageInputsFor(nutritionLog).orElseThrow();
+
+        assertEquals(30.0, inputs.getRequirementsPerKg().get(LYSIN), 1e-9);
+        assertEquals(10.0, inputs.getRequirementsPerKg().get(HISTIDIN), 1e-9);
+        assertFalse(inputs.getRequirementsPerKg().isPresent(GLYCIN));
+
+        assertEquals(2500, inputs.getConsumed().get(LYSIN));
+        assertEquals(5500, inputs.getConsumed().get(LEUCIN));
+        assertFalse(inputs.getConsumed().isPresent(HISTIDIN));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.NutritionTracker.aminoTotalsConsistencyService;
+
+import com.example.NutritionTracker.dto.AminoTotalsDriftDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.service.AminoTotalsConsistencyService;
+import com.example.NutritionTracker.service.CoverageStreamService;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.*;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AminoTotalsConsistencyServiceTest {
+
+    @InjectMocks
+    private AminoTotalsConsistencyService aminoTotalsConsistencyService;
+
+    @Mock
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Mock
+    private NutritionHistoryService nutritionHistoryService;
+
+    @Mock
+    private CoverageStreamService coverageStreamService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NutritionLog log;
+    private FoodItem lentils;
+
+    @BeforeEach
+    void setUp() {
+        lentils = FoodItem.builder().name("Linsen").aminoAcidProfile(Map.of("Lysin", 1.7, "Leucin", 1.8)).build();
+        FoodItem quinoa = FoodItem.builder().name("Quinoa").aminoAcidProfile(Map.of("Lysin", 0.8, "Leucin", 0.8)).build();
+
+        log = NutritionLog.builder().id(UUID.randomUUID()).build();
+        for (FoodItem food : List.of(lentils, quinoa)) {
+            log.getFoodItems().add(new NutritionLogFoodItem(log, food));
+            log.getAminoAcidTotals().addFood(food);
+        }
+
+        // Lenient, as the paging test replaces it with two pages
+        lenient().when(nutritionLogRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(log)));
+    }
+
+    @Test
+    void testVerifyTotals_ConsistentTotals() {
+        List<AminoTotalsDriftDTO> drifts = aminoTotalsConsistencyService.verifyTotals(false);
+
+        assertTrue(drifts.isEmpty(), "Totals maintained on every add must not drift");
+        verify(nutritionLogRepository, never()).save(any());
+    }
+
+    @Test
+    void testVerifyTotals_ReportsAndRepairsDrift() {
+        // Simulate a lost update: the join entry exists, but the totals were never updated
+        FoodItem soy = FoodItem.builder().name("Sojabohnen").aminoAcidProfile(Map.of("Lysin", 2.7, "Leucin", 3.3)).build();
+        log.getFoodItems().add(new NutritionLogFoodItem(log, soy));
+        long revision = log.getRevision();
+        when(nutritionLogRepository.findByIdForUpdate(log.getId())).thenReturn(Optional.of(log));
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        List<AminoTotalsDriftDTO> drifts = aminoTotalsConsistencyService.verifyTotals(true);
+
+        assertEquals(1, drifts.size());
+        AminoTotalsDriftDTO drift = drifts.get(0);
+        assertEquals(log.getId(), drift.getNutritionLogId());
+        assertEquals(2, drift.getStoredItemCount());
+        assertEquals(3, drift.getActualItemCount());
+        assertEquals(3.3, drift.getMaxDeviation(), 0.0001);
+        assertTrue(drift.isRepaired());
+
+        // The difference is added to the locked log and its rollups; the log is never saved as a whole
+        ArgumentCaptor<AminoAcidTotals> delta = ArgumentCaptor.forClass(AminoAcidTotals.class);
+        verify(nutritionLogRepository).addTotals(eq(log.getId()), delta.capture());
+        assertEquals(1, delta.getValue().getItemCount());
+        assertEquals(2.7, delta.getValue().get(LYSIN), 0.0001);
+        assertEquals(3.3, delta.getValue().get(LEUCIN), 0.0001);
+        verify(nutritionHistoryService).totalsRepaired(log, delta.getValue());
+        verify(nutritionLogRepository, never()).save(any());
+
+        assertEquals(3, log.getAminoAcidTotals().getItemCount());
+        assertEquals(5.2, log.getAminoAcidTotals().get(LYSIN), 0.0001);
+        assertEquals(5.9, log.getAminoAcidTotals().get(LEUCIN), 0.0001);
+        assertEquals(revision + 1, log.getRevision());
+        verify(coverageStreamService).logChanged(log);
+    }
+
+    @Test
+    void testVerifyTotals_RepairSkipsALogThatIsConsistentUnderItsLock() {
+        // The page saw the totals of a concurrent change without its entry; the locked read sees both
+        log.getAminoAcidTotals().addFood(lentils);
+        NutritionLog locked = NutritionLog.builder().id(log.getId()).build();
+        for (NutritionLogFoodItem entry : List.copyOf(log.getFoodItems())) {
+            locked.getFoodItems().add(new NutritionLogFoodItem(locked, entry.getFoodItem()));
+            locked.getAminoAcidTotals().addFood(entry.getFoodItem());
+        }
+        when(nutritionLogRepository.findByIdForUpdate(log.getId())).thenReturn(Optional.of(locked));
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        assertTrue(aminoTotalsConsistencyService.verifyTotals(true).isEmpty());
+        verify(nutritionLogRepository, never()).addTotals(any(), any());
+        verifyNoInteractions(nutritionHistoryService, coverageStreamService);
+    }
+
+    @Test
+    void testVerifyTotals_DryRunLeavesTotalsUntouched() {
+        log.getAminoAcidTotals().removeFood(lentils);
+
+        List<AminoTotalsDriftDTO> drifts = aminoTotalsConsistencyService.verifyTotals(false);
+
+        assertEquals(1, drifts.size());
+        assertFalse(drifts.get(0).isRepaired());
+        assertEquals(1, log.getAminoAcidTotals().getItemCount());
+        verify(nutritionLogRepository, never()).save(any());
+    }
+
+    @Test
+    void testVerifyTotals_DetachesEachPageBeforeReadingTheNext() {
+        NutritionLog second = NutritionLog.builder().id(UUID.randomUUID()).build();
+        PageRequest first = PageRequest.of(0, 1);
+        when(nutritionLogRepository.findAll(any(Pageable.class))).thenReturn(
+                new PageImpl<>(List.of(log), first, 2),
+                new PageImpl<>(List.of(second), first.next(), 2));
+
+        assertTrue(aminoTotalsConsistencyService.verifyTotals(true).isEmpty());
+
+        InOrder inOrder = inOrder(nutritionLogRepository, entityManager);
+        for (int page = 0; page < 2; page++) {
+            inOrder.verify(nutritionLogRepository).findAll(any(Pageable.class));
+            inOrder.verify(entityManager).flush();
+            inOrder.verify(entityManager).clear();
+        }
+        inOrder.verifyNoMoreInteractions();
+    }
+}
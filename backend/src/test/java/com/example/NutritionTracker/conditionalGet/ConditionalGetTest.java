@@ -0,0 +1,146 @@
+package com.example.NutritionTracker.conditionalGet;
+
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.dto.UserDataDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogFoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.UserDataService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the conditional GET on the reads of the user, the latest log and its amino acid profile:
+ * an unchanged read is answered with 304 after at most one indexed lookup, and a change of the log's
+ * food items or of the user leads to a new ETag for every read that depends on it.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    /** The reads and the statements a 304 may take: the version lookup of the latest log, if they depend on it. */
+    private static final Map<String, Integer> STATEMENTS_FOR_NOT_MODIFIED = Map.of(
+            "/amino-profile/summary", 1,
+            "/amino-profile/recommendations", 1,
+            "/nutrition-logs/latest", 1,
+            "/amino-profile/daily-needs", 0,
+            "/user-data/current", 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private NutritionLogFoodItemRepository nutritionLogFoodItemRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private UserDataService userDataService;
+
+    @Test
+    void testUnchangedReadsAreNotModifiedWithoutAggregation() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (Map.Entry<String, Integer> read : STATEMENTS_FOR_NOT_MODIFIED.entrySet()) {
+            String eTag = currentETag(read.getKey());
+            assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""), read.getKey() + " must carry a strong ETag");
+
+            statistics.clear();
+            String body = mockMvc.perform(get(read.getKey()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals("", body);
+            assertEquals(read.getValue().longValue(), statistics.getPrepareStatementCount(), read.getKey());
+        }
+    }
+
+    @Test
+    void testChangesLeadToNewETags() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        List<FoodItem> foods = foodItemRepository.findAll();
+        Set<UUID> present = nutritionLogFoodItemRepository.findFoodItemIdsInLog(latestLog.getId(), foods.stream().map(FoodItem::getId).toList());
+        FoodItem food = foods.stream().filter(candidate -> !present.contains(candidate.getId())).findFirst().orElseThrow();
+
+        Map<String, String> before = currentETags();
+        nutritionLogService.addFoodItemToLog(latestLog.getId(), food.getId(), 150);
+        Map<String, String> afterAdd = currentETags();
+        nutritionLogService.removeFoodItemFromLog(latestLog.getId(), food.getId());
+
+        // Only the reads of the log change with its food items
+        for (String path : List.of("/amino-profile/summary", "/amino-profile/recommendations", "/nutrition-logs/latest")) {
+            assertNotEquals(before.get(path), afterAdd.get(path), path);
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, before.get(path))).andExpect(status().isOk());
+        }
+        assertEquals(before.get("/amino-profile/daily-needs"), afterAdd.get("/amino-profile/daily-needs"));
+        assertEquals(before.get("/user-data/current"), afterAdd.get("/user-data/current"));
+
+        // A change of the user changes the reads of the user and everything computed from the daily needs
+        UserDTO user = userDataService.getUser().orElseThrow();
+        rename(user, user.getName() + " (renamed)");
+        Map<String, String> afterRename = currentETags();
+        rename(user, user.getName());
+        for (String path : List.of("/user-data/current", "/amino-profile/daily-needs", "/amino-profile/summary")) {
+            assertNotEquals(before.get(path), afterRename.get(path), path);
+        }
+        assertEquals(currentETag("/nutrition-logs/latest"), afterRename.get("/nutrition-logs/latest"));
+    }
+
+    private void rename(UserDTO user, String name) {
+        userDataService.updateExistingUser(UserDataDTO.builder()
+                .id(user.getId())
+                .name(name)
+                .age(user.getAge())
+                .weight(user.getWeight())
+                .isAthlete(user.getIsAthlete())
+                .isVegan(user.getIsVegan())
+                .isLongevityFocused(user.getIsLongevityFocused())
+                .build());
+    }
+
+    private Map<String, String> currentETags() throws Exception {
+        Map<String, String> eTags = new HashMap<>();
+        for (String path : STATEMENTS_FOR_NOT_MODIFIED.keySet()) {
+            eTags.put(path, currentETag(path));
+        }
+        return eTags;
+    }
+
+    private String currentETag(String path) throws Exception {
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, path);
+        return eTag;
+    }
+}
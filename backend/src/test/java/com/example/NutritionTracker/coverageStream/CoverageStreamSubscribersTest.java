@@ -0,0 +1,102 @@
+package com.example.NutritionTracker.coverageStream;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogFoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.CoverageStreamService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that thousands of idle subscribers of one log cost little memory each and all get a committed change.
+ * The emitters are not attached to requests, so each one also holds its first event until it would be sent.
+ * Runs in its own context, which is closed afterwards together with the streams.
+ */
+@SpringBootTest(properties = "nutrition.coverage-stream.heartbeat=1h")
+@ActiveProfiles("test")
+@DirtiesContext
+class CoverageStreamSubscribersTest {
+
+    private static final int SUBSCRIBERS = 5_000;
+
+    /** The retained heap per idle subscriber that must not be exceeded, in bytes. */
+    private static final long MAX_BYTES_PER_SUBSCRIBER = 2 * 1024;
+
+    @Autowired
+    private CoverageStreamService coverageStreamService;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private NutritionLogFoodItemRepository nutritionLogFoodItemRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Test
+    void testIdleSubscribersAreCheap() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        UUID logId = latestLog.getId();
+        // The first subscriber sets up what all subscribers of the log share
+        coverageStreamService.subscribe(logId);
+
+        long heapBefore = usedHeapAfterGc();
+        List<SseEmitter> emitters = new ArrayList<>(SUBSCRIBERS);
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            emitters.add(coverageStreamService.subscribe(logId));
+        }
+        awaitSent(SUBSCRIBERS + 1);
+        long bytesPerSubscriber = (usedHeapAfterGc() - heapBefore) / SUBSCRIBERS;
+
+        assertEquals(SUBSCRIBERS + 1, coverageStreamService.getSubscriberCount());
+        assertTrue(bytesPerSubscriber < MAX_BYTES_PER_SUBSCRIBER,
+                "an idle subscriber takes " + bytesPerSubscriber + " bytes");
+
+        // Every subscriber gets the change after its first event
+        long sentBefore = coverageStreamService.getSentCount();
+        List<FoodItem> foods = foodItemRepository.findAll();
+        Set<UUID> present = nutritionLogFoodItemRepository.findFoodItemIdsInLog(logId, foods.stream().map(FoodItem::getId).toList());
+        FoodItem food = foods.stream().filter(candidate -> !present.contains(candidate.getId())).findFirst().orElseThrow();
+        nutritionLogService.addFoodItemToLog(logId, food.getId());
+
+        awaitSent(sentBefore + SUBSCRIBERS + 1);
+        assertEquals(0, coverageStreamService.getDroppedCount());
+        assertEquals(SUBSCRIBERS, emitters.size());
+    }
+
+    private void awaitSent(long events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (coverageStreamService.getSentCount() < events) {
+            assertTrue(System.nanoTime() < deadline, "only " + coverageStreamService.getSentCount() + " of " + events + " events sent");
+            Thread.sleep(10);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.NutritionTracker.coverageStream;
+
+import com.example.NutritionTracker.amino.AminoMilligrams;
+import com.example.NutritionTracker.dto.CoverageUpdateDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogFoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.CoverageStreamService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that {@code /amino-profile/coverage/stream} starts with the current coverage, pushes the change of every
+ * committed addition and removal, sends heartbeats while idle and forgets clients that went away.
+ */
+@SpringBootTest(properties = "nutrition.coverage-stream.heartbeat=100ms")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CoverageStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private NutritionLogFoodItemRepository nutritionLogFoodItemRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private CoverageStreamService coverageStreamService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testChangesArePushedAsDeltas() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        UUID logId = latestLog.getId();
+        List<FoodItem> foods = foodItemRepository.findAll();
+        Set<UUID> present = nutritionLogFoodItemRepository.findFoodItemIdsInLog(logId, foods.stream().map(FoodItem::getId).toList());
+        FoodItem food = foods.stream().filter(candidate -> !present.contains(candidate.getId())).findFirst().orElseThrow();
+        // The coverage of a log without food items is empty, so make sure the log has one before comparing
+        if (present.isEmpty()) {
+            nutritionLogService.addFoodItemToLog(logId, foods.stream().filter(other -> other != food).findFirst().orElseThrow().getId());
+        }
+
+        int subscribersBefore = coverageStreamService.getSubscriberCount();
+        MvcResult stream = mockMvc.perform(get("/amino-profile/coverage/stream").param("logId", logId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        CoverageUpdateDTO snapshot = awaitEvent(stream, CoverageStreamService.SNAPSHOT_EVENT, 0);
+        assertEquals(logId, snapshot.getNutritionLogId());
+        assertEquals(0, snapshot.getItemCountDelta());
+        assertEquals(coverage(), snapshot.getCoverage());
+        assertEquals(subscribersBefore + 1, coverageStreamService.getSubscriberCount());
+
+        nutritionLogService.addFoodItemToLog(logId, food.getId(), 150);
+
+        CoverageUpdateDTO added = awaitEvent(stream, CoverageStreamService.DELTA_EVENT, 0);
+        AminoMilligrams portion = new TransactionTemplate(transactionManager).execute(status -> {
+            AminoMilligrams scaled = AminoMilligrams.empty();
+            scaled.addScaled(foodItemRepository.findById(food.getId()).orElseThrow().getAminoAcidProfile(), 150_000);
+            return scaled;
+        });
+        assertEquals(portion.toGrams().toMap(), added.getAminoAcidDelta());
+        assertEquals(1, added.getItemCountDelta());
+        assertEquals(snapshot.getItemCount() + 1, added.getItemCount());
+        assertEquals(snapshot.getRevision() + 1, added.getRevision());
+        assertEquals(nutritionLogRepository.findById(logId).orElseThrow().getRevision(), added.getRevision());
+        assertEquals(coverage(), added.getCoverage());
+        added.getCoverageDelta().forEach((aminoAcid, delta) -> assertEquals(
+                added.getCoverage().get(aminoAcid) - snapshot.getCoverage().get(aminoAcid), delta, 0.011, aminoAcid));
+
+        nutritionLogService.removeFoodItemFromLog(logId, food.getId());
+
+        CoverageUpdateDTO removed = awaitEvent(stream, CoverageStreamService.DELTA_EVENT, 1);
+        assertEquals(-1, removed.getItemCountDelta());
+        removed.getAminoAcidDelta().forEach((aminoAcid, delta) -> assertEquals(-portion.toGrams().toMap().get(aminoAcid), delta));
+        assertEquals(snapshot.getCoverage(), removed.getCoverage());
+
+        // Idle streams get heartbeats, and a stream that is closed is forgotten
+        awaitTrue(() -> content(stream).contains(":heartbeat\n"));
+        stream.getRequest().getAsyncContext().complete();
+        awaitTrue(() -> coverageStreamService.getSubscriberCount() == subscribersBefore);
+    }
+
+    @Test
+    void testUnknownLogIsNotFound() throws Exception {
+        mockMvc.perform(get("/amino-profile/coverage/stream").param("logId", UUID.randomUUID().toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    private Map<String, Double> coverage() throws Exception {
+        String json = mockMvc.perform(post("/amino-profile/coverage")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
+    /**
+     * Waits for the event with the given name and position among the events of that name, and reads its payload.
+     */
+    private CoverageUpdateDTO awaitEvent(MvcResult stream, String name, int index) throws Exception {
+        String[] event = new String[1];
+        awaitTrue(() -> {
+            // Only events that end with their blank line are complete; the last one may still be written
+            String content = content(stream);
+            int seen = 0;
+            for (String block : content.substring(0, content.lastIndexOf("\n\n") + 1).split("\n\n")) {
+                if (block.contains("event:" + name + "\n") && seen++ == index) {
+                    event[0] = block;
+                    return true;
+                }
+            }
+            return false;
+        });
+        String data = event[0].lines().filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+        return objectMapper.readValue(data.substring("data:".length()), CoverageUpdateDTO.class);
+    }
+
+    private static String content(MvcResult stream) {
+        try {
+            return stream.getResponse().getContentAsString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10 s");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.NutritionTracker.currentUserResolver;
+
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.dto.UserDataDTO;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.repo.UserRepository;
+import com.example.NutritionTracker.service.CurrentUserResolver;
+import com.example.NutritionTracker.service.UserDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CurrentUserResolver currentUserResolver;
+    private UserDataService userDataService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        currentUserResolver = new CurrentUserResolver(userRepository);
+        userDataService = new UserDataService(userRepository, currentUserResolver);
+        user = User.builder().id(UUID.randomUUID()).name("Test User").age(30).weight(70.0)
+                .isAthlete(false).isVegan(true).isLongevityFocused(true).build();
+    }
+
+    @Test
+    void testGetUserLoadsOnceAndNeverScansTheTable() {
+        when(userRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(user));
+
+        UserDTO first = userDataService.getUser().orElseThrow();
+        UserDTO second = userDataService.getUser().orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(user.getId(), first.getId());
+        assertEquals(70.0, first.getWeight());
+        verify(userRepository, times(1)).findFirstByOrderByIdAsc();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testUpdateExistingUserWritesThrough() {
+        when(userRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userDataService.getUser();
+
+        UserDataDTO update = new UserDataDTO();
+        update.setName("Updated User");
+        update.setAge(31);
+        update.setWeight(80.0);
+        update.setIsAthlete(true);
+        update.setIsVegan(true);
+        update.setIsLongevityFocused(false);
+        userDataService.updateExistingUser(update);
+
+        UserDTO cached = userDataService.getUser().orElseThrow();
+        assertEquals("Updated User", cached.getName());
+        assertEquals(80.0, cached.getWeight());
+        assertTrue(cached.getIsAthlete());
+        verify(userRepository, times(1)).findFirstByOrderByIdAsc();
+        verify(userRepository).findById(user.getId());
+    }
+
+    @Test
+    void testForgetResolvesTheUserAgain() {
+        when(userRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(user), Optional.empty());
+        assertTrue(currentUserResolver.getCurrentUser().isPresent());
+
+        currentUserResolver.forget();
+
+        assertTrue(currentUserResolver.getCurrentUser().isEmpty());
+        verify(userRepository, times(2)).findFirstByOrderByIdAsc();
+    }
+}
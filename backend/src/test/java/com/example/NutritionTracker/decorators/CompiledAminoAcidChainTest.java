@@ -0,0 +1,117 @@
+package com.example.NutritionTracker.decorators;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.decorator.*;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.AminoAcidRequirement;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link CompiledAminoAcidChain} and {@link ProfileAminoAcidChains}.
+ * Ensures that compiled chains return the same values as the decorator stacks they replace.
+ */
+@ExtendWith(MockitoExtension.class)
+class CompiledAminoAcidChainTest {
+
+    @Mock
+    private AminoAcidRequirementRepository aminoAcidRequirementRepository;
+
+    private DailyAminoAcidCalculator dailyAminoAcidCalculator;
+
+    private AminoAcidRequirementCache requirementCache;
+
+    private AminoVector baseNeeds;
+
+    @BeforeEach
+    void setUp() {
+        dailyAminoAcidCalculator = new DailyAminoAcidCalculator();
+        requirementCache = new AminoAcidRequirementCache(aminoAcidRequirementRepository);
+        when(aminoAcidRequirementRepository.findAll()).thenReturn(List.of(
+                new AminoAcidRequirement(null, "Lysin", 30.0),
+                new AminoAcidRequirement(null, "Leucin", 39.0),
+                new AminoAcidRequirement(null, "Isoleucin", 20.0),
+                new AminoAcidRequirement(null, "Valin", 26.0),
+                new AminoAcidRequirement(null, "Methionin", 15.0),
+                new AminoAcidRequirement(null, "Phenylalanin", 25.0),
+                new AminoAcidRequirement(null, "Threonin", 15.0),
+                new AminoAcidRequirement(null, "Tryptophan", 4.0),
+                new AminoAcidRequirement(null, "Histidin", 10.0),
+                new AminoAcidRequirement(null, "Glycin", 35.0)
+        ));
+
+        UserDTO testUser = UserDTO.builder()
+                .id(UUID.randomUUID())
+                .name("Test User")
+                .weight(70.0)
+                .build();
+        baseNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(requirementCache.getRequirementsPerKg(), testUser);
+    }
+
+    @Test
+    void testSingleDecoratorChains_MatchDecorators() {
+        List<AminoAcidCalculator> decorators = List.of(
+                new AthleteAminoAcidDecorator(dailyAminoAcidCalculator),
+                new VeganAminoAcidDecorator(dailyAminoAcidCalculator),
+                new LongevityAminoAcidDecorator(dailyAminoAcidCalculator)
+        );
+
+        for (AminoAcidCalculator decorator : decorators) {
+            AminoVector expected = decorator.calculateAminoAcids(baseNeeds);
+            AminoVector actual = CompiledAminoAcidChain.compile(decorator).apply(baseNeeds);
+            assertEquals(expected, actual, "Mismatch for " + decorator.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void testAllProfileChains_MatchDecoratorStacks() {
+        ProfileAminoAcidChains chains = new ProfileAminoAcidChains(dailyAminoAcidCalculator);
+
+        for (int profile = 0; profile < 8; profile++) {
+            boolean athlete = (profile & 1) != 0;
+            boolean vegan = (profile & 2) != 0;
+            boolean longevity = (profile & 4) != 0;
+
+            AminoAcidCalculator stack = dailyAminoAcidCalculator;
+            if (athlete) stack = new AthleteAminoAcidDecorator(stack);
+            if (vegan) stack = new VeganAminoAcidDecorator(stack);
+            if (longevity) stack = new LongevityAminoAcidDecorator(stack);
+
+            AminoVector expected = stack.calculateAminoAcids(baseNeeds);
+            AminoVector actual = chains.forProfile(athlete, vegan, longevity).apply(baseNeeds);
+
+            // The decorator stack rounds after every decorator, the compiled chain only once at the end
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                assertEquals(expected.isPresent(aminoAcid), actual.isPresent(aminoAcid), aminoAcid.name());
+                assertEquals(expected.get(aminoAcid), actual.get(aminoAcid), 0.02,
+                        aminoAcid + " for profile " + profile);
+            }
+        }
+    }
+
+    @Test
+    void testApply_DoesNotModifyInput() {
+        AminoVector copy = baseNeeds.copy();
+        CompiledAminoAcidChain.compile(new AthleteAminoAcidDecorator(dailyAminoAcidCalculator)).apply(baseNeeds);
+        assertEquals(copy, baseNeeds);
+    }
+
+    @Test
+    void testIdentityChain_OnlyRounds() {
+        AminoVector result = CompiledAminoAcidChain.IDENTITY.apply(baseNeeds);
+        assertEquals(2.73, result.get(AminoAcid.LEUCIN), 0.0);
+        assertTrue(CompiledAminoAcidChain.IDENTITY.getDecorators().isEmpty());
+    }
+}
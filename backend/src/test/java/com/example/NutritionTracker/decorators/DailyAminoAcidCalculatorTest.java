@@ -1,20 +1,21 @@
 package com.example.NutritionTracker.decorators;
 
+import com.example.NutritionTracker.amino.AminoVector;
 import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
 import com.example.NutritionTracker.dto.UserDTO;
 import com.example.NutritionTracker.entity.AminoAcidRequirement;
 import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
+import static com.example.NutritionTracker.amino.AminoAcid.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -24,13 +25,16 @@ class DailyAminoAcidCalculatorTest {
     @Mock
     private AminoAcidRequirementRepository aminoAcidRequirementRepository; // Mock for the database
 
-    @InjectMocks
     private DailyAminoAcidCalculator dailyAminoAcidCalculator; // Service under test
 
+    private AminoAcidRequirementCache requirementCache;
+
     private UserDTO testUser;
 
     @BeforeEach
     void setUp() {
+        dailyAminoAcidCalculator = new DailyAminoAcidCalculator();
+        requirementCache = new AminoAcidRequirementCache(aminoAcidRequirementRepository);
         // Test user with a weight of 70 kg
         testUser = UserDTO.builder()
                 .id(UUID.randomUUID())
@@ -59,22 +63,22 @@ class DailyAminoAcidCalculatorTest {
         when(aminoAcidRequirementRepository.findAll()).thenReturn(mockRequirements);
 
         // Perform calculation
-        Map<String, Double> dailyNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(testUser);
+        AminoVector dailyNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(requirementCache.getRequirementsPerKg(), testUser);
 
         // Ensure that values are calculated
-        assertNotNull(dailyNeeds, "The returned map must not be null");
-        assertFalse(dailyNeeds.isEmpty(), "The map must not be empty. It should contain amino acids.");
+        assertNotNull(dailyNeeds, "The returned vector must not be null");
+        assertFalse(dailyNeeds.isEmpty(), "The vector must not be empty. It should contain amino acids.");
 
         // Validate values for all amino acids
-        assertEquals(2.1, dailyNeeds.get("Lysin"), 0.01);
-        assertEquals(2.73, dailyNeeds.get("Leucin"), 0.01);
-        assertEquals(1.4, dailyNeeds.get("Isoleucin"), 0.01);
-        assertEquals(1.82, dailyNeeds.get("Valin"), 0.01);
-        assertEquals(1.05, dailyNeeds.get("Methionin"), 0.01);
-        assertEquals(1.75, dailyNeeds.get("Phenylalanin"), 0.01);
-        assertEquals(1.05, dailyNeeds.get("Threonin"), 0.01);
-        assertEquals(0.28, dailyNeeds.get("Tryptophan"), 0.01);
-        assertEquals(0.7, dailyNeeds.get("Histidin"), 0.01);
-        assertEquals(2.45, dailyNeeds.get("Glycin"), 0.01);
+        assertEquals(2.1, dailyNeeds.get(LYSIN), 0.01);
+        assertEquals(2.73, dailyNeeds.get(LEUCIN), 0.01);
+        assertEquals(1.4, dailyNeeds.get(ISOLEUCIN), 0.01);
+        assertEquals(1.82, dailyNeeds.get(VALIN), 0.01);
+        assertEquals(1.05, dailyNeeds.get(METHIONIN), 0.01);
+        assertEquals(1.75, dailyNeeds.get(PHENYLALANIN), 0.01);
+        assertEquals(1.05, dailyNeeds.get(THREONIN), 0.01);
+        assertEquals(0.28, dailyNeeds.get(TRYPTOPHAN), 0.01);
+        assertEquals(0.7, dailyNeeds.get(HISTIDIN), 0.01);
+        assertEquals(2.45, dailyNeeds.get(GLYCIN), 0.01);
     }
 }
\ No newline at end of file
@@ -1,15 +1,16 @@
 package com.example.NutritionTracker.decorators;
 
+import com.example.NutritionTracker.amino.AminoVector;
 import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
 import com.example.NutritionTracker.decorator.LongevityAminoAcidDecorator;
 import com.example.NutritionTracker.dto.UserDTO;
 import com.example.NutritionTracker.entity.AminoAcidRequirement;
 import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -29,13 +30,16 @@ class LongevityAminoAcidDecoratorTest {
     @Mock
     private AminoAcidRequirementRepository aminoAcidRequirementRepository;
 
-    @InjectMocks
     private DailyAminoAcidCalculator dailyAminoAcidCalculator;
 
+    private AminoAcidRequirementCache requirementCache;
+
     private UserDTO testUser;
 
     @BeforeEach
     void setUp() {
+        dailyAminoAcidCalculator = new DailyAminoAcidCalculator();
+        requirementCache = new AminoAcidRequirementCache(aminoAcidRequirementRepository);
         testUser = UserDTO.builder()
                 .id(UUID.randomUUID())
                 .name("Test Longevity User")
@@ -62,12 +66,13 @@ class LongevityAminoAcidDecoratorTest {
         when(aminoAcidRequirementRepository.findAll()).thenReturn(mockRequirements);
 
         // **2. Calculate base daily needs**
-        Map<String, Double> baseNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(testUser);
+        AminoVector baseVector = dailyAminoAcidCalculator.calculateDailyNeeds(requirementCache.getRequirementsPerKg(), testUser);
+        Map<String, Double> baseNeeds = baseVector.toMap();
         log.info("Base Needs BEFORE Decorator: {}", baseNeeds);
 
         // **3. Apply Longevity Decorator**
         LongevityAminoAcidDecorator longevityDecorator = new LongevityAminoAcidDecorator(dailyAminoAcidCalculator);
-        Map<String, Double> adjustedNeeds = longevityDecorator.calculateAminoAcids(baseNeeds);
+        Map<String, Double> adjustedNeeds = longevityDecorator.calculateAminoAcids(baseVector).toMap();
         log.info("Adjusted Needs AFTER Decorator: {}", adjustedNeeds);
 
         // **4. Calculate expected values**
@@ -1,15 +1,16 @@
 package com.example.NutritionTracker.decorators;
 
+import com.example.NutritionTracker.amino.AminoVector;
 import com.example.NutritionTracker.decorator.DailyAminoAcidCalculator;
 import com.example.NutritionTracker.decorator.VeganAminoAcidDecorator;
 import com.example.NutritionTracker.dto.UserDTO;
 import com.example.NutritionTracker.entity.AminoAcidRequirement;
 import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.service.AminoAcidRequirementCache;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -29,9 +30,10 @@ class VeganAminoAcidDecoratorTest {
     @Mock
     private AminoAcidRequirementRepository aminoAcidRequirementRepository;
 
-    @InjectMocks
     private DailyAminoAcidCalculator dailyAminoAcidCalculator;
 
+    private AminoAcidRequirementCache requirementCache;
+
     private UserDTO testUser;
 
     /**
@@ -39,6 +41,8 @@ class VeganAminoAcidDecoratorTest {
      */
     @BeforeEach
     void setUp() {
+        dailyAminoAcidCalculator = new DailyAminoAcidCalculator();
+        requirementCache = new AminoAcidRequirementCache(aminoAcidRequirementRepository);
         testUser = UserDTO.builder()
                 .id(UUID.randomUUID())
                 .name("Test User")
@@ -69,12 +73,13 @@ class VeganAminoAcidDecoratorTest {
         when(aminoAcidRequirementRepository.findAll()).thenReturn(mockRequirements);
 
         // Base needs calculation (before decorator adjustments)
-        Map<String, Double> baseNeeds = dailyAminoAcidCalculator.calculateDailyNeeds(testUser);
+        AminoVector baseVector = dailyAminoAcidCalculator.calculateDailyNeeds(requirementCache.getRequirementsPerKg(), testUser);
+        Map<String, Double> baseNeeds = baseVector.toMap();
         log.info("Before adjustments: {}", baseNeeds);
 
         // Apply the Vegan Decorator
         VeganAminoAcidDecorator veganDecorator = new VeganAminoAcidDecorator(dailyAminoAcidCalculator);
-        Map<String, Double> adjustedNeeds = veganDecorator.calculateAminoAcids(baseNeeds);
+        Map<String, Double> adjustedNeeds = veganDecorator.calculateAminoAcids(baseVector).toMap();
         log.info("After adjustments: {}", adjustedNeeds);
 
         // Expected values
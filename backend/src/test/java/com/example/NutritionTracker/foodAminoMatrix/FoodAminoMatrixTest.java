@@ -0,0 +1,88 @@
+package com.example.NutritionTracker.foodAminoMatrix;
+
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests scoring and top-k selection of the columnar food matrix.
+ */
+class FoodAminoMatrixTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testScoresCountNoAminoAcidBeyondItsCap() {
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        int lysineRich = builder.addFood(UUID.randomUUID(), "Lysine rich");
+        builder.set(lysineRich, LYSIN, 10.0);
+        int balanced = builder.addFood(UUID.randomUUID(), "Balanced");
+        builder.set(balanced, LYSIN, 1.0).set(balanced, LEUCIN, 1.0);
+        int leucineOnly = builder.addFood(UUID.randomUUID(), "Leucine only");
+        builder.set(leucineOnly, LEUCIN, 5.0);
+        builder.addFood(UUID.randomUUID(), "Nothing");
+        FoodAminoMatrix matrix = builder.build();
+
+        AminoVector weights = AminoVector.empty();
+        weights.set(LYSIN, 0.5);
+        weights.set(LEUCIN, 0.25);
+        AminoVector caps = AminoVector.empty();
+        caps.set(LYSIN, 2.0);
+        caps.set(LEUCIN, 2.0);
+
+        List<FoodAminoMatrix.Scored> best = matrix.topK(weights, caps, 10, pool);
+
+        assertEquals(List.of(lysineRich, balanced, leucineOnly), best.stream().map(FoodAminoMatrix.Scored::row).toList());
+        assertEquals(1.0, best.get(0).score(), 1e-9);
+        assertEquals(0.75, best.get(1).score(), 1e-9);
+        assertEquals(0.5, best.get(2).score(), 1e-9);
+        assertEquals(List.of(lysineRich), matrix.topK(weights, caps, 1, pool).stream().map(FoodAminoMatrix.Scored::row).toList());
+    }
+
+    @Test
+    void testParallelBlocksAgreeWithOneThread() {
+        Random random = new Random(7);
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        for (int i = 0; i < 50_000; i++) {
+            int row = builder.addFood(UUID.randomUUID(), "Food " + i);
+            // Coarse values, so that many foods tie
+            builder.set(row, LYSIN, random.nextInt(10) / 2.0).set(row, VALIN, random.nextInt(10) / 2.0);
+        }
+        FoodAminoMatrix matrix = builder.build();
+        AminoVector weights = AminoVector.empty();
+        weights.set(LYSIN, 1.0);
+        weights.set(VALIN, 2.0);
+        AminoVector caps = AminoVector.empty();
+        caps.set(LYSIN, 3.0);
+        caps.set(VALIN, 4.0);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            assertEquals(matrix.topK(weights, caps, 25, single), matrix.topK(weights, caps, 25, pool));
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void testNoGapRecommendsNothing() {
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        builder.set(builder.addFood(UUID.randomUUID(), "Food"), LYSIN, 1.0);
+
+        assertEquals(List.of(), builder.build().topK(AminoVector.empty(), AminoVector.empty(), 10, pool));
+    }
+}
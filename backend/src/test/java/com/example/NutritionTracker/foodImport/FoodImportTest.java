@@ -0,0 +1,323 @@
+package com.example.NutritionTracker.foodImport;
+
+import com.example.NutritionTracker.dto.FoodImportResultDTO;
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.exception.InvalidInputException;
+import com.example.NutritionTracker.importer.CsvFoodRowReader;
+import com.example.NutritionTracker.importer.FoodImportFormat;
+import com.example.NutritionTracker.repo.FoodImportCheckpointRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.service.FoodImportService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the CSV and NDJSON food import: parsing, rejected rows including overlong ones, resuming after a failed
+ * import, and the answers to invalid, concurrent and restarted imports.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FoodImportTest {
+
+    private static final String PREFIX = "Import Test ";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private FoodImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private FoodImportService foodImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void removeImportedItems() {
+        foodItemRepository.deleteAll(importedItems());
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void testCsvImport() throws Exception {
+        // Starts with a byte order mark, as written by spreadsheet programs
+        String csv = "\uFEFF" + """
+                Name;Lysin;Leucin;Energie (kcal)
+                "Import Test Tofu; geräuchert";0,9;"1,4";150
+
+                Import Test Linsen;1.7;;352
+                Import Test Kaputt;viel;1.0;100
+                Import Test Zuviel;101;1.0;100
+                ;1.0;1.0;100
+                """;
+        FoodImportResultDTO result = importViaApi("foods.csv", FoodImportFormat.CSV_MEDIA_TYPE, csv);
+
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals(5, result.getRowsRead());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(3, result.getRowsRejected());
+        assertEquals(5, result.getRowsCommitted());
+        assertEquals(List.of("Energie (kcal)"), result.getIgnoredColumns());
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Row 3: Lysin is not a number"), result.getErrors().get(0));
+        assertTrue(result.getErrors().get(1).startsWith("Row 4: Lysin must be between 0"), result.getErrors().get(1));
+        assertTrue(result.getErrors().get(2).startsWith("Row 5: the name is missing"), result.getErrors().get(2));
+
+        Map<String, Map<String, Double>> profiles = new TransactionTemplate(transactionManager).execute(status ->
+                importedItems().stream().collect(Collectors.toMap(FoodItem::getName, item -> Map.copyOf(item.getAminoAcidProfile()))));
+        assertEquals(Map.of(
+                PREFIX + "Tofu; geräuchert", Map.of("Lysin", 0.9, "Leucin", 1.4),
+                PREFIX + "Linsen", Map.of("Lysin", 1.7)), profiles);
+
+        // The imported items are searchable and part of the cached catalog right away
+        assertEquals(List.of(PREFIX + "Tofu; geräuchert"), search("geraeuchert"));
+        List<FoodItemDTO> catalog = objectMapper.readValue(mockMvc.perform(get("/food-items/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), new TypeReference<>() {});
+        assertEquals(2, catalog.stream().filter(item -> item.getName().startsWith(PREFIX)).count());
+    }
+
+    @Test
+    void testOverlongRowsAreRejectedWithTheirLine() throws Exception {
+        String csv = "name,Lysin,Notiz\n"
+                + PREFIX + "Erbsen,1.0,\n"
+                + "\"" + PREFIX + "Bohnen\nweiß\",2.0,\n"
+                + PREFIX + "Lang,1.0," + "x".repeat(CsvFoodRowReader.MAX_FIELD_LENGTH + 1) + "\n"
+                + PREFIX + "Danach,1.5,\n"
+                + PREFIX + "Breit,1.0," + "x,".repeat(CsvFoodRowReader.MAX_RECORD_LENGTH / 2) + "\n"
+                // An unterminated quote must not read the rest of the file into one field
+                + "\"" + PREFIX + "Offen,1.0,\n" + (PREFIX + "Folgezeile,1.0,\n").repeat(CsvFoodRowReader.MAX_RECORD_LENGTH / 20);
+        FoodImportResultDTO result = importViaApi("long.csv", FoodImportFormat.CSV_MEDIA_TYPE, csv);
+
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals(6, result.getRowsRead());
+        assertEquals(3, result.getRowsImported());
+        assertEquals(List.of(
+                "Row 3 (line 5): a field is longer than " + CsvFoodRowReader.MAX_FIELD_LENGTH + " characters",
+                "Row 5 (line 7): the record is longer than " + CsvFoodRowReader.MAX_RECORD_LENGTH + " characters",
+                "Row 6 (line 8): a field is longer than " + CsvFoodRowReader.MAX_FIELD_LENGTH + " characters"),
+                result.getErrors());
+        assertEquals(List.of(PREFIX + "Bohnen\nweiß", PREFIX + "Danach", PREFIX + "Erbsen"),
+                importedItems().stream().map(FoodItem::getName).sorted().toList());
+    }
+
+    @Test
+    void testNdjsonImportAndProgress() throws Exception {
+        String ndjson = """
+                {"name": "Import Test Hafer", "Lysin": 0.5, "Methionin": "0,3", "Ballaststoffe": 10}
+                not json
+                ["Import Test Array"]
+
+                {"name": "Import Test Quinoa", "lysin": 0.8}
+                """;
+        FoodImportResultDTO result = importViaApi("foods.ndjson", FoodImportFormat.NDJSON_MEDIA_TYPE, ndjson);
+
+        assertEquals(4, result.getRowsRead());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        assertEquals(List.of("Ballaststoffe"), result.getIgnoredColumns());
+
+        FoodImportResultDTO progress = objectMapper.readValue(mockMvc.perform(get("/food-items/import/progress"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), FoodImportResultDTO.class);
+        assertEquals("COMPLETED", progress.getStatus());
+        assertEquals("foods.ndjson", progress.getSource());
+        assertEquals(2, progress.getRowsImported());
+
+        // Importing the same source again finds nothing after the checkpoint
+        FoodImportResultDTO again = importViaApi("foods.ndjson", FoodImportFormat.NDJSON_MEDIA_TYPE, ndjson);
+        assertEquals(4, again.getResumedAfter());
+        assertEquals(0, again.getRowsImported());
+        assertEquals(2, importedItems().size());
+    }
+
+    @Test
+    void testFailedImportResumesAfterTheLastCommittedChunk() throws Exception {
+        FoodImportService service = new FoodImportService(
+                entityManager, checkpointRepository, objectMapper, transactionManager, 10, 5);
+        StringBuilder csv = new StringBuilder("name,Lysin,Leucin\n");
+        for (int i = 1; i <= 1000; i++) {
+            csv.append(PREFIX).append(String.format("%04d", i)).append(",1.").append(i % 10).append(",2.0\n");
+        }
+        byte[] file = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        IOException failure = assertThrows(IOException.class, () -> service.importFoodItems(
+                "resume.csv", FoodImportFormat.CSV, failingAfter(file, file.length * 2 / 3), false));
+        assertEquals("Connection reset", failure.getMessage());
+        assertEquals("FAILED", service.getProgress().orElseThrow().getStatus());
+
+        long committed = checkpointRepository.findById("resume.csv").orElseThrow().getRowsCommitted();
+        assertTrue(committed > 0 && committed < 1000, "committed " + committed);
+        assertEquals(0, committed % 10, "only whole chunks are committed");
+        assertEquals(committed, importedItems().size());
+
+        FoodImportResultDTO resumed = service.importFoodItems(
+                "resume.csv", FoodImportFormat.CSV, new ByteArrayInputStream(file), false);
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(committed, resumed.getResumedAfter());
+        assertEquals(1000 - committed, resumed.getRowsImported());
+        assertEquals(1000, resumed.getRowsCommitted());
+
+        List<FoodItem> items = importedItems();
+        assertEquals(1000, items.size());
+        assertEquals(1000, items.stream().map(FoodItem::getName).distinct().count());
+        assertEquals(1000, checkpointRepository.findById("resume.csv").orElseThrow().getRowsImported());
+    }
+
+    @Test
+    void testRestartIsConflictOnceRowsOfTheSourceWereImported() throws Exception {
+        // Only rejected rows: the corrected file is imported from its first row
+        FoodImportResultDTO rejected = importViaApi("restart.csv", FoodImportFormat.CSV_MEDIA_TYPE,
+                "name,Lysin\n" + PREFIX + "Erbsen,viel\n");
+        assertEquals(1, rejected.getRowsRejected());
+        String corrected = "name,Lysin\n" + PREFIX + "Erbsen,1.5\n";
+        FoodImportResultDTO restarted = foodImportService.importFoodItems("restart.csv", FoodImportFormat.CSV,
+                new ByteArrayInputStream(corrected.getBytes(StandardCharsets.UTF_8)), true);
+        assertEquals(0, restarted.getResumedAfter());
+        assertEquals(1, restarted.getRowsImported());
+
+        postImport("restart.csv", FoodImportFormat.CSV_MEDIA_TYPE, corrected, true)
+                .andExpect(status().isConflict());
+        assertEquals(1, importedItems().size());
+        assertEquals(1, checkpointRepository.findById("restart.csv").orElseThrow().getRowsImported());
+    }
+
+    @Test
+    void testFileWithoutNameColumnIsRejected() {
+        assertThrows(InvalidInputException.class, () -> new FoodImportService(
+                entityManager, checkpointRepository, objectMapper, transactionManager, 10, 5).importFoodItems(
+                "no-name.csv", FoodImportFormat.CSV, new ByteArrayInputStream("Lysin\n1.0\n".getBytes()), false));
+    }
+
+    @Test
+    void testInvalidImportIsBadRequest() throws Exception {
+        postImport(" ", FoodImportFormat.CSV_MEDIA_TYPE, "name,Lysin\n" + PREFIX + "Blank,1.0\n")
+                .andExpect(status().isBadRequest());
+        postImport("no-name.csv", FoodImportFormat.CSV_MEDIA_TYPE, "Lysin;Leucin\n1.0;2.0\n")
+                .andExpect(status().isBadRequest());
+        assertEquals(List.of(), importedItems());
+    }
+
+    @Test
+    void testImportWhileAnotherIsRunningIsConflict() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream blocking = new FilterInputStream(new ByteArrayInputStream(
+                ("name,Lysin\n" + PREFIX + "Langsam,1.0\n").getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] buffer, int offset, int count) throws IOException {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                return super.read(buffer, offset, count);
+            }
+        };
+        CompletableFuture<FoodImportResultDTO> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return foodImportService.importFoodItems("slow.csv", FoodImportFormat.CSV, blocking, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            assertTrue(started.await(10, TimeUnit.SECONDS), "the first import did not start");
+            postImport("other.csv", FoodImportFormat.CSV_MEDIA_TYPE, "name,Lysin\n" + PREFIX + "Andere,1.0\n")
+                    .andExpect(status().isConflict());
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(1, running.get(10, TimeUnit.SECONDS).getRowsImported());
+        assertEquals(List.of(PREFIX + "Langsam"), importedItems().stream().map(FoodItem::getName).toList());
+    }
+
+    private ResultActions postImport(String source, String contentType, String content) throws Exception {
+        return postImport(source, contentType, content, false);
+    }
+
+    private ResultActions postImport(String source, String contentType, String content, boolean restart) throws Exception {
+        return mockMvc.perform(post("/food-items/import").param("source", source)
+                .param("restart", String.valueOf(restart))
+                .header(HttpHeaders.CONTENT_TYPE, contentType)
+                .content(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private FoodImportResultDTO importViaApi(String source, String contentType, String content) throws Exception {
+        return objectMapper.readValue(postImport(source, contentType, content)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), FoodImportResultDTO.class);
+    }
+
+    private List<String> search(String query) throws Exception {
+        List<FoodItemDTO> items = objectMapper.readValue(mockMvc.perform(get("/food-items/search").param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), new TypeReference<>() {});
+        return items.stream().map(FoodItemDTO::getName).toList();
+    }
+
+    private List<FoodItem> importedItems() {
+        return foodItemRepository.findAll().stream().filter(item -> item.getName().startsWith(PREFIX)).toList();
+    }
+
+    /**
+     * Serves the first bytes of a file, then fails like a dropped upload.
+     */
+    private static InputStream failingAfter(byte[] file, int length) {
+        return new FilterInputStream(new ByteArrayInputStream(file, 0, length)) {
+            @Override
+            public int read(byte[] buffer, int offset, int count) throws IOException {
+                int read = super.read(buffer, offset, count);
+                if (read == -1) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+        };
+    }
+}
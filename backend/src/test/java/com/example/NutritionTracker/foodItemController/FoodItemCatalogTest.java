@@ -0,0 +1,163 @@
+package com.example.NutritionTracker.foodItemController;
+
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.dto.FoodItemPageDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the keyset pages, the stream and the search of the food catalog, and the conditional GET on the catalog ETag.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FoodItemCatalogTest {
+
+    private static final Comparator<FoodItemDTO> CATALOG_ORDER =
+            Comparator.comparing(FoodItemDTO::getName).thenComparing(FoodItemDTO::getId);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testPagesCoverTheCatalogInOrder() throws Exception {
+        List<FoodItemDTO> items = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/food-items").param("limit", "3");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            FoodItemPageDTO page = objectMapper.readValue(
+                    mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString(),
+                    FoodItemPageDTO.class);
+            assertTrue(page.getItems().size() <= 3);
+            items.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(foodItemRepository.count(), items.size());
+        assertEquals(items.size(), new HashSet<>(ids(items)).size());
+        assertEquals(ids(items.stream().sorted(CATALOG_ORDER).toList()), ids(items));
+        assertEquals((items.size() + 2) / 3, pages);
+    }
+
+    @Test
+    void testStreamReturnsTheWholeCatalog() throws Exception {
+        MvcResult started = mockMvc.perform(get("/food-items/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String json = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<FoodItemDTO> items = objectMapper.readValue(json, new TypeReference<>() {});
+        assertEquals(foodItemRepository.count(), items.size());
+        assertEquals(ids(items.stream().sorted(CATALOG_ORDER).toList()), ids(items));
+    }
+
+    @Test
+    void testUnchangedCatalogIsNotModifiedWithoutQuery() throws Exception {
+        String eTag = mockMvc.perform(get("/food-items/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (String path : List.of("/food-items/all", "/food-items", "/food-items/stream")) {
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount(), "304 must be answered without touching the database");
+    }
+
+    @Test
+    void testETagChangesWhenTheCatalogChanges() throws Exception {
+        String before = currentETag();
+        FoodItem added = foodItemRepository.save(FoodItem.builder()
+                .name("Catalog Test Item")
+                .aminoAcidProfile(Map.of("Leucin", 1.0))
+                .build());
+        try {
+            String afterSave = currentETag();
+            assertNotEquals(before, afterSave);
+            mockMvc.perform(get("/food-items/all").header(HttpHeaders.IF_NONE_MATCH, before))
+                    .andExpect(status().isOk());
+        } finally {
+            foodItemRepository.delete(added);
+        }
+        assertNotEquals(before, currentETag());
+    }
+
+    @Test
+    void testSearchFollowsCatalogWrites() throws Exception {
+        assertEquals(List.of("Kichererbsen"), searchNames("kihcer"));
+        assertEquals(List.of(), searchNames("raeucher"));
+
+        FoodItem added = foodItemRepository.save(FoodItem.builder()
+                .name("Räuchertofu")
+                .aminoAcidProfile(Map.of("Leucin", 1.0))
+                .build());
+        try {
+            assertEquals(List.of("Räuchertofu"), searchNames("raeucher"));
+        } finally {
+            foodItemRepository.delete(added);
+        }
+        assertEquals(List.of(), searchNames("raeucher"));
+    }
+
+    @Test
+    void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/food-items").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> searchNames(String query) throws Exception {
+        List<FoodItemDTO> items = objectMapper.readValue(mockMvc.perform(get("/food-items/search").param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), new TypeReference<>() {});
+        return items.stream().map(FoodItemDTO::getName).toList();
+    }
+
+    private static List<UUID> ids(List<FoodItemDTO> items) {
+        return items.stream().map(FoodItemDTO::getId).toList();
+    }
+
+    private String currentETag() throws Exception {
+        return mockMvc.perform(get("/food-items").param("limit", "1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.NutritionTracker.foodNameIndex;
+
+import com.example.NutritionTracker.dto.FoodItemDTO;
+import com.example.NutritionTracker.search.FoodNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the food name search index: prefix, umlaut-folded and typo-tolerant matching,
+ * and incremental changes.
+ */
+class FoodNameIndexTest {
+
+    private final Map<String, UUID> ids = new LinkedHashMap<>();
+    private FoodNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("Kichererbsen", "Erbsen", "Sonnenblumenkerne", "Haferflocken",
+                "Haferflocken fein", "Käse", "Weißkohl", "Sojabohnen")) {
+            ids.put(name, UUID.randomUUID());
+        }
+        Map<UUID, String> names = new LinkedHashMap<>();
+        ids.forEach((name, id) -> names.put(id, name));
+        index = FoodNameIndex.of(names);
+    }
+
+    @Test
+    void testPrefixMatchesWordStartsInWordOrder() {
+        assertEquals(List.of("Kichererbsen"), names(index.search("kich", 10)));
+        assertEquals(List.of("Haferflocken", "Haferflocken fein"), names(index.search("HAFER", 10)));
+        assertEquals(List.of("Erbsen"), names(index.search("erb", 10)));
+        assertEquals(List.of("Haferflocken"), names(index.search("hafer", 1)));
+    }
+
+    @Test
+    void testUmlautsAndSharpSAreFolded() {
+        assertEquals(List.of("Käse"), names(index.search("kaese", 10)));
+        assertEquals(List.of("Käse"), names(index.search("Kä", 10)));
+        assertEquals(List.of("Weißkohl"), names(index.search("weiss", 10)));
+    }
+
+    @Test
+    void testTyposAreToleratedAfterExactMatches() {
+        assertEquals(List.of("Kichererbsen"), names(index.search("kihcer", 10)));
+        assertEquals(List.of("Sonnenblumenkerne"), names(index.search("sonenblumen", 10)));
+        assertEquals(List.of("Käse"), names(index.search("kase", 10)));
+        assertEquals(List.of(), names(index.search("xyz", 10)), "short terms must match exactly");
+        assertEquals(List.of(), names(index.search("lichererbsen", 10)), "the first character must match");
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        assertEquals(List.of("Haferflocken fein"), names(index.search("hafer fein", 10)));
+        assertEquals(List.of("Haferflocken fein"), names(index.search("fein hafer", 10)));
+        assertEquals(List.of(), names(index.search("hafer grob", 10)));
+        assertEquals(List.of(), names(index.search("  ", 10)));
+    }
+
+    @Test
+    void testChangesAreMergedIntoANewIndex() {
+        UUID tofu = UUID.randomUUID();
+        FoodNameIndex changed = index.apply(
+                Map.of(tofu, "Räuchertofu", ids.get("Erbsen"), "Gelbe Erbsen"),
+                List.of(ids.get("Kichererbsen")));
+
+        assertEquals(List.of("Räuchertofu"), names(changed.search("raeucher", 10)));
+        assertEquals(List.of("Gelbe Erbsen"), names(changed.search("erbsen", 10)));
+        assertEquals(List.of("Gelbe Erbsen"), names(changed.search("gelb", 10)));
+        assertEquals(List.of(), names(changed.search("kicher", 10)));
+        assertEquals(ids.size(), changed.size());
+
+        // The original index is unchanged
+        assertEquals(List.of("Kichererbsen"), names(index.search("kicher", 10)));
+        assertEquals(List.of(), names(index.search("tofu", 10)));
+    }
+
+    @Test
+    void testDeadSlotsAreCompacted() {
+        FoodNameIndex changed = index;
+        UUID id = ids.get("Sojabohnen");
+        for (int i = 0; i < 3000; i++) {
+            changed = changed.apply(Map.of(id, "Sojabohnen " + i), List.of());
+        }
+        assertEquals(List.of("Sojabohnen 2999"), names(changed.search("soja", 10)));
+        assertEquals(ids.size(), changed.size());
+    }
+
+    @Test
+    void testLargeDeltaIsMergedIntoTheBase() {
+        Map<UUID, String> added = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            added.put(UUID.randomUUID(), "Linsen " + i);
+        }
+        FoodNameIndex changed = index
+                .apply(Map.of(ids.get("Käse"), "Bergkäse"), List.of(ids.get("Erbsen")))
+                .apply(added, List.of());
+
+        assertEquals(ids.size() - 1 + added.size(), changed.size());
+        assertEquals(List.of("Linsen 4999"), names(changed.search("linsen 4999", 1)));
+        assertEquals(List.of("Bergkäse"), names(changed.search("bergkaese", 10)));
+        assertEquals(List.of(), names(changed.search("kaese", 10)));
+        assertEquals(List.of("Kichererbsen"), names(changed.search("kichererbsen", 10)));
+    }
+
+    private static List<String> names(List<FoodItemDTO> results) {
+        return results.stream().map(FoodItemDTO::getName).toList();
+    }
+}
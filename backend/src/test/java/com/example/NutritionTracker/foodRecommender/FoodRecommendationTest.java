@@ -0,0 +1,80 @@
+package com.example.NutritionTracker.foodRecommender;
+
+import com.example.NutritionTracker.dto.FoodRecommendationDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the food recommendations for the latest log against the seeded catalog.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FoodRecommendationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Test
+    void testRecommendationsAreRankedByClosedGap() throws Exception {
+        List<FoodRecommendationDTO> recommendations = recommend(3);
+
+        assertEquals(3, recommendations.size());
+        for (int i = 1; i < recommendations.size(); i++) {
+            assertTrue(recommendations.get(i - 1).getGapClosed() >= recommendations.get(i).getGapClosed());
+        }
+        FoodRecommendationDTO best = recommendations.get(0);
+        assertTrue(best.getGapClosed() > 0 && best.getGapClosed() <= 100);
+        assertEquals(foodItemRepository.findById(best.getFoodItemId()).orElseThrow().getName(), best.getName());
+        assertFalse(best.getCoverageGain().isEmpty());
+    }
+
+    @Test
+    void testNewFoodItemIsRankedAfterCatalogChange() throws Exception {
+        recommend(10);
+
+        Map<String, Double> profile = new HashMap<>();
+        for (String aminoAcid : List.of("Lysin", "Leucin", "Isoleucin", "Valin", "Methionin", "Phenylalanin",
+                "Threonin", "Tryptophan", "Histidin", "Glycin")) {
+            profile.put(aminoAcid, 100.0);
+        }
+        FoodItem complete = foodItemRepository.save(FoodItem.builder().name("Complete Protein").aminoAcidProfile(profile).build());
+        try {
+            FoodRecommendationDTO best = recommend(1).get(0);
+            assertEquals(complete.getId(), best.getFoodItemId());
+            assertEquals(100.0, best.getGapClosed(), 0.01);
+        } finally {
+            foodItemRepository.delete(complete);
+        }
+        assertTrue(recommend(10).stream().noneMatch(r -> r.getFoodItemId().equals(complete.getId())));
+    }
+
+    private List<FoodRecommendationDTO> recommend(int limit) throws Exception {
+        String json = mockMvc.perform(get("/amino-profile/recommendations").param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, new TypeReference<>() {});
+    }
+}
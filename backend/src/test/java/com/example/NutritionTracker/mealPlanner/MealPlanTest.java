@@ -0,0 +1,164 @@
+package com.example.NutritionTracker.mealPlanner;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.AminoVector;
+import com.example.NutritionTracker.dto.MealPlanDTO;
+import com.example.NutritionTracker.dto.MealPlanItemDTO;
+import com.example.NutritionTracker.dto.NutritionLogDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.service.FoodAminoMatrixCache;
+import com.example.NutritionTracker.service.MealPlanner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the meal plan for the latest log against the seeded catalog: the gaps are closed, a plan after
+ * logging a food item starts from the previous basis, and a plan gives up at its time limit.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MealPlanTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private FoodAminoMatrixCache matrixCache;
+
+    @Test
+    void testPlanClosesEveryGapAndIsReused() throws Exception {
+        MealPlanDTO plan = plan(5);
+
+        assertEquals("OPTIMAL", plan.getStatus());
+        assertFalse(plan.getItems().isEmpty());
+        assertTrue(plan.getItems().stream().allMatch(item -> item.getPortions() > 0 && item.getPortions() <= 5));
+        assertEquals(plan.getItems().stream().mapToDouble(MealPlanItemDTO::getPortions).sum(), plan.getTotalPortions(), 0.01);
+        assertTrue(plan.getCoverage().values().stream().allMatch(coverage -> coverage >= 100), plan.getCoverage().toString());
+
+        MealPlanDTO again = plan(5);
+        assertTrue(again.isWarmStart());
+        assertEquals(plan.getTotalPortions(), again.getTotalPortions(), 0.01);
+    }
+
+    @Test
+    void testPlanAfterLoggingAFoodItemStartsWarm() throws Exception {
+        MealPlanDTO first = plan(5);
+        assertEquals("OPTIMAL", first.getStatus());
+
+        // Eat half of a planned food item that is not in the log yet, so that the gaps shrink but stay open
+        NutritionLogDTO latest = latestLog();
+        Set<UUID> logged = latest.getFoodItems().stream().map(NutritionLogFoodItemDTO::getFoodItemId).collect(Collectors.toSet());
+        MealPlanItemDTO eaten = first.getItems().stream()
+                .filter(item -> !logged.contains(item.getFoodItemId()))
+                .findFirst().orElseThrow();
+        String foodItemPath = "/nutrition-logs/" + latest.getId() + "/food-items/" + eaten.getFoodItemId();
+        mockMvc.perform(post(foodItemPath).param("grams", String.valueOf(Math.max(1, eaten.getPortions() * 50))))
+                .andExpect(status().isCreated());
+        FoodItem water = null;
+        try {
+            MealPlanDTO warm = plan(5);
+            assertTrue(warm.isWarmStart());
+            assertEquals("OPTIMAL", warm.getStatus());
+            assertTrue(warm.getCoverage().values().stream().allMatch(coverage -> coverage >= 100), warm.getCoverage().toString());
+            assertTrue(warm.getTotalPortions() < first.getTotalPortions());
+
+            // A catalog change discards the basis, so the same gaps are solved from scratch
+            water = foodItemRepository.save(FoodItem.builder().name("Water").aminoAcidProfile(new HashMap<>()).build());
+            MealPlanDTO cold = plan(5);
+            assertFalse(cold.isWarmStart());
+            assertEquals(cold.getTotalPortions(), warm.getTotalPortions(), 0.01);
+            assertTrue(warm.getIterations() < cold.getIterations(),
+                    "warm " + warm.getIterations() + " vs. cold " + cold.getIterations() + " iterations");
+        } finally {
+            mockMvc.perform(delete(foodItemPath)).andExpect(status().isNoContent());
+            if (water != null) {
+                foodItemRepository.delete(water);
+            }
+        }
+    }
+
+    @Test
+    void testPlanGivesUpAtTheTimeLimit() {
+        AminoVector dailyNeeds = AminoVector.empty();
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            dailyNeeds.set(aminoAcid, 3.0);
+        }
+
+        MealPlanDTO plan = new MealPlanner(matrixCache, Duration.ZERO).plan(dailyNeeds, AminoVector.empty(), 5);
+
+        assertEquals("LIMIT_REACHED", plan.getStatus());
+        assertTrue(plan.getItems().isEmpty());
+        assertEquals(1, plan.getIterations());
+    }
+
+    @Test
+    void testNewFoodItemReplacesTheCombination() throws Exception {
+        plan(5);
+
+        Map<String, Double> profile = new HashMap<>();
+        for (String aminoAcid : List.of("Lysin", "Leucin", "Isoleucin", "Valin", "Methionin", "Phenylalanin",
+                "Threonin", "Tryptophan", "Histidin", "Glycin")) {
+            profile.put(aminoAcid, 100.0);
+        }
+        FoodItem complete = foodItemRepository.save(FoodItem.builder().name("Complete Protein").aminoAcidProfile(profile).build());
+        try {
+            MealPlanDTO plan = plan(5);
+            assertEquals("OPTIMAL", plan.getStatus());
+            assertFalse(plan.isWarmStart());
+            assertEquals(1, plan.getItems().size());
+            assertEquals(complete.getId(), plan.getItems().get(0).getFoodItemId());
+        } finally {
+            foodItemRepository.delete(complete);
+        }
+    }
+
+    @Test
+    void testNonFiniteMaxPortionsAreRejected() throws Exception {
+        for (String maxPortionsPerFood : List.of("NaN", "Infinity", "-Infinity")) {
+            mockMvc.perform(get("/amino-profile/meal-plan").param("maxPortionsPerFood", maxPortionsPerFood))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private NutritionLogDTO latestLog() throws Exception {
+        String json = mockMvc.perform(get("/nutrition-logs/latest"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, NutritionLogDTO.class);
+    }
+
+    private MealPlanDTO plan(double maxPortionsPerFood) throws Exception {
+        String json = mockMvc.perform(get("/amino-profile/meal-plan").param("maxPortionsPerFood", String.valueOf(maxPortionsPerFood)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, MealPlanDTO.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.NutritionTracker.metrics;
+
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void testScrapeEndpointExportsServiceAndRequestMetrics() throws Exception {
+        mockMvc.perform(post("/amino-profile/coverage")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("nutrition_service_seconds{"), "service timer missing");
+        assertTrue(scrape.contains("method=\"calculateAminoAcidCoverageForLatestLog\""), "coverage timer missing");
+        assertTrue(scrape.contains("method=\"calculateAminoAcidCoverageForLatestLog\",quantile=\"0.99\""),
+                "percentiles missing");
+        assertTrue(scrape.contains("http_server_requests_seconds{"), "request timer missing");
+        assertTrue(scrape.contains("nutrition_log_food_items_added_total"), "food item counter missing");
+        assertTrue(scrape.contains("nutrition_cache_gets_total{cache=\"amino_acid_requirements\",result=\"hit\"}"),
+                "cache counter missing");
+        assertTrue(scrape.contains("cache_gets_total{cache=\"foodItem\",result=\"hit\"}"), "cache region meters missing");
+    }
+
+    @Test
+    void testOptimisticLockFailureIsCountedAndReturnsConflict() throws Exception {
+        var response = globalExceptionHandler.handleOptimisticLockingFailure(
+                new ObjectOptimisticLockingFailureException(User.class, UUID.randomUUID()));
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("nutrition_optimistic_lock_failures_total{entity=\"User\"}"),
+                "optimistic lock counter missing");
+    }
+}
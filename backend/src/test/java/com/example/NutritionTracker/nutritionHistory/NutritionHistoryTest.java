@@ -0,0 +1,203 @@
+package com.example.NutritionTracker.nutritionHistory;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.Milligrams;
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import com.example.NutritionTracker.repo.AminoAcidRollupRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.UserDataService;
+import com.example.NutritionTracker.testSupport.CreatedLogs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the rollups maintained on write match the dated logs, and that any range is read from them exactly.
+ * Replacing a log whose rollups are missing books only the new log, and backfilling a past day keeps the latest log.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NutritionHistoryTest {
+
+    @RegisterExtension
+    final CreatedLogs createdLogs = new CreatedLogs();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private NutritionHistoryService nutritionHistoryService;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private AminoAcidRollupRepository rollupRepository;
+
+    @Autowired
+    private UserDataService userDataService;
+
+    @Test
+    void testRollupsMatchTheLogsOfTheRange() {
+        List<FoodItem> foods = foodItemRepository.findAll();
+        // Three days across a month boundary; the second log of 3 February replaces the first
+        NutritionLog january = createdLogs.create(LocalDate.of(2020, 1, 30));
+        nutritionLogService.addFoodItemToLog(january.getId(), foods.get(0).getId(), 150);
+        nutritionLogService.addFoodItemToLog(january.getId(), foods.get(1).getId(), 33.3);
+        nutritionLogService.removeFoodItemFromLog(january.getId(), foods.get(1).getId());
+
+        NutritionLog replaced = createdLogs.create(LocalDate.of(2020, 2, 3));
+        nutritionLogService.addFoodItemToLog(replaced.getId(), foods.get(2).getId(), 500);
+        NutritionLog february = createdLogs.create(LocalDate.of(2020, 2, 3));
+        nutritionLogService.addFoodItemToLog(february.getId(), foods.get(3).getId(), 80);
+
+        NutritionLog march = createdLogs.create(LocalDate.of(2020, 3, 15));
+        nutritionLogService.addFoodItemToLog(march.getId(), foods.get(0).getId(), 12.5);
+        nutritionLogService.addFoodItemToLog(march.getId(), foods.get(4).getId(), 250);
+
+        assertFalse(nutritionLogRepository.existsById(replaced.getId()));
+
+        NutritionHistoryDTO quarter = nutritionHistoryService.averageOverRange(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 31));
+        assertEquals(3, quarter.getLoggedDays());
+        List<NutritionLog> logs = List.of(reload(january), reload(february), reload(march));
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            long sum = logs.stream().mapToLong(log -> log.getAminoAcidTotals().getMilligrams(aminoAcid)).sum();
+            assertEquals(Milligrams.toGrams(Math.round(sum / 3.0)), quarter.getAverageIntake().get(aminoAcid.getDisplayName()),
+                    0.0, aminoAcid.name());
+        }
+
+        NutritionHistoryDTO february2020 = nutritionHistoryService.averageOverRange(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 29));
+        assertEquals(1, february2020.getLoggedDays());
+        assertEquals(reload(february).getAminoAcidTotals().get(AminoAcid.LYSIN),
+                february2020.getAverageIntake().get(AminoAcid.LYSIN.getDisplayName()), 0.0);
+
+        // A rebuild from the logs arrives at the same rollups
+        nutritionHistoryService.rebuildRollups();
+        NutritionHistoryDTO rebuilt = nutritionHistoryService.averageOverRange(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 31));
+        assertEquals(quarter.getAverageIntake(), rebuilt.getAverageIntake());
+        assertEquals(quarter.getAverageCoverage(), rebuilt.getAverageCoverage());
+    }
+
+    @Test
+    void testTrendHasOneEntryPerPeriod() throws Exception {
+        FoodItem food = foodItemRepository.findAll().get(0);
+        NutritionLog yesterday = createdLogs.create(LocalDate.now().minusDays(1));
+        nutritionLogService.addFoodItemToLog(yesterday.getId(), food.getId(), 200);
+
+        String json = mockMvc.perform(get("/nutrition-history/trend").param("period", "DAY").param("count", "7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        NutritionHistoryDTO[] trend = objectMapper.readValue(json, NutritionHistoryDTO[].class);
+
+        assertEquals(7, trend.length);
+        assertEquals(LocalDate.now(), trend[6].getTo());
+        assertEquals(LocalDate.now().minusDays(1), trend[5].getFrom());
+        assertEquals(1, trend[5].getLoggedDays());
+        assertEquals(reload(yesterday).getAminoAcidTotals().get(AminoAcid.LEUCIN),
+                trend[5].getAverageIntake().get(AminoAcid.LEUCIN.getDisplayName()), 0.0);
+        assertEquals(0, trend[4].getLoggedDays());
+        assertTrue(trend[4].getAverageCoverage().isEmpty());
+
+        mockMvc.perform(get("/nutrition-history/average").param("days", "30")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testEveryRangeCountsEachLoggedDayOnce() {
+        FoodItem food = foodItemRepository.findAll().get(0);
+        // Logs around month and week boundaries, read back through ranges starting and ending within months
+        Map<LocalDate, Long> lysinPerDay = new TreeMap<>();
+        for (LocalDate day : List.of(LocalDate.of(2021, 1, 31), LocalDate.of(2021, 2, 1), LocalDate.of(2021, 2, 15),
+                LocalDate.of(2021, 2, 28), LocalDate.of(2021, 3, 1), LocalDate.of(2021, 5, 17), LocalDate.of(2021, 12, 31))) {
+            NutritionLog nutritionLog = createdLogs.create(day);
+            nutritionLogService.addFoodItemToLog(nutritionLog.getId(), food.getId(), 10 + day.getDayOfYear());
+            lysinPerDay.put(day, reload(nutritionLog).getAminoAcidTotals().getMilligrams(AminoAcid.LYSIN));
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            LocalDate from = LocalDate.of(2021, 1, 1).plusDays(random.nextInt(365));
+            LocalDate to = from.plusDays(random.nextInt(400));
+            List<Long> inRange = lysinPerDay.entrySet().stream()
+                    .filter(entry -> !entry.getKey().isBefore(from) && !entry.getKey().isAfter(to))
+                    .map(Map.Entry::getValue)
+                    .toList();
+
+            NutritionHistoryDTO history = nutritionHistoryService.averageOverRange(from, to);
+            assertEquals(inRange.size(), history.getLoggedDays(), from + " to " + to);
+            if (!inRange.isEmpty()) {
+                long sum = inRange.stream().mapToLong(Long::longValue).sum();
+                assertEquals(Milligrams.toGrams(Math.round((double) sum / inRange.size())),
+                        history.getAverageIntake().get(AminoAcid.LYSIN.getDisplayName()), 0.0, from + " to " + to);
+            }
+        }
+    }
+
+    @Test
+    void testReplacingALogWithoutRollupsDoesNotBookIt() {
+        UUID userId = userDataService.getUser().map(UserDTO::getId).orElseThrow();
+        FoodItem food = foodItemRepository.findAll().get(0);
+        LocalDate day = LocalDate.of(2022, 6, 15);
+        NutritionLog old = createdLogs.create(day);
+        nutritionLogService.addFoodItemToLog(old.getId(), food.getId(), 300);
+        // As if the log had been written before the rollups existed
+        for (RollupPeriod period : RollupPeriod.values()) {
+            rollupRepository.deleteAll(rollupRepository.findByUserIdAndPeriodAndPeriodStartIn(userId, period, List.of(period.start(day))));
+        }
+
+        createdLogs.create(day);
+
+        NutritionHistoryDTO june = nutritionHistoryService.averageOverRange(LocalDate.of(2022, 6, 1), LocalDate.of(2022, 6, 30));
+        assertEquals(1, june.getLoggedDays());
+        june.getAverageIntake().forEach((aminoAcid, intake) -> assertEquals(0.0, intake, 0.0, aminoAcid));
+        assertEquals(1, rollupRepository.findByUserIdAndPeriodAndPeriodStartIn(userId, RollupPeriod.DAY, List.of(day))
+                .get(0).getLoggedDays());
+    }
+
+    @Test
+    void testBackfillingAPastDayKeepsTheLatestLog() throws Exception {
+        String latestLogId = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow().getId().toString();
+        // Created after the latest log, but for an earlier day
+        createdLogs.create(LocalDate.now().minusDays(40));
+
+        mockMvc.perform(get("/nutrition-logs/latest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(latestLogId));
+        mockMvc.perform(get("/amino-profile/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nutritionLogId").value(latestLogId));
+    }
+
+    private NutritionLog reload(NutritionLog nutritionLog) {
+        return nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+    }
+}
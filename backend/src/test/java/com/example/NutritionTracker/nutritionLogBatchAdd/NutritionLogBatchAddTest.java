@@ -0,0 +1,204 @@
+package com.example.NutritionTracker.nutritionLogBatchAdd;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemCreateDTO;
+import com.example.NutritionTracker.dto.NutritionLogFoodItemDTO;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.testSupport.CreatedLogs;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that a meal is added to a log with one request: duplicates are skipped, the totals are updated once,
+ * and the number of statements does not grow with the number of food items.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NutritionLogBatchAddTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private NutritionHistoryService nutritionHistoryService;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @RegisterExtension
+    final CreatedLogs createdLogs = new CreatedLogs();
+
+    private List<FoodItem> foods;
+
+    @BeforeEach
+    void loadFoods() {
+        foods = foodItemRepository.findAll();
+        assertTrue(foods.size() >= 8, "the seeded catalog must have at least 8 food items");
+    }
+
+    @Test
+    void testMealIsAddedOnceWithoutVersionBump() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2018, 3, 10));
+        nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(0).getId(), 50);
+        NutritionLog before = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        long version = before.getVersion();
+        assertEquals(1, before.getRevision());
+
+        List<NutritionLogFoodItemCreateDTO> meal = List.of(
+                new NutritionLogFoodItemCreateDTO(foods.get(1).getId(), 120.0),
+                new NutritionLogFoodItemCreateDTO(foods.get(0).getId(), 80.0),   // already in the log
+                new NutritionLogFoodItemCreateDTO(foods.get(2).getId(), null),   // 100 g
+                new NutritionLogFoodItemCreateDTO(foods.get(1).getId(), 999.0),  // listed twice
+                new NutritionLogFoodItemCreateDTO(foods.get(3).getId(), 7.5));
+        List<NutritionLogFoodItemDTO> added = addMeal(nutritionLog.getId(), meal, status().isCreated());
+
+        assertEquals(List.of(foods.get(1).getId(), foods.get(2).getId(), foods.get(3).getId()),
+                added.stream().map(NutritionLogFoodItemDTO::getFoodItemId).toList());
+        assertEquals(List.of(120.0, 100.0, 7.5), added.stream().map(NutritionLogFoodItemDTO::getGrams).toList());
+
+        NutritionLog stored = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        assertEquals(version, stored.getVersion(), "adding food items must not raise the version of the log");
+        assertEquals(2, stored.getRevision(), "the meal must raise the revision of the log once");
+
+        AminoAcidTotals expected = new TransactionTemplate(transactionManager).execute(status -> {
+            AminoAcidTotals totals = new AminoAcidTotals();
+            totals.addFood(foodItemRepository.findById(foods.get(0).getId()).orElseThrow(), 50_000);
+            totals.addFood(foodItemRepository.findById(foods.get(1).getId()).orElseThrow(), 120_000);
+            totals.addFood(foodItemRepository.findById(foods.get(2).getId()).orElseThrow(), 100_000);
+            totals.addFood(foodItemRepository.findById(foods.get(3).getId()).orElseThrow(), 7_500);
+            return totals;
+        });
+        assertEquals(4, stored.getAminoAcidTotals().getItemCount());
+        NutritionHistoryDTO day = nutritionHistoryService.averageOverRange(stored.getLogDate(), stored.getLogDate());
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            assertEquals(expected.getMilligrams(aminoAcid), stored.getAminoAcidTotals().getMilligrams(aminoAcid), aminoAcid.name());
+            assertEquals(stored.getAminoAcidTotals().get(aminoAcid),
+                    day.getAverageIntake().get(aminoAcid.getDisplayName()), 0.0, "rollup of " + aminoAcid.name());
+        }
+
+        // Adding the same meal again changes nothing
+        assertEquals(List.of(), addMeal(nutritionLog.getId(), meal, status().isCreated()));
+        NutritionLog unchanged = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        assertEquals(version, unchanged.getVersion());
+        assertEquals(2, unchanged.getRevision());
+    }
+
+    @Test
+    void testStatementsDoNotGrowWithTheMeal() {
+        // Warms the caches with every food item, so that both meals below read them alike
+        nutritionLogService.addFoodItemsToLog(createdLogs.create(LocalDate.of(2018, 4, 1)).getId(), meal(0, 8));
+
+        long small = statementsToAdd(createdLogs.create(LocalDate.of(2018, 4, 2)).getId(), meal(0, 2));
+        long large = statementsToAdd(createdLogs.create(LocalDate.of(2018, 4, 3)).getId(), meal(0, 8));
+        assertEquals(small, large, "8 food items must take as many statements as 2");
+    }
+
+    @Test
+    void testUnknownFoodItemAddsNothing() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2018, 5, 20));
+        List<NutritionLogFoodItemCreateDTO> meal = new ArrayList<>(meal(0, 2));
+        meal.add(new NutritionLogFoodItemCreateDTO(UUID.randomUUID(), 100.0));
+
+        mockMvc.perform(post("/nutrition-logs/{logId}/food-items", nutritionLog.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(meal)))
+                .andExpect(status().isNotFound());
+        assertEquals(0, nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow()
+                .getAminoAcidTotals().getItemCount());
+    }
+
+    @Test
+    void testTooManyFoodItemsAreRejected() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2018, 5, 21));
+        List<NutritionLogFoodItemCreateDTO> meal = new ArrayList<>(meal(0, 2));
+        while (meal.size() <= NutritionLogService.MAX_FOOD_ITEMS_PER_REQUEST) {
+            meal.add(new NutritionLogFoodItemCreateDTO(UUID.randomUUID(), 100.0));
+        }
+
+        assertMealIsRejected(nutritionLog.getId(), meal);
+    }
+
+    @Test
+    void testMissingFoodItemIdIsRejected() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2018, 5, 22));
+        List<NutritionLogFoodItemCreateDTO> meal = new ArrayList<>(meal(0, 2));
+        meal.add(new NutritionLogFoodItemCreateDTO(null, 100.0));
+
+        assertMealIsRejected(nutritionLog.getId(), meal);
+    }
+
+    private void assertMealIsRejected(UUID logId, List<NutritionLogFoodItemCreateDTO> meal) throws Exception {
+        mockMvc.perform(post("/nutrition-logs/{logId}/food-items", logId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(meal)))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, nutritionLogRepository.findById(logId).orElseThrow().getAminoAcidTotals().getItemCount());
+    }
+
+    private long statementsToAdd(UUID logId, List<NutritionLogFoodItemCreateDTO> meal) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(meal.size(), nutritionLogService.addFoodItemsToLog(logId, meal).size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<NutritionLogFoodItemCreateDTO> meal(int from, int to) {
+        return foods.subList(from, to).stream()
+                .map(food -> new NutritionLogFoodItemCreateDTO(food.getId(), 150.0))
+                .toList();
+    }
+
+    private List<NutritionLogFoodItemDTO> addMeal(UUID logId, List<NutritionLogFoodItemCreateDTO> meal,
+                                                  ResultMatcher expectedStatus) throws Exception {
+        return objectMapper.readValue(mockMvc.perform(post("/nutrition-logs/{logId}/food-items", logId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(meal)))
+                .andExpect(expectedStatus)
+                .andReturn().getResponse().getContentAsString(), new TypeReference<>() {});
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.NutritionTracker.nutritionLogConcurrency;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.AminoTotalsDriftDTO;
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.dto.NutritionLogCreateDTO;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.AminoAcidRollup;
+import com.example.NutritionTracker.entity.AminoAcidTotals;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.NutritionLogFoodItem;
+import com.example.NutritionTracker.entity.RollupPeriod;
+import com.example.NutritionTracker.repo.AminoAcidRollupRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.AminoTotalsConsistencyService;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.UserDataService;
+import com.example.NutritionTracker.testSupport.CreatedLogs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that parallel changes of one log, as sent by the food selection of the frontend,
+ * all succeed without losing or duplicating entries and keep the totals and rollups exact,
+ * and that parallel creations of logs within one week share its rollups.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentLogChangeTest {
+
+    private static final int REQUESTS = 100;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private NutritionHistoryService nutritionHistoryService;
+
+    @Autowired
+    private AminoTotalsConsistencyService aminoTotalsConsistencyService;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private UserDataService userDataService;
+
+    @Autowired
+    private AminoAcidRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @RegisterExtension
+    final CreatedLogs createdLogs = new CreatedLogs();
+
+    @Test
+    void testParallelAddsOfTheSameFoodsKeepOneEntryEach() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2017, 8, 1));
+        List<FoodItem> foods = foodItemRepository.findAll();
+        long version = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow().getVersion();
+
+        // Every food item is added REQUESTS / foods times at once
+        List<Runnable> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            UUID foodItemId = foods.get(i % foods.size()).getId();
+            requests.add(() -> nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foodItemId, 50));
+        }
+        runInParallel(requests);
+
+        assertEquals(foods.stream().map(FoodItem::getId).sorted().toList(), foodItemIds(nutritionLog.getId()));
+        NutritionLog stored = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        assertEquals(foods.size(), stored.getAminoAcidTotals().getItemCount());
+        assertEquals(version, stored.getVersion(), "adding food items must not raise the version of the log");
+        assertConsistent(stored);
+    }
+
+    @Test
+    void testParallelAddsAndRemovalsAddUp() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2017, 8, 2));
+        List<FoodItem> foods = foodItemRepository.findAll();
+        List<FoodItem> removed = foods.subList(0, foods.size() / 2);
+        List<FoodItem> added = foods.subList(foods.size() / 2, foods.size());
+        for (FoodItem food : removed) {
+            nutritionLogService.addFoodItemToLog(nutritionLog.getId(), food.getId(), 80);
+        }
+
+        List<Runnable> requests = new ArrayList<>();
+        for (FoodItem food : removed) {
+            requests.add(() -> nutritionLogService.removeFoodItemFromLog(nutritionLog.getId(), food.getId()));
+        }
+        for (FoodItem food : added) {
+            requests.add(() -> nutritionLogService.addFoodItemToLog(nutritionLog.getId(), food.getId(), 120));
+            requests.add(() -> nutritionLogService.addFoodItemToLog(nutritionLog.getId(), food.getId(), 120));
+        }
+        runInParallel(requests);
+
+        assertEquals(added.stream().map(FoodItem::getId).sorted().toList(), foodItemIds(nutritionLog.getId()));
+        NutritionLog stored = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        assertEquals(added.size(), stored.getAminoAcidTotals().getItemCount());
+        assertConsistent(stored);
+    }
+
+    @Test
+    void testParallelCreatesWithinOneWeekShareItsRollups() throws Exception {
+        UUID userId = userDataService.getUser().map(UserDTO::getId).orElseThrow();
+        LocalDate monday = LocalDate.of(2017, 10, 2);
+        List<Callable<NutritionLog>> creations = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = monday.plusDays(i);
+            creations.add(() -> nutritionLogService.createLogFromFrontend(new NutritionLogCreateDTO(userId, day)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(creations.size());
+        try {
+            for (Future<NutritionLog> creation : executor.invokeAll(creations)) {
+                createdLogs.add(creation.get(60, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (RollupPeriod period : List.of(RollupPeriod.WEEK, RollupPeriod.MONTH)) {
+            List<AminoAcidRollup> rollups = rollupRepository.findByUserIdAndPeriodAndPeriodStartIn(
+                    userId, period, List.of(period.start(monday)));
+            assertEquals(1, rollups.size(), period.name());
+            assertEquals(7, rollups.get(0).getLoggedDays(), period.name());
+        }
+    }
+
+    @Test
+    void testRepairDoesNotOverwriteAConcurrentAdd() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2017, 8, 3));
+        List<FoodItem> foods = foodItemRepository.findAll();
+        nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(0).getId(), 100);
+        // A lost update: the totals and rollups hold a portion without an entry
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            AminoAcidTotals lost = new AminoAcidTotals();
+            lost.addFood(foodItemRepository.findById(foods.get(1).getId()).orElseThrow(), 50_000);
+            nutritionLogRepository.addTotals(nutritionLog.getId(), lost);
+            nutritionHistoryService.foodsAdded(nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow(), lost);
+        });
+
+        // The repair reads the log while an add holds its lock, and must wait for it before writing
+        FutureTask<List<AminoTotalsDriftDTO>> repair = new FutureTask<>(() -> aminoTotalsConsistencyService.verifyTotals(true));
+        Thread repairThread = new Thread(repair, "totals-repair");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(2).getId(), 120);
+            repairThread.start();
+            awaitBlocked(repairThread);
+        });
+
+        List<AminoTotalsDriftDTO> drift = repair.get(60, TimeUnit.SECONDS);
+        assertTrue(drift.stream().anyMatch(entry -> entry.getNutritionLogId().equals(nutritionLog.getId()) && entry.isRepaired()));
+        assertEquals(List.of(foods.get(0).getId(), foods.get(2).getId()).stream().sorted().toList(), foodItemIds(nutritionLog.getId()));
+        NutritionLog stored = nutritionLogRepository.findById(nutritionLog.getId()).orElseThrow();
+        assertEquals(2, stored.getAminoAcidTotals().getItemCount());
+        assertConsistent(stored);
+    }
+
+    @Test
+    void testReplacementWaitsForAConcurrentAdd() throws Exception {
+        NutritionLog nutritionLog = createdLogs.create(LocalDate.of(2017, 8, 4));
+        List<FoodItem> foods = foodItemRepository.findAll();
+        nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(0).getId(), 100);
+
+        // The replacement finds the log while an add holds its lock, and must take the added portion out as well
+        UUID userId = userDataService.getUser().map(UserDTO::getId).orElseThrow();
+        FutureTask<NutritionLog> replacement = new FutureTask<>(() -> nutritionLogService.createLogFromFrontend(
+                new NutritionLogCreateDTO(userId, nutritionLog.getLogDate())));
+        Thread replacementThread = new Thread(replacement, "log-replacement");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(1).getId(), 120);
+            replacementThread.start();
+            awaitBlocked(replacementThread);
+        });
+
+        NutritionLog replaced = replacement.get(60, TimeUnit.SECONDS);
+        createdLogs.add(replaced.getId());
+        assertTrue(nutritionLogRepository.findById(nutritionLog.getId()).isEmpty());
+        NutritionHistoryDTO day = nutritionHistoryService.averageOverRange(replaced.getLogDate(), replaced.getLogDate());
+        assertEquals(1, day.getLoggedDays());
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            assertEquals(0.0, day.getAverageIntake().get(aminoAcid.getDisplayName()), 0.0, "rollup of " + aminoAcid.name());
+        }
+    }
+
+    private void assertConsistent(NutritionLog stored) {
+        List<AminoTotalsDriftDTO> drift = aminoTotalsConsistencyService.verifyTotals(false);
+        assertTrue(drift.stream().noneMatch(entry -> entry.getNutritionLogId().equals(stored.getId())),
+                "the stored totals must match the entries");
+
+        NutritionHistoryDTO day = nutritionHistoryService.averageOverRange(stored.getLogDate(), stored.getLogDate());
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            assertEquals(stored.getAminoAcidTotals().get(aminoAcid),
+                    day.getAverageIntake().get(aminoAcid.getDisplayName()), 0.0, "rollup of " + aminoAcid.name());
+        }
+    }
+
+    private List<UUID> foodItemIds(UUID logId) {
+        return nutritionLogRepository.findWithFoodItemsById(logId).orElseThrow().getFoodItems().stream()
+                .map(NutritionLogFoodItem::getFoodItem)
+                .map(FoodItem::getId)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Waits until a thread waits for a lock, at most a few seconds. A thread that comes later only meets
+     * a change that has already committed.
+     */
+    private static void awaitBlocked(Thread thread) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && thread.getState() != Thread.State.WAITING
+                && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    /**
+     * Starts all requests at once, each on its own thread, and fails with the first failed request.
+     */
+    private static void runInParallel(List<Runnable> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (Runnable request : requests) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    request.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
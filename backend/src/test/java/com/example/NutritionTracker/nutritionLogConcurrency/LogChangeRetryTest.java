@@ -0,0 +1,60 @@
+package com.example.NutritionTracker.nutritionLogConcurrency;
+
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.NutritionMetrics;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that a change of a log is run again only after colliding with a concurrent entry of the same food item.
+ */
+@ExtendWith(MockitoExtension.class)
+class LogChangeRetryTest {
+
+    @InjectMocks
+    private NutritionLogService nutritionLogService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private NutritionMetrics nutritionMetrics;
+
+    @Test
+    void testConcurrentEntryOfTheSameFoodIsRetried() {
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate entry",
+                new ConstraintViolationException("duplicate entry", new SQLException("duplicate entry", "23505"),
+                        "PUBLIC.UK_NUTRITION_LOG_FOOD_ITEM_LOG_FOOD_INDEX_C"));
+        when(transactionTemplate.execute(any())).thenThrow(duplicate);
+
+        assertSame(duplicate, assertThrows(DataIntegrityViolationException.class,
+                () -> nutritionLogService.removeFoodItemFromLog(UUID.randomUUID(), UUID.randomUUID())));
+        verify(transactionTemplate, times(5)).execute(any());
+        verify(nutritionMetrics, times(4)).logChangeRetried();
+    }
+
+    @Test
+    void testOtherIntegrityViolationIsThrownAtOnce() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("NULL not allowed",
+                new ConstraintViolationException("NULL not allowed", new SQLException("NULL not allowed", "23502"), null));
+        when(transactionTemplate.execute(any())).thenThrow(notNull);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> nutritionLogService.removeFoodItemFromLog(UUID.randomUUID(), UUID.randomUUID())));
+        verify(transactionTemplate).execute(any());
+        verifyNoInteractions(nutritionMetrics);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.NutritionTracker.nutritionLogController;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogFoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that a portion out of range is rejected with 400 Bad Request and leaves the log unchanged,
+ * while an unknown log is still answered with 404 Not Found.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NutritionLogPortionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private NutritionLogFoodItemRepository nutritionLogFoodItemRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Test
+    void testPortionOutOfRangeIsRejected() throws Exception {
+        NutritionLog latestLog = nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow();
+        List<FoodItem> foods = foodItemRepository.findAll();
+        Set<UUID> present = nutritionLogFoodItemRepository.findFoodItemIdsInLog(latestLog.getId(), foods.stream().map(FoodItem::getId).toList());
+        FoodItem food = foods.stream().filter(candidate -> !present.contains(candidate.getId())).findFirst().orElseThrow();
+
+        for (String grams : List.of("0", "20000")) {
+            mockMvc.perform(post("/nutrition-logs/{logId}/food-items/{foodItemId}", latestLog.getId(), food.getId())
+                            .param("grams", grams))
+                    .andExpect(status().isBadRequest());
+        }
+
+        assertEquals(Set.of(), nutritionLogFoodItemRepository.findFoodItemIdsInLog(latestLog.getId(), List.of(food.getId())));
+        assertEquals(latestLog.getRevision(), nutritionLogRepository.findById(latestLog.getId()).orElseThrow().getRevision());
+    }
+
+    @Test
+    void testUnknownLogIsNotFound() throws Exception {
+        mockMvc.perform(get("/nutrition-logs/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+}
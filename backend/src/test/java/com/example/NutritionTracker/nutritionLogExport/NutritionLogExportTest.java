@@ -0,0 +1,160 @@
+package com.example.NutritionTracker.nutritionLogExport;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.dto.NutritionHistoryDTO;
+import com.example.NutritionTracker.dto.NutritionLogExportDTO;
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.testSupport.CreatedLogs;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that the log export streams every log of the user with the totals and coverage of its day.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NutritionLogExportTest {
+
+    private static final List<LocalDate> DAYS =
+            List.of(LocalDate.of(2019, 5, 2), LocalDate.of(2019, 5, 1), LocalDate.of(2019, 6, 30));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NutritionLogService nutritionLogService;
+
+    @Autowired
+    private NutritionHistoryService nutritionHistoryService;
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @RegisterExtension
+    final CreatedLogs createdLogs = new CreatedLogs();
+
+    @BeforeEach
+    void createLogs() {
+        List<FoodItem> foods = foodItemRepository.findAll();
+        for (int i = 0; i < DAYS.size(); i++) {
+            NutritionLog nutritionLog = createdLogs.create(DAYS.get(i));
+            for (int j = 0; j <= i; j++) {
+                nutritionLogService.addFoodItemToLog(nutritionLog.getId(), foods.get(i + j).getId(), 40 + 30 * j);
+            }
+        }
+    }
+
+    @Test
+    void testNdjsonHasEveryLogWithTotalsAndCoverage() throws Exception {
+        MvcResult result = export("NDJSON");
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        assertTrue(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("nutrition-logs.ndjson"));
+
+        List<NutritionLogExportDTO> exported = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            exported.add(objectMapper.readValue(line, NutritionLogExportDTO.class));
+        }
+        assertEquals(nutritionLogRepository.count(), exported.size());
+        List<LocalDate> days = exported.stream().map(NutritionLogExportDTO::getLogDate).toList();
+        assertEquals(days.stream().sorted().toList(), days);
+
+        Map<UUID, NutritionLogExportDTO> byId = new HashMap<>();
+        exported.forEach(nutritionLog -> byId.put(nutritionLog.getId(), nutritionLog));
+        for (UUID id : createdLogs.ids()) {
+            NutritionLog stored = nutritionLogRepository.findById(id).orElseThrow();
+            NutritionLogExportDTO nutritionLog = byId.get(id);
+            assertEquals(stored.getLogDate(), nutritionLog.getLogDate());
+            assertEquals(stored.getAminoAcidTotals().getItemCount(), nutritionLog.getItemCount());
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                assertEquals(stored.getAminoAcidTotals().get(aminoAcid),
+                        nutritionLog.getIntake().get(aminoAcid.getDisplayName()), 0.0, aminoAcid.name());
+            }
+            // One logged day, so the history of the day averages over this log alone
+            NutritionHistoryDTO day = nutritionHistoryService.averageOverRange(stored.getLogDate(), stored.getLogDate());
+            assertEquals(day.getAverageCoverage(), nutritionLog.getCoverage());
+        }
+    }
+
+    @Test
+    void testCsvHasHeaderAndOneRowPerLog() throws Exception {
+        MvcResult result = export("CSV");
+        assertEquals("text/csv", result.getResponse().getContentType());
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        List<String> header = List.of(lines.get(0).split(","));
+        assertEquals(List.of("id", "logDate", "createdAt", "itemCount", "Lysin g"), header.subList(0, 5));
+        assertEquals(4 + 2 * AminoAcid.COUNT, header.size());
+        assertEquals(nutritionLogRepository.count(), lines.size() - 1);
+
+        NutritionLog stored = nutritionLogRepository.findById(createdLogs.ids().get(2)).orElseThrow();
+        String[] row = lines.stream().filter(line -> line.startsWith(stored.getId().toString()))
+                .findFirst().orElseThrow().split(",", -1);
+        assertEquals(header.size(), row.length);
+        assertEquals("2019-06-30", row[1]);
+        assertEquals("3", row[3]);
+        assertEquals(stored.getAminoAcidTotals().get(AminoAcid.LYSIN), Double.parseDouble(row[header.indexOf("Lysin g")]), 0.0);
+    }
+
+    @Test
+    void testExportReadsNoEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<UUID> exported = new ArrayList<>();
+        nutritionHistoryService.forEachLog(nutritionLog -> exported.add(nutritionLog.getId()));
+
+        assertTrue(exported.containsAll(createdLogs.ids()));
+        assertEquals(0, statistics.getEntityLoadCount(), "the logs must be read as projections");
+        assertEquals(0, statistics.getCollectionLoadCount(), "the food items must not be read");
+    }
+
+    @Test
+    void testUnknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/nutrition-logs/export").param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/nutrition-logs/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
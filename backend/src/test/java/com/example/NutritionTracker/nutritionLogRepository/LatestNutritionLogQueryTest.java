@@ -0,0 +1,86 @@
+package com.example.NutritionTracker.nutritionLogRepository;
+
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.entity.User;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LatestNutritionLogQueryTest {
+
+    @Autowired
+    private NutritionLogRepository nutritionLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testIdsAreTimeOrderedVersion7() {
+        User user = userRepository.save(User.builder().name("Test").weight(70.0).build());
+
+        List<NutritionLog> logs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            // One log per day, as a user keeps only one
+            logs.add(nutritionLogRepository.save(NutritionLog.builder().user(user).logDate(LocalDate.now().minusDays(i)).build()));
+        }
+
+        for (int i = 1; i < logs.size(); i++) {
+            assertEquals(7, logs.get(i).getId().version());
+            assertTrue(logs.get(i - 1).getId().compareTo(logs.get(i).getId()) < 0, "IDs must be increasing");
+        }
+    }
+
+    @Test
+    void testLatestLogGlobalAndPerUser() {
+        User anna = userRepository.save(User.builder().name("Anna").weight(60.0).build());
+        User ben = userRepository.save(User.builder().name("Ben").weight(80.0).build());
+
+        NutritionLog latestOfAnna = nutritionLogRepository.save(NutritionLog.builder().user(anna).build());
+        NutritionLog latestOfBen = nutritionLogRepository.save(NutritionLog.builder().user(ben).build());
+        // Created last, but for an earlier day
+        nutritionLogRepository.save(NutritionLog.builder().user(anna).logDate(LocalDate.now().minusDays(1)).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(latestOfBen.getId(), nutritionLogRepository.findFirstByOrderByLogDateDescIdDesc().orElseThrow().getId());
+        assertEquals(latestOfAnna.getId(), nutritionLogRepository.findFirstByUserOrderByLogDateDesc(anna).orElseThrow().getId());
+        assertNotNull(latestOfAnna.getCreatedAt());
+    }
+
+    @Test
+    void testLatestLogQueriesUseIndexInsteadOfSort() {
+        String globalPlan = explain("SELECT id FROM nutrition_log ORDER BY log_date DESC, id DESC FETCH FIRST 1 ROWS ONLY");
+        assertTrue(globalPlan.contains("IDX_NUTRITION_LOG_LOG_DATE"), globalPlan);
+        assertTrue(globalPlan.contains("index sorted"), globalPlan);
+
+        String userPlan = explain("SELECT id FROM nutrition_log WHERE user_id = CAST('00000000-0000-7000-8000-000000000000' AS UUID) "
+                + "ORDER BY log_date DESC FETCH FIRST 1 ROWS ONLY");
+        // H2 seeks to the user's rows via any index on user_id and sorts them; PostgreSQL reads them in the order
+        // of the unique (user_id, log_date) index
+        assertTrue(userPlan.contains(": USER_ID ="), userPlan);
+        assertEquals(List.of("USER_ID", "LOG_DATE"), entityManager.createNativeQuery(
+                "SELECT column_name FROM information_schema.index_columns "
+                        + "WHERE index_name LIKE 'IDX_NUTRITION_LOG_USER_LOG_DATE%' ORDER BY ordinal_position").getResultList());
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+}
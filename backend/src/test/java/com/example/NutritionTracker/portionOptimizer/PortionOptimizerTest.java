@@ -0,0 +1,202 @@
+package com.example.NutritionTracker.portionOptimizer;
+
+import com.example.NutritionTracker.amino.AminoAcid;
+import com.example.NutritionTracker.amino.FoodAminoMatrix;
+import com.example.NutritionTracker.amino.PortionOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.example.NutritionTracker.amino.AminoAcid.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the portion optimizer on small programs with a known optimum, against a brute force search
+ * and on random catalogs.
+ */
+class PortionOptimizerTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE / 2;
+
+    @Test
+    void testFindsTheCheapestCombination() {
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        int lysine = builder.addFood(UUID.randomUUID(), "Lysine");
+        builder.set(lysine, LYSIN, 2.0);
+        int leucine = builder.addFood(UUID.randomUUID(), "Leucine");
+        builder.set(leucine, LEUCIN, 2.0);
+        int both = builder.addFood(UUID.randomUUID(), "Both");
+        builder.set(both, LYSIN, 1.5).set(both, LEUCIN, 1.5);
+        PortionOptimizer optimizer = new PortionOptimizer(builder.build(), LYSIN, LEUCIN);
+
+        PortionOptimizer.Solution solution = optimizer.solve(new double[]{2, 2}, 10, null, NO_DEADLINE);
+        assertEquals(PortionOptimizer.Status.OPTIMAL, solution.status());
+        assertArrayEquals(new int[]{both}, solution.rows());
+        assertEquals(4 / 3.0, solution.portions()[0], 1e-9);
+
+        // Capped at one portion per food item, the remaining gap needs the single amino acid food items
+        PortionOptimizer.Solution capped = optimizer.solve(new double[]{2, 2}, 1, solution.basis(), NO_DEADLINE);
+        assertEquals(PortionOptimizer.Status.OPTIMAL, capped.status());
+        assertEquals(3, capped.rows().length);
+        assertEquals(1 + 0.25 + 0.25, Arrays.stream(capped.portions()).sum(), 1e-9);
+
+        assertEquals(PortionOptimizer.Status.INFEASIBLE,
+                optimizer.solve(new double[]{2, 2}, 0.5, null, NO_DEADLINE).status());
+        assertEquals(0, optimizer.solve(new double[]{0, 0}, 10, null, NO_DEADLINE).rows().length);
+    }
+
+    @Test
+    void testRestrictedSolveReturnsMatrixRows() {
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        int lysine = builder.addFood(UUID.randomUUID(), "Lysine");
+        builder.set(lysine, LYSIN, 2.0);
+        int leucine = builder.addFood(UUID.randomUUID(), "Leucine");
+        builder.set(leucine, LEUCIN, 2.0);
+        int both = builder.addFood(UUID.randomUUID(), "Both");
+        builder.set(both, LYSIN, 1.5).set(both, LEUCIN, 1.5);
+        PortionOptimizer optimizer = new PortionOptimizer(builder.build(), LYSIN, LEUCIN);
+
+        PortionOptimizer.Solution solution = optimizer.solve(new int[]{leucine, lysine}, new double[]{2, 2}, 10, NO_DEADLINE);
+
+        assertEquals(PortionOptimizer.Status.OPTIMAL, solution.status());
+        int[] rows = solution.rows().clone();
+        Arrays.sort(rows);
+        assertArrayEquals(new int[]{lysine, leucine}, rows);
+        assertArrayEquals(new double[]{1, 1}, solution.portions(), 1e-9);
+    }
+
+    @Test
+    void testNoPortionsOnAGridAreCheaperThanTheOptimum() {
+        AminoAcid[] aminoAcids = {LYSIN, LEUCIN, VALIN};
+        double maxPortions = 2;
+        double step = 0.1;
+        int steps = (int) Math.round(maxPortions / step);
+        Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial++) {
+            FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+            double[][] values = new double[4][aminoAcids.length];
+            for (int food = 0; food < values.length; food++) {
+                int row = builder.addFood(new UUID(trial, food), "Food " + food);
+                for (int a = 0; a < aminoAcids.length; a++) {
+                    values[food][a] = random.nextInt(4) == 0 ? 0 : random.nextInt(1, 31) / 10.0;
+                    builder.set(row, aminoAcids[a], values[food][a]);
+                }
+            }
+            double[] gaps = new double[aminoAcids.length];
+            for (int a = 0; a < gaps.length; a++) {
+                gaps[a] = random.nextInt(1, 61) / 10.0;
+            }
+
+            // Brute force: the cheapest feasible portions on a grid of 0.1 portions, at most 2 per food item
+            double cheapest = Double.POSITIVE_INFINITY;
+            int[] portions = new int[values.length];
+            for (int combination = 0; combination < Math.pow(steps + 1, values.length); combination++) {
+                int rest = combination;
+                for (int food = 0; food < values.length; food++) {
+                    portions[food] = rest % (steps + 1);
+                    rest /= steps + 1;
+                }
+                boolean covered = true;
+                for (int a = 0; a < aminoAcids.length && covered; a++) {
+                    double sum = 0;
+                    for (int food = 0; food < values.length; food++) {
+                        sum += values[food][a] * portions[food] * step;
+                    }
+                    covered = sum >= gaps[a] - 1e-9;
+                }
+                if (covered) {
+                    cheapest = Math.min(cheapest, Arrays.stream(portions).sum() * step);
+                }
+            }
+
+            PortionOptimizer.Solution solution = new PortionOptimizer(builder.build(), aminoAcids)
+                    .solve(gaps, maxPortions, null, NO_DEADLINE);
+            if (cheapest == Double.POSITIVE_INFINITY) {
+                // The grid contains the cap of every food item, so nothing is feasible at all
+                assertEquals(PortionOptimizer.Status.INFEASIBLE, solution.status(), "trial " + trial);
+                continue;
+            }
+            assertEquals(PortionOptimizer.Status.OPTIMAL, solution.status(), "trial " + trial);
+            double total = Arrays.stream(solution.portions()).sum();
+            assertTrue(total <= cheapest + 1e-9, "trial " + trial + ": " + total + " vs. grid " + cheapest);
+            // Rounding the optimum up to the grid is feasible, so the grid is at most one step per food item worse
+            assertTrue(cheapest <= total + values.length * step + 1e-9, "trial " + trial + ": " + total + " vs. grid " + cheapest);
+            double[] covered = new double[aminoAcids.length];
+            for (int i = 0; i < solution.rows().length; i++) {
+                assertTrue(solution.portions()[i] <= maxPortions + 1e-9);
+                for (int a = 0; a < aminoAcids.length; a++) {
+                    covered[a] += values[solution.rows()[i]][a] * solution.portions()[i];
+                }
+            }
+            for (int a = 0; a < aminoAcids.length; a++) {
+                assertTrue(covered[a] >= gaps[a] - 1e-6, "trial " + trial + ": " + aminoAcids[a] + " not covered");
+            }
+        }
+    }
+
+    @Test
+    void testWarmStartReachesTheSameOptimumInFewerIterations() {
+        Random random = new Random(11);
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        for (int i = 0; i < 5_000; i++) {
+            int row = builder.addFood(new UUID(0, i), "Food " + i);
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                if (random.nextInt(3) > 0) {
+                    builder.set(row, aminoAcid, Math.round(random.nextDouble() * 30) / 10.0);
+                }
+            }
+        }
+        FoodAminoMatrix matrix = builder.build();
+        PortionOptimizer optimizer = new PortionOptimizer(matrix, AminoAcid.values());
+        double[] gaps = new double[AminoAcid.COUNT];
+        Arrays.fill(gaps, 4.0);
+
+        PortionOptimizer.Solution first = optimizer.solve(gaps, 2, null, NO_DEADLINE);
+        assertEquals(PortionOptimizer.Status.OPTIMAL, first.status());
+        assertCovered(matrix, first, gaps, 2);
+
+        // A food item was logged: some gaps shrink
+        double[] smallerGaps = gaps.clone();
+        smallerGaps[LYSIN.ordinal()] = 1.0;
+        smallerGaps[VALIN.ordinal()] = 2.5;
+        PortionOptimizer.Solution cold = optimizer.solve(smallerGaps, 2, null, NO_DEADLINE);
+        PortionOptimizer.Solution warm = optimizer.solve(smallerGaps, 2, first.basis(), NO_DEADLINE);
+
+        assertEquals(PortionOptimizer.Status.OPTIMAL, warm.status());
+        assertCovered(matrix, warm, smallerGaps, 2);
+        assertEquals(Arrays.stream(cold.portions()).sum(), Arrays.stream(warm.portions()).sum(), 1e-6);
+        assertTrue(warm.iterations() < cold.iterations(),
+                "warm " + warm.iterations() + " vs. cold " + cold.iterations() + " iterations");
+    }
+
+    @Test
+    void testGivesUpAtTheDeadline() {
+        FoodAminoMatrix.Builder builder = FoodAminoMatrix.builder();
+        int row = builder.addFood(UUID.randomUUID(), "Lysine");
+        builder.set(row, LYSIN, 2.0);
+        PortionOptimizer optimizer = new PortionOptimizer(builder.build(), LYSIN);
+
+        PortionOptimizer.Solution solution = optimizer.solve(new double[]{2}, 10, null, System.nanoTime() - 1);
+
+        assertEquals(PortionOptimizer.Status.LIMIT_REACHED, solution.status());
+        // The interrupted basis still serves as a start
+        assertEquals(PortionOptimizer.Status.OPTIMAL,
+                optimizer.solve(new double[]{2}, 10, solution.basis(), NO_DEADLINE).status());
+    }
+
+    private static void assertCovered(FoodAminoMatrix matrix, PortionOptimizer.Solution solution, double[] gaps,
+                                      double maxPortions) {
+        double[] covered = new double[AminoAcid.COUNT];
+        for (int i = 0; i < solution.rows().length; i++) {
+            assertTrue(solution.portions()[i] <= maxPortions + 1e-9);
+            for (AminoAcid aminoAcid : AminoAcid.values()) {
+                covered[aminoAcid.ordinal()] += matrix.get(solution.rows()[i], aminoAcid) * solution.portions()[i];
+            }
+        }
+        for (AminoAcid aminoAcid : AminoAcid.values()) {
+            assertTrue(covered[aminoAcid.ordinal()] >= gaps[aminoAcid.ordinal()] - 1e-6, aminoAcid + " not covered");
+        }
+    }
+}
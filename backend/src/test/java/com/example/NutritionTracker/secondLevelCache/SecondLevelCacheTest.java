@@ -0,0 +1,95 @@
+package com.example.NutritionTracker.secondLevelCache;
+
+import com.example.NutritionTracker.entity.FoodItem;
+import com.example.NutritionTracker.repo.AminoAcidRequirementRepository;
+import com.example.NutritionTracker.repo.FoodItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that food items, their amino acid profiles and the requirements are served from
+ * the second-level cache once loaded, and that writes are visible through the query cache.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private AminoAcidRequirementRepository aminoAcidRequirementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFoodItemAndProfileAreLoadedFromCache() {
+        UUID id = foodItemRepository.findAll().get(0).getId();
+        loadWithProfile(id);
+
+        statistics.clear();
+        Map<String, Double> profile = loadWithProfile(id);
+
+        assertFalse(profile.isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount(), "cached food item must not hit the database");
+        assertEquals(1, statistics.getDomainDataRegionStatistics(FoodItem.CACHE_REGION).getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(FoodItem.PROFILE_CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    void testFindAllIsServedFromQueryCache() {
+        foodItemRepository.findAll();
+        aminoAcidRequirementRepository.findAll();
+
+        statistics.clear();
+        assertFalse(foodItemRepository.findAll().isEmpty());
+        assertFalse(aminoAcidRequirementRepository.findAll().isEmpty());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "cached queries must not hit the database");
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testSavedFoodItemInvalidatesQueryCache() {
+        int before = foodItemRepository.findAll().size();
+
+        FoodItem saved = foodItemRepository.save(FoodItem.builder().name("Tempeh").aminoAcidProfile(Map.of("Lysin", 0.9)).build());
+        try {
+            List<FoodItem> after = foodItemRepository.findAll();
+            assertEquals(before + 1, after.size());
+            assertTrue(after.stream().anyMatch(food -> food.getId().equals(saved.getId())));
+        } finally {
+            foodItemRepository.deleteById(saved.getId());
+        }
+        assertEquals(before, foodItemRepository.findAll().size());
+    }
+
+    private Map<String, Double> loadWithProfile(UUID id) {
+        return transactionTemplate.execute(status ->
+                Map.copyOf(foodItemRepository.findById(id).orElseThrow().getAminoAcidProfile()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.NutritionTracker.singleFlight;
+
+import com.example.NutritionTracker.service.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that concurrent callers with the same key share one computation, while callers with other keys
+ * and later callers compute on their own.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 50;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(true);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.run("log-1", () -> {
+                computations.incrementAndGet();
+                await(release);
+                return new Object();
+            })));
+        }
+        // Keep the computation running until every other caller has joined it
+        awaitJoined(singleFlight, CALLERS - 1);
+        release.countDown();
+
+        Object shared = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertSame(shared, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, singleFlight.getComputedCount());
+        assertEquals(CALLERS - 1, singleFlight.getJoinedCount());
+
+        // Nothing is kept once the computation is done
+        assertNotSame(shared, singleFlight.run("log-1", Object::new));
+        assertEquals(2, singleFlight.getComputedCount());
+    }
+
+    @Test
+    void testFailureIsThrownToEveryWaitingCaller() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(true);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> singleFlight.run("log-1", () -> {
+                await(release);
+                throw new IllegalArgumentException("No NutritionLog found!");
+            })));
+        }
+        awaitJoined(singleFlight, 2);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        }
+        assertEquals("computed again", singleFlight.run("log-1", () -> "computed again"));
+    }
+
+    @Test
+    void testOtherKeysAndDisabledLayerComputeOnTheirOwn() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(true);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> singleFlight.run("log-1", () -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        assertEquals("second", singleFlight.run("log-2", () -> "second"));
+        release.countDown();
+        assertEquals("first", first.get(10, TimeUnit.SECONDS));
+        assertEquals(0, singleFlight.getJoinedCount());
+
+        SingleFlight disabled = new SingleFlight(false);
+        AtomicInteger computations = new AtomicInteger();
+        List<Callable<Integer>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(() -> disabled.run("log-1", computations::incrementAndGet));
+        }
+        executor.invokeAll(callers);
+        assertEquals(CALLERS, computations.get());
+        assertEquals(CALLERS, disabled.getComputedCount());
+        assertEquals(0, disabled.getJoinedCount());
+    }
+
+    private static void awaitJoined(SingleFlight singleFlight, int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (singleFlight.getJoinedCount() < callers) {
+            assertTrue(System.nanoTime() < deadline, "only " + singleFlight.getJoinedCount() + " callers joined");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.NutritionTracker.testSupport;
+
+import com.example.NutritionTracker.dto.NutritionLogCreateDTO;
+import com.example.NutritionTracker.dto.UserDTO;
+import com.example.NutritionTracker.entity.NutritionLog;
+import com.example.NutritionTracker.repo.NutritionLogRepository;
+import com.example.NutritionTracker.service.NutritionHistoryService;
+import com.example.NutritionTracker.service.NutritionLogService;
+import com.example.NutritionTracker.service.UserDataService;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test extension that creates logs of the current user for the days a test needs, and deletes them together with
+ * any other tracked log after each test, rebuilding the rollups so that the next test starts from the seeded data.
+ * Registered on a Spring test with {@code @RegisterExtension}.
+ */
+public class CreatedLogs implements BeforeEachCallback, AfterEachCallback {
+
+    private final List<UUID> created = new ArrayList<>();
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        applicationContext = SpringExtension.getApplicationContext(context);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        try {
+            applicationContext.getBean(NutritionLogRepository.class).deleteAllById(created);
+            applicationContext.getBean(NutritionHistoryService.class).rebuildRollups();
+        } finally {
+            created.clear();
+        }
+    }
+
+    /**
+     * Creates the log of the current user for a day, as the frontend does.
+     *
+     * @param day The day of the log.
+     * @return The created log, deleted after the test.
+     */
+    public NutritionLog create(LocalDate day) {
+        UUID userId = applicationContext.getBean(UserDataService.class).getUser().map(UserDTO::getId).orElseThrow();
+        NutritionLog nutritionLog = applicationContext.getBean(NutritionLogService.class)
+                .createLogFromFrontend(new NutritionLogCreateDTO(userId, day));
+        created.add(nutritionLog.getId());
+        return nutritionLog;
+    }
+
+    /**
+     * Returns the tracked logs in the order they were created.
+     *
+     * @return The UUIDs of the logs deleted after the test.
+     */
+    public List<UUID> ids() {
+        return List.copyOf(created);
+    }
+
+    /**
+     * Tracks a log created by the test itself, so that it is deleted after the test.
+     *
+     * @param logId The UUID of the log.
+     */
+    public void add(UUID logId) {
+        created.add(logId);
+    }
+}
@@ -51,9 +51,7 @@ describe("Full End-to-End Test for Nutrition Tracker", () => {
     });
 
     // Intercept backend API calls
-    cy.intercept("POST", "/api/amino-profile/sum").as("aminoProfileSum");
-    cy.intercept("GET", "/api/amino-profile/daily-needs").as("dailyNeeds");
-    cy.intercept("POST", "/api/amino-profile/coverage").as("coverage");
+    cy.intercept("GET", "/api/amino-profile/summary").as("aminoProfileSummary");
 
     // Ensure the calculate button is visible before clicking
     cy.get('[data-cy="calculate-button"]', { timeout: 10000 })
@@ -61,9 +59,7 @@ describe("Full End-to-End Test for Nutrition Tracker", () => {
       .click();
 
     // Wait for backend responses and verify 200 OK
-    cy.wait("@aminoProfileSum").its("response.statusCode").should("eq", 200);
-    cy.wait("@dailyNeeds").its("response.statusCode").should("eq", 200);
-    cy.wait("@coverage").its("response.statusCode").should("eq", 200);
+    cy.wait("@aminoProfileSummary").its("response.statusCode").should("eq", 200);
 
     // Check for navigation to the result view
     cy.url({ timeout: 10000 }).should("include", "/results");